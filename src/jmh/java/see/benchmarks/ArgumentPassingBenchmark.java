@@ -0,0 +1,79 @@
+package see.benchmarks;
+
+import com.google.common.collect.ImmutableMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import see.See;
+import see.evaluation.Evaluator;
+import see.evaluation.evaluators.SimpleEvaluator;
+import see.parser.config.GrammarConfiguration;
+import see.tree.Node;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static see.parser.config.ConfigBuilder.defaultConfig;
+
+/**
+ * Cost of passing arguments to builtin and user functions.
+ * Run with -prof gc to see allocation per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArgumentPassingBenchmark {
+    private static final String ARITHMETIC = "a * b + c - a / 2 > b";
+    private static final String CLOSURES = "fold(0, map(items, x => x * 2), (acc, x) => acc + x)";
+
+    private See see;
+    private Evaluator interpreter;
+    private Node<Object> arithmetic;
+    private Node<Object> closures;
+    private Map<String, Object> variables;
+
+    @Setup
+    public void setUp() {
+        GrammarConfiguration config = defaultConfig().build();
+        see = new See(config);
+        interpreter = SimpleEvaluator.fromConfig(config);
+        arithmetic = see.parseExpression(ARITHMETIC);
+        closures = see.parseExpression(CLOSURES);
+
+        variables = ImmutableMap.<String, Object>of(
+                "a", Datasets.numbers(1).get(0),
+                "b", Datasets.numbers(2).get(1),
+                "c", Datasets.numbers(3).get(2),
+                "items", Datasets.numbers(Datasets.CORPUS_SIZE));
+    }
+
+    @Benchmark
+    public Object compiledArithmetic() {
+        return see.evaluate(arithmetic, variables);
+    }
+
+    @Benchmark
+    public Object interpretedArithmetic() {
+        return interpreter.evaluate(arithmetic, variables);
+    }
+
+    @Benchmark
+    public Object compiledClosures() {
+        return see.evaluate(closures, variables);
+    }
+
+    @Benchmark
+    public Object interpretedClosures() {
+        return interpreter.evaluate(closures, variables);
+    }
+}
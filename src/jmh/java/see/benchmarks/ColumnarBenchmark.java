@@ -0,0 +1,78 @@
+package see.benchmarks;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import see.See;
+import see.evaluation.columns.Column;
+import see.tree.Node;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static see.parser.config.ConfigBuilder.doubleConfig;
+
+/**
+ * Same expression over a table, evaluated by columns and row by row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColumnarBenchmark {
+    private static final String EXPRESSION = "if (price * qty > 100 && !vip, price * qty * 0.9, price * qty)";
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    private See see;
+    private Node<Object> tree;
+    private Map<String, Column> columns;
+    private List<Map<String, ?>> table;
+
+    @Setup
+    public void setUp() {
+        see = new See(doubleConfig().build());
+        tree = see.parseExpression(EXPRESSION);
+
+        Random random = new Random(Datasets.SEED);
+        double[] prices = new double[rows];
+        long[] quantities = new long[rows];
+        boolean[] vip = new boolean[rows];
+        table = Lists.newArrayListWithCapacity(rows);
+        for (int i = 0; i < rows; i++) {
+            prices[i] = random.nextInt(10000) / 100.0;
+            quantities[i] = random.nextInt(10);
+            vip[i] = random.nextBoolean();
+            table.add(ImmutableMap.of("price", prices[i], "qty", (double) quantities[i], "vip", vip[i]));
+        }
+        columns = ImmutableMap.of(
+                "price", Column.doubles(prices),
+                "qty", Column.longs(quantities),
+                "vip", Column.booleans(vip));
+    }
+
+    @Benchmark
+    public Object columns() {
+        return see.evaluateColumns(tree, columns);
+    }
+
+    @Benchmark
+    public Object rows() {
+        return see.evaluateBatch(tree, table);
+    }
+}
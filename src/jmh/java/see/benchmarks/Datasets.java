@@ -0,0 +1,175 @@
+package see.benchmarks;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Benchmark inputs. Everything is either a literal or generated from a fixed seed,
+ * so results of different releases are measured on identical data.
+ */
+public final class Datasets {
+    public static final long SEED = 20120401L;
+
+    /**
+     * Size of every expression corpus.
+     */
+    public static final int CORPUS_SIZE = 5;
+
+    public static final List<String> SIMPLE_EXPRESSIONS = ImmutableList.of(
+            "a + b * 2",
+            "price * (1 + tax / 100) - discount",
+            "max(a, b, c) >= limit && !(a == b) || c < 0",
+            "if(x > 0, x * x, -x)",
+            "order.customer.address.city"
+    );
+
+    public static final List<String> SCRIPTS = ImmutableList.of(
+            "a = 1; b = a + 2; c = a * b;",
+            "if (x > 0) { y = sum(1, 2, 3); } else { y = -x; }",
+            "s = 0; for (i : items) { s = s + i; }",
+            "f = (a, b) => a * b + 1; for (i : [1, 2, 3]) { s = s + f(i, x); }",
+            "i = 0; while (i < 10) { i = i + 1; }"
+    );
+
+    public static final List<String> CALC_EXPRESSIONS = ImmutableList.of(
+            "return a + b;",
+            "base = price * qty; return base - base * discount / 100;",
+            "s = 0; for (i : items) { s = s + i; } return s;",
+            "f = x => x * 2; return f(a) + f(b);",
+            "t = if(a > b, a, b); return t * t;"
+    );
+
+    private Datasets() {
+    }
+
+    /**
+     * Numbers in [0, 1000) with two decimal digits.
+     * @param size list size
+     * @return generated list
+     */
+    public static List<BigDecimal> numbers(int size) {
+        Random random = new Random(SEED);
+        List<BigDecimal> result = Lists.newArrayListWithCapacity(size);
+        for (int i = 0; i < size; i++) {
+            result.add(BigDecimal.valueOf(random.nextInt(100000), 2));
+        }
+        return result;
+    }
+
+    /**
+     * Orders as java beans: order.customer.address.city, order.items[i].price
+     * @param size number of orders
+     * @return generated orders
+     */
+    public static List<Order> beans(int size) {
+        Random random = new Random(SEED);
+        List<Order> result = Lists.newArrayListWithCapacity(size);
+        for (int i = 0; i < size; i++) {
+            Address address = new Address("city" + random.nextInt(100));
+            Customer customer = new Customer("customer" + i, address);
+            List<Item> items = Lists.newArrayList();
+            int itemCount = 1 + random.nextInt(5);
+            for (int j = 0; j < itemCount; j++) {
+                items.add(new Item(BigDecimal.valueOf(random.nextInt(10000), 2)));
+            }
+            result.add(new Order(customer, items));
+        }
+        return result;
+    }
+
+    /**
+     * Same orders as {@link #beans(int)}, represented as nested maps and lists.
+     * @param size number of orders
+     * @return generated orders
+     */
+    public static List<Map<String, Object>> maps(int size) {
+        List<Map<String, Object>> result = Lists.newArrayListWithCapacity(size);
+        for (Order order : beans(size)) {
+            Map<String, Object> address = Maps.newHashMap();
+            address.put("city", order.getCustomer().getAddress().getCity());
+
+            Map<String, Object> customer = Maps.newHashMap();
+            customer.put("name", order.getCustomer().getName());
+            customer.put("address", address);
+
+            List<Object> items = Lists.newArrayList();
+            for (Item item : order.getItems()) {
+                Map<String, Object> itemMap = Maps.newHashMap();
+                itemMap.put("price", item.getPrice());
+                items.add(itemMap);
+            }
+
+            Map<String, Object> orderMap = Maps.newHashMap();
+            orderMap.put("customer", customer);
+            orderMap.put("items", items);
+            result.add(orderMap);
+        }
+        return result;
+    }
+
+    public static class Order {
+        private final Customer customer;
+        private final List<Item> items;
+
+        public Order(Customer customer, List<Item> items) {
+            this.customer = customer;
+            this.items = items;
+        }
+
+        public Customer getCustomer() {
+            return customer;
+        }
+
+        public List<Item> getItems() {
+            return items;
+        }
+    }
+
+    public static class Customer {
+        private final String name;
+        private final Address address;
+
+        public Customer(String name, Address address) {
+            this.name = name;
+            this.address = address;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Address getAddress() {
+            return address;
+        }
+    }
+
+    public static class Address {
+        private final String city;
+
+        public Address(String city) {
+            this.city = city;
+        }
+
+        public String getCity() {
+            return city;
+        }
+    }
+
+    public static class Item {
+        private final BigDecimal price;
+
+        public Item(BigDecimal price) {
+            this.price = price;
+        }
+
+        public BigDecimal getPrice() {
+            return price;
+        }
+    }
+}
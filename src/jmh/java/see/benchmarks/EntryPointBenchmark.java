@@ -0,0 +1,62 @@
+package see.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import see.See;
+import see.parser.ParseCache;
+import see.parser.config.ConfigBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse throughput per grammar entry point, over a fixed corpus of {@link Datasets#CORPUS_SIZE} inputs.
+ * Parse cache is disabled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntryPointBenchmark {
+    private See see;
+
+    @Setup
+    public void setUp() {
+        see = new See(ConfigBuilder.defaultConfig().build(), ParseCache.disabled());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Datasets.CORPUS_SIZE)
+    public void simple(Blackhole blackhole) {
+        for (String expression : Datasets.SIMPLE_EXPRESSIONS) {
+            blackhole.consume(see.parseExpression(expression));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Datasets.CORPUS_SIZE)
+    public void script(Blackhole blackhole) {
+        for (String expression : Datasets.SCRIPTS) {
+            blackhole.consume(see.parseExpressionList(expression));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Datasets.CORPUS_SIZE)
+    public void calcExpression(Blackhole blackhole) {
+        for (String expression : Datasets.CALC_EXPRESSIONS) {
+            blackhole.consume(see.parseReturnExpression(expression));
+        }
+    }
+}
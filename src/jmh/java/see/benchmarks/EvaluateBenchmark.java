@@ -0,0 +1,66 @@
+package see.benchmarks;
+
+import com.google.common.collect.ImmutableMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import see.See;
+import see.tree.Node;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluation of pre-parsed trees: arithmetic, iteration over a collection and closure calls in a loop.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluateBenchmark {
+    private static final Map<String, String> WORKLOADS = ImmutableMap.of(
+            "arithmetic", "(price * (1 + tax / 100) - discount) * qty + max(price, discount) / 2;",
+            "collection", "s = 0; for (i : items) { if (i > 500) { s = s + i; } } s;",
+            "closure", "f = (a, b) => a * b + 1; s = 0; for (i : items) { s = s + f(i, x); } s;"
+    );
+
+    @Param({"arithmetic", "collection", "closure"})
+    public String workload;
+
+    @Param({"100"})
+    public int items;
+
+    private See see;
+    private Node<Object> tree;
+    private Map<String, Object> variables;
+
+    @Setup
+    public void setUp() {
+        see = new See();
+        tree = see.parseExpressionList(WORKLOADS.get(workload));
+        variables = ImmutableMap.<String, Object>builder()
+                .put("price", new BigDecimal("120.50"))
+                .put("tax", new BigDecimal(18))
+                .put("discount", new BigDecimal("7.25"))
+                .put("qty", new BigDecimal(3))
+                .put("x", new BigDecimal(2))
+                .put("items", Datasets.numbers(items))
+                .build();
+    }
+
+    @Benchmark
+    public Object evaluate() {
+        return see.evaluate(tree, variables);
+    }
+}
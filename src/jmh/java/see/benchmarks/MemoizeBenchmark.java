@@ -0,0 +1,71 @@
+package see.benchmarks;
+
+import com.google.common.collect.ImmutableMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import see.See;
+import see.functions.opt.Memoize;
+import see.tree.Node;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static see.parser.config.ConfigBuilder.defaultConfig;
+
+/**
+ * Memoized recursive fibonacci.
+ * Cold run defines the function anew, so every call fills an empty cache; warm run reuses a filled cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemoizeBenchmark {
+    private static final String FIB = "fib = memoize(function(n) { if(n == 0 || n == 1, n, fib(n-2) + fib(n-1)); })";
+
+    @Param({"20", "50"})
+    public int n;
+
+    private See see;
+    private Node<Object> cold;
+    private Node<Object> warm;
+    private Map<String, Object> coldVariables;
+    private Map<String, Object> warmVariables;
+
+    @Setup
+    public void setUp() {
+        see = new See(defaultConfig()
+                .addFunction("memoize", Memoize.memoizeFunction())
+                .build()
+        );
+        cold = see.parseExpressionList(FIB + "; fib(target);");
+        warm = see.parseExpression("fib(target)");
+
+        BigDecimal target = new BigDecimal(n);
+        coldVariables = ImmutableMap.<String, Object>of("target", target);
+        warmVariables = ImmutableMap.of("fib", see.eval(FIB), "target", target);
+        see.evaluate(warm, warmVariables);
+    }
+
+    @Benchmark
+    public Object cold() {
+        return see.evaluate(cold, coldVariables);
+    }
+
+    @Benchmark
+    public Object warm() {
+        return see.evaluate(warm, warmVariables);
+    }
+}
@@ -0,0 +1,98 @@
+package see.benchmarks;
+
+import com.google.common.collect.Maps;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import see.See;
+import see.evaluation.Context;
+import see.evaluation.compiler.CompiledExpression;
+import see.evaluation.evaluators.SimpleContext;
+import see.evaluation.scopes.Scopes;
+import see.parser.config.ConfigBuilder;
+import see.parser.config.GrammarConfiguration;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static see.evaluation.evaluators.SimpleEvaluator.extractServices;
+
+/**
+ * Scoring-style arithmetic: BigDecimal default configuration vs double configuration.
+ * Both evaluate compiled expressions, either through See facade or directly against a prepared context.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NumericBenchmark {
+
+    @Param({
+            "price * (1 + tax / 100) - discount * 2",
+            "(a * 0.3 + b * 0.5 + c * 0.2) / (1 + a * b) > 0.5",
+            "a ^ 2 + b ^ 2 - 2 * a * b * c"
+    })
+    public String expression;
+
+    private See decimalSee;
+    private See doubleSee;
+    private CompiledExpression<Object> decimalExpression;
+    private CompiledExpression<Object> doubleExpression;
+    private Map<String, Object> decimalVariables;
+    private Map<String, Object> doubleVariables;
+    private Context decimalContext;
+    private Context doubleContext;
+
+    @Setup
+    public void setUp() {
+        GrammarConfiguration decimalConfig = ConfigBuilder.defaultConfig().build();
+        GrammarConfiguration doubleConfig = ConfigBuilder.doubleConfig().build();
+        decimalSee = new See(decimalConfig);
+        doubleSee = new See(doubleConfig);
+        decimalExpression = decimalSee.compile(decimalSee.parseExpression(expression));
+        doubleExpression = doubleSee.compile(doubleSee.parseExpression(expression));
+
+        decimalVariables = Maps.newHashMap();
+        doubleVariables = Maps.newHashMap();
+        String[] names = {"price", "tax", "discount", "a", "b", "c"};
+        double[] values = {100.5, 18, 2.25, 0.75, 1.5, 0.125};
+        for (int i = 0; i < names.length; i++) {
+            decimalVariables.put(names[i], BigDecimal.valueOf(values[i]));
+            doubleVariables.put(names[i], values[i]);
+        }
+
+        decimalContext = SimpleContext.create(Scopes.fromMap(decimalVariables), extractServices(decimalConfig));
+        doubleContext = SimpleContext.create(Scopes.fromMap(doubleVariables), extractServices(doubleConfig));
+    }
+
+    @Benchmark
+    public Object bigDecimal() {
+        return decimalSee.evaluate(decimalExpression, decimalVariables);
+    }
+
+    @Benchmark
+    public Object primitiveDouble() {
+        return doubleSee.evaluate(doubleExpression, doubleVariables);
+    }
+
+    @Benchmark
+    public Object bigDecimalInContext() {
+        return decimalExpression.evaluate(decimalContext);
+    }
+
+    @Benchmark
+    public Object primitiveDoubleInContext() {
+        return doubleExpression.evaluate(doubleContext);
+    }
+}
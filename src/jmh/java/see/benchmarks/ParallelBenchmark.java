@@ -0,0 +1,72 @@
+package see.benchmarks;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import see.See;
+import see.tree.Node;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parallel evaluation of one tree over many rows, scaling with number of threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelBenchmark {
+    private static final String SCRIPT = "total = price * qty; if (total > 100) { total * 0.9; } else { total; }";
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private See see;
+    private Node<Object> tree;
+    private List<Map<String, ?>> rows;
+    private ExecutorService executor;
+
+    @Setup
+    public void setUp() {
+        see = new See();
+        tree = see.parseExpressionList(SCRIPT);
+
+        Random random = new Random(Datasets.SEED);
+        rows = Lists.newArrayList();
+        for (int i = 0; i < 10000; i++) {
+            rows.add(ImmutableMap.of(
+                    "price", new BigDecimal(random.nextInt(10000)).movePointLeft(2),
+                    "qty", new BigDecimal(random.nextInt(10))));
+        }
+        executor = Executors.newFixedThreadPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public Object evaluateAll() {
+        return see.evaluateAll(tree, rows, executor);
+    }
+}
@@ -0,0 +1,67 @@
+package see.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import see.See;
+import see.parser.ParseCache;
+import see.parser.ScalaParser;
+import see.parser.SharedGrammar;
+import see.parser.config.ConfigBuilder;
+import see.parser.config.GrammarConfiguration;
+import see.parser.grammar.AltEntryPoints;
+import see.tree.Node;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-parse cost: grammar rebuilt for every parse, shared pre-built grammar, recursive descent fast path.
+ * Parse cache is disabled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+
+    @Param({
+            "a + b * 2;",
+            "if (x > 0) { y = sum(1, 2, 3); } else { y = -x; }",
+            "f = (a, b) => a * b + 1; for (i : [1, 2, 3]) { s = s + f(i, x); }"
+    })
+    public String expression;
+
+    private GrammarConfiguration config;
+    private See see;
+
+    @Setup
+    public void setUp() {
+        config = ConfigBuilder.defaultConfig().build();
+        see = new See(config, ParseCache.disabled());
+    }
+
+    @Benchmark
+    public Object rebuiltGrammar() {
+        return new ScalaParser(AltEntryPoints.apply(config).Script()).parse(expression);
+    }
+
+    @Benchmark
+    public Object sharedGrammar() {
+        return new ScalaParser(SharedGrammar.forConfig(config).getScript()).parse(expression);
+    }
+
+    @Benchmark
+    public Node<Object> fastParser() {
+        return see.parseExpressionList(expression);
+    }
+}
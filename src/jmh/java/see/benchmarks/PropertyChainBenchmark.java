@@ -0,0 +1,117 @@
+package see.benchmarks;
+
+import com.google.common.collect.ImmutableList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import see.parser.config.ConfigBuilder;
+import see.parser.config.DefaultConfig;
+import see.parser.grammar.PropertyAccess;
+import see.properties.ChainResolver;
+import see.properties.InlineCachingResolver;
+import see.properties.impl.CompilingChainResolver;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static see.parser.grammar.PropertyAccess.indexed;
+import static see.parser.grammar.PropertyAccess.simple;
+
+/**
+ * Default {@link ChainResolver} over the same orders as java beans and as nested maps,
+ * walking property chains and list indexes. Site variant uses per-site inline caches,
+ * compiled variant uses direct accessors of {@link CompilingChainResolver}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyChainBenchmark {
+    private static final int ORDERS = 100;
+
+    /** order.customer.address.city */
+    private static final List<PropertyAccess> CITY = ImmutableList.<PropertyAccess>of(
+            simple("customer"), simple("address"), simple("city"));
+
+    /** order.items[0].price */
+    private static final List<PropertyAccess> FIRST_PRICE = ImmutableList.<PropertyAccess>of(
+            simple("items"), indexed(BigDecimal.ZERO), simple("price"));
+
+    /** orders[i].customer.name, list of orders is the target */
+    private List<List<PropertyAccess>> fromList;
+
+    @Param({"beans", "maps"})
+    public String representation;
+
+    private ChainResolver resolver;
+    private ChainResolver siteResolver;
+    private ChainResolver compiledSiteResolver;
+    private List<?> orders;
+
+    @Setup
+    public void setUp() {
+        resolver = ConfigBuilder.defaultConfig().build().getChainResolver();
+        compiledSiteResolver = new CompilingChainResolver(DefaultConfig.defaultChainResolver()).forSite();
+        siteResolver = resolver instanceof InlineCachingResolver ? ((InlineCachingResolver) resolver).forSite() : resolver;
+        orders = "beans".equals(representation) ? Datasets.beans(ORDERS) : Datasets.maps(ORDERS);
+
+        ImmutableList.Builder<List<PropertyAccess>> chains = ImmutableList.builder();
+        for (int i = 0; i < ORDERS; i++) {
+            chains.add(ImmutableList.<PropertyAccess>of(indexed(new BigDecimal(i)), simple("customer"), simple("name")));
+        }
+        fromList = chains.build();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public void nestedProperties(Blackhole blackhole) {
+        for (Object order : orders) {
+            blackhole.consume(resolver.get(order, CITY));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public void nestedPropertiesAtSite(Blackhole blackhole) {
+        for (Object order : orders) {
+            blackhole.consume(siteResolver.get(order, CITY));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public void nestedPropertiesCompiled(Blackhole blackhole) {
+        for (Object order : orders) {
+            blackhole.consume(compiledSiteResolver.get(order, CITY));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public void listIndex(Blackhole blackhole) {
+        for (Object order : orders) {
+            blackhole.consume(resolver.get(order, FIRST_PRICE));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public void indexIntoList(Blackhole blackhole) {
+        for (List<PropertyAccess> chain : fromList) {
+            blackhole.consume(resolver.get(orders, chain));
+        }
+    }
+}
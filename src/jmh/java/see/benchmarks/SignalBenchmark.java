@@ -0,0 +1,146 @@
+package see.benchmarks;
+
+import com.google.common.base.Function;
+import com.google.common.base.Supplier;
+import com.google.common.collect.ImmutableList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import see.reactive.Signal;
+import see.reactive.SignalFactory;
+import see.reactive.VariableSignal;
+import see.reactive.impl.OrderedSignalFactory;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Change propagation in {@link OrderedSignalFactory}.
+ * Wide graph: one variable, N mapped signals joined by a single sum.
+ * Deep graph: chain of N mapped signals on top of one variable.
+ * Diamond graph: chain of N diamonds, each splits previous signal into two mapped signals and joins them.
+ * Fan-in graph: N variables joined by a single sum, all set in one transaction.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SignalBenchmark {
+    private static final Function<Integer, Integer> INCREMENT = new Function<Integer, Integer>() {
+        @Override
+        public Integer apply(Integer input) {
+            return input + 1;
+        }
+    };
+
+    @Param({"wide", "deep", "diamond", "fanIn"})
+    public String shape;
+
+    @Param({"10", "100"})
+    public int size;
+
+    private Signal<Integer> sink;
+    private Runnable update;
+    private int counter;
+
+    @Setup
+    public void setUp() {
+        final SignalFactory factory = new OrderedSignalFactory();
+        if ("fanIn".equals(shape)) {
+            final List<VariableSignal<Integer>> sources = variables(factory, size);
+            sink = sum(factory, sources);
+            final Runnable setAll = new Runnable() {
+                @Override
+                public void run() {
+                    counter++;
+                    for (VariableSignal<Integer> source : sources) {
+                        source.set(counter);
+                    }
+                }
+            };
+            update = new Runnable() {
+                @Override
+                public void run() {
+                    factory.transaction(setAll);
+                }
+            };
+            return;
+        }
+
+        final VariableSignal<Integer> source = factory.var(0);
+        if ("wide".equals(shape)) {
+            sink = wide(factory, source, size);
+        } else if ("deep".equals(shape)) {
+            sink = deep(factory, source, size);
+        } else {
+            sink = diamond(factory, source, size);
+        }
+        update = new Runnable() {
+            @Override
+            public void run() {
+                source.set(++counter);
+            }
+        };
+    }
+
+    private static Signal<Integer> wide(SignalFactory factory, Signal<Integer> source, int size) {
+        ImmutableList.Builder<Signal<Integer>> builder = ImmutableList.builder();
+        for (int i = 0; i < size; i++) {
+            builder.add(factory.map(source, INCREMENT));
+        }
+        return sum(factory, builder.build());
+    }
+
+    private static Signal<Integer> sum(SignalFactory factory, final List<? extends Signal<Integer>> signals) {
+        return factory.bind(signals, new Supplier<Integer>() {
+            @Override
+            public Integer get() {
+                int sum = 0;
+                for (Signal<Integer> signal : signals) {
+                    sum += signal.now();
+                }
+                return sum;
+            }
+        });
+    }
+
+    private static List<VariableSignal<Integer>> variables(SignalFactory factory, int size) {
+        ImmutableList.Builder<VariableSignal<Integer>> builder = ImmutableList.builder();
+        for (int i = 0; i < size; i++) {
+            builder.add(factory.var(0));
+        }
+        return builder.build();
+    }
+
+    private static Signal<Integer> deep(SignalFactory factory, Signal<Integer> source, int size) {
+        Signal<Integer> last = source;
+        for (int i = 0; i < size; i++) {
+            last = factory.map(last, INCREMENT);
+        }
+        return last;
+    }
+
+    private static Signal<Integer> diamond(SignalFactory factory, Signal<Integer> source, int size) {
+        Signal<Integer> last = source;
+        for (int i = 0; i < size; i++) {
+            last = sum(factory, ImmutableList.of(factory.map(last, INCREMENT), factory.map(last, INCREMENT)));
+        }
+        return last;
+    }
+
+    @Benchmark
+    public Integer propagate() {
+        update.run();
+        return sink.now();
+    }
+}
@@ -0,0 +1,11 @@
+/**
+ * JMH benchmarks.
+ *
+ * Run with {@code mvn test-compile exec:exec -P benchmarks}, results are written to {@code target/jmh-result.json}.
+ * Pass JMH options through {@code -Djmh.args}, e.g. {@code -Djmh.args="Signal -rf json -rff signal.json"}.
+ *
+ * Inputs come from {@link see.benchmarks.Datasets}: fixed corpora and data generated from a fixed seed.
+ * To compare releases, run the same benchmarks on both and diff the json files,
+ * i.e. load both into a JMH visualizer.
+ */
+package see.benchmarks;
@@ -17,8 +17,11 @@
 package see;
 
 import com.google.common.collect.Maps;
+import see.evaluation.ContextEvaluator;
 import see.evaluation.Evaluator;
+import see.evaluation.evaluators.CompilingContextEvaluator;
 import see.evaluation.evaluators.SimpleEvaluator;
+import see.parser.ParseCache;
 import see.parser.config.ConfigBuilder;
 import see.parser.config.GrammarConfiguration;
 import see.reactive.SignalFactory;
@@ -41,16 +44,28 @@ public class ReactiveSee {
     private final See see;
     private final SignalFactory signalFactory;
     private final GrammarConfiguration config;
+    private final ContextEvaluator contextEvaluator;
 
     /**
-     * Create new instance, custom See instance and reactive factory.
+     * Create new instance with custom configuration, reactive factory and parse cache.
      * @param configuration see configuration
      * @param factory reactive factory
+     * @param parseCache parse result cache
      */
-    public ReactiveSee(GrammarConfiguration configuration, SignalFactory factory) {
-        this.see = new See(configuration);
+    public ReactiveSee(GrammarConfiguration configuration, SignalFactory factory, ParseCache parseCache) {
+        this.see = new See(configuration, parseCache);
         this.signalFactory = factory;
         this.config = configuration;
+        this.contextEvaluator = CompilingContextEvaluator.fromServices(extractServices(configuration));
+    }
+
+    /**
+     * Create new instance, custom See instance and reactive factory.
+     * @param configuration see configuration
+     * @param factory reactive factory
+     */
+    public ReactiveSee(GrammarConfiguration configuration, SignalFactory factory) {
+        this(configuration, factory, ParseCache.lru(See.DEFAULT_PARSE_CACHE_SIZE));
     }
 
     /**
@@ -84,6 +99,14 @@ public class ReactiveSee {
         return signalFactory;
     }
 
+    /**
+     * Get parse result cache.
+     * @return parse cache
+     */
+    public ParseCache getParseCache() {
+        return see.getParseCache();
+    }
+
     /**
      * Parse a single expression
      *
@@ -118,7 +141,8 @@ public class ReactiveSee {
                 extractScope(config),
                 builder().putAll(extractServices(config))
                         .put(SignalFactory.class, signalFactory)
-                        .build()
+                        .build(),
+                contextEvaluator
         );
         return evaluator.evaluate(tree, context);
     }
@@ -1,38 +1,76 @@
 package see;
 
+import com.google.common.collect.ImmutableMap;
 import org.parboiled.Rule;
 import org.parboiled.scala.rules.Rule1;
-import see.evaluation.Evaluator;
+import see.evaluation.BatchResult;
+import see.evaluation.columns.Column;
+import see.evaluation.compiler.CompiledExpression;
+import see.evaluation.compiler.ExpressionCompiler;
 import see.evaluation.evaluators.SimpleEvaluator;
 import see.parser.BasicParser;
+import see.parser.ConstantFolder;
+import see.parser.EntryPoint;
+import see.parser.FastParser;
+import see.parser.ParseCache;
 import see.parser.Parser;
 import see.parser.ScalaParser;
+import see.parser.SharedGrammar;
 import see.parser.config.ConfigBuilder;
 import see.parser.config.GrammarConfiguration;
-import see.parser.grammar.AltEntryPoints;
 import see.tree.Node;
 import see.tree.Untyped;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 
 /**
  * Facade to parse/evaluate operations.
  * All operations are thread-safe. Parse results are immutable and can be reused/cached between different instances.
+ * Parsed trees are constant-folded with functions of this instance, see {@link ConstantFolder}.
  */
 @SuppressWarnings("UnusedDeclaration")
 public class See {
 
+    /**
+     * Default maximum number of cached parse results per instance
+     */
+    public static final int DEFAULT_PARSE_CACHE_SIZE = 1000;
+
     private final GrammarConfiguration config;
-    private final Evaluator evaluator;
+    private final SharedGrammar grammar;
+    private final ParseCache parseCache;
+    private final ConstantFolder folder;
+    private final SimpleEvaluator evaluator;
+    private final ExpressionCompiler compiler;
 
     public See() {
         this(ConfigBuilder.defaultConfig().build());
     }
 
     public See(GrammarConfiguration config) {
+        this(config, ParseCache.lru(DEFAULT_PARSE_CACHE_SIZE));
+    }
+
+    /**
+     * Create instance with custom parse cache.
+     * Use {@link ParseCache#disabled()} to parse every expression anew.
+     *
+     * @param config grammar configuration
+     * @param parseCache parse result cache, can be shared between instances
+     */
+    public See(GrammarConfiguration config, ParseCache parseCache) {
         this.config = config;
-        this.evaluator = SimpleEvaluator.fromConfig(config);
+        this.grammar = SharedGrammar.forConfig(config);
+        this.parseCache = parseCache;
+        this.folder = new ConstantFolder(config);
+        this.evaluator = SimpleEvaluator.compiling(config);
+        this.compiler = evaluator.createCompiler();
     }
 
     /**
@@ -42,7 +80,7 @@ public class See {
      * @return parsed tree
      */
     public Node<Object> parseExpression(String expression) {
-        return parse(expression, getGrammar().Simple());
+        return parse(expression, EntryPoint.SIMPLE);
     }
 
     /**
@@ -52,7 +90,7 @@ public class See {
      * @return parsed tree
      */
     public Node<Object> parseExpressionList(String expression) {
-        return parse(expression, getGrammar().Script());
+        return parse(expression, EntryPoint.SCRIPT);
     }
 
     /**
@@ -62,7 +100,7 @@ public class See {
      * @return parsed tree
      */
     public Node<Object> parseReturnExpression(String expression) {
-        return parse(expression, getGrammar().CalcExpression());
+        return parse(expression, EntryPoint.CALC_EXPRESSION);
     }
 
     /**
@@ -88,6 +126,157 @@ public class See {
         return evaluator.evaluate(tree, new HashMap<String, Object>());
     }
 
+    /**
+     * Compile tree for repeated evaluation.
+     * Compiled expression can be cached and reused between threads, same as the tree.
+     *
+     * @param tree tree to compile
+     * @param <T> return type
+     * @return compiled expression
+     */
+    public <T> CompiledExpression<T> compile(Node<T> tree) {
+        return compiler.compile(tree);
+    }
+
+    /**
+     * Evaluate compiled expression with supplied variables.
+     * Gives same result as evaluation of source tree.
+     *
+     * @param expression compiled expression
+     * @param context variable->value mapping
+     * @param <T> return type
+     * @return evaluated value
+     */
+    public <T> T evaluate(CompiledExpression<T> expression, Map<String, ?> context) {
+        return evaluator.evaluate(expression, context);
+    }
+
+    /**
+     * Evaluate tree once per row.
+     * Tree is prepared once, each row is evaluated in own scope, so assignments do not leak between rows.
+     *
+     * @param tree tree to evaluate
+     * @param rows variable->value mappings, one per evaluation
+     * @param <T> return type
+     * @return evaluated values, in row order
+     */
+    public <T> List<T> evaluateBatch(Node<T> tree, Collection<? extends Map<String, ?>> rows) {
+        return evaluateBatch(tree, ImmutableMap.<String, Object>of(), rows);
+    }
+
+    /**
+     * Evaluate tree once per row, with variables common for all rows.
+     * Row variables override shared ones.
+     *
+     * @param tree tree to evaluate
+     * @param shared variable->value mapping, common for all rows
+     * @param rows variable->value mappings, one per evaluation
+     * @param <T> return type
+     * @return evaluated values, in row order
+     */
+    public <T> List<T> evaluateBatch(Node<T> tree, Map<String, ?> shared, Collection<? extends Map<String, ?>> rows) {
+        Object[] results = new Object[rows.size()];
+        evaluator.evaluateBatch(tree, shared, rows, results);
+        return asList(results);
+    }
+
+    /**
+     * Evaluate tree once per row, storing results into supplied array.
+     *
+     * @param tree tree to evaluate
+     * @param shared variable->value mapping, common for all rows
+     * @param rows variable->value mappings, one per evaluation
+     * @param results destination, should be at least as long as rows
+     * @param <T> return type
+     */
+    public <T> void evaluateBatch(Node<T> tree, Map<String, ?> shared, Iterable<? extends Map<String, ?>> rows,
+                                  T[] results) {
+        evaluator.evaluateBatch(tree, shared, rows, results);
+    }
+
+    /**
+     * Evaluate tree once per item, with item bound to a variable.
+     * Equivalent to evaluateBatch with single-variable rows, but doesn't require building them.
+     *
+     * @param tree tree to evaluate
+     * @param variable variable name for item
+     * @param items items to evaluate
+     * @param <T> return type
+     * @return evaluated values, in item order
+     */
+    public <T> List<T> evaluateEach(Node<T> tree, String variable, Collection<?> items) {
+        return evaluateEach(tree, ImmutableMap.<String, Object>of(), variable, items);
+    }
+
+    /**
+     * Evaluate tree once per item, with item bound to a variable and variables common for all items.
+     *
+     * @param tree tree to evaluate
+     * @param shared variable->value mapping, common for all items
+     * @param variable variable name for item
+     * @param items items to evaluate
+     * @param <T> return type
+     * @return evaluated values, in item order
+     */
+    public <T> List<T> evaluateEach(Node<T> tree, Map<String, ?> shared, String variable, Collection<?> items) {
+        Object[] results = new Object[items.size()];
+        evaluator.evaluateEach(tree, shared, variable, items, results);
+        return asList(results);
+    }
+
+    /**
+     * Evaluate tree once per row in parallel, e.g. with a thread pool.
+     * Result order matches row order. Evaluation errors don't abort the batch, they are collected in result.
+     *
+     * @param tree tree to evaluate
+     * @param rows variable->value mappings, one per evaluation
+     * @param executor executor, which runs chunks of rows
+     * @param <T> return type
+     * @return evaluated values and errors
+     */
+    public <T> BatchResult<T> evaluateAll(Node<T> tree, List<? extends Map<String, ?>> rows, Executor executor) {
+        return evaluateAll(tree, ImmutableMap.<String, Object>of(), rows, executor);
+    }
+
+    /**
+     * Evaluate tree once per row in parallel, with variables common for all rows.
+     *
+     * @param tree tree to evaluate
+     * @param shared variable->value mapping, common for all rows
+     * @param rows variable->value mappings, one per evaluation
+     * @param executor executor, which runs chunks of rows
+     * @param <T> return type
+     * @return evaluated values and errors
+     */
+    public <T> BatchResult<T> evaluateAll(Node<T> tree, Map<String, ?> shared, List<? extends Map<String, ?>> rows,
+                                          Executor executor) {
+        return evaluator.evaluateAll(tree, shared, rows, executor);
+    }
+
+    /**
+     * Evaluate tree over columns of values, e.g. for analytic queries.
+     * Arithmetic, comparisons and logic run as loops over primitive arrays where possible.
+     *
+     * @param tree tree to evaluate
+     * @param columns variable->column mapping, all columns should have same size
+     * @return result column, with one value per row
+     */
+    public Column evaluateColumns(Node<?> tree, Map<String, Column> columns) {
+        return evaluateColumns(tree, ImmutableMap.<String, Object>of(), columns);
+    }
+
+    /**
+     * Evaluate tree over columns of values, with variables common for all rows.
+     *
+     * @param tree tree to evaluate
+     * @param shared variable->value mapping, common for all rows
+     * @param columns variable->column mapping, all columns should have same size
+     * @return result column, with one value per row
+     */
+    public Column evaluateColumns(Node<?> tree, Map<String, ?> shared, Map<String, Column> columns) {
+        return evaluator.evaluateColumns(tree, shared, columns);
+    }
+
     /**
      * Parse and evaluate simple expression.
      * Equivalent to evaluate(parseExpression(expression), context).
@@ -104,18 +293,37 @@ public class See {
         return evaluate(tree);
     }
 
+    /**
+     * Get parse result cache, e.g. to inspect its statistics
+     * @return parse cache
+     */
+    public ParseCache getParseCache() {
+        return parseCache;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> asList(Object[] results) {
+        return (List<T>) Arrays.asList(results);
+    }
+
+    private Node<Object> parse(final String expression, final EntryPoint entryPoint) {
+        final Rule1<Untyped.Node> rule = grammar.getRule(entryPoint);
+        return parseCache.get(entryPoint, expression, config, new Callable<Node<Object>>() {
+            @Override
+            public Node<Object> call() {
+                return folder.fold(parse(expression, entryPoint, rule));
+            }
+        });
+    }
+
     private Node<Object> parse(String expression, Rule rule) {
         Parser<Object> parser = new BasicParser<Object>(rule);
         return parser.parse(expression);
     }
 
-    private Node<Object> parse(String expression, Rule1<Untyped.Node> rule) {
-        Parser<Object> parser = new ScalaParser(rule);
+    private Node<Object> parse(String expression, EntryPoint entryPoint, Rule1<Untyped.Node> rule) {
+        Parser<Object> parser = new FastParser(config.getNumberFactory(), entryPoint, new ScalaParser(rule));
         return parser.parse(expression);
     }
 
-    private AltEntryPoints getGrammar() {
-        return AltEntryPoints.apply(config);
-    }
-
 }
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package see.evaluation;
+
+import com.google.common.collect.ImmutableSortedMap;
+import see.exceptions.SeeRuntimeException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedMap;
+
+/**
+ * Results of evaluating one tree against many contexts.
+ * Failed evaluations don't abort the batch, their exceptions are kept by context index.
+ *
+ * @param <T> result type
+ */
+public final class BatchResult<T> {
+    private final List<T> results;
+    private final SortedMap<Integer, SeeRuntimeException> errors;
+
+    /**
+     * Create result from arrays, filled by evaluation.
+     * @param results evaluated values, null for failed contexts
+     * @param errors evaluation errors, null for successful contexts
+     */
+    @SuppressWarnings("unchecked")
+    public BatchResult(Object[] results, SeeRuntimeException[] errors) {
+        ImmutableSortedMap.Builder<Integer, SeeRuntimeException> builder = ImmutableSortedMap.naturalOrder();
+        for (int i = 0; i < errors.length; i++) {
+            if (errors[i] != null) builder.put(i, errors[i]);
+        }
+
+        this.results = Collections.unmodifiableList((List<T>) Arrays.asList(results));
+        this.errors = builder.build();
+    }
+
+    /**
+     * Get evaluated values in context order
+     * @return values, null for failed contexts
+     */
+    public List<T> getResults() {
+        return results;
+    }
+
+    /**
+     * Get evaluation errors
+     * @return context index->exception mapping
+     */
+    public SortedMap<Integer, SeeRuntimeException> getErrors() {
+        return errors;
+    }
+
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+
+    /**
+     * Get evaluated value
+     * @param index context index
+     * @return value, evaluated for context
+     * @throws SeeRuntimeException if evaluation for this context failed
+     */
+    public T get(int index) throws SeeRuntimeException {
+        SeeRuntimeException error = errors.get(index);
+        if (error != null) {
+            throw error;
+        }
+        return results.get(index);
+    }
+
+    public int size() {
+        return results.size();
+    }
+}
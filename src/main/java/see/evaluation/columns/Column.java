@@ -0,0 +1,255 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package see.evaluation.columns;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Column of values for vectorized evaluation.
+ *
+ * Numbers are stored as primitive doubles or longs, booleans as primitive booleans, other values as objects.
+ * Long columns are kept exact, they are widened to doubles only for unboxed double operators.
+ * Missing values are marked in null bitmap, primitive value at such index is meaningless.
+ * Column doesn't copy supplied arrays, they shouldn't be modified after creation.
+ */
+public final class Column {
+    public enum Type {
+        DOUBLE, LONG, BOOLEAN, OBJECT
+    }
+
+    private final Type type;
+    private final int size;
+    final double[] doubles;
+    final long[] longs;
+    final boolean[] booleans;
+    final Object[] objects;
+    final BitSet nulls;
+
+    private Column(Type type, int size, double[] doubles, long[] longs, boolean[] booleans, Object[] objects, BitSet nulls) {
+        this.type = type;
+        this.size = size;
+        this.doubles = doubles;
+        this.longs = longs;
+        this.booleans = booleans;
+        this.objects = objects;
+        this.nulls = nulls;
+    }
+
+    public static Column doubles(double[] values) {
+        return doubles(values, new BitSet());
+    }
+
+    /**
+     * Create numeric column
+     * @param values column values
+     * @param nulls indexes of missing values
+     * @return created column
+     */
+    public static Column doubles(double[] values, BitSet nulls) {
+        return new Column(Type.DOUBLE, values.length, values, null, null, null, checkNulls(nulls, values.length));
+    }
+
+    public static Column longs(long[] values) {
+        return longs(values, new BitSet());
+    }
+
+    /**
+     * Create integer column
+     * @param values column values
+     * @param nulls indexes of missing values
+     * @return created column
+     */
+    public static Column longs(long[] values, BitSet nulls) {
+        return new Column(Type.LONG, values.length, null, values, null, null, checkNulls(nulls, values.length));
+    }
+
+    public static Column booleans(boolean[] values) {
+        return booleans(values, new BitSet());
+    }
+
+    /**
+     * Create boolean column
+     * @param values column values
+     * @param nulls indexes of missing values
+     * @return created column
+     */
+    public static Column booleans(boolean[] values, BitSet nulls) {
+        return new Column(Type.BOOLEAN, values.length, null, null, values, null, checkNulls(nulls, values.length));
+    }
+
+    /**
+     * Create column from boxed values.
+     * Column is numeric if all non-null values are {@link Double} or all are {@link Long},
+     * boolean if all are {@link Boolean}. Other numbers, e.g. BigDecimal, are kept as objects.
+     *
+     * @param values column values, null for missing
+     * @return created column
+     */
+    public static Column of(Object... values) {
+        BitSet nulls = new BitSet();
+        boolean allDoubles = true;
+        boolean allLongs = true;
+        boolean allBooleans = true;
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if (value == null) {
+                nulls.set(i);
+            } else {
+                allDoubles &= value instanceof Double;
+                allLongs &= value instanceof Long;
+                allBooleans &= value instanceof Boolean;
+            }
+        }
+        // Columns without values are objects
+        boolean empty = allDoubles && allLongs;
+
+        if (allDoubles && !empty) {
+            double[] doubles = new double[values.length];
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) doubles[i] = (Double) values[i];
+            }
+            return new Column(Type.DOUBLE, values.length, doubles, null, null, null, nulls);
+        }
+        if (allLongs && !empty) {
+            long[] longs = new long[values.length];
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) longs[i] = (Long) values[i];
+            }
+            return new Column(Type.LONG, values.length, null, longs, null, null, nulls);
+        }
+        if (allBooleans && !empty) {
+            boolean[] booleans = new boolean[values.length];
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) booleans[i] = (Boolean) values[i];
+            }
+            return new Column(Type.BOOLEAN, values.length, null, null, booleans, null, nulls);
+        }
+        return new Column(Type.OBJECT, values.length, null, null, null, values, nulls);
+    }
+
+    /**
+     * Create column with same value in every row
+     * @param value column value, can be null
+     * @param size column size
+     * @return created column
+     */
+    public static Column constant(Object value, int size) {
+        if (value instanceof Double) {
+            double[] doubles = new double[size];
+            Arrays.fill(doubles, (Double) value);
+            return doubles(doubles);
+        } else if (value instanceof Long) {
+            long[] longs = new long[size];
+            Arrays.fill(longs, (Long) value);
+            return longs(longs);
+        } else if (value instanceof Boolean) {
+            boolean[] booleans = new boolean[size];
+            Arrays.fill(booleans, (Boolean) value);
+            return booleans(booleans);
+        } else {
+            Object[] objects = new Object[size];
+            Arrays.fill(objects, value);
+            return of(objects);
+        }
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isNull(int index) {
+        return nulls.get(index);
+    }
+
+    /**
+     * Get numeric value
+     * @param index row index
+     * @return value at index, meaningless if value is null
+     */
+    public double getDouble(int index) {
+        checkArgument(type == Type.DOUBLE, "Column is not numeric");
+        return doubles[index];
+    }
+
+    /**
+     * Get integer value
+     * @param index row index
+     * @return value at index, meaningless if value is null
+     */
+    public long getLong(int index) {
+        checkArgument(type == Type.LONG, "Column is not integer");
+        return longs[index];
+    }
+
+    /**
+     * Get boolean value
+     * @param index row index
+     * @return value at index, meaningless if value is null
+     */
+    public boolean getBoolean(int index) {
+        checkArgument(type == Type.BOOLEAN, "Column is not boolean");
+        return booleans[index];
+    }
+
+    /**
+     * Get boxed value
+     * @param index row index
+     * @return value at index, null for missing value
+     */
+    public Object get(int index) {
+        if (nulls.get(index)) {
+            return null;
+        }
+        switch (type) {
+            case DOUBLE: return doubles[index];
+            case LONG: return longs[index];
+            case BOOLEAN: return booleans[index];
+            default: return objects[index];
+        }
+    }
+
+    /**
+     * Get indexes of missing values
+     * @return copy of null bitmap
+     */
+    public BitSet getNulls() {
+        return (BitSet) nulls.clone();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("Column[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) result.append(", ");
+            result.append(get(i));
+        }
+        return result.append("]").toString();
+    }
+
+    private static BitSet checkNulls(BitSet nulls, int size) {
+        checkArgument(nulls.length() <= size, "Null bitmap is longer than column");
+        return nulls;
+    }
+}
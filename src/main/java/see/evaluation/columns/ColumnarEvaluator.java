@@ -0,0 +1,445 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package see.evaluation.columns;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import see.evaluation.Context;
+import see.evaluation.ContextEvaluator;
+import see.evaluation.Scope;
+import see.evaluation.ValueProcessor;
+import see.evaluation.evaluators.LazyContextEvaluator;
+import see.evaluation.evaluators.SimpleContext;
+import see.evaluation.scopes.Scopes;
+import see.exceptions.PropagatedException;
+import see.functions.BooleanOperator;
+import see.functions.ContextCurriedFunction;
+import see.functions.DoubleOperator;
+import see.functions.DoublePredicate;
+import see.functions.PureFunction;
+import see.functions.VarArgFunction;
+import see.functions.arithmetic.Divide;
+import see.functions.arithmetic.Max;
+import see.functions.arithmetic.Min;
+import see.functions.arithmetic.Minus;
+import see.functions.arithmetic.Power;
+import see.functions.arithmetic.Product;
+import see.functions.arithmetic.Sum;
+import see.functions.bool.And;
+import see.functions.bool.Not;
+import see.functions.bool.Or;
+import see.functions.common.AddOrConcat;
+import see.functions.compare.Eq;
+import see.functions.compare.Neq;
+import see.functions.service.If;
+import see.parser.config.FunctionResolver;
+import see.tree.ConstNode;
+import see.tree.FunctionNode;
+import see.tree.Node;
+import see.tree.PropertyNode;
+import see.tree.ValueVisitor;
+import see.tree.VarNode;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static see.evaluation.processors.ValueProcessors.keepsDoubles;
+
+/**
+ * Evaluator of trees over columns of values.
+ * Each variable, bound to a column, takes its value from the column, other variables are constant for all rows.
+ * Result is a column with one value per row.
+ *
+ * Binary {@link DoubleOperator}, {@link DoublePredicate}, {@link BooleanOperator} functions, negation and 'if'
+ * are evaluated as loops over primitive arrays, if arguments have matching primitive type.
+ * As in compiled expressions, double operators are used only if value processor keeps doubles intact.
+ * Integer columns are widened to doubles only for such operators, other functions get {@link Long} values.
+ *
+ * Other foldable functions are applied row by row to evaluated argument columns.
+ * Arithmetic and ordering operators give null result for rows with null argument,
+ * other functions, e.g. '==' or '!=', get null values as scalar evaluation does.
+ * Remaining nodes, e.g. property chains, assignments and closures, fall back to scalar evaluation of whole sub-tree
+ * for every row, with {@link ContextEvaluator} from context services.
+ *
+ * As in scalar evaluation, branches of 'if' and operands of 'and'/'or' are evaluated only on rows, which reach them:
+ * selected rows are gathered into smaller columns, and results are scattered back.
+ * Conditions, which are not boolean columns, fall back to scalar evaluation.
+ */
+public class ColumnarEvaluator {
+
+    /**
+     * Evaluate tree over columns.
+     *
+     * @param tree tree to evaluate
+     * @param columns variable->column mapping, all columns should have same size
+     * @param context evaluation context, used for non-column variables and functions
+     * @return result column
+     */
+    public Column evaluate(Node<?> tree, Map<String, Column> columns, Context context) {
+        checkArgument(!columns.isEmpty(), "At least one column required");
+        int size = columns.values().iterator().next().size();
+        for (Map.Entry<String, Column> entry : columns.entrySet()) {
+            checkArgument(entry.getValue().size() == size, "Column %s has size %s, expected %s",
+                    entry.getKey(), entry.getValue().size(), size);
+        }
+
+        return tree.accept(new ColumnVisitor(columns, size, context));
+    }
+
+    private static class ColumnVisitor implements ValueVisitor<Column> {
+        private final Map<String, Column> columns;
+        private final int size;
+        private final Context context;
+        private final FunctionResolver functions;
+        private final ValueProcessor valueProcessor;
+        private final boolean unboxedDoubles;
+
+        private ColumnVisitor(Map<String, Column> columns, int size, Context context) {
+            this.columns = columns;
+            this.size = size;
+            this.context = context;
+            this.functions = context.getServices().getInstance(FunctionResolver.class);
+            this.valueProcessor = context.getServices().getInstance(ValueProcessor.class);
+            this.unboxedDoubles = keepsDoubles(valueProcessor);
+        }
+
+        @Override
+        public Column visit(ConstNode<?> constNode) {
+            return Column.constant(constNode.getValue(), size);
+        }
+
+        @Override
+        public Column visit(VarNode<?> varNode) {
+            Column column = columns.get(varNode.getName());
+            if (column != null) {
+                return column;
+            }
+
+            try {
+                return Column.constant(valueProcessor.apply(context.getScope().get(varNode.getName())), size);
+            } catch (Exception e) {
+                throw new PropagatedException(varNode, e);
+            }
+        }
+
+        @Override
+        public Column visit(PropertyNode<?> propertyNode) {
+            return evaluateByRows(propertyNode);
+        }
+
+        @Override
+        public Column visit(FunctionNode<?, ?> functionNode) {
+            Call call = resolve(functionNode);
+            if (call == null || !isPure(functionNode)) {
+                return evaluateByRows(functionNode);
+            }
+
+            Object delegate = call.function instanceof PureFunction<?, ?>
+                    ? ((PureFunction<?, ?>) call.function).getDelegate()
+                    : null;
+            if (delegate instanceof If<?>) {
+                return select(functionNode, call.arguments);
+            }
+            if (delegate instanceof And || delegate instanceof Or) {
+                return shortCircuit(functionNode, delegate instanceof And, call.arguments);
+            }
+
+            Column[] args = new Column[call.arguments.size()];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = call.arguments.get(i).accept(this);
+            }
+
+            boolean strict = propagatesNulls(delegate);
+            if (args.length == 2) {
+                if (unboxedDoubles && isNumeric(args) && (strict || !hasNulls(args))) {
+                    if (delegate instanceof DoubleOperator) {
+                        return VectorOps.apply((DoubleOperator) delegate, VectorOps.widen(args[0]), VectorOps.widen(args[1]));
+                    }
+                    if (delegate instanceof DoublePredicate) {
+                        return VectorOps.test((DoublePredicate) delegate, VectorOps.widen(args[0]), VectorOps.widen(args[1]));
+                    }
+                }
+                if (delegate instanceof BooleanOperator && isOfType(Column.Type.BOOLEAN, args)) {
+                    return VectorOps.apply((BooleanOperator) delegate, args[0], args[1]);
+                }
+            }
+            if (delegate instanceof Not && args.length == 1 && args[0].getType() == Column.Type.BOOLEAN) {
+                return VectorOps.not(args[0]);
+            }
+
+            return applyByRows(functionNode, call.function.apply(context), args, strict);
+        }
+
+        /**
+         * Apply function to argument values of each row.
+         * @param strict if true, rows with null argument give null without calling the function
+         */
+        private Column applyByRows(FunctionNode<?, ?> node, VarArgFunction<Object, Object> function,
+                                   Column[] args, boolean strict) {
+            Object[] result = new Object[size];
+            try {
+                rows:
+                for (int i = 0; i < size; i++) {
+                    Object[] values = new Object[args.length];
+                    for (int j = 0; j < args.length; j++) {
+                        if (strict && args[j].isNull(i)) continue rows;
+                        values[j] = valueProcessor.apply(args[j].get(i));
+                    }
+                    result[i] = valueProcessor.apply(function.apply(Arrays.asList(values)));
+                }
+            } catch (Exception e) {
+                throw new PropagatedException(node, e);
+            }
+            return Column.of(result);
+        }
+
+        /**
+         * Evaluate 'if', each branch only on rows, where condition selects it.
+         */
+        private Column select(FunctionNode<?, ?> node, List<? extends Node<?>> arguments) {
+            Column condition = arguments.get(0).accept(this);
+            if (!isBoolean(condition)) {
+                return evaluateByRows(node);
+            }
+
+            int[][] rows = {rowsWhere(condition, allRows(), true), rowsWhere(condition, allRows(), false)};
+            Column[] branches = {
+                    evaluateOn(arguments.get(1), rows[0]),
+                    arguments.size() > 2 ? evaluateOn(arguments.get(2), rows[1]) : Column.constant(null, rows[1].length)
+            };
+            // Value processor lifts longs to doubles, so mixed numeric branches give a double column, as scalar 'if' does
+            if (unboxedDoubles && isNumeric(branches) && !isOfType(Column.Type.LONG, branches)) {
+                branches[0] = VectorOps.widen(branches[0]);
+                branches[1] = VectorOps.widen(branches[1]);
+            }
+
+            return VectorOps.scatter(size, branches, rows);
+        }
+
+        /**
+         * Evaluate 'and' or 'or' left to right, each operand only on rows, which previous operands didn't decide.
+         */
+        private Column shortCircuit(FunctionNode<?, ?> node, boolean and, List<? extends Node<?>> arguments) {
+            boolean[] result = new boolean[size];
+            Arrays.fill(result, and);
+            BitSet nulls = new BitSet();
+
+            int[] pending = allRows();
+            for (Node<?> argument : arguments) {
+                if (pending.length == 0) break;
+
+                Column operand = evaluateOn(argument, pending);
+                if (!isBoolean(operand)) {
+                    return evaluateByRows(node);
+                }
+                for (int i = 0; i < pending.length; i++) {
+                    if (operand.isNull(i)) {
+                        nulls.set(pending[i]);
+                    } else {
+                        result[pending[i]] = operand.getBoolean(i);
+                    }
+                }
+                pending = rowsWhere(operand, pending, and);
+            }
+            return Column.booleans(result, nulls);
+        }
+
+        /**
+         * Evaluate sub-tree on selected rows only.
+         * @param rows indexes of selected rows
+         * @return column of rows.length values
+         */
+        private Column evaluateOn(Node<?> node, int[] rows) {
+            if (rows.length == size) {
+                return node.accept(this);
+            }
+            if (rows.length == 0) {
+                return Column.of();
+            }
+
+            Map<String, Column> selected = Maps.newHashMap();
+            for (Map.Entry<String, Column> entry : columns.entrySet()) {
+                selected.put(entry.getKey(), VectorOps.gather(entry.getValue(), rows));
+            }
+            return node.accept(new ColumnVisitor(selected, rows.length, context));
+        }
+
+        /**
+         * Select rows with specified non-null value.
+         * @param column boolean column, evaluated on rows
+         * @param rows row indexes of column values
+         * @param value value to select
+         * @return indexes of selected rows
+         */
+        private static int[] rowsWhere(Column column, int[] rows, boolean value) {
+            int[] result = new int[rows.length];
+            int count = 0;
+            for (int i = 0; i < rows.length; i++) {
+                if (!column.isNull(i) && column.getBoolean(i) == value) {
+                    result[count++] = rows[i];
+                }
+            }
+            return Arrays.copyOf(result, count);
+        }
+
+        private int[] allRows() {
+            int[] rows = new int[size];
+            for (int i = 0; i < size; i++) {
+                rows[i] = i;
+            }
+            return rows;
+        }
+
+        /**
+         * Check if column is boolean, columns without values are treated as boolean.
+         */
+        private static boolean isBoolean(Column column) {
+            return column.getType() == Column.Type.BOOLEAN || column.getNulls().cardinality() == column.size();
+        }
+
+        /**
+         * Evaluate sub-tree by scalar evaluator, once per row.
+         */
+        private Column evaluateByRows(Node<?> node) {
+            ContextEvaluator evaluator = context.getServices().getInstance(ContextEvaluator.class);
+            if (evaluator == null) {
+                evaluator = new LazyContextEvaluator();
+            }
+
+            Object[] result = new Object[size];
+            for (int i = 0; i < size; i++) {
+                Scope scope = Scopes.row(context.getScope(), ImmutableMap.<String, Object>of(), row(i));
+                result[i] = evaluator.evaluate(node, SimpleContext.create(scope, context.getServices()));
+            }
+            return Column.of(result);
+        }
+
+        private Map<String, Object> row(final int index) {
+            return Maps.transformValues(columns, new Function<Column, Object>() {
+                @Override
+                public Object apply(Column input) {
+                    return input.get(index);
+                }
+            });
+        }
+
+        /**
+         * Check if node can be evaluated by columns: it consists of constants, variables
+         * and calls of foldable functions or 'if'.
+         */
+        private boolean isPure(Node<?> node) {
+            if (node instanceof ConstNode<?> || node instanceof VarNode<?>) {
+                return true;
+            }
+            if (!(node instanceof FunctionNode<?, ?>)) {
+                return false;
+            }
+
+            Call call = resolve((FunctionNode<?, ?>) node);
+            if (call == null) {
+                return false;
+            }
+            for (Node<?> argument : call.arguments) {
+                if (!isPure(argument)) return false;
+            }
+            return true;
+        }
+
+        /**
+         * Resolve called function. Application of a builtin function variable is treated as direct call.
+         * @return call, if function is foldable or 'if', null otherwise
+         */
+        @Nullable
+        private Call resolve(FunctionNode<?, ?> node) {
+            String name = node.getFunctionName();
+            List<? extends Node<?>> arguments = node.getArguments();
+
+            if ("apply".equals(name) && !arguments.isEmpty() && arguments.get(0) instanceof VarNode<?>) {
+                String target = ((VarNode<?>) arguments.get(0)).getName();
+                ContextCurriedFunction<Object, Object> function = functions.get(target);
+                if (function != null && !columns.containsKey(target) && isBuiltin(target, function)) {
+                    name = target;
+                    arguments = arguments.subList(1, arguments.size());
+                }
+            }
+
+            ContextCurriedFunction<Object, Object> function = functions.get(name);
+            boolean conditional = function instanceof PureFunction<?, ?> &&
+                    ((PureFunction<?, ?>) function).getDelegate() instanceof If<?>;
+            if (function == null || !(functions.isFoldable(name) || conditional)) {
+                return null;
+            }
+            return new Call(function, arguments);
+        }
+
+        private boolean isBuiltin(String name, ContextCurriedFunction<Object, Object> function) {
+            Scope scope = context.getScope();
+            return scope.contains(name) && scope.get(name) == function;
+        }
+
+        private static boolean isOfType(Column.Type type, Column[] columns) {
+            for (Column column : columns) {
+                if (column.getType() != type) return false;
+            }
+            return true;
+        }
+
+        private static boolean hasNulls(Column[] columns) {
+            for (Column column : columns) {
+                if (!column.getNulls().isEmpty()) return true;
+            }
+            return false;
+        }
+
+        /**
+         * Check if function is an arithmetic or ordering operator, which has no value for null arguments.
+         * Equality, null checks and other functions are applied to null values.
+         */
+        private static boolean propagatesNulls(@Nullable Object delegate) {
+            if (delegate instanceof Eq || delegate instanceof Neq) {
+                return false;
+            }
+            return delegate instanceof DoubleOperator || delegate instanceof DoublePredicate ||
+                    delegate instanceof AddOrConcat || delegate instanceof Sum || delegate instanceof Minus ||
+                    delegate instanceof Product || delegate instanceof Divide || delegate instanceof Power ||
+                    delegate instanceof Min || delegate instanceof Max;
+        }
+
+        private static boolean isNumeric(Column[] columns) {
+            for (Column column : columns) {
+                if (column.getType() != Column.Type.DOUBLE && column.getType() != Column.Type.LONG) return false;
+            }
+            return true;
+        }
+    }
+
+    private static class Call {
+        private final ContextCurriedFunction<Object, Object> function;
+        private final List<? extends Node<?>> arguments;
+
+        private Call(ContextCurriedFunction<Object, Object> function, List<? extends Node<?>> arguments) {
+            this.function = function;
+            this.arguments = arguments;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package see.evaluation.columns;
+
+import see.functions.BooleanOperator;
+import see.functions.DoubleOperator;
+import see.functions.DoublePredicate;
+import see.functions.arithmetic.DoubleDivide;
+import see.functions.arithmetic.DoubleMinus;
+import see.functions.arithmetic.DoubleProduct;
+import see.functions.common.DoubleAddOrConcat;
+
+import java.util.BitSet;
+
+/**
+ * Loops over primitive columns.
+ * Result is null where any operand is null.
+ * Basic arithmetic is inlined, other operators are called per element.
+ */
+final class VectorOps {
+    private VectorOps() {}
+
+    /**
+     * Convert integer column to doubles for unboxed double operators, other columns are returned as is.
+     * @param column numeric column
+     * @return double column
+     */
+    static Column widen(Column column) {
+        if (column.getType() != Column.Type.LONG) {
+            return column;
+        }
+
+        long[] values = column.longs;
+        double[] result = new double[values.length];
+        for (int i = 0; i < result.length; i++) result[i] = values[i];
+
+        return Column.doubles(result, column.getNulls());
+    }
+
+    static Column apply(DoubleOperator operator, Column left, Column right) {
+        double[] l = left.doubles;
+        double[] r = right.doubles;
+        double[] result = new double[l.length];
+
+        if (operator instanceof DoubleAddOrConcat) {
+            for (int i = 0; i < result.length; i++) result[i] = l[i] + r[i];
+        } else if (operator instanceof DoubleMinus) {
+            for (int i = 0; i < result.length; i++) result[i] = l[i] - r[i];
+        } else if (operator instanceof DoubleProduct) {
+            for (int i = 0; i < result.length; i++) result[i] = l[i] * r[i];
+        } else if (operator instanceof DoubleDivide) {
+            for (int i = 0; i < result.length; i++) result[i] = l[i] / r[i];
+        } else {
+            for (int i = 0; i < result.length; i++) result[i] = operator.applyAsDouble(l[i], r[i]);
+        }
+
+        return Column.doubles(result, union(left, right));
+    }
+
+    static Column test(DoublePredicate predicate, Column left, Column right) {
+        double[] l = left.doubles;
+        double[] r = right.doubles;
+        boolean[] result = new boolean[l.length];
+
+        for (int i = 0; i < result.length; i++) result[i] = predicate.test(l[i], r[i]);
+
+        return Column.booleans(result, union(left, right));
+    }
+
+    static Column apply(BooleanOperator operator, Column left, Column right) {
+        boolean[] l = left.booleans;
+        boolean[] r = right.booleans;
+        boolean[] result = new boolean[l.length];
+
+        for (int i = 0; i < result.length; i++) result[i] = operator.applyAsBoolean(l[i], r[i]);
+
+        return Column.booleans(result, union(left, right));
+    }
+
+    static Column not(Column column) {
+        boolean[] values = column.booleans;
+        boolean[] result = new boolean[values.length];
+
+        for (int i = 0; i < result.length; i++) result[i] = !values[i];
+
+        return Column.booleans(result, column.getNulls());
+    }
+
+    /**
+     * Take values of selected rows.
+     * @param column source column
+     * @param rows indexes of selected rows
+     * @return column of rows.length values
+     */
+    static Column gather(Column column, int[] rows) {
+        BitSet nulls = new BitSet();
+        for (int i = 0; i < rows.length; i++) {
+            if (column.nulls.get(rows[i])) nulls.set(i);
+        }
+
+        switch (column.getType()) {
+            case DOUBLE:
+                double[] doubles = new double[rows.length];
+                for (int i = 0; i < rows.length; i++) doubles[i] = column.doubles[rows[i]];
+                return Column.doubles(doubles, nulls);
+            case LONG:
+                long[] longs = new long[rows.length];
+                for (int i = 0; i < rows.length; i++) longs[i] = column.longs[rows[i]];
+                return Column.longs(longs, nulls);
+            case BOOLEAN:
+                boolean[] booleans = new boolean[rows.length];
+                for (int i = 0; i < rows.length; i++) booleans[i] = column.booleans[rows[i]];
+                return Column.booleans(booleans, nulls);
+            default:
+                Object[] objects = new Object[rows.length];
+                for (int i = 0; i < rows.length; i++) objects[i] = column.objects[rows[i]];
+                return Column.of(objects);
+        }
+    }
+
+    /**
+     * Combine columns, evaluated on disjoint sets of rows, into one column.
+     * Rows, not covered by any part, are null.
+     * @param size result size
+     * @param parts part columns, part i has a value for each of rows[i]
+     * @param rows row indexes of each part
+     * @return combined column
+     */
+    static Column scatter(int size, Column[] parts, int[][] rows) {
+        Column.Type type = null;
+        for (Column part : parts) {
+            if (part.size() == 0) continue;
+            type = type == null || type == part.getType() ? part.getType() : Column.Type.OBJECT;
+        }
+
+        BitSet nulls = new BitSet();
+        nulls.set(0, size);
+        for (int p = 0; p < parts.length; p++) {
+            for (int i = 0; i < rows[p].length; i++) {
+                if (!parts[p].nulls.get(i)) nulls.clear(rows[p][i]);
+            }
+        }
+
+        if (type == Column.Type.DOUBLE) {
+            double[] result = new double[size];
+            for (int p = 0; p < parts.length; p++) {
+                for (int i = 0; i < rows[p].length; i++) result[rows[p][i]] = parts[p].doubles[i];
+            }
+            return Column.doubles(result, nulls);
+        } else if (type == Column.Type.LONG) {
+            long[] result = new long[size];
+            for (int p = 0; p < parts.length; p++) {
+                for (int i = 0; i < rows[p].length; i++) result[rows[p][i]] = parts[p].longs[i];
+            }
+            return Column.longs(result, nulls);
+        } else if (type == Column.Type.BOOLEAN) {
+            boolean[] result = new boolean[size];
+            for (int p = 0; p < parts.length; p++) {
+                for (int i = 0; i < rows[p].length; i++) result[rows[p][i]] = parts[p].booleans[i];
+            }
+            return Column.booleans(result, nulls);
+        } else {
+            Object[] result = new Object[size];
+            for (int p = 0; p < parts.length; p++) {
+                for (int i = 0; i < rows[p].length; i++) result[rows[p][i]] = parts[p].get(i);
+            }
+            return Column.of(result);
+        }
+    }
+
+    private static BitSet union(Column left, Column right) {
+        BitSet result = left.getNulls();
+        result.or(right.nulls);
+        return result;
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package see.evaluation.compiler;
+
+import com.google.common.base.Function;
+import com.google.common.collect.Lists;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import see.evaluation.Context;
+import see.evaluation.ValueProcessor;
+import see.functions.BinaryFunction;
+import see.functions.ContextCurriedFunction;
+import see.functions.DoubleOperator;
+import see.functions.DoublePredicate;
+import see.functions.PureFunction;
+import see.functions.UnaryFunction;
+import see.functions.VarArgFunction;
+import see.parser.config.FunctionResolver;
+import see.tree.*;
+import see.util.GeneratedClassLoader;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates JVM classes for trees.
+ *
+ * Generated class extends {@link GeneratedExecutable}. Constants and variable reads are inlined,
+ * pure {@link UnaryFunction} and {@link BinaryFunction} calls get own methods, which call resolved function directly.
+ * Other nodes (e.g. lazy calls, property chains, unboxed double operators) are evaluated by executable nodes
+ * of {@link ExpressionCompiler}, so generated code has same semantics.
+ *
+ * Each class is defined by a private class loader, so it's collected together with compiled expression.
+ */
+class BytecodeGenerator implements Opcodes {
+    private static final AtomicLong classCounter = new AtomicLong();
+
+    private static final String BASE = Type.getInternalName(GeneratedExecutable.class);
+    private static final String OBJECT = Type.getDescriptor(Object.class);
+    private static final String CONTEXT = Type.getDescriptor(Context.class);
+    private static final String NODE = Type.getInternalName(Node.class);
+    private static final String EXECUTE = "(" + CONTEXT + ")" + OBJECT;
+    private static final String CONSTRUCTOR = "([" + OBJECT + "[" + OBJECT + Type.getDescriptor(ValueProcessor.class) + ")V";
+
+    private final FunctionResolver functions;
+    private final ValueProcessor valueProcessor;
+    private final boolean unboxedDoubles;
+
+    BytecodeGenerator(FunctionResolver functions, ValueProcessor valueProcessor, boolean unboxedDoubles) {
+        this.functions = functions;
+        this.valueProcessor = valueProcessor;
+        this.unboxedDoubles = unboxedDoubles;
+    }
+
+    /**
+     * Generate class for a tree.
+     * @param tree tree to generate
+     * @param fallback compiles sub-trees, which have no generated code
+     * @return instance of generated class, or null if tree has no calls to generate
+     */
+    @Nullable
+    GeneratedExecutable generate(Node<?> tree, Function<Node<?>, ExpressionCompiler.Executable> fallback) {
+        if (!isGenerated(tree)) {
+            return null;
+        }
+
+        String name = "see/evaluation/compiler/GeneratedExpression" + classCounter.incrementAndGet();
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        // Class version 49 is verified by type inference, so no stack map frames are needed
+        writer.visit(V1_5, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, name, null, BASE, null);
+
+        MethodVisitor constructor = writer.visitMethod(ACC_PUBLIC, "<init>", CONSTRUCTOR, null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(ALOAD, 0);
+        constructor.visitVarInsn(ALOAD, 1);
+        constructor.visitVarInsn(ALOAD, 2);
+        constructor.visitVarInsn(ALOAD, 3);
+        constructor.visitMethodInsn(INVOKESPECIAL, BASE, "<init>", CONSTRUCTOR);
+        constructor.visitInsn(RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+
+        ClassGenerator generator = new ClassGenerator(writer, name, fallback);
+        MethodVisitor execute = writer.visitMethod(ACC_PUBLIC, "execute", EXECUTE, null, null);
+        execute.visitCode();
+        generator.emit(execute, tree);
+        execute.visitInsn(ARETURN);
+        execute.visitMaxs(0, 0);
+        execute.visitEnd();
+        generator.generateCalls();
+
+        writer.visitEnd();
+
+        return generator.instantiate(writer.toByteArray());
+    }
+
+    /**
+     * Check if node is a call with generated code.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean isGenerated(Node<?> node) {
+        if (!(node instanceof FunctionNode<?, ?>)) return false;
+
+        FunctionNode<?, ?> call = (FunctionNode<?, ?>) node;
+        ContextCurriedFunction<Object, Object> function = functions.get(call.getFunctionName());
+        if (!(function instanceof PureFunction<?, ?>)) return false;
+
+        VarArgFunction<Object, Object> delegate = ((PureFunction<Object, Object>) function).getDelegate();
+        int arity = call.getArguments().size();
+        if (unboxedDoubles && arity == 2 && (delegate instanceof DoubleOperator || delegate instanceof DoublePredicate)) {
+            return false;
+        }
+        return (arity == 1 && delegate instanceof UnaryFunction<?, ?>) || (arity == 2 && delegate instanceof BinaryFunction<?, ?>);
+    }
+
+    /**
+     * State of a single generated class.
+     */
+    private class ClassGenerator {
+        private final ClassWriter writer;
+        private final String name;
+        private final Function<Node<?>, ExpressionCompiler.Executable> compiler;
+
+        private final List<Object> constants = Lists.newArrayList();
+        private final List<Object> fallbacks = Lists.newArrayList();
+        private final List<FunctionNode<?, ?>> calls = Lists.newArrayList();
+
+        private ClassGenerator(ClassWriter writer, String name, Function<Node<?>, ExpressionCompiler.Executable> compiler) {
+            this.writer = writer;
+            this.name = name;
+            this.compiler = compiler;
+        }
+
+        /**
+         * Emit code, which pushes node value to the stack. Context is expected in local variable 1.
+         */
+        void emit(MethodVisitor method, Node<?> node) {
+            if (node instanceof ConstNode<?>) {
+                pushConstant(method, ((ConstNode<?>) node).getValue());
+            } else if (node instanceof VarNode<?>) {
+                method.visitVarInsn(ALOAD, 0);
+                method.visitVarInsn(ALOAD, 1);
+                pushConstant(method, ((VarNode<?>) node).getName(), Type.getInternalName(String.class));
+                pushConstant(method, node, NODE);
+                method.visitMethodInsn(INVOKEVIRTUAL, BASE, "variable",
+                        "(" + CONTEXT + Type.getDescriptor(String.class) + "L" + NODE + ";)" + OBJECT);
+            } else if (isGenerated(node)) {
+                method.visitVarInsn(ALOAD, 0);
+                method.visitVarInsn(ALOAD, 1);
+                method.visitMethodInsn(INVOKESPECIAL, name, "call" + calls.size(), EXECUTE);
+                calls.add((FunctionNode<?, ?>) node);
+            } else {
+                method.visitVarInsn(ALOAD, 0);
+                pushInt(method, fallbacks.size());
+                method.visitVarInsn(ALOAD, 1);
+                method.visitMethodInsn(INVOKEVIRTUAL, BASE, "fallback", "(I" + CONTEXT + ")" + OBJECT);
+                fallbacks.add(compiler.apply(node));
+            }
+        }
+
+        /**
+         * Generate methods for calls, referenced by emitted code. Methods are written one at a time,
+         * calls found in arguments are appended to the list.
+         */
+        void generateCalls() {
+            for (int i = 0; i < calls.size(); i++) {
+                generateCall("call" + i, calls.get(i));
+            }
+        }
+
+        /**
+         * Generate method for a fixed-arity call. Failures, including ones of arguments, are propagated with call node.
+         */
+        @SuppressWarnings("unchecked")
+        private void generateCall(String methodName, FunctionNode<?, ?> node) {
+            List<? extends Node<?>> arguments = node.getArguments();
+            VarArgFunction<Object, Object> function =
+                    ((PureFunction<Object, Object>) functions.get(node.getFunctionName())).getDelegate();
+
+            MethodVisitor method = writer.visitMethod(ACC_PRIVATE, methodName, EXECUTE, null, null);
+            method.visitCode();
+
+            Label start = new Label();
+            Label end = new Label();
+            Label handler = new Label();
+            method.visitTryCatchBlock(start, end, handler, Type.getInternalName(Exception.class));
+
+            method.visitLabel(start);
+            method.visitVarInsn(ALOAD, 0);
+            if (arguments.size() == 1) {
+                String unary = Type.getInternalName(UnaryFunction.class);
+                pushConstant(method, function, unary);
+                emit(method, arguments.get(0));
+                method.visitMethodInsn(INVOKEINTERFACE, unary, "apply1", "(" + OBJECT + ")" + OBJECT);
+            } else {
+                String binary = Type.getInternalName(BinaryFunction.class);
+                pushConstant(method, function, binary);
+                emit(method, arguments.get(0));
+                emit(method, arguments.get(1));
+                method.visitMethodInsn(INVOKEINTERFACE, binary, "apply2", "(" + OBJECT + OBJECT + ")" + OBJECT);
+            }
+            method.visitMethodInsn(INVOKEVIRTUAL, BASE, "process", "(" + OBJECT + ")" + OBJECT);
+            method.visitInsn(ARETURN);
+            method.visitLabel(end);
+
+            method.visitLabel(handler);
+            method.visitVarInsn(ASTORE, 2);
+            method.visitVarInsn(ALOAD, 0);
+            pushConstant(method, node, NODE);
+            method.visitVarInsn(ALOAD, 2);
+            method.visitMethodInsn(INVOKEVIRTUAL, BASE, "propagate",
+                    "(L" + NODE + ";" + Type.getDescriptor(Exception.class) + ")" + Type.getDescriptor(RuntimeException.class));
+            method.visitInsn(ATHROW);
+
+            method.visitMaxs(0, 0);
+            method.visitEnd();
+        }
+
+        private void pushConstant(MethodVisitor method, Object value) {
+            method.visitVarInsn(ALOAD, 0);
+            method.visitFieldInsn(GETFIELD, BASE, "constants", "[" + OBJECT);
+            pushInt(method, constants.size());
+            method.visitInsn(AALOAD);
+            constants.add(value);
+        }
+
+        private void pushConstant(MethodVisitor method, Object value, String type) {
+            pushConstant(method, value);
+            method.visitTypeInsn(CHECKCAST, type);
+        }
+
+        private void pushInt(MethodVisitor method, int value) {
+            if (value <= 5) {
+                method.visitInsn(ICONST_0 + value);
+            } else if (value <= Byte.MAX_VALUE) {
+                method.visitIntInsn(BIPUSH, value);
+            } else if (value <= Short.MAX_VALUE) {
+                method.visitIntInsn(SIPUSH, value);
+            } else {
+                method.visitLdcInsn(value);
+            }
+        }
+
+        GeneratedExecutable instantiate(byte[] code) {
+            Class<?> generated = GeneratedClassLoader.define(GeneratedExecutable.class.getClassLoader(),
+                    name.replace('/', '.'), code);
+            try {
+                return (GeneratedExecutable) generated
+                        .getConstructor(Object[].class, Object[].class, ValueProcessor.class)
+                        .newInstance(constants.toArray(), fallbacks.toArray(), valueProcessor);
+            } catch (Exception e) {
+                throw new IllegalStateException("Failed to instantiate generated expression", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package see.evaluation.compiler;
+
+import see.evaluation.Context;
+import see.tree.Node;
+
+/**
+ * Tree, prepared for repeated evaluation.
+ * Instances are immutable and can be shared between threads.
+ *
+ * @param <T> result type
+ */
+public interface CompiledExpression<T> {
+    /**
+     * Evaluate expression in supplied context.
+     * Gives same result as visiting source tree with {@link see.evaluation.visitors.LazyVisitor}.
+     *
+     * @param context evaluation context
+     * @return evaluation result
+     */
+    T evaluate(Context context);
+
+    /**
+     * Get source tree
+     * @return tree this expression was compiled from
+     */
+    Node<T> getTree();
+}
@@ -0,0 +1,927 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package see.evaluation.compiler;
+
+import com.google.common.base.Function;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ClassToInstanceMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import see.evaluation.Context;
+import see.evaluation.Scope;
+import see.evaluation.ValueProcessor;
+import see.evaluation.metrics.Instrumentation;
+import see.evaluation.scopes.FrameLayout;
+import see.evaluation.scopes.FrameScope;
+import see.evaluation.visitors.LazyVisitor;
+import see.exceptions.PropagatedException;
+import see.functions.BinaryFunction;
+import see.functions.ContextCurriedFunction;
+import see.functions.DoubleOperator;
+import see.functions.DoublePredicate;
+import see.functions.FixedArity;
+import see.functions.PureFunction;
+import see.functions.TargetProperty;
+import see.functions.UnaryFunction;
+import see.functions.VarArgFunction;
+import see.parser.config.FunctionResolver;
+import see.parser.grammar.PropertyAccess;
+import see.parser.grammar.PropertyDescriptor;
+import see.properties.ChainResolver;
+import see.properties.InlineCachingResolver;
+import see.tree.*;
+
+import javax.annotation.Nullable;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static see.evaluation.evaluators.SimpleContext.withVariables;
+import static see.evaluation.processors.ValueProcessors.keepsDoubles;
+import static see.evaluation.scopes.Scopes.frame;
+
+/**
+ * Compiles trees into trees of executable nodes.
+ *
+ * Functions are resolved once, at compile time. Pure functions are unwrapped from their context currying,
+ * arguments are stored in arrays. Evaluation semantics are same as in {@link LazyVisitor}:
+ * arguments are evaluated on each access, results of functions and variables pass through value processor.
+ *
+ * Property nodes get own site resolvers, if chain resolver is an {@link InlineCachingResolver}.
+ *
+ * Function definitions and loops with constant bodies are compiled together with enclosing tree.
+ * Their variables are resolved to slots of {@link FrameScope}, other variables are looked up by name.
+ *
+ * Binary {@link DoubleOperator} and {@link DoublePredicate} functions are evaluated on unboxed doubles,
+ * if value processor keeps doubles intact. Numeric sub-trees box their result only once.
+ *
+ * Pure {@link UnaryFunction} and {@link BinaryFunction} calls evaluate their arguments once
+ * and pass them directly, without an argument list.
+ *
+ * If {@link Instrumentation} is supplied, every function call is measured.
+ * Measured calls box their results, so unboxed evaluation spans only a single operation.
+ *
+ * Nodes, which can't be compiled (e.g. unknown functions), are evaluated by visitor.
+ * If compiled expression is evaluated with different services, whole tree is evaluated by visitor.
+ *
+ * Expressions, which are evaluated {@link #BYTECODE_THRESHOLD} times, are compiled further into a generated class,
+ * see {@link BytecodeGenerator}. Generation runs on a background executor, evaluations continue on executable nodes
+ * until generated class is ready. Executable nodes remain as fallback for parts of the tree, which have no generated code.
+ * If generation fails, expression keeps executable nodes, failure is available from {@link #getGenerationFailure}.
+ * Instrumented expressions are not generated.
+ */
+public class ExpressionCompiler {
+    /**
+     * Number of evaluations, after which compiled expression is replaced by generated class.
+     */
+    public static final int BYTECODE_THRESHOLD = 1000;
+
+    private static final Executor backgroundGenerator = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+            .setDaemon(true)
+            .setNameFormat("see-bytecode-%d")
+            .build());
+
+    private final FunctionResolver functions;
+    private final ValueProcessor valueProcessor;
+    private final ChainResolver chainResolver;
+    private final Instrumentation instrumentation;
+    private final boolean unboxedDoubles;
+    private final BytecodeGenerator generator;
+    private final Executor generationExecutor;
+
+    public ExpressionCompiler(FunctionResolver functions, ValueProcessor valueProcessor, ChainResolver chainResolver) {
+        this(functions, valueProcessor, chainResolver, null);
+    }
+
+    /**
+     * Create compiler, which measures every compiled function call.
+     * @param functions function resolver
+     * @param valueProcessor value processor
+     * @param chainResolver property chain resolver
+     * @param instrumentation call instrumentation, null to compile without measurement
+     */
+    public ExpressionCompiler(FunctionResolver functions, ValueProcessor valueProcessor, ChainResolver chainResolver,
+                              @Nullable Instrumentation instrumentation) {
+        this(functions, valueProcessor, chainResolver, instrumentation, backgroundGenerator);
+    }
+
+    /**
+     * Create compiler, which generates classes for frequently evaluated expressions on supplied executor.
+     * @param functions function resolver
+     * @param valueProcessor value processor
+     * @param chainResolver property chain resolver
+     * @param instrumentation call instrumentation, null to compile without measurement
+     * @param generationExecutor executor for bytecode generation
+     */
+    public ExpressionCompiler(FunctionResolver functions, ValueProcessor valueProcessor, ChainResolver chainResolver,
+                              @Nullable Instrumentation instrumentation, Executor generationExecutor) {
+        this.functions = functions;
+        this.valueProcessor = valueProcessor;
+        this.chainResolver = chainResolver;
+        this.instrumentation = instrumentation;
+        this.unboxedDoubles = keepsDoubles(valueProcessor);
+        this.generator = instrumentation == null ? new BytecodeGenerator(functions, valueProcessor, unboxedDoubles) : null;
+        this.generationExecutor = generationExecutor;
+    }
+
+    /**
+     * Create compiler, which uses evaluation services from supplied map.
+     * @param services evaluation services
+     * @return created compiler
+     */
+    public static ExpressionCompiler fromServices(ClassToInstanceMap<Object> services) {
+        return new ExpressionCompiler(
+                services.getInstance(FunctionResolver.class),
+                services.getInstance(ValueProcessor.class),
+                services.getInstance(ChainResolver.class),
+                services.getInstance(Instrumentation.class)
+        );
+    }
+
+    /**
+     * Compile a tree.
+     * @param tree tree to compile
+     * @param <T> result type
+     * @return compiled expression
+     */
+    public <T> CompiledExpression<T> compile(Node<T> tree) {
+        return new CompiledTree<T>(tree, compileNode(tree), false);
+    }
+
+    /**
+     * Compile a tree into generated class right away, without waiting for {@link #BYTECODE_THRESHOLD} evaluations.
+     * Trees without fixed-arity calls, and all trees of instrumented compiler, are compiled to executable nodes only.
+     *
+     * @param tree tree to compile
+     * @param <T> result type
+     * @return compiled expression
+     */
+    public <T> CompiledExpression<T> compileToBytecode(Node<T> tree) {
+        CompiledTree<T> compiled = new CompiledTree<T>(tree, compileNode(tree), true);
+        compiled.generate();
+        return compiled;
+    }
+
+    /**
+     * Check if expression is evaluated by generated class.
+     * @param expression expression, compiled by this compiler
+     * @return true if generated class is used
+     */
+    public boolean isGenerated(CompiledExpression<?> expression) {
+        return expression instanceof CompiledTree<?> && ((CompiledTree<?>) expression).root instanceof GeneratedExecutable;
+    }
+
+    /**
+     * Get error, which stopped generation of class for an expression.
+     * @param expression expression, compiled by this compiler
+     * @return generation failure, null if class was generated, not needed or not yet attempted
+     */
+    @Nullable
+    public Throwable getGenerationFailure(CompiledExpression<?> expression) {
+        return expression instanceof CompiledTree<?> ? ((CompiledTree<?>) expression).failure : null;
+    }
+
+    private Executable compileNode(Node<?> node) {
+        return node.accept(new Compiler(SlotResolver.topLevel(functions)));
+    }
+
+    /**
+     * Check if context has same services, as ones used for compilation.
+     * @param context evaluation context
+     * @return true if compiled nodes are valid for this context
+     */
+    boolean isCompatible(Context context) {
+        ClassToInstanceMap<Object> services = context.getServices();
+        return services.getInstance(FunctionResolver.class) == functions &&
+                services.getInstance(ValueProcessor.class) == valueProcessor &&
+                services.getInstance(ChainResolver.class) == chainResolver;
+    }
+
+    private Object processValue(Object value) {
+        return valueProcessor.apply(value);
+    }
+
+    /**
+     * Executable node
+     */
+    interface Executable {
+        Object execute(Context context);
+    }
+
+    /**
+     * Executable node with numeric result, which can be evaluated without boxing.
+     */
+    interface DoubleExecutable extends Executable {
+        double executeDouble(Context context);
+    }
+
+    /**
+     * Compiled tree, which counts evaluations and schedules generation of class on reaching threshold.
+     */
+    private class CompiledTree<T> implements CompiledExpression<T> {
+        private final Node<T> tree;
+        private final AtomicBoolean scheduled;
+        private volatile Executable root;
+        private volatile Throwable failure;
+        // Racy counter, lost updates only delay generation
+        private int evaluations;
+
+        private CompiledTree(Node<T> tree, Executable root, boolean scheduled) {
+            this.tree = tree;
+            this.root = root;
+            this.scheduled = new AtomicBoolean(scheduled || generator == null);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T evaluate(Context context) {
+            if (isCompatible(context)) {
+                if (evaluations < BYTECODE_THRESHOLD && ++evaluations == BYTECODE_THRESHOLD) {
+                    schedule();
+                }
+                return (T) root.execute(context);
+            } else {
+                ClassToInstanceMap<Object> services = context.getServices();
+                return tree.accept(new LazyVisitor(context,
+                        services.getInstance(ValueProcessor.class),
+                        services.getInstance(ChainResolver.class)));
+            }
+        }
+
+        @Override
+        public Node<T> getTree() {
+            return tree;
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                generationExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        generate();
+                    }
+                });
+            }
+        }
+
+        /**
+         * Replace root by generated class. Keeps compiled nodes, if tree has no generated code or generation fails.
+         */
+        private void generate() {
+            if (generator == null) {
+                return;
+            }
+            try {
+                GeneratedExecutable generated = generator.generate(tree, new Function<Node<?>, Executable>() {
+                    @Override
+                    public Executable apply(Node<?> node) {
+                        return compileNode(node);
+                    }
+                });
+                if (generated != null) {
+                    root = generated;
+                }
+            } catch (RuntimeException e) {
+                failure = e;
+            } catch (LinkageError e) {
+                failure = e;
+            }
+        }
+    }
+
+    private class Compiler implements ValueVisitor<Executable> {
+        private final SlotResolver resolver;
+
+        private Compiler(SlotResolver resolver) {
+            this.resolver = resolver;
+        }
+
+        @Override
+        public Executable visit(ConstNode<?> constNode) {
+            Object value = constNode.getValue();
+            if (unboxedDoubles && value instanceof Double) {
+                return new DoubleConstant((Double) value);
+            }
+            return new Constant(value);
+        }
+
+        @Override
+        public Executable visit(VarNode<?> varNode) {
+            SlotResolver.Slot slot = resolver.resolve(varNode.getName());
+            return slot != null ? new SlotVariable(varNode, slot) : new Variable(varNode);
+        }
+
+        @Override
+        public Executable visit(FunctionNode<?, ?> functionNode) {
+            Executable call = compileCall(functionNode);
+            if (instrumentation != null && !(call instanceof Interpreted)) {
+                return new MeasuredCall(Instrumentation.callName(functionNode), call);
+            }
+            return call;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Executable compileCall(FunctionNode<?, ?> functionNode) {
+            ContextCurriedFunction<Object, Object> function = functions.get(functionNode.getFunctionName());
+            if (function == null) {
+                return new Interpreted(functionNode);
+            }
+
+            List<? extends Node<?>> arguments = functionNode.getArguments();
+            if (resolver.isFunctionDefinition(functionNode)) {
+                List<String> names = (List<String>) SlotResolver.constant(arguments.get(0));
+                Node<?> body = (Node<?>) SlotResolver.constant(arguments.get(1));
+                SlotResolver bodyResolver = resolver.enterFunction(names, body);
+                return new FunctionDefinition(functionNode, bodyResolver.getLayout(), body.accept(new Compiler(bodyResolver)));
+            }
+            if (resolver.isLoop(functionNode)) {
+                SlotResolver bodyResolver = resolver.enterLoop((String) SlotResolver.constant(arguments.get(0)));
+                Node<?> body = (Node<?>) SlotResolver.constant(arguments.get(2));
+                return new Loop(functionNode, bodyResolver.getLayout(), arguments.get(1).accept(this), body.accept(new Compiler(bodyResolver)));
+            }
+
+            if (unboxedDoubles && function instanceof PureFunction<?, ?> && arguments.size() == 2) {
+                VarArgFunction<Object, Object> delegate = ((PureFunction<Object, Object>) function).getDelegate();
+                if (delegate instanceof DoubleOperator || delegate instanceof DoublePredicate) {
+                    return compileBinary(functionNode, delegate, arguments.get(0).accept(this), arguments.get(1).accept(this));
+                }
+            }
+
+            Executable[] args = compileAll(arguments);
+            if (function instanceof PureFunction<?, ?>) {
+                VarArgFunction<Object, Object> delegate = ((PureFunction<Object, Object>) function).getDelegate();
+                if (args.length == 1 && delegate instanceof UnaryFunction<?, ?>) {
+                    return new UnaryCall(functionNode, (UnaryFunction<Object, Object>) delegate, args[0]);
+                }
+                if (args.length == 2 && delegate instanceof BinaryFunction<?, ?>) {
+                    return new BinaryCall(functionNode, (BinaryFunction<Object, Object>) delegate, args[0], args[1]);
+                }
+                return new PureCall(functionNode, delegate, args);
+            } else {
+                return new ContextCall(functionNode, function, args);
+            }
+        }
+
+        @Override
+        public Executable visit(PropertyNode<?> propertyNode) {
+            List<? extends PropertyDescriptor> descriptors = propertyNode.getProperties();
+            Object[] properties = new Object[descriptors.size()];
+            for (int i = 0; i < properties.length; i++) {
+                properties[i] = compileProperty(descriptors.get(i));
+            }
+
+            return new PropertyChain(propertyNode, propertyNode.getTarget().accept(this), properties);
+        }
+
+        /**
+         * Compile property descriptor
+         * @param descriptor property descriptor
+         * @return PropertyAccess for simple properties, Executable for indexed
+         */
+        @SuppressWarnings("LoopStatementThatDoesntLoop")
+        private Object compileProperty(PropertyDescriptor descriptor) {
+            for (String name : descriptor.value().left()) {
+                return PropertyAccess.simple(name);
+            }
+            for (Node<?> index : descriptor.value().right()) {
+                return index.accept(this);
+            }
+
+            throw new IllegalStateException("Either has no value, will never happen");
+        }
+
+        private Executable compileBinary(FunctionNode<?, ?> node, VarArgFunction<Object, Object> function,
+                                         Executable left, Executable right) {
+            if (function instanceof DoubleOperator) {
+                DoubleOperator operator = (DoubleOperator) function;
+                boolean numericArgs = left instanceof DoubleExecutable && right instanceof DoubleExecutable;
+                if (operator.isNumeric() || numericArgs) {
+                    return new DoubleCall(node, operator, left, right);
+                }
+            }
+            return new GuardedCall(node, function, left, right);
+        }
+
+        private Executable[] compileAll(List<? extends Node<?>> nodes) {
+            Executable[] result = new Executable[nodes.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = nodes.get(i).accept(this);
+            }
+            return result;
+        }
+    }
+
+    private static class Constant implements Executable {
+        private final Object value;
+
+        private Constant(Object value) {
+            this.value = value;
+        }
+
+        @Override
+        public Object execute(Context context) {
+            return value;
+        }
+    }
+
+    private static class DoubleConstant implements DoubleExecutable {
+        private final Double value;
+        private final double unboxed;
+
+        private DoubleConstant(Double value) {
+            this.value = value;
+            this.unboxed = value;
+        }
+
+        @Override
+        public double executeDouble(Context context) {
+            return unboxed;
+        }
+
+        @Override
+        public Object execute(Context context) {
+            return value;
+        }
+    }
+
+    private class Variable implements Executable {
+        private final VarNode<?> node;
+        private final String name;
+
+        private Variable(VarNode<?> node) {
+            this.node = node;
+            this.name = node.getName();
+        }
+
+        @Override
+        public Object execute(Context context) {
+            try {
+                return processValue(context.getScope().get(name));
+            } catch (Exception e) {
+                throw new PropagatedException(node, e);
+            }
+        }
+    }
+
+    /**
+     * Variable resolved to frame slot. Falls back to lookup by name, if scope chain doesn't match resolved frames,
+     * or if slot of local variable is not set yet.
+     */
+    private class SlotVariable implements Executable {
+        private final VarNode<?> node;
+        private final String name;
+        private final FrameLayout[] path;
+        private final int index;
+
+        private SlotVariable(VarNode<?> node, SlotResolver.Slot slot) {
+            this.node = node;
+            this.name = node.getName();
+            this.path = slot.path;
+            this.index = slot.index;
+        }
+
+        @Override
+        public Object execute(Context context) {
+            try {
+                Scope scope = context.getScope();
+                for (int depth = 0; scope instanceof FrameScope; depth++) {
+                    FrameScope frame = (FrameScope) scope;
+                    if (frame.getLayout() != path[depth]) break;
+
+                    if (depth == path.length - 1) {
+                        if (frame.isSet(index)) return processValue(frame.getSlot(index));
+                        break;
+                    }
+                    if (frame.hasCapturedVariables()) break;
+                    scope = frame.getParent();
+                }
+                return processValue(context.getScope().get(name));
+            } catch (Exception e) {
+                throw new PropagatedException(node, e);
+            }
+        }
+    }
+
+    private class FunctionDefinition implements Executable {
+        private final FunctionNode<?, ?> node;
+        private final FrameLayout layout;
+        private final Executable body;
+
+        private FunctionDefinition(FunctionNode<?, ?> node, FrameLayout layout, Executable body) {
+            this.node = node;
+            this.layout = layout;
+            this.body = body;
+        }
+
+        @Override
+        public Object execute(Context context) {
+            try {
+                return processValue(new CompiledFunction(layout, body, context));
+            } catch (Exception e) {
+                throw new PropagatedException(node, e);
+            }
+        }
+    }
+
+    /**
+     * Function literal with compiled body, evaluates body in a new frame.
+     */
+    private static class CompiledFunction implements VarArgFunction<Object, Object>,
+            UnaryFunction<Object, Object>, BinaryFunction<Object, Object> {
+        private final FrameLayout layout;
+        private final Executable body;
+        private final Context context;
+
+        private CompiledFunction(FrameLayout layout, Executable body, Context context) {
+            this.layout = layout;
+            this.body = body;
+            this.context = context;
+        }
+
+        @Override
+        public Object apply(List<Object> actualArgs) {
+            Preconditions.checkArgument(actualArgs.size() == layout.getArgumentCount(), "Wrong number of arguments");
+
+            Scope scope = frame(context.getScope(), layout, actualArgs.toArray());
+            return body.execute(withVariables(context, scope));
+        }
+
+        @Override
+        public Object apply1(Object arg) {
+            Preconditions.checkArgument(layout.getArgumentCount() == 1, "Wrong number of arguments");
+
+            return body.execute(withVariables(context, frame(context.getScope(), layout, arg)));
+        }
+
+        @Override
+        public Object apply2(Object first, Object second) {
+            Preconditions.checkArgument(layout.getArgumentCount() == 2, "Wrong number of arguments");
+
+            return body.execute(withVariables(context, frame(context.getScope(), layout, first, second)));
+        }
+    }
+
+    private class Loop implements Executable {
+        private final FunctionNode<?, ?> node;
+        private final FrameLayout layout;
+        private final Executable target;
+        private final Executable body;
+
+        private Loop(FunctionNode<?, ?> node, FrameLayout layout, Executable target, Executable body) {
+            this.node = node;
+            this.layout = layout;
+            this.target = target;
+            this.body = body;
+        }
+
+        @Override
+        public Object execute(Context context) {
+            try {
+                Iterable<?> items = (Iterable<?>) target.execute(context);
+
+                Object lastValue = null;
+                for (Object item : items) {
+                    lastValue = body.execute(withVariables(context, frame(context.getScope(), layout, item)));
+                }
+                return processValue(lastValue);
+            } catch (Exception e) {
+                throw new PropagatedException(node, e);
+            }
+        }
+    }
+
+    private class PureCall implements Executable {
+        private final FunctionNode<?, ?> node;
+        private final VarArgFunction<Object, Object> function;
+        private final Executable[] args;
+
+        private PureCall(FunctionNode<?, ?> node, VarArgFunction<Object, Object> function, Executable[] args) {
+            this.node = node;
+            this.function = function;
+            this.args = args;
+        }
+
+        @Override
+        public Object execute(Context context) {
+            try {
+                return processValue(function.apply(new Arguments(args, context)));
+            } catch (Exception e) {
+                throw new PropagatedException(node, e);
+            }
+        }
+    }
+
+    private class UnaryCall implements Executable {
+        private final FunctionNode<?, ?> node;
+        private final UnaryFunction<Object, Object> function;
+        private final Executable arg;
+
+        private UnaryCall(FunctionNode<?, ?> node, UnaryFunction<Object, Object> function, Executable arg) {
+            this.node = node;
+            this.function = function;
+            this.arg = arg;
+        }
+
+        @Override
+        public Object execute(Context context) {
+            try {
+                return processValue(function.apply1(arg.execute(context)));
+            } catch (Exception e) {
+                throw new PropagatedException(node, e);
+            }
+        }
+    }
+
+    private class BinaryCall implements Executable {
+        private final FunctionNode<?, ?> node;
+        private final BinaryFunction<Object, Object> function;
+        private final Executable left;
+        private final Executable right;
+
+        private BinaryCall(FunctionNode<?, ?> node, BinaryFunction<Object, Object> function, Executable left, Executable right) {
+            this.node = node;
+            this.function = function;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public Object execute(Context context) {
+            try {
+                Object leftValue = left.execute(context);
+                return processValue(function.apply2(leftValue, right.execute(context)));
+            } catch (Exception e) {
+                throw new PropagatedException(node, e);
+            }
+        }
+    }
+
+    /**
+     * Numeric operator call on unboxed arguments. Non-numeric arguments fail, same as in boxed form.
+     */
+    private class DoubleCall implements DoubleExecutable {
+        private final FunctionNode<?, ?> node;
+        private final DoubleOperator operator;
+        private final Executable left;
+        private final Executable right;
+
+        private DoubleCall(FunctionNode<?, ?> node, DoubleOperator operator, Executable left, Executable right) {
+            this.node = node;
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public double executeDouble(Context context) {
+            try {
+                return operator.applyAsDouble(unbox(left, context), unbox(right, context));
+            } catch (Exception e) {
+                throw new PropagatedException(node, e);
+            }
+        }
+
+        @Override
+        public Object execute(Context context) {
+            return processValue(executeDouble(context));
+        }
+
+        private double unbox(Executable executable, Context context) {
+            if (executable instanceof DoubleExecutable) {
+                return ((DoubleExecutable) executable).executeDouble(context);
+            } else {
+                return ((Number) executable.execute(context)).doubleValue();
+            }
+        }
+    }
+
+    /**
+     * Binary call, which is evaluated unboxed if both arguments are doubles, and by boxed function otherwise.
+     */
+    private class GuardedCall implements Executable {
+        private final FunctionNode<?, ?> node;
+        private final VarArgFunction<Object, Object> function;
+        private final Executable left;
+        private final Executable right;
+
+        private GuardedCall(FunctionNode<?, ?> node, VarArgFunction<Object, Object> function, Executable left, Executable right) {
+            this.node = node;
+            this.function = function;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public Object execute(Context context) {
+            try {
+                Object leftValue = null;
+                Object rightValue = null;
+                double leftNumber;
+                double rightNumber;
+
+                if (left instanceof DoubleExecutable) {
+                    leftNumber = ((DoubleExecutable) left).executeDouble(context);
+                } else {
+                    leftValue = left.execute(context);
+                    leftNumber = leftValue instanceof Double ? (Double) leftValue : Double.NaN;
+                }
+                if (right instanceof DoubleExecutable) {
+                    rightNumber = ((DoubleExecutable) right).executeDouble(context);
+                } else {
+                    rightValue = right.execute(context);
+                    rightNumber = rightValue instanceof Double ? (Double) rightValue : Double.NaN;
+                }
+
+                boolean leftIsNumber = left instanceof DoubleExecutable || leftValue instanceof Double;
+                boolean rightIsNumber = right instanceof DoubleExecutable || rightValue instanceof Double;
+                if (leftIsNumber && rightIsNumber) {
+                    return processValue(applyUnboxed(leftNumber, rightNumber));
+                }
+
+                // Boxed fallback, numeric sub-trees are boxed here
+                if (left instanceof DoubleExecutable) leftValue = leftNumber;
+                if (right instanceof DoubleExecutable) rightValue = rightNumber;
+                return processValue(FixedArity.apply(function, leftValue, rightValue));
+            } catch (Exception e) {
+                throw new PropagatedException(node, e);
+            }
+        }
+
+        private Object applyUnboxed(double left, double right) {
+            if (function instanceof DoubleOperator) {
+                return ((DoubleOperator) function).applyAsDouble(left, right);
+            } else {
+                return ((DoublePredicate) function).test(left, right);
+            }
+        }
+    }
+
+    private class ContextCall implements Executable {
+        private final FunctionNode<?, ?> node;
+        private final ContextCurriedFunction<Object, Object> function;
+        private final Executable[] args;
+
+        private ContextCall(FunctionNode<?, ?> node, ContextCurriedFunction<Object, Object> function, Executable[] args) {
+            this.node = node;
+            this.function = function;
+            this.args = args;
+        }
+
+        @Override
+        public Object execute(Context context) {
+            try {
+                List<Object> evaluatedArgs = new Arguments(args, context);
+                return processValue(function.apply(context).apply(evaluatedArgs));
+            } catch (Exception e) {
+                throw new PropagatedException(node, e);
+            }
+        }
+    }
+
+    private class MeasuredCall implements Executable {
+        private final String name;
+        private final Executable call;
+
+        private MeasuredCall(String name, Executable call) {
+            this.name = name;
+            this.call = call;
+        }
+
+        @Override
+        public Object execute(Context context) {
+            long startNanos = System.nanoTime();
+            long startBytes = instrumentation.allocatedBytes();
+            try {
+                return call.execute(context);
+            } finally {
+                instrumentation.functionCalled(name, startNanos, startBytes);
+            }
+        }
+    }
+
+    private class PropertyChain implements Executable {
+        private final PropertyNode<?> node;
+        private final Executable target;
+        private final Object[] properties;
+        private final ChainResolver siteResolver;
+
+        private PropertyChain(PropertyNode<?> node, Executable target, Object[] properties) {
+            this.node = node;
+            this.target = target;
+            this.properties = properties;
+            this.siteResolver = chainResolver instanceof InlineCachingResolver
+                    ? ((InlineCachingResolver) chainResolver).forSite()
+                    : chainResolver;
+        }
+
+        @Override
+        public Object execute(Context context) {
+            try {
+                final Object targetValue = target.execute(context);
+                final List<PropertyAccess> evaluatedProps = new PropertyAccessList(properties, context);
+
+                return new TargetProperty(targetValue, evaluatedProps) {
+                    @Override
+                    public void set(Object value) {
+                        try {
+                            siteResolver.set(targetValue, evaluatedProps, value);
+                        } catch (Exception e) {
+                            throw new PropagatedException(node, e);
+                        }
+                    }
+
+                    @Override
+                    public Object get() {
+                        try {
+                            return processValue(siteResolver.get(targetValue, evaluatedProps));
+                        } catch (Exception e) {
+                            throw new PropagatedException(node, e);
+                        }
+                    }
+                };
+            } catch (Exception e) {
+                throw new PropagatedException(node, e);
+            }
+        }
+    }
+
+    private class Interpreted implements Executable {
+        private final Node<?> node;
+
+        private Interpreted(Node<?> node) {
+            this.node = node;
+        }
+
+        @Override
+        public Object execute(Context context) {
+            return node.accept(new LazyVisitor(context, valueProcessor, chainResolver));
+        }
+    }
+
+    /**
+     * Lazy argument list, evaluates argument on each access
+     */
+    private static class Arguments extends AbstractList<Object> implements RandomAccess {
+        private final Executable[] args;
+        private final Context context;
+
+        private Arguments(Executable[] args, Context context) {
+            this.args = args;
+            this.context = context;
+        }
+
+        @Override
+        public Object get(int index) {
+            return args[index].execute(context);
+        }
+
+        @Override
+        public int size() {
+            return args.length;
+        }
+    }
+
+    /**
+     * Lazy property list, evaluates indexes on each access
+     */
+    private static class PropertyAccessList extends AbstractList<PropertyAccess> implements RandomAccess {
+        private final Object[] properties;
+        private final Context context;
+
+        private PropertyAccessList(Object[] properties, Context context) {
+            this.properties = properties;
+            this.context = context;
+        }
+
+        @Override
+        public PropertyAccess get(int index) {
+            Object property = properties[index];
+            if (property instanceof PropertyAccess) {
+                return (PropertyAccess) property;
+            } else {
+                return PropertyAccess.indexed(((Executable) property).execute(context));
+            }
+        }
+
+        @Override
+        public int size() {
+            return properties.length;
+        }
+    }
+}
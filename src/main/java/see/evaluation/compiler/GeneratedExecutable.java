@@ -0,0 +1,76 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package see.evaluation.compiler;
+
+import see.evaluation.Context;
+import see.evaluation.ValueProcessor;
+import see.exceptions.PropagatedException;
+import see.tree.Node;
+
+/**
+ * Base class for expressions, generated by {@link BytecodeGenerator}.
+ * Generated classes are defined by their own class loader, so this class and its members are accessible from other packages.
+ * Not intended to be extended otherwise.
+ */
+public abstract class GeneratedExecutable implements ExpressionCompiler.Executable {
+    /**
+     * Constant pool of generated code: constant values, functions, variable names and nodes for error traces.
+     */
+    protected final Object[] constants;
+
+    private final Object[] fallbacks;
+    private final ValueProcessor valueProcessor;
+
+    protected GeneratedExecutable(Object[] constants, Object[] fallbacks, ValueProcessor valueProcessor) {
+        this.constants = constants;
+        this.fallbacks = fallbacks;
+        this.valueProcessor = valueProcessor;
+    }
+
+    /**
+     * Evaluate a sub-tree, which has no generated code.
+     * @param index fallback index
+     * @param context evaluation context
+     * @return evaluation result
+     */
+    protected final Object fallback(int index, Context context) {
+        return ((ExpressionCompiler.Executable) fallbacks[index]).execute(context);
+    }
+
+    /**
+     * Read variable by name, same as visitor does.
+     * @param context evaluation context
+     * @param name variable name
+     * @param node variable node, reported on failure
+     * @return processed variable value
+     */
+    protected final Object variable(Context context, String name, Node<?> node) {
+        try {
+            return valueProcessor.apply(context.getScope().get(name));
+        } catch (Exception e) {
+            throw new PropagatedException(node, e);
+        }
+    }
+
+    protected final Object process(Object value) {
+        return valueProcessor.apply(value);
+    }
+
+    protected final RuntimeException propagate(Node<?> node, Exception cause) {
+        return new PropagatedException(node, cause);
+    }
+}
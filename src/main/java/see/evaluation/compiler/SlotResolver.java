@@ -0,0 +1,183 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package see.evaluation.compiler;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+import see.evaluation.scopes.FrameLayout;
+import see.functions.service.Iterate;
+import see.functions.service.MakeFunction;
+import see.functions.service.VarAsSettable;
+import see.parser.config.FunctionResolver;
+import see.parser.grammar.PropertyDescriptor;
+import see.tree.*;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Compile-time resolution of variables to frame slots.
+ *
+ * Instance represents lexical environment: frames of enclosing function definitions and loops, innermost first.
+ * Variables not found in any frame are resolved by name at evaluation time.
+ */
+class SlotResolver {
+    private final FunctionResolver functions;
+    private final FrameLayout layout;
+    private final SlotResolver outer;
+
+    private SlotResolver(FunctionResolver functions, FrameLayout layout, SlotResolver outer) {
+        this.functions = functions;
+        this.layout = layout;
+        this.outer = outer;
+    }
+
+    static SlotResolver topLevel(FunctionResolver functions) {
+        return new SlotResolver(functions, null, null);
+    }
+
+    /**
+     * Create environment for function body.
+     * Body variables, which are assigned outside of nested functions, get local slots.
+     */
+    SlotResolver enterFunction(List<String> arguments, Node<?> body) {
+        Set<String> locals = Sets.newLinkedHashSet();
+        body.accept(new AssignedNames(locals));
+        return new SlotResolver(functions, FrameLayout.function(arguments, locals), this);
+    }
+
+    SlotResolver enterLoop(String variable) {
+        return new SlotResolver(functions, FrameLayout.loop(variable), this);
+    }
+
+    FrameLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Resolve variable in this environment.
+     * @param name variable name
+     * @return slot, or null if variable should be resolved by name
+     */
+    Slot resolve(String name) {
+        ImmutableList.Builder<FrameLayout> path = ImmutableList.builder();
+        for (SlotResolver env = this; env.layout != null; env = env.outer) {
+            path.add(env.layout);
+            int index = env.layout.indexOf(name);
+            if (index >= 0) {
+                List<FrameLayout> frames = path.build();
+                return new Slot(frames.toArray(new FrameLayout[frames.size()]), index);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Check if node is a function definition with constant argument names and body.
+     */
+    boolean isFunctionDefinition(FunctionNode<?, ?> node) {
+        List<? extends Node<?>> args = node.getArguments();
+        return function(node) instanceof MakeFunction && args.size() == 2 &&
+                constant(args.get(0)) instanceof List<?> && constant(args.get(1)) instanceof Node<?>;
+    }
+
+    /**
+     * Check if node is a loop with constant variable name and body.
+     */
+    boolean isLoop(FunctionNode<?, ?> node) {
+        List<? extends Node<?>> args = node.getArguments();
+        return function(node) instanceof Iterate && args.size() == 3 &&
+                constant(args.get(0)) instanceof String && constant(args.get(2)) instanceof Node<?>;
+    }
+
+    private boolean isVariableTarget(FunctionNode<?, ?> node) {
+        List<? extends Node<?>> args = node.getArguments();
+        return function(node) instanceof VarAsSettable && args.size() == 1 && constant(args.get(0)) instanceof String;
+    }
+
+    private Object function(FunctionNode<?, ?> node) {
+        return functions.get(node.getFunctionName());
+    }
+
+    static Object constant(Node<?> node) {
+        return node instanceof ConstNode<?> ? ((ConstNode<?>) node).getValue() : null;
+    }
+
+    /**
+     * Resolved slot: layouts of frames from innermost to the one holding variable, and slot index in last frame.
+     */
+    static class Slot {
+        final FrameLayout[] path;
+        final int index;
+
+        private Slot(FrameLayout[] path, int index) {
+            this.path = path;
+            this.index = index;
+        }
+    }
+
+    /**
+     * Collects names of assigned variables. Skips nested function bodies, descends into loop bodies.
+     */
+    private class AssignedNames implements ValueVisitor<Void> {
+        private final Set<String> names;
+
+        private AssignedNames(Set<String> names) {
+            this.names = names;
+        }
+
+        @Override
+        public Void visit(ConstNode<?> node) {
+            return null;
+        }
+
+        @Override
+        public Void visit(VarNode<?> node) {
+            return null;
+        }
+
+        @Override
+        public Void visit(FunctionNode<?, ?> node) {
+            List<? extends Node<?>> args = node.getArguments();
+            if (isFunctionDefinition(node)) {
+                return null;
+            } else if (isVariableTarget(node)) {
+                names.add((String) constant(args.get(0)));
+            } else if (isLoop(node)) {
+                args.get(1).accept(this);
+                ((Node<?>) constant(args.get(2))).accept(this);
+            } else {
+                for (Node<?> arg : args) {
+                    arg.accept(this);
+                }
+            }
+            return null;
+        }
+
+        @SuppressWarnings("LoopStatementThatDoesntLoop")
+        @Override
+        public Void visit(PropertyNode<?> node) {
+            node.getTarget().accept(this);
+            for (PropertyDescriptor property : node.getProperties()) {
+                for (Node<?> index : property.value().right()) {
+                    index.accept(this);
+                }
+            }
+            return null;
+        }
+    }
+}
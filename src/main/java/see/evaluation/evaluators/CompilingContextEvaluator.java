@@ -0,0 +1,114 @@
+package see.evaluation.evaluators;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ClassToInstanceMap;
+import see.evaluation.Context;
+import see.evaluation.ContextEvaluator;
+import see.evaluation.compiler.CompiledExpression;
+import see.evaluation.compiler.ExpressionCompiler;
+import see.tree.ConstNode;
+import see.tree.FunctionNode;
+import see.tree.Node;
+import see.tree.PropertyNode;
+import see.tree.Untyped;
+import see.tree.ValueVisitor;
+import see.tree.VarNode;
+import see.tree.immutable.ImmutableConstNode;
+import see.tree.immutable.ImmutableFunctionNode;
+import see.tree.immutable.ImmutablePropertyNode;
+import see.tree.immutable.ImmutableVarNode;
+
+import java.util.List;
+
+import static see.evaluation.evaluators.SimpleContext.addService;
+
+/**
+ * Evaluator, which compiles each tree once and evaluates compiled form.
+ * Evaluation semantics are same as in {@link LazyContextEvaluator}.
+ *
+ * Compiled expressions are cached by tree identity, as long as tree is reachable.
+ * Cached expression is compiled from a shallow copy of the tree, so it doesn't keep the tree reachable.
+ * Function bodies and loop bodies, evaluated through this evaluator, are cached the same way.
+ * Instances are thread-safe.
+ */
+public class CompilingContextEvaluator implements ContextEvaluator {
+    private final LoadingCache<Node<?>, CompiledExpression<?>> compiled;
+
+    public CompilingContextEvaluator(final ExpressionCompiler compiler) {
+        this.compiled = CacheBuilder.newBuilder()
+                .weakKeys()
+                .build(new CacheLoader<Node<?>, CompiledExpression<?>>() {
+                    @Override
+                    public CompiledExpression<?> load(Node<?> tree) {
+                        return compiler.compile(detach(tree));
+                    }
+                });
+    }
+
+    /**
+     * Create evaluator, which compiles trees against supplied services.
+     * @param services evaluation services
+     * @return created evaluator
+     */
+    public static CompilingContextEvaluator fromServices(ClassToInstanceMap<Object> services) {
+        return new CompilingContextEvaluator(ExpressionCompiler.fromServices(services));
+    }
+
+    @Override
+    public <T> T evaluate(Node<T> tree, Context context) {
+        Context actualContext = addService(context, ContextEvaluator.class, this);
+
+        return compile(tree).evaluate(actualContext);
+    }
+
+    /**
+     * Get compiled form of a tree, compile it if not cached.
+     * @param tree tree to compile
+     * @param <T> result type
+     * @return compiled expression
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompiledExpression<T> compile(Node<T> tree) {
+        return (CompiledExpression<T>) compiled.getUnchecked(tree);
+    }
+
+    /**
+     * Copy root of a tree. Compiled expression references nodes of its tree, so a value compiled from the tree itself
+     * would keep its weak key reachable. Sub-trees are shared, they don't reference the root.
+     * Parsed nodes are copied with their position, so error traces still include the root.
+     *
+     * @param tree tree to copy
+     * @return equal tree with a new root node
+     */
+    private static Node<?> detach(Node<?> tree) {
+        if (tree instanceof Untyped.Node) {
+            return ((Untyped.Node) tree).detached();
+        }
+
+        return tree.accept(new ValueVisitor<Node<?>>() {
+            @Override
+            public Node<?> visit(ConstNode<?> constNode) {
+                return new ImmutableConstNode<Object>(constNode.getValue());
+            }
+
+            @Override
+            public Node<?> visit(VarNode<?> varNode) {
+                return new ImmutableVarNode<Object>(varNode.getName());
+            }
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public Node<?> visit(FunctionNode<?, ?> functionNode) {
+                return new ImmutableFunctionNode<Object, Object>(functionNode.getFunctionName(),
+                        (List<Node<Object>>) (List<?>) functionNode.getArguments());
+            }
+
+            @Override
+            public Node<?> visit(PropertyNode<?> propertyNode) {
+                return ImmutablePropertyNode.propertyNode(propertyNode.getTarget(), propertyNode.getProperties());
+            }
+        });
+    }
+}
@@ -1,8 +1,21 @@
 package see.evaluation.evaluators;
 
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ClassToInstanceMap;
+import com.google.common.collect.ImmutableClassToInstanceMap;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.math.IntMath;
 import see.evaluation.*;
+import see.evaluation.columns.Column;
+import see.evaluation.columns.ColumnarEvaluator;
+import see.evaluation.compiler.CompiledExpression;
+import see.evaluation.compiler.ExpressionCompiler;
 import see.evaluation.conversions.BuiltinConversions;
+import see.evaluation.metrics.Instrumentation;
+import see.evaluation.scopes.Scopes;
 import see.exceptions.EvaluationException;
 import see.exceptions.SeeRuntimeException;
 import see.parser.config.FunctionResolver;
@@ -11,19 +24,37 @@ import see.parser.numbers.NumberFactory;
 import see.properties.ChainResolver;
 import see.tree.Node;
 
+import java.math.RoundingMode;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 
 import static com.google.common.collect.ImmutableClassToInstanceMap.builder;
+import static see.evaluation.evaluators.SimpleContext.addService;
 import static see.evaluation.scopes.Scopes.*;
 
 public class SimpleEvaluator implements Evaluator {
 
+    private static final int PROCESSORS = Runtime.getRuntime().availableProcessors();
+    private static final int CHUNKS_PER_PROCESSOR = 4;
+
     private final Scope functionScope;
     private final ClassToInstanceMap<Object> services;
+    private final ContextEvaluator contextEvaluator;
+    private final Instrumentation instrumentation;
 
     public SimpleEvaluator(Scope initialScope, ClassToInstanceMap<Object> services) {
+        this(initialScope, services, new LazyContextEvaluator());
+    }
+
+    public SimpleEvaluator(Scope initialScope, ClassToInstanceMap<Object> services, ContextEvaluator contextEvaluator) {
         this.functionScope = initialScope;
         this.services = services;
+        this.contextEvaluator = contextEvaluator;
+        this.instrumentation = services.getInstance(Instrumentation.class);
     }
 
     public static Evaluator fromConfig(GrammarConfiguration config) {
@@ -33,18 +64,32 @@ public class SimpleEvaluator implements Evaluator {
         );
     }
 
+    /**
+     * Create evaluator, which compiles evaluated trees and caches compiled form.
+     * @param config see configuration
+     * @return created evaluator
+     * @see CompilingContextEvaluator
+     */
+    public static SimpleEvaluator compiling(GrammarConfiguration config) {
+        ClassToInstanceMap<Object> services = extractServices(config);
+        return new SimpleEvaluator(extractScope(config), services, CompilingContextEvaluator.fromServices(services));
+    }
+
     public static Scope extractScope(GrammarConfiguration config) {
         return fromMap(config.getFunctions().getFunctions());
     }
 
     public static ClassToInstanceMap<Object> extractServices(GrammarConfiguration config) {
-        return builder()
+        ImmutableClassToInstanceMap.Builder<Object> services = builder()
                 .put(NumberFactory.class, config.getNumberFactory())
                 .put(ChainResolver.class, config.getChainResolver())
                 .put(ValueProcessor.class, config.getValueProcessor())
                 .put(ToFunction.class, BuiltinConversions.all())
-                .put(FunctionResolver.class, config.getFunctions())
-                .build();
+                .put(FunctionResolver.class, config.getFunctions());
+        if (config.getInstrumentation() != null) {
+            services.put(Instrumentation.class, config.getInstrumentation());
+        }
+        return services.build();
     }
 
     /**
@@ -62,7 +107,195 @@ public class SimpleEvaluator implements Evaluator {
         try {
             Context context = SimpleContext.create(createLocalScope(initial), services);
 
-            return new LazyContextEvaluator().evaluate(tree, context);
+            if (instrumentation == null) {
+                return contextEvaluator.evaluate(tree, context);
+            }
+
+            long startNanos = System.nanoTime();
+            long startBytes = instrumentation.allocatedBytes();
+            try {
+                return contextEvaluator.evaluate(tree, context);
+            } finally {
+                instrumentation.expressionEvaluated(tree, startNanos, startBytes);
+            }
+        } catch (Exception e) {
+            throw new SeeRuntimeException(e);
+        }
+    }
+
+    /**
+     * Evaluate compiled expression with exception translation.
+     * Same as {@link #evaluate(Node, Map)} for the source tree.
+     *
+     * @param expression expression to evaluate
+     * @param initial evaluation context
+     * @param <T> return type
+     * @return evaluation result
+     * @throws EvaluationException on error during evaluation
+     */
+    public <T> T evaluate(CompiledExpression<T> expression, final Map<String, ?> initial) throws EvaluationException {
+        try {
+            Context context = addService(SimpleContext.create(createLocalScope(initial), services),
+                    ContextEvaluator.class, contextEvaluator);
+
+            if (instrumentation == null) {
+                return expression.evaluate(context);
+            }
+
+            long startNanos = System.nanoTime();
+            long startBytes = instrumentation.allocatedBytes();
+            try {
+                return expression.evaluate(context);
+            } finally {
+                instrumentation.expressionEvaluated(expression.getTree(), startNanos, startBytes);
+            }
+        } catch (Exception e) {
+            throw new SeeRuntimeException(e);
+        }
+    }
+
+    /**
+     * Evaluate tree once per row.
+     * Compiled form, services and shared scopes are prepared once, each row gets own scope for assignments.
+     * Evaluation stops on first error.
+     *
+     * @param tree tree to evaluate
+     * @param shared variables, common for all rows
+     * @param rows row variables, override shared ones
+     * @param results destination, result of row i is stored at index i
+     * @param <T> return type
+     * @throws IllegalArgumentException if results array is shorter than rows
+     * @throws EvaluationException on error during evaluation
+     */
+    public <T> void evaluateBatch(Node<T> tree, Map<String, ?> shared, Iterable<? extends Map<String, ?>> rows,
+                                  Object[] results) throws EvaluationException {
+        checkCapacity(rows, results);
+        Batch<T> batch = prepareBatch(tree, shared);
+        int i = 0;
+        for (Map<String, ?> row : rows) {
+            results[i++] = batch.evaluate(row);
+        }
+    }
+
+    /**
+     * Evaluate tree once per item, with item bound to a variable.
+     * Same as {@link #evaluateBatch(Node, Map, Iterable, Object[])} with single-variable rows.
+     *
+     * @param tree tree to evaluate
+     * @param shared variables, common for all items
+     * @param variable variable name for item
+     * @param items items to evaluate
+     * @param results destination, result of item i is stored at index i
+     * @param <T> return type
+     * @throws IllegalArgumentException if results array is shorter than items
+     * @throws EvaluationException on error during evaluation
+     */
+    public <T> void evaluateEach(Node<T> tree, Map<String, ?> shared, String variable, Iterable<?> items,
+                                 Object[] results) throws EvaluationException {
+        checkCapacity(items, results);
+        Batch<T> batch = prepareBatch(tree, shared);
+        int i = 0;
+        for (Object item : items) {
+            results[i++] = batch.evaluate(Collections.singletonMap(variable, item));
+        }
+    }
+
+    private static void checkCapacity(Iterable<?> rows, Object[] results) {
+        int size = Iterables.size(rows);
+        Preconditions.checkArgument(results.length >= size, "Results array too short: %s for %s rows", results.length, size);
+    }
+
+    /**
+     * Evaluate tree once per row, in parallel.
+     * Rows are split into chunks, which are evaluated by supplied executor.
+     * Chunks, which executor hasn't started yet, are evaluated by calling thread.
+     * Prepared evaluation state is shared between threads, each row gets own scope.
+     * Failed rows don't stop evaluation, their exceptions are collected in result.
+     *
+     * @param tree tree to evaluate
+     * @param shared variables, common for all rows
+     * @param rows row variables, override shared ones
+     * @param executor executor for chunks
+     * @param <T> return type
+     * @return results in row order, with per-row errors
+     * @throws EvaluationException if evaluation was interrupted
+     */
+    public <T> BatchResult<T> evaluateAll(Node<T> tree, Map<String, ?> shared, final List<? extends Map<String, ?>> rows,
+                                          Executor executor) throws EvaluationException {
+        final Batch<T> batch = prepareBatch(tree, shared);
+        final Object[] results = new Object[rows.size()];
+        final SeeRuntimeException[] errors = new SeeRuntimeException[rows.size()];
+
+        int chunkSize = Math.max(1, IntMath.divide(rows.size(), CHUNKS_PER_PROCESSOR * PROCESSORS, RoundingMode.CEILING));
+        List<FutureTask<?>> tasks = Lists.newArrayList();
+        for (int start = 0; start < rows.size(); start += chunkSize) {
+            final int from = start;
+            final int to = Math.min(start + chunkSize, rows.size());
+            FutureTask<Void> task = new FutureTask<Void>(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = from; i < to; i++) {
+                        try {
+                            results[i] = batch.evaluate(rows.get(i));
+                        } catch (SeeRuntimeException e) {
+                            errors[i] = e;
+                        }
+                    }
+                }
+            }, null);
+            tasks.add(task);
+            executor.execute(task);
+        }
+
+        try {
+            for (FutureTask<?> task : tasks) {
+                task.run(); // No-op if already started by executor
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SeeRuntimeException(e);
+        } catch (ExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+        return new BatchResult<T>(results, errors);
+    }
+
+    /**
+     * Evaluate tree over columns of values.
+     *
+     * @param tree tree to evaluate
+     * @param shared variables, common for all rows
+     * @param columns variable->column mapping
+     * @return result column
+     * @throws EvaluationException on error during evaluation
+     * @see ColumnarEvaluator
+     */
+    public Column evaluateColumns(Node<?> tree, Map<String, ?> shared, Map<String, Column> columns)
+            throws EvaluationException {
+        try {
+            Context context = addService(SimpleContext.create(createLocalScope(shared), services),
+                    ContextEvaluator.class, contextEvaluator);
+            return new ColumnarEvaluator().evaluate(tree, columns, context);
+        } catch (Exception e) {
+            throw new SeeRuntimeException(e);
+        }
+    }
+
+    /**
+     * Create compiler for trees, evaluated by this evaluator.
+     * @return expression compiler
+     */
+    public ExpressionCompiler createCompiler() {
+        return ExpressionCompiler.fromServices(services);
+    }
+
+    /**
+     * Prepare batch, translating errors as evaluation does.
+     */
+    private <T> Batch<T> prepareBatch(Node<T> tree, Map<String, ?> shared) {
+        try {
+            return new Batch<T>(tree, shared);
         } catch (Exception e) {
             throw new SeeRuntimeException(e);
         }
@@ -71,4 +304,48 @@ public class SimpleEvaluator implements Evaluator {
     private Scope createLocalScope(Map<String, ?> initial) {
         return defCapture(mutableOverride(functionScope, initial));
     }
+
+    /**
+     * Evaluation state, reused between rows.
+     * Row scope is created per row, since results, e.g. closures and lazy collections, can capture it.
+     */
+    private class Batch<T> {
+        private final Node<T> tree;
+        private final Map<String, ?> shared;
+        private final ClassToInstanceMap<Object> batchServices;
+        private final CompiledExpression<T> compiled;
+
+        private Batch(Node<T> tree, Map<String, ?> shared) {
+            this.tree = tree;
+            this.shared = Collections.unmodifiableMap(Maps.newHashMap(shared));
+            this.batchServices = addService(SimpleContext.create(functionScope, services),
+                    ContextEvaluator.class, contextEvaluator).getServices();
+            this.compiled = contextEvaluator instanceof CompilingContextEvaluator
+                    ? ((CompilingContextEvaluator) contextEvaluator).compile(tree)
+                    : null;
+        }
+
+        private T evaluate(Map<String, ?> row) {
+            try {
+                Context context = SimpleContext.create(Scopes.row(functionScope, shared, row), batchServices);
+                if (instrumentation == null) {
+                    return evaluate(context);
+                }
+
+                long startNanos = System.nanoTime();
+                long startBytes = instrumentation.allocatedBytes();
+                try {
+                    return evaluate(context);
+                } finally {
+                    instrumentation.expressionEvaluated(tree, startNanos, startBytes);
+                }
+            } catch (Exception e) {
+                throw new SeeRuntimeException(e);
+            }
+        }
+
+        private T evaluate(Context context) {
+            return compiled != null ? compiled.evaluate(context) : contextEvaluator.evaluate(tree, context);
+        }
+    }
 }
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package see.evaluation.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Aggregated measurements of a function or an expression.
+ */
+public class CallMetrics {
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong allocatedBytes = new AtomicLong();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    void record(long nanos, long allocated) {
+        count.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        if (allocated > 0) {
+            allocatedBytes.addAndGet(allocated);
+        }
+        latency.record(nanos);
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.get();
+    }
+
+    public long getMeanNanos() {
+        long calls = count.get();
+        return calls == 0 ? 0 : totalNanos.get() / calls;
+    }
+
+    /**
+     * Get total allocation estimate.
+     * @return allocated bytes, 0 if allocation is not measured
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes.get();
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    @Override
+    public String toString() {
+        return "CallMetrics{count=" + getCount() +
+                ", mean=" + getMeanNanos() + "ns" +
+                ", p99=" + latency.getPercentile(0.99) + "ns" +
+                ", allocated=" + getAllocatedBytes() + "B}";
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package see.evaluation.metrics;
+
+import see.tree.Node;
+
+/**
+ * Receiver of evaluation measurements.
+ * Implementations are called from evaluating threads, so they should be thread-safe and fast.
+ *
+ * @see Instrumentation
+ * @see EvaluationMetrics
+ */
+public interface EvaluationListener {
+    /**
+     * Called after each function call.
+     * Time and allocation include evaluation of arguments, which the function requested.
+     *
+     * @param function function name, or name of called variable for calls of user functions
+     * @param nanos call duration
+     * @param allocatedBytes bytes allocated by current thread during the call, -1 if not measured
+     */
+    void functionCalled(String function, long nanos, long allocatedBytes);
+
+    /**
+     * Called after each top-level evaluation.
+     *
+     * @param tree evaluated tree
+     * @param nanos evaluation duration
+     * @param allocatedBytes bytes allocated by current thread during evaluation, -1 if not measured
+     */
+    void expressionEvaluated(Node<?> tree, long nanos, long allocatedBytes);
+}
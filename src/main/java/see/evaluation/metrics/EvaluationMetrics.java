@@ -0,0 +1,85 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package see.evaluation.metrics;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.Maps;
+import see.tree.Node;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Listener, which aggregates measurements per function name and per evaluated tree.
+ * Trees are compared by identity and are not retained by metrics.
+ */
+public class EvaluationMetrics implements EvaluationListener {
+    private final ConcurrentMap<String, CallMetrics> functions = Maps.newConcurrentMap();
+    private final LoadingCache<Node<?>, CallMetrics> expressions = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build(new CacheLoader<Node<?>, CallMetrics>() {
+                @Override
+                public CallMetrics load(Node<?> key) {
+                    return new CallMetrics();
+                }
+            });
+
+    @Override
+    public void functionCalled(String function, long nanos, long allocatedBytes) {
+        CallMetrics metrics = functions.get(function);
+        if (metrics == null) {
+            CallMetrics created = new CallMetrics();
+            metrics = functions.putIfAbsent(function, created);
+            if (metrics == null) {
+                metrics = created;
+            }
+        }
+        metrics.record(nanos, allocatedBytes);
+    }
+
+    @Override
+    public void expressionEvaluated(Node<?> tree, long nanos, long allocatedBytes) {
+        expressions.getUnchecked(tree).record(nanos, allocatedBytes);
+    }
+
+    /**
+     * Get metrics per function name
+     * @return live view of function metrics
+     */
+    public Map<String, CallMetrics> getFunctions() {
+        return Collections.unmodifiableMap(functions);
+    }
+
+    /**
+     * Get metrics per evaluated tree
+     * @return live view of expression metrics
+     */
+    public Map<Node<?>, CallMetrics> getExpressions() {
+        return Collections.unmodifiableMap(expressions.asMap());
+    }
+
+    /**
+     * Discard all collected metrics
+     */
+    public void reset() {
+        functions.clear();
+        expressions.invalidateAll();
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package see.evaluation.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Allocation counter of HotSpot-based JVMs.
+ * Refers to com.sun.management, so it's loaded only reflectively, see {@link Instrumentation#withAllocation}.
+ */
+class HotSpotAllocationCounter implements AllocationCounter {
+    private final com.sun.management.ThreadMXBean threads;
+
+    /**
+     * @throws UnsupportedOperationException if allocation counters are not supported or disabled
+     */
+    public HotSpotAllocationCounter() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            throw new UnsupportedOperationException("Thread allocation counters are not available");
+        }
+
+        com.sun.management.ThreadMXBean allocation = (com.sun.management.ThreadMXBean) threads;
+        if (!allocation.isThreadAllocatedMemorySupported() || !allocation.isThreadAllocatedMemoryEnabled()) {
+            throw new UnsupportedOperationException("Thread allocation counters are disabled");
+        }
+        this.threads = allocation;
+    }
+
+    @Override
+    public long allocatedBytes() {
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package see.evaluation.metrics;
+
+import see.tree.FunctionNode;
+import see.tree.Node;
+import see.tree.VarNode;
+
+/**
+ * Evaluation service, which measures function calls and evaluations and reports them to a listener.
+ * Evaluators look it up in context services, absent instrumentation costs nothing.
+ *
+ * Allocation is measured through per-thread allocation counters of HotSpot-based JVMs.
+ */
+public final class Instrumentation {
+    private static final String ALLOCATION_COUNTER = "see.evaluation.metrics.HotSpotAllocationCounter";
+
+    private final EvaluationListener listener;
+    private final AllocationCounter allocation;
+
+    private Instrumentation(EvaluationListener listener, AllocationCounter allocation) {
+        this.listener = listener;
+        this.allocation = allocation;
+    }
+
+    /**
+     * Measure time only.
+     * @param listener measurement receiver
+     * @return created instrumentation
+     */
+    public static Instrumentation timing(EvaluationListener listener) {
+        return new Instrumentation(listener, null);
+    }
+
+    /**
+     * Measure time and allocated bytes.
+     * Falls back to time only, if JVM doesn't support allocation counters.
+     *
+     * @param listener measurement receiver
+     * @return created instrumentation
+     */
+    public static Instrumentation withAllocation(EvaluationListener listener) {
+        AllocationCounter allocation = loadAllocationCounter();
+        return allocation != null ? new Instrumentation(listener, allocation) : timing(listener);
+    }
+
+    /**
+     * Load HotSpot allocation counter reflectively, so a JVM without com.sun.management never links it.
+     * @return allocation counter, null if not supported
+     */
+    private static AllocationCounter loadAllocationCounter() {
+        try {
+            return (AllocationCounter) Class.forName(ALLOCATION_COUNTER).newInstance();
+        } catch (LinkageError e) {
+            return null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    public EvaluationListener getListener() {
+        return listener;
+    }
+
+    public boolean measuresAllocation() {
+        return allocation != null;
+    }
+
+    /**
+     * Get bytes allocated by current thread so far.
+     * @return allocated bytes, 0 if allocation is not measured
+     */
+    public long allocatedBytes() {
+        return allocation != null ? allocation.allocatedBytes() : 0;
+    }
+
+    /**
+     * Report finished function call.
+     * @param function function name
+     * @param startNanos {@link System#nanoTime()} before the call
+     * @param startBytes {@link #allocatedBytes()} before the call
+     */
+    public void functionCalled(String function, long startNanos, long startBytes) {
+        long nanos = System.nanoTime() - startNanos;
+        listener.functionCalled(function, nanos, allocatedSince(startBytes));
+    }
+
+    /**
+     * Report finished evaluation.
+     * @param tree evaluated tree
+     * @param startNanos {@link System#nanoTime()} before evaluation
+     * @param startBytes {@link #allocatedBytes()} before evaluation
+     */
+    public void expressionEvaluated(Node<?> tree, long startNanos, long startBytes) {
+        long nanos = System.nanoTime() - startNanos;
+        listener.expressionEvaluated(tree, nanos, allocatedSince(startBytes));
+    }
+
+    private long allocatedSince(long startBytes) {
+        return allocation != null ? allocatedBytes() - startBytes : -1;
+    }
+
+    /**
+     * Get name, under which function call is reported.
+     * Calls of named functions are parsed as 'apply' of a variable, these are reported by variable name.
+     *
+     * @param node function node
+     * @return function name
+     */
+    public static String callName(FunctionNode<?, ?> node) {
+        if ("apply".equals(node.getFunctionName()) && !node.getArguments().isEmpty()) {
+            Node<?> target = node.getArguments().get(0);
+            if (target instanceof VarNode) {
+                return ((VarNode<?>) target).getName();
+            }
+        }
+        return node.getFunctionName();
+    }
+}
@@ -16,33 +16,32 @@
 
 package see.evaluation.processors;
 
+import com.google.common.collect.ImmutableList;
 import see.evaluation.ValueProcessor;
-import see.util.Reduce;
 
 import javax.annotation.Nullable;
-
-import static java.util.Arrays.asList;
-import static see.util.Reduce.fold;
+import java.util.List;
 
 public class AggregatingProcessor implements ValueProcessor {
-    private final Iterable<? extends ValueProcessor> processors;
+    private final ValueProcessor[] processors;
 
     private AggregatingProcessor(Iterable<? extends ValueProcessor> processors) {
-        this.processors = processors;
+        List<ValueProcessor> list = ImmutableList.copyOf(processors);
+        this.processors = list.toArray(new ValueProcessor[list.size()]);
     }
 
     @Override
     public Object apply(@Nullable Object input) {
-        return fold(input, processors, new Reduce.FoldFunction<ValueProcessor, Object>() {
-            @Override
-            public Object apply(Object prev, ValueProcessor arg) {
-                return arg.apply(prev);
-            }
-        });
+        // Called for every function result and variable, so avoid per-call allocations
+        Object result = input;
+        for (ValueProcessor processor : processors) {
+            result = processor.apply(result);
+        }
+        return result;
     }
 
     public static ValueProcessor concat(ValueProcessor... processors) {
-        return new AggregatingProcessor(asList(processors));
+        return new AggregatingProcessor(ImmutableList.copyOf(processors));
     }
 
     public static ValueProcessor concat(Iterable<? extends ValueProcessor> processors) {
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package see.evaluation.processors;
+
+import see.evaluation.ValueProcessor;
+
+public final class ValueProcessors {
+    private ValueProcessors() {}
+
+    /**
+     * Check if processor returns double values as is.
+     * Unboxed evaluation skips processing of intermediate results, so it's valid only for such processor.
+     *
+     * @param processor processor to check
+     * @return true if doubles are kept intact
+     */
+    public static boolean keepsDoubles(ValueProcessor processor) {
+        Double probe = 0.5;
+        return processor.apply(probe) == probe;
+    }
+}
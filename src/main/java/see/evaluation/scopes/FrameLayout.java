@@ -0,0 +1,109 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package see.evaluation.scopes;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Slot layout of a {@link FrameScope}.
+ * First slots hold immutable arguments, next ones hold local variables.
+ *
+ * Function layout captures new variables, same as {@link Scopes#defCapture(see.evaluation.Scope)}.
+ * Loop layout forwards writes of non-argument variables to parent scope.
+ */
+public final class FrameLayout {
+    private final List<String> names;
+    private final Map<String, Integer> slots;
+    private final int argumentCount;
+    private final boolean capturing;
+
+    private FrameLayout(List<String> names, int argumentCount, boolean capturing) {
+        this.names = ImmutableList.copyOf(names);
+        this.argumentCount = argumentCount;
+        this.capturing = capturing;
+
+        // Last occurrence wins for repeated argument names
+        Map<String, Integer> slots = Maps.newHashMap();
+        for (int i = 0; i < this.names.size(); i++) {
+            slots.put(this.names.get(i), i);
+        }
+        this.slots = ImmutableMap.copyOf(slots);
+    }
+
+    /**
+     * Create layout for function frame.
+     * @param arguments argument names
+     * @param locals names of variables, assigned in function body. Names of arguments are ignored.
+     * @return created layout
+     */
+    public static FrameLayout function(List<String> arguments, Collection<String> locals) {
+        Set<String> localNames = new LinkedHashSet<String>(locals);
+        localNames.removeAll(arguments);
+        List<String> names = Lists.newArrayList(arguments);
+        names.addAll(localNames);
+        return new FrameLayout(names, arguments.size(), true);
+    }
+
+    /**
+     * Create layout for loop iteration frame.
+     * @param variable loop variable name
+     * @return created layout
+     */
+    public static FrameLayout loop(String variable) {
+        return new FrameLayout(ImmutableList.of(variable), 1, false);
+    }
+
+    /**
+     * Get slot index of a variable.
+     * @param name variable name
+     * @return slot index, or -1 if variable has no slot
+     */
+    public int indexOf(String name) {
+        Integer slot = slots.get(name);
+        return slot != null ? slot : -1;
+    }
+
+    public List<String> getNames() {
+        return names;
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    public int getArgumentCount() {
+        return argumentCount;
+    }
+
+    public boolean isCapturing() {
+        return capturing;
+    }
+
+    @Override
+    public String toString() {
+        return "Frame" + names;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package see.evaluation.scopes;
+
+import com.google.common.collect.Maps;
+import see.evaluation.Scope;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Array-backed scope of a function call or loop iteration.
+ *
+ * Variables from {@link FrameLayout} are stored in slots and can be accessed by index.
+ * Function frame behaves as defCapture(override(parent, arguments)),
+ * loop frame behaves as override(parent, arguments), see {@link Scopes}.
+ * New variables not present in layout are captured into a map.
+ */
+public final class FrameScope implements Scope {
+    private static final Object UNSET = new Object();
+
+    private final Scope parent;
+    private final FrameLayout layout;
+    private final Object[] slots;
+    private Map<String, Object> captured;
+
+    FrameScope(Scope parent, FrameLayout layout, Object[] arguments) {
+        this(parent, layout, arguments.length);
+        System.arraycopy(arguments, 0, slots, 0, arguments.length);
+    }
+
+    /**
+     * Create frame with unset argument slots, which are filled by caller before frame is used.
+     */
+    FrameScope(Scope parent, FrameLayout layout, int argumentCount) {
+        if (argumentCount != layout.getArgumentCount()) {
+            throw new IllegalArgumentException("Expected " + layout.getArgumentCount() + " arguments, got " + argumentCount);
+        }
+        this.parent = parent;
+        this.layout = layout;
+        this.slots = new Object[layout.size()];
+        Arrays.fill(slots, argumentCount, slots.length, UNSET);
+    }
+
+    void setArgument(int slot, Object value) {
+        slots[slot] = value;
+    }
+
+    public Scope getParent() {
+        return parent;
+    }
+
+    public FrameLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Check if slot holds a value. Argument slots are always set, local slots are set on first capture.
+     * @param slot slot index
+     * @return true if slot is set
+     */
+    public boolean isSet(int slot) {
+        return slots[slot] != UNSET;
+    }
+
+    /**
+     * Get slot value.
+     * @param slot slot index
+     * @return slot value, undefined if slot is not set
+     */
+    public Object getSlot(int slot) {
+        return slots[slot];
+    }
+
+    /**
+     * Check if frame captured variables, which are not present in layout.
+     * @return true if such variables exist
+     */
+    public boolean hasCapturedVariables() {
+        return captured != null;
+    }
+
+    @Override
+    public Object get(@Nonnull String var) {
+        int slot = layout.indexOf(var);
+        if (slot >= 0 && slots[slot] != UNSET) {
+            return slots[slot];
+        } else if (captured != null && captured.containsKey(var)) {
+            return captured.get(var);
+        } else {
+            return parent.get(var);
+        }
+    }
+
+    @Override
+    public boolean contains(@Nonnull String var) {
+        int slot = layout.indexOf(var);
+        return (slot >= 0 && slots[slot] != UNSET) ||
+                (captured != null && captured.containsKey(var)) ||
+                parent.contains(var);
+    }
+
+    @Override
+    public void put(@Nonnull String var, @Nullable Object value) {
+        int slot = layout.indexOf(var);
+        if (slot >= 0 && slot < layout.getArgumentCount()) {
+            throw new UnsupportedOperationException("Scope override is immutable");
+        } else if (!layout.isCapturing() || parent.contains(var)) {
+            parent.put(var, value);
+        } else if (slot >= 0) {
+            slots[slot] = value;
+        } else {
+            if (captured == null) {
+                captured = Maps.newHashMap();
+            }
+            captured.put(var, value);
+        }
+    }
+
+    @Nonnull
+    @Override
+    public Map<String, ?> asMap() {
+        Map<String, Object> result = Maps.newHashMap(parent.asMap());
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] != UNSET) {
+                result.put(layout.getNames().get(i), slots[i]);
+            }
+        }
+        if (captured != null) {
+            result.putAll(captured);
+        }
+        return Collections.unmodifiableMap(result);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package see.evaluation.scopes;
+
+import com.google.common.collect.Maps;
+import see.evaluation.Scope;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Scope for one row of batch evaluation.
+ * Behaves as {@code defCapture(mutableOverride(parent, shared + row))}, but doesn't copy variable maps:
+ * assignments to shared and row variables are shadowed locally.
+ */
+class RowScope implements Scope {
+    private final Scope parent;
+    private final Map<String, ?> shared;
+    private final Map<String, ?> row;
+
+    private Map<String, Object> local;
+
+    RowScope(Scope parent, Map<String, ?> shared, Map<String, ?> row) {
+        this.parent = parent;
+        this.shared = shared;
+        this.row = row;
+    }
+
+    @Override
+    public Object get(@Nonnull String var) throws NoSuchElementException {
+        if (local != null && local.containsKey(var)) {
+            return local.get(var);
+        }
+        if (row.containsKey(var)) {
+            return row.get(var);
+        }
+        if (shared.containsKey(var)) {
+            return shared.get(var);
+        }
+        return parent.get(var);
+    }
+
+    @Override
+    public boolean contains(@Nonnull String var) {
+        return isOwn(var) || parent.contains(var);
+    }
+
+    @Override
+    public void put(@Nonnull String var, @Nullable Object value) {
+        if (isOwn(var) || !parent.contains(var)) {
+            if (local == null) {
+                local = Maps.newHashMap();
+            }
+            local.put(var, value);
+        } else {
+            parent.put(var, value);
+        }
+    }
+
+    @Nonnull
+    @Override
+    public Map<String, ?> asMap() {
+        Map<String, Object> result = Maps.newHashMap(parent.asMap());
+        result.putAll(shared);
+        result.putAll(row);
+        if (local != null) {
+            result.putAll(local);
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    private boolean isOwn(String var) {
+        return (local != null && local.containsKey(var)) || row.containsKey(var) || shared.containsKey(var);
+    }
+}
@@ -82,4 +82,56 @@ public abstract class Scopes {
     public static Scope defCapture(Scope parent) {
         return new DefinitionCapture(parent);
     }
+
+    /**
+     * Create new mutable scope for one row of batch evaluation.
+     * Same as {@code defCapture(mutableOverride(parent, shared + row))}, variable maps are not copied.
+     * @param parent parent scope
+     * @param shared variables, common for all rows
+     * @param row row variables, override shared ones
+     * @return created scope
+     */
+    public static Scope row(Scope parent, Map<String, ?> shared, Map<String, ?> row) {
+        return new RowScope(parent, shared, row);
+    }
+
+    /**
+     * Create new array-backed scope for function call or loop iteration.
+     * Arguments are stored in first slots of layout, in order.
+     * @param parent parent scope
+     * @param layout frame layout
+     * @param arguments argument values
+     * @return created scope
+     */
+    public static FrameScope frame(Scope parent, FrameLayout layout, Object... arguments) {
+        return new FrameScope(parent, layout, arguments);
+    }
+
+    /**
+     * Create frame for a single argument without allocating argument array.
+     * @param parent parent scope
+     * @param layout frame layout
+     * @param argument argument value
+     * @return created scope
+     */
+    public static FrameScope frame(Scope parent, FrameLayout layout, Object argument) {
+        FrameScope frame = new FrameScope(parent, layout, 1);
+        frame.setArgument(0, argument);
+        return frame;
+    }
+
+    /**
+     * Create frame for two arguments without allocating argument array.
+     * @param parent parent scope
+     * @param layout frame layout
+     * @param first first argument value
+     * @param second second argument value
+     * @return created scope
+     */
+    public static FrameScope frame(Scope parent, FrameLayout layout, Object first, Object second) {
+        FrameScope frame = new FrameScope(parent, layout, 2);
+        frame.setArgument(0, first);
+        frame.setArgument(1, second);
+        return frame;
+    }
 }
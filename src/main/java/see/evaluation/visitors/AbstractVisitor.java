@@ -19,9 +19,12 @@ package see.evaluation.visitors;
 import com.google.common.base.Function;
 import see.evaluation.Context;
 import see.evaluation.ValueProcessor;
+import see.evaluation.metrics.Instrumentation;
 import see.exceptions.PropagatedException;
+import see.functions.BinaryFunction;
 import see.functions.ContextCurriedFunction;
-import see.functions.Property;
+import see.functions.TargetProperty;
+import see.functions.UnaryFunction;
 import see.functions.VarArgFunction;
 import see.parser.config.FunctionResolver;
 import see.parser.grammar.PropertyAccess;
@@ -37,26 +40,55 @@ public abstract class AbstractVisitor implements Visitor {
     private final Context context;
     private final ValueProcessor valueProcessor;
     private final ChainResolver resolver;
+    private final Instrumentation instrumentation;
 
 
     public AbstractVisitor(Context context, ValueProcessor valueProcessor, ChainResolver resolver) {
         this.context = context;
         this.valueProcessor = valueProcessor;
         this.resolver = resolver;
+        this.instrumentation = context.getServices().getInstance(Instrumentation.class);
     }
 
     @Override
     public <Arg, Result> Result visit(FunctionNode<Arg, Result> node) {
+        if (instrumentation == null) {
+            return call(node);
+        }
+
+        long startNanos = System.nanoTime();
+        long startBytes = instrumentation.allocatedBytes();
         try {
-            List<Arg> evaluatedArgs = evaluateArgs(node.getArguments());
+            return call(node);
+        } finally {
+            instrumentation.functionCalled(Instrumentation.callName(node), startNanos, startBytes);
+        }
+    }
 
+    /**
+     * Call function of a node.
+     * Functions with fixed-arity form get their arguments evaluated once, without an argument list.
+     */
+    @SuppressWarnings("unchecked")
+    private <Arg, Result> Result call(FunctionNode<Arg, Result> node) {
+        try {
             FunctionResolver funcResolver = context.getServices().getInstance(FunctionResolver.class);
 
-            // Note: evaluatedArgs are lazy
             ContextCurriedFunction<Arg,Result> objectObjectContextCurriedFunction =
                     (ContextCurriedFunction<Arg, Result>) funcResolver.get(node.getFunctionName());
             VarArgFunction<Arg, Result> partial = objectObjectContextCurriedFunction.apply(context);
-            Result result = partial.apply(evaluatedArgs);
+            List<Node<Arg>> arguments = node.getArguments();
+
+            Result result;
+            if (arguments.size() == 1 && partial instanceof UnaryFunction<?, ?>) {
+                result = ((UnaryFunction<Arg, Result>) partial).apply1(arguments.get(0).accept(this));
+            } else if (arguments.size() == 2 && partial instanceof BinaryFunction<?, ?>) {
+                result = applyBinary((BinaryFunction<Arg, Result>) partial, arguments.get(0), arguments.get(1));
+            } else {
+                // Note: evaluatedArgs are lazy
+                List<Arg> evaluatedArgs = evaluateArgs(arguments);
+                result = partial.apply(evaluatedArgs);
+            }
 
             return processValue(result);
         } catch (Exception e) {
@@ -66,6 +98,22 @@ public abstract class AbstractVisitor implements Visitor {
 
     protected abstract <Arg> List<Arg> evaluateArgs(List<Node<Arg>> arguments);
 
+    /**
+     * Evaluate both arguments of a fixed-arity call and apply function to them.
+     * Evaluation stops at first failed argument.
+     *
+     * @param function function to apply
+     * @param first first argument node
+     * @param second second argument node
+     * @param <Arg> common argument supertype
+     * @param <Result> function result type
+     * @return function result
+     */
+    protected <Arg, Result> Result applyBinary(BinaryFunction<Arg, Result> function, Node<Arg> first, Node<Arg> second) {
+        Arg firstValue = first.accept(this);
+        return function.apply2(firstValue, second.accept(this));
+    }
+
     /**
      * Get variable value from context.
      * If context holds a Number, the value is passed through NumberFactory,
@@ -100,7 +148,7 @@ public abstract class AbstractVisitor implements Visitor {
 
             final List<? extends PropertyAccess> evaluatedProps = evaluateProperties(propertyNode.getProperties());
 
-            return (T) new Property<Object>() {
+            return (T) new TargetProperty(target, evaluatedProps) {
                 @Override
                 public void set(Object value) {
                     try {
@@ -16,18 +16,15 @@
 
 package see.evaluation.visitors;
 
-import com.google.common.base.Function;
-import com.google.common.base.Supplier;
-import com.google.common.base.Suppliers;
 import see.evaluation.Context;
 import see.evaluation.ValueProcessor;
+import see.functions.BinaryFunction;
 import see.properties.ChainResolver;
 import see.tree.Node;
 
+import java.util.AbstractList;
 import java.util.List;
-
-import static com.google.common.collect.ImmutableList.copyOf;
-import static com.google.common.collect.Lists.transform;
+import java.util.RandomAccess;
 
 /**
  * Visitor, which evaluates function arguments eagerly.
@@ -47,30 +44,66 @@ public class EagerVisitor extends AbstractVisitor {
      */
     @Override
     protected <Arg> List<Arg> evaluateArgs(List<Node<Arg>> arguments) {
-        List<Supplier<Arg>> evaluated = copyOf(transform(arguments, new Function<Node<Arg>, Supplier<Arg>>() {
-            @Override
-            public Supplier<Arg> apply(Node<Arg> input) {
-                try {
-                    return Suppliers.ofInstance(input.accept(EagerVisitor.this));
-                } catch (RuntimeException e) {
-                    return new ThrowingSupplier<Arg>(e);
-                }
+        Object[] values = new Object[arguments.size()];
+        RuntimeException[] failures = null;
+        for (int i = 0; i < values.length; i++) {
+            try {
+                values[i] = arguments.get(i).accept(this);
+            } catch (RuntimeException e) {
+                if (failures == null) failures = new RuntimeException[values.length];
+                failures[i] = e;
             }
-        }));
+        }
 
-        return transform(evaluated, Suppliers.<Arg>supplierFunction());
+        return new EvaluatedArguments<Arg>(values, failures);
     }
 
-    private class ThrowingSupplier<Arg> implements Supplier<Arg> {
-        private final RuntimeException e;
+    /**
+     * Evaluates both arguments, even if first one fails.
+     * Failure of first argument takes precedence, as it would for {@link #evaluateArgs(List)}.
+     */
+    @Override
+    protected <Arg, Result> Result applyBinary(BinaryFunction<Arg, Result> function, Node<Arg> first, Node<Arg> second) {
+        Arg firstValue = null;
+        RuntimeException failure = null;
+        try {
+            firstValue = first.accept(this);
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+
+        Arg secondValue;
+        try {
+            secondValue = second.accept(this);
+        } catch (RuntimeException e) {
+            throw failure != null ? failure : e;
+        }
 
-        public ThrowingSupplier(RuntimeException e) {
-            this.e = e;
+        if (failure != null) throw failure;
+        return function.apply2(firstValue, secondValue);
+    }
+
+    private static class EvaluatedArguments<Arg> extends AbstractList<Arg> implements RandomAccess {
+        private final Object[] values;
+        private final RuntimeException[] failures;
+
+        private EvaluatedArguments(Object[] values, RuntimeException[] failures) {
+            this.values = values;
+            this.failures = failures;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Arg get(int index) {
+            if (failures != null && failures[index] != null) {
+                throw failures[index];
+            }
+            return (Arg) values[index];
         }
 
         @Override
-        public Arg get() {
-            throw e;
+        public int size() {
+            return values.length;
         }
     }
 }
@@ -0,0 +1,10 @@
+package see.functions;
+
+/**
+ * Fixed-arity form of a two-argument function, implemented alongside {@link VarArgFunction}.
+ * Must give same result as {@link VarArgFunction#apply} with a two-element list.
+ * Used by evaluators to call a function without allocating an argument list.
+ */
+public interface BinaryFunction<Arg, Result> {
+    Result apply2(Arg first, Arg second);
+}
@@ -0,0 +1,9 @@
+package see.functions;
+
+/**
+ * Unboxed form of a binary logical function, implemented alongside {@link VarArgFunction}.
+ * Must give same result as boxed form for two {@link Boolean} arguments.
+ */
+public interface BooleanOperator {
+    boolean applyAsBoolean(boolean left, boolean right);
+}
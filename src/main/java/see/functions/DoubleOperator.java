@@ -0,0 +1,16 @@
+package see.functions;
+
+/**
+ * Unboxed form of a binary numeric function, implemented alongside {@link VarArgFunction}.
+ * Used by compiled expressions to evaluate arithmetic on primitive doubles.
+ */
+public interface DoubleOperator {
+    double applyAsDouble(double left, double right);
+
+    /**
+     * Check if function is defined only for numbers.
+     * Non-numeric function (e.g. addition, which concatenates strings) is applied unboxed only to numeric arguments.
+     * @return true if function fails for non-numeric arguments
+     */
+    boolean isNumeric();
+}
@@ -0,0 +1,9 @@
+package see.functions;
+
+/**
+ * Unboxed form of a binary comparison, implemented alongside {@link VarArgFunction}.
+ * Must give same result as boxed form for two {@link Double} arguments.
+ */
+public interface DoublePredicate {
+    boolean test(double left, double right);
+}
@@ -0,0 +1,42 @@
+package see.functions;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Calls with fixed argument count.
+ * Functions, which implement {@link UnaryFunction} or {@link BinaryFunction}, are called directly,
+ * others get their arguments wrapped into a list.
+ */
+public final class FixedArity {
+    private FixedArity() {}
+
+    /**
+     * Apply function to single argument.
+     * @param function function to call
+     * @param arg argument
+     * @return function result
+     */
+    @SuppressWarnings("unchecked")
+    public static <A, R> R apply(VarArgFunction<A, R> function, A arg) {
+        if (function instanceof UnaryFunction<?, ?>) {
+            return ((UnaryFunction<A, R>) function).apply1(arg);
+        }
+        return function.apply(Collections.singletonList(arg));
+    }
+
+    /**
+     * Apply function to two arguments.
+     * @param function function to call
+     * @param first first argument
+     * @param second second argument
+     * @return function result
+     */
+    @SuppressWarnings("unchecked")
+    public static <A, R> R apply(VarArgFunction<A, R> function, A first, A second) {
+        if (function instanceof BinaryFunction<?, ?>) {
+            return ((BinaryFunction<A, R>) function).apply2(first, second);
+        }
+        return function.apply(Arrays.asList(first, second));
+    }
+}
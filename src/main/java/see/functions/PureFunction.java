@@ -25,6 +25,14 @@ public class PureFunction<Arg, Result> implements ContextCurriedFunction<Arg, Re
         return delegate;
     }
 
+    /**
+     * Get wrapped function, same as returned by {@link #apply(Context)} for any context.
+     * @return wrapped function
+     */
+    public VarArgFunction<Arg, Result> getDelegate() {
+        return delegate;
+    }
+
     @Override
     public String toString() {
         return String.valueOf(delegate);
@@ -0,0 +1,34 @@
+package see.functions;
+
+import see.parser.grammar.PropertyAccess;
+
+import java.util.List;
+
+/**
+ * Property of a target object, reached by a chain of property accesses.
+ * Properties are equal if they have same target instance and equal accesses,
+ * so evaluating same property expression several times yields equal properties.
+ */
+public abstract class TargetProperty implements Property<Object> {
+    private final Object target;
+    private final List<? extends PropertyAccess> properties;
+
+    protected TargetProperty(Object target, List<? extends PropertyAccess> properties) {
+        this.target = target;
+        this.properties = properties;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TargetProperty)) return false;
+
+        TargetProperty that = (TargetProperty) o;
+        return target == that.target && properties.equals(that.properties);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(target) + properties.hashCode();
+    }
+}
@@ -0,0 +1,10 @@
+package see.functions;
+
+/**
+ * Fixed-arity form of a one-argument function, implemented alongside {@link VarArgFunction}.
+ * Must give same result as {@link VarArgFunction#apply} with a singleton list.
+ * Used by evaluators to call a function without allocating an argument list.
+ */
+public interface UnaryFunction<Arg, Result> {
+    Result apply1(Arg arg);
+}
@@ -1,6 +1,7 @@
 package see.functions.arithmetic;
 
 import com.google.common.base.Supplier;
+import see.functions.BinaryFunction;
 import see.functions.VarArgFunction;
 
 import javax.annotation.Nonnull;
@@ -13,7 +14,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 /**
  * Divide function for BigDecimals.
  */
-public class Divide implements VarArgFunction<BigDecimal, BigDecimal> {
+public class Divide implements VarArgFunction<BigDecimal, BigDecimal>, BinaryFunction<BigDecimal, BigDecimal> {
 
     private final Supplier<MathContext> mathContext;
 
@@ -29,11 +30,14 @@ public class Divide implements VarArgFunction<BigDecimal, BigDecimal> {
     public BigDecimal apply(@Nonnull List<BigDecimal> input) {
         checkArgument(input.size() == 2, "Divide takes only two arguments");
 
-        BigDecimal decimal = input.get(0);
-        BigDecimal divisor = input.get(1);
-        
+        return apply2(input.get(0), input.get(1));
+    }
+
+    @Override
+    public BigDecimal apply2(BigDecimal decimal, BigDecimal divisor) {
         return decimal.divide(divisor, mathContext.get());
     }
+
     @Override
     public String toString() {
         return "divide";
@@ -0,0 +1,42 @@
+package see.functions.arithmetic;
+
+import see.functions.BinaryFunction;
+import see.functions.DoubleOperator;
+import see.functions.VarArgFunction;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Divide function for doubles. Division by zero gives infinity or NaN, as in Java.
+ */
+public class DoubleDivide implements VarArgFunction<Number, Double>, BinaryFunction<Number, Double>, DoubleOperator {
+    @Override
+    public Double apply(@Nonnull List<Number> input) {
+        checkArgument(input.size() == 2, "Divide takes only two arguments");
+
+        return input.get(0).doubleValue() / input.get(1).doubleValue();
+    }
+
+    @Override
+    public Double apply2(Number first, Number second) {
+        return applyAsDouble(first.doubleValue(), second.doubleValue());
+    }
+
+    @Override
+    public double applyAsDouble(double left, double right) {
+        return left / right;
+    }
+
+    @Override
+    public boolean isNumeric() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "divide";
+    }
+}
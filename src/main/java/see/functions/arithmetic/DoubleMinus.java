@@ -0,0 +1,55 @@
+package see.functions.arithmetic;
+
+import see.functions.BinaryFunction;
+import see.functions.DoubleOperator;
+import see.functions.UnaryFunction;
+import see.functions.VarArgFunction;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Binary/unary minus operation for doubles.
+ * Differentiates by argument count.
+ */
+public class DoubleMinus implements VarArgFunction<Number, Double>,
+        UnaryFunction<Number, Double>, BinaryFunction<Number, Double>, DoubleOperator {
+    @Override
+    public Double apply(@Nonnull List<Number> input) {
+        int size = input.size();
+        checkArgument(size == 1 || size == 2, "Minus takes one or two arguments");
+
+        if (size == 1) {
+            return -input.get(0).doubleValue();
+        } else {
+            return input.get(0).doubleValue() - input.get(1).doubleValue();
+        }
+    }
+
+    @Override
+    public Double apply1(Number arg) {
+        return -arg.doubleValue();
+    }
+
+    @Override
+    public Double apply2(Number first, Number second) {
+        return applyAsDouble(first.doubleValue(), second.doubleValue());
+    }
+
+    @Override
+    public double applyAsDouble(double left, double right) {
+        return left - right;
+    }
+
+    @Override
+    public boolean isNumeric() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "minus";
+    }
+}
@@ -0,0 +1,39 @@
+package see.functions.arithmetic;
+
+import see.functions.BinaryFunction;
+import see.functions.DoubleOperator;
+import see.functions.VarArgFunction;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+
+public class DoubleSum implements VarArgFunction<Number, Double>, BinaryFunction<Number, Double>, DoubleOperator {
+    @Override
+    public Double apply(@Nonnull List<Number> input) {
+        double result = 0;
+        for (Number value : input) {
+            result += value.doubleValue();
+        }
+        return result;
+    }
+
+    @Override
+    public Double apply2(Number first, Number second) {
+        return applyAsDouble(first.doubleValue(), second.doubleValue());
+    }
+
+    @Override
+    public double applyAsDouble(double left, double right) {
+        return left + right;
+    }
+
+    @Override
+    public boolean isNumeric() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "sum";
+    }
+}
@@ -1,5 +1,7 @@
 package see.functions.arithmetic;
 
+import see.functions.BinaryFunction;
+import see.functions.UnaryFunction;
 import see.functions.VarArgFunction;
 
 import javax.annotation.Nonnull;
@@ -12,7 +14,8 @@ import static com.google.common.base.Preconditions.checkArgument;
  * Binary/unary minus operation.
  * Differentiates by argument count.
  */
-public class Minus implements VarArgFunction<BigDecimal, BigDecimal> {
+public class Minus implements VarArgFunction<BigDecimal, BigDecimal>,
+        UnaryFunction<BigDecimal, BigDecimal>, BinaryFunction<BigDecimal, BigDecimal> {
     @Override
     public BigDecimal apply(@Nonnull List<BigDecimal> input) {
         int size = input.size();
@@ -26,6 +29,16 @@ public class Minus implements VarArgFunction<BigDecimal, BigDecimal> {
 
     }
 
+    @Override
+    public BigDecimal apply1(BigDecimal arg) {
+        return arg.negate();
+    }
+
+    @Override
+    public BigDecimal apply2(BigDecimal first, BigDecimal second) {
+        return first.subtract(second);
+    }
+
     @Override
     public String toString() {
         return "minus";
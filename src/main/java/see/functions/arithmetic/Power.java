@@ -1,5 +1,6 @@
 package see.functions.arithmetic;
 
+import see.functions.BinaryFunction;
 import see.functions.VarArgFunction;
 
 import javax.annotation.Nonnull;
@@ -12,7 +13,7 @@ import static com.google.common.base.Preconditions.checkArgument;
  * Power function. Returns first argument raised to the power of the second argument.
  * Special case: if base is less than zero and exponent is fractional, apply throws IllegalArgumentException.
  */
-public class Power implements VarArgFunction<BigDecimal, Number> {
+public class Power implements VarArgFunction<BigDecimal, Number>, BinaryFunction<BigDecimal, Number> {
     @Override
     public Number apply(@Nonnull List<BigDecimal> input) {
         checkArgument(input.size() == 2, "Power takes only two arguments");
@@ -20,6 +21,11 @@ public class Power implements VarArgFunction<BigDecimal, Number> {
         return power(input.get(0), input.get(1));
     }
 
+    @Override
+    public Number apply2(BigDecimal base, BigDecimal exponent) {
+        return power(base, exponent);
+    }
+
     private Number power(BigDecimal base, BigDecimal exponent) {
         if (isInteger(exponent)) {
             return base.pow(exponent.intValue());
@@ -1,12 +1,13 @@
 package see.functions.arithmetic;
 
+import see.functions.BinaryFunction;
 import see.functions.VarArgFunction;
 
 import javax.annotation.Nonnull;
 import java.math.BigDecimal;
 import java.util.List;
 
-public class Product implements VarArgFunction<BigDecimal, BigDecimal> {
+public class Product implements VarArgFunction<BigDecimal, BigDecimal>, BinaryFunction<BigDecimal, BigDecimal> {
     @Override
     public BigDecimal apply(@Nonnull List<BigDecimal> input) {
         BigDecimal result = BigDecimal.ONE;
@@ -18,6 +19,11 @@ public class Product implements VarArgFunction<BigDecimal, BigDecimal> {
         return result;
     }
 
+    @Override
+    public BigDecimal apply2(BigDecimal first, BigDecimal second) {
+        return first.multiply(second);
+    }
+
     @Override
     public String toString() {
         return "product";
@@ -1,12 +1,13 @@
 package see.functions.arithmetic;
 
+import see.functions.BinaryFunction;
 import see.functions.VarArgFunction;
 
 import javax.annotation.Nonnull;
 import java.math.BigDecimal;
 import java.util.List;
 
-public class Sum implements VarArgFunction<BigDecimal, BigDecimal> {
+public class Sum implements VarArgFunction<BigDecimal, BigDecimal>, BinaryFunction<BigDecimal, BigDecimal> {
     @Override
     public BigDecimal apply(@Nonnull List<BigDecimal> input) {
         BigDecimal result = BigDecimal.ZERO;
@@ -16,6 +17,15 @@ public class Sum implements VarArgFunction<BigDecimal, BigDecimal> {
         return result;
     }
 
+    /**
+     * Same as folding from zero: result scale is never negative.
+     */
+    @Override
+    public BigDecimal apply2(BigDecimal first, BigDecimal second) {
+        BigDecimal result = first.add(second);
+        return result.scale() < 0 ? result.setScale(0) : result;
+    }
+
     @Override
     public String toString() {
         return "sum";
@@ -1,5 +1,6 @@
 package see.functions.bool;
 
+import see.functions.BooleanOperator;
 import see.functions.VarArgFunction;
 
 import javax.annotation.Nonnull;
@@ -8,7 +9,7 @@ import java.util.List;
 /**
  * Logical And function. Short-circuits.
  */
-public class And implements VarArgFunction<Boolean, Boolean> {
+public class And implements VarArgFunction<Boolean, Boolean>, BooleanOperator {
     @Override
     public Boolean apply(@Nonnull List<Boolean> input) {
         for (Boolean value : input) {
@@ -17,6 +18,11 @@ public class And implements VarArgFunction<Boolean, Boolean> {
         return true;
     }
 
+    @Override
+    public boolean applyAsBoolean(boolean left, boolean right) {
+        return left && right;
+    }
+
     @Override
     public String toString() {
         return "and";
@@ -1,5 +1,6 @@
 package see.functions.bool;
 
+import see.functions.UnaryFunction;
 import see.functions.VarArgFunction;
 
 import javax.annotation.Nonnull;
@@ -8,14 +9,17 @@ import java.util.List;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
-public class Not implements VarArgFunction<Boolean, Boolean> {
+public class Not implements VarArgFunction<Boolean, Boolean>, UnaryFunction<Boolean, Boolean> {
     @Override
     public Boolean apply(@Nonnull List<Boolean> input) {
         checkArgument(input.size() == 1, "Not takes only one argument");
-        Boolean value = input.get(0);
-        checkNotNull(value);
+        return apply1(input.get(0));
+    }
 
-        return !value;
+    @Override
+    public Boolean apply1(Boolean arg) {
+        checkNotNull(arg);
+        return !arg;
     }
 
     @Override
@@ -1,5 +1,6 @@
 package see.functions.common;
 
+import see.functions.BinaryFunction;
 import see.functions.VarArgFunction;
 import see.functions.arithmetic.Sum;
 import see.functions.string.Concat;
@@ -8,7 +9,7 @@ import javax.annotation.Nonnull;
 import java.math.BigDecimal;
 import java.util.List;
 
-public class AddOrConcat implements VarArgFunction<Object, Object> {
+public class AddOrConcat implements VarArgFunction<Object, Object>, BinaryFunction<Object, Object> {
 
     private final Sum sum = new Sum();
     private final Concat concat = new Concat();
@@ -24,6 +25,14 @@ public class AddOrConcat implements VarArgFunction<Object, Object> {
         return concat.apply(input);
     }
 
+    @Override
+    public Object apply2(Object first, Object second) {
+        if (first instanceof BigDecimal) {
+            return sum.apply2((BigDecimal) first, (BigDecimal) second);
+        }
+        return concat.apply2(first, second);
+    }
+
     @Override
     public String toString() {
         return "addOrConcat";
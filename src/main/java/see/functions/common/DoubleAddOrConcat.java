@@ -0,0 +1,53 @@
+package see.functions.common;
+
+import see.functions.BinaryFunction;
+import see.functions.DoubleOperator;
+import see.functions.VarArgFunction;
+import see.functions.arithmetic.DoubleSum;
+import see.functions.string.Concat;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+
+/**
+ * Addition for doubles, concatenation for anything else. Checks type of first argument.
+ */
+public class DoubleAddOrConcat implements VarArgFunction<Object, Object>, BinaryFunction<Object, Object>, DoubleOperator {
+
+    private final DoubleSum sum = new DoubleSum();
+    private final Concat concat = new Concat();
+
+    @Override
+    public Object apply(@Nonnull List<Object> input) {
+        Object firstElement = input.get(0);
+        if (firstElement instanceof Number) {
+            //noinspection unchecked
+            List<Number> numArgs = (List) input;
+            return sum.apply(numArgs);
+        }
+        return concat.apply(input);
+    }
+
+    @Override
+    public Object apply2(Object first, Object second) {
+        if (first instanceof Number) {
+            return sum.apply2((Number) first, (Number) second);
+        }
+        return concat.apply2(first, second);
+    }
+
+    @Override
+    public double applyAsDouble(double left, double right) {
+        return left + right;
+    }
+
+    @Override
+    public boolean isNumeric() {
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "addOrConcat";
+    }
+}
@@ -1,6 +1,8 @@
 package see.functions.compare;
 
 import com.google.common.base.Objects;
+import see.functions.BinaryFunction;
+import see.functions.DoublePredicate;
 import see.functions.VarArgFunction;
 
 import javax.annotation.Nonnull;
@@ -12,7 +14,7 @@ import static com.google.common.base.Preconditions.checkArgument;
  * Equality. Returns if it's arguments are equal.
  * This implementation
  */
-public class Eq implements VarArgFunction<Object, Boolean> {
+public class Eq implements VarArgFunction<Object, Boolean>, BinaryFunction<Object, Boolean>, DoublePredicate {
 
     @Override
     public Boolean apply(@Nonnull List<Object> input) {
@@ -24,6 +26,11 @@ public class Eq implements VarArgFunction<Object, Boolean> {
         return unwrappedApply(arg1, arg2);
     }
 
+    @Override
+    public Boolean apply2(Object first, Object second) {
+        return unwrappedApply(first, second);
+    }
+
     public boolean unwrappedApply(Object arg1, Object arg2) {
         if (canUseCompareTo(arg1, arg2)) {
             return ((Comparable) arg1).compareTo(arg2) == 0;
@@ -36,6 +43,11 @@ public class Eq implements VarArgFunction<Object, Boolean> {
         return arg1 instanceof Comparable && arg2 instanceof Comparable && arg1.getClass() == arg2.getClass();
     }
 
+    @Override
+    public boolean test(double left, double right) {
+        return Double.compare(left, right) == 0;
+    }
+
     @Override
     public String toString() {
         return "==";
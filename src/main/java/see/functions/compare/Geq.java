@@ -1,5 +1,7 @@
 package see.functions.compare;
 
+import see.functions.BinaryFunction;
+import see.functions.DoublePredicate;
 import see.functions.VarArgFunction;
 
 import javax.annotation.Nonnull;
@@ -7,12 +9,22 @@ import java.util.List;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
-public class Geq implements VarArgFunction<Comparable, Boolean> {
+public class Geq implements VarArgFunction<Comparable, Boolean>, BinaryFunction<Comparable, Boolean>, DoublePredicate {
     @Override
     public Boolean apply(@Nonnull List<Comparable> input) {
         checkArgument(input.size() == 2, "Geq takes only two arguments");
 
-        return input.get(0).compareTo(input.get(1)) >= 0;
+        return apply2(input.get(0), input.get(1));
+    }
+
+    @Override
+    public Boolean apply2(Comparable first, Comparable second) {
+        return first.compareTo(second) >= 0;
+    }
+
+    @Override
+    public boolean test(double left, double right) {
+        return Double.compare(left, right) >= 0;
     }
 
     @Override
@@ -1,5 +1,7 @@
 package see.functions.compare;
 
+import see.functions.BinaryFunction;
+import see.functions.DoublePredicate;
 import see.functions.VarArgFunction;
 
 import javax.annotation.Nonnull;
@@ -7,7 +9,7 @@ import java.util.List;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
-public class Neq implements VarArgFunction<Object, Boolean> {
+public class Neq implements VarArgFunction<Object, Boolean>, BinaryFunction<Object, Boolean>, DoublePredicate {
     private final Eq eq = new Eq();
 
     @Override
@@ -17,6 +19,16 @@ public class Neq implements VarArgFunction<Object, Boolean> {
         return !eq.apply(input);
     }
 
+    @Override
+    public Boolean apply2(Object first, Object second) {
+        return !eq.unwrappedApply(first, second);
+    }
+
+    @Override
+    public boolean test(double left, double right) {
+        return Double.compare(left, right) != 0;
+    }
+
     @Override
     public String toString() {
         return "!=";
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package see.functions.functional;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Predicate;
+import com.google.common.collect.Iterables;
+import see.functions.FixedArity;
+import see.functions.VarArgFunction;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.List;
+
+/**
+ * Check if predicate holds for some item of a collection.
+ * Stops at first matching item, so results of map/filter are evaluated only up to it.
+ */
+public class AnyMatch implements VarArgFunction<Object, Boolean> {
+    @Override
+    public Boolean apply(@Nonnull List<Object> args) {
+        Preconditions.checkArgument(args.size() == 2, "AnyMatch takes two arguments");
+
+        Iterable<?> items = (Iterable<?>) args.get(0);
+        final VarArgFunction<Object, Boolean> predicateFunction = (VarArgFunction<Object, Boolean>) args.get(1);
+
+        return Iterables.any(items, new Predicate<Object>() {
+            @Override
+            public boolean apply(@Nullable Object input) {
+                return FixedArity.apply(predicateFunction, input);
+            }
+        });
+    }
+
+    @Override
+    public String toString() {
+        return "any";
+    }
+}
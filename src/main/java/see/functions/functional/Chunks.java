@@ -0,0 +1,62 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package see.functions.functional;
+
+import com.google.common.math.IntMath;
+import see.util.Parallel;
+
+import java.math.RoundingMode;
+
+/**
+ * Splits index range into chunks and processes them in parallel.
+ *
+ * Chunks run on {@link Parallel#sharedExecutor()}, a bounded pool of daemon threads.
+ * Calling thread processes first chunk and then any chunk, which wasn't picked up by the pool.
+ * So nested parallel calls don't wait for free threads.
+ */
+final class Chunks {
+    /**
+     * Ranges smaller than this are not split.
+     */
+    static final int MIN_CHUNK_SIZE = 512;
+
+    private Chunks() {}
+
+    /**
+     * Get number of chunks for range
+     * @param size range size
+     * @param parallelism maximum number of chunks
+     * @return number of chunks
+     */
+    static int count(int size, int parallelism) {
+        int bySize = IntMath.divide(size, MIN_CHUNK_SIZE, RoundingMode.CEILING);
+        return Math.max(1, Math.min(parallelism, bySize));
+    }
+
+    /**
+     * Process range [0, size) in chunks, wait for completion.
+     * Exceptions from chunks are rethrown in calling thread.
+     *
+     * @param size range size
+     * @param chunks number of chunks, see {@link #count(int, int)}
+     * @param task chunk processor
+     */
+    static void run(int size, int chunks, Parallel.Task task) {
+        Parallel.run(Parallel.sharedExecutor(), size, chunks, task);
+    }
+}
@@ -18,9 +18,7 @@ package see.functions.functional;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Predicate;
-import com.google.common.collect.Collections2;
-import com.google.common.collect.Iterables;
-import com.google.common.collect.Sets;
+import see.functions.FixedArity;
 import see.functions.VarArgFunction;
 
 import javax.annotation.Nonnull;
@@ -29,8 +27,6 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
-import static java.util.Collections.singletonList;
-
 public class Filter implements VarArgFunction<Object, Iterable<?>> {
     @Override
     public Iterable<?> apply(@Nonnull List<Object> args) {
@@ -42,26 +38,17 @@ public class Filter implements VarArgFunction<Object, Iterable<?>> {
         Predicate<Object> predicate = new Predicate<Object>() {
             @Override
             public boolean apply(@Nullable Object input) {
-                return predicateFunction.apply(singletonList(input));
+                return FixedArity.apply(predicateFunction, input);
             }
         };
 
-        return filter(items, predicate);
-    }
-
-    /**
-     * Choose appropriate filter based on runtime type of collection
-     * @param items collection to transform
-     * @param predicate predicate to match
-     * @return lazy filtered collection
-     */
-    private Iterable<?> filter(Iterable<?> items, Predicate<Object> predicate) {
+        Pipeline pipeline = Pipeline.from(items).then(Pipeline.filter(predicate));
         if (items instanceof Set<?>) {
-            return Sets.filter((Set<?>) items, predicate);
+            return pipeline.asSet();
         } else if (items instanceof Collection<?>) {
-            return Collections2.filter((Collection<?>) items, predicate);
+            return pipeline.asCollection();
         } else {
-            return Iterables.filter(items, predicate);
+            return pipeline.asIterable();
         }
     }
 
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package see.functions.functional;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Iterables;
+import see.functions.VarArgFunction;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+
+/**
+ * First item of a collection, or null for empty collection.
+ * Results of map/filter are evaluated only up to first item.
+ */
+public class First implements VarArgFunction<Object, Object> {
+    @Override
+    public Object apply(@Nonnull List<Object> args) {
+        Preconditions.checkArgument(args.size() == 1, "First takes one argument");
+
+        return Iterables.getFirst((Iterable<?>) args.get(0), null);
+    }
+
+    @Override
+    public String toString() {
+        return "first";
+    }
+}
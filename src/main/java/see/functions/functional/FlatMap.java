@@ -17,15 +17,13 @@
 package see.functions.functional;
 
 import com.google.common.base.Function;
+import see.functions.FixedArity;
 import see.functions.VarArgFunction;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.List;
 
-import static java.util.Collections.singletonList;
-import static see.util.Reduce.flatMap;
-
 public class FlatMap implements VarArgFunction<Object, Iterable<?>> {
     @Override
     public Iterable<?> apply(@Nonnull List<Object> args) {
@@ -36,10 +34,10 @@ public class FlatMap implements VarArgFunction<Object, Iterable<?>> {
         Function<Object, Iterable<Object>> flatMapFunc = new Function<Object, Iterable<Object>>() {
             @Override
             public Iterable<Object> apply(@Nullable Object input) {
-                return transformation.apply(singletonList(input));
+                return FixedArity.apply(transformation, input);
             }
         };
-        return flatMap(items, flatMapFunc);
+        return Pipeline.from(items).then(Pipeline.flatMap(flatMapFunc)).asIterable();
     }
 
     @Override
@@ -17,11 +17,11 @@
 package see.functions.functional;
 
 import com.google.common.base.Preconditions;
+import see.functions.FixedArity;
 import see.functions.VarArgFunction;
 import see.util.Reduce;
 
 import javax.annotation.Nonnull;
-import java.util.Arrays;
 import java.util.List;
 
 public class FoldFunction implements VarArgFunction<Object, Object> {
@@ -36,7 +36,7 @@ public class FoldFunction implements VarArgFunction<Object, Object> {
         Reduce.FoldFunction<Object, Object> folder = new Reduce.FoldFunction<Object, Object>() {
             @Override
             public Object apply(Object prev, Object arg) {
-                return foldFunction.apply(Arrays.asList(prev, arg));
+                return FixedArity.apply(foldFunction, prev, arg);
             }
         };
 
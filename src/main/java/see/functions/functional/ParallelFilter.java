@@ -0,0 +1,75 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package see.functions.functional;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import see.functions.FixedArity;
+import see.functions.VarArgFunction;
+import see.util.Parallel;
+
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Parallel form of {@link Filter}. Predicate is evaluated for chunks of collection in parallel,
+ * matching items are materialized into a list with same order. Predicate should be free of side effects.
+ */
+public class ParallelFilter implements VarArgFunction<Object, List<?>> {
+    private final Supplier<Integer> parallelism;
+
+    /**
+     * Create function
+     * @param parallelism maximum number of chunks, processed in parallel
+     */
+    public ParallelFilter(Supplier<Integer> parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public List<?> apply(@Nonnull List<Object> args) {
+        Preconditions.checkArgument(args.size() == 2, "ParallelFilter takes two arguments");
+
+        final Object[] items = Iterables.toArray((Iterable<?>) args.get(0), Object.class);
+        final VarArgFunction<Object, Boolean> predicateFunction = (VarArgFunction<Object, Boolean>) args.get(1);
+        final boolean[] matches = new boolean[items.length];
+
+        Chunks.run(items.length, Chunks.count(items.length, parallelism.get()), new Parallel.Task() {
+            @Override
+            public void run(int chunk, int from, int to) {
+                for (int i = from; i < to; i++) {
+                    matches[i] = FixedArity.apply(predicateFunction, items[i]);
+                }
+            }
+        });
+
+        List<Object> result = Lists.newArrayList();
+        for (int i = 0; i < items.length; i++) {
+            if (matches[i]) result.add(items[i]);
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    @Override
+    public String toString() {
+        return "pfilter";
+    }
+}
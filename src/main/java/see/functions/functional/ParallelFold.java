@@ -0,0 +1,83 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package see.functions.functional;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+import com.google.common.collect.Iterables;
+import see.functions.FixedArity;
+import see.functions.VarArgFunction;
+import see.util.Parallel;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+
+/**
+ * Parallel form of {@link FoldFunction}: preduce(initial, items, fold, combine).
+ *
+ * Each chunk of collection is folded from initial value, then chunk results are combined in order.
+ * So combining function must be associative, and initial value must be its identity,
+ * e.g. preduce(0, items, (acc, x) => acc + x * x, (a, b) => a + b).
+ * If combining function is omitted, folding function is used, which requires same type for accumulator and items.
+ */
+public class ParallelFold implements VarArgFunction<Object, Object> {
+    private final Supplier<Integer> parallelism;
+
+    /**
+     * Create function
+     * @param parallelism maximum number of chunks, processed in parallel
+     */
+    public ParallelFold(Supplier<Integer> parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public Object apply(@Nonnull List<Object> args) {
+        Preconditions.checkArgument(args.size() == 3 || args.size() == 4, "ParallelFold takes three or four arguments");
+
+        final Object initial = args.get(0);
+        final Object[] items = Iterables.toArray((Iterable<?>) args.get(1), Object.class);
+        final VarArgFunction<Object, ?> foldFunction = (VarArgFunction<Object, ?>) args.get(2);
+        VarArgFunction<Object, ?> combineFunction = args.size() == 4 ? (VarArgFunction<Object, ?>) args.get(3) : foldFunction;
+
+        int chunks = Chunks.count(items.length, parallelism.get());
+        final Object[] partial = new Object[chunks];
+
+        Chunks.run(items.length, chunks, new Parallel.Task() {
+            @Override
+            public void run(int chunk, int from, int to) {
+                Object result = initial;
+                for (int i = from; i < to; i++) {
+                    result = FixedArity.apply(foldFunction, result, items[i]);
+                }
+                partial[chunk] = result;
+            }
+        });
+
+        Object result = partial[0];
+        for (int i = 1; i < chunks; i++) {
+            result = FixedArity.apply(combineFunction, result, partial[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "preduce";
+    }
+}
@@ -0,0 +1,493 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package see.functions.functional;
+
+import com.google.common.base.Function;
+import com.google.common.base.Predicate;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.ObjectArrays;
+
+import java.util.AbstractCollection;
+import java.util.AbstractList;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * Fused sequence of collection operations.
+ *
+ * Stages are applied to each source element in a single pass, results are cached.
+ * Source is consumed lazily, as far as required by result consumer, so short-circuiting consumers
+ * (e.g. first or take) don't process whole source.
+ *
+ * Appending a stage creates a new pipeline on top of current one. Upstream pipelines are resolved
+ * when new pipeline starts: upstream, which is not started and has no other consumers, has it's stages
+ * fused into started one, so nested operations run in one pass over the source.
+ * Values, which reach the end of fused upstream stages, are recorded as upstream results, so upstream,
+ * which is also consumed directly, doesn't run its stages again. If such upstream requests more values
+ * than its consumer did, the pass is split: later values are passed to consumer stages from upstream results.
+ * Upstream, which is started or shared by several consumers, becomes a source, so its functions are not re-run.
+ */
+final class Pipeline implements Iterable<Object> {
+    private static final Stage[] NO_STAGES = new Stage[0];
+
+    private final Iterable<?> source;
+    private final Stage[] stages;
+
+    // Guarded by this
+    private int consumers;
+    private Object lock;
+
+    // Evaluation state, guarded by lock
+    private Run run;
+    private int boundary;
+    private List<Object> results;
+    private boolean done;
+
+    private Pipeline(Iterable<?> source, Stage[] stages) {
+        this.source = source;
+        this.stages = stages;
+    }
+
+    /**
+     * Get pipeline for items.
+     * @param items source items, or a result of another pipeline
+     * @return pipeline, which produces items
+     */
+    static Pipeline from(Iterable<?> items) {
+        if (items instanceof View) {
+            return ((View) items).pipeline();
+        }
+        return new Pipeline(items, NO_STAGES);
+    }
+
+    /**
+     * Append a stage
+     * @param stage stage to append
+     * @return new pipeline
+     */
+    synchronized Pipeline then(Stage stage) {
+        if (stages.length == 0) {
+            return new Pipeline(source, new Stage[] {stage});
+        }
+        consumers++;
+        return new Pipeline(this, new Stage[] {stage});
+    }
+
+    @Override
+    public Iterator<Object> iterator() {
+        return iterator(0);
+    }
+
+    /**
+     * Iterate over results, starting from specified index
+     * @param start index of first result
+     * @return result iterator
+     */
+    private Iterator<Object> iterator(final int start) {
+        return new Iterator<Object>() {
+            private int index = start;
+
+            @Override
+            public boolean hasNext() {
+                return isAvailable(index);
+            }
+
+            @Override
+            public Object next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return get(index++);
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("Pipeline results are immutable");
+            }
+        };
+    }
+
+    /**
+     * Evaluate whole pipeline
+     * @return all results
+     */
+    List<Object> toList() {
+        synchronized (lock()) {
+            while (!done) {
+                run.pull(this);
+            }
+            return Collections.unmodifiableList(results);
+        }
+    }
+
+    boolean isAvailable(int index) {
+        synchronized (lock()) {
+            while (!done && results.size() <= index) {
+                run.pull(this);
+            }
+            return results.size() > index;
+        }
+    }
+
+    Object get(int index) {
+        synchronized (lock()) {
+            if (!isAvailable(index)) {
+                throw new IndexOutOfBoundsException("Index " + index + ", size " + results.size());
+            }
+            return results.get(index);
+        }
+    }
+
+    /**
+     * Get lock of evaluation state, start evaluation if required.
+     * Pipelines, fused into one pass, share same lock.
+     */
+    private synchronized Object lock() {
+        if (lock == null) {
+            start();
+        }
+        return lock;
+    }
+
+    /**
+     * Resolve upstream pipelines, fusing unshared ones, and open the source.
+     */
+    private void start() {
+        Object shared = new Object();
+        synchronized (shared) {
+            List<Pipeline> fused = Lists.newArrayList(this);
+            Stage[] chain = stages;
+            Iterable<?> origin = source;
+            while (origin instanceof Pipeline && ((Pipeline) origin).fuseInto(shared)) {
+                Pipeline upstream = (Pipeline) origin;
+                fused.add(upstream);
+                chain = ObjectArrays.concat(upstream.stages, chain, Stage.class);
+                origin = upstream.source;
+            }
+            lock = shared;
+
+            Run started = new Run(origin.iterator(), chain);
+            int position = 0;
+            for (Pipeline pipeline : Lists.reverse(fused)) {
+                position += pipeline.stages.length;
+                started.taps[position] = pipeline;
+                pipeline.run = started;
+                pipeline.boundary = position;
+                pipeline.results = Lists.newArrayList();
+            }
+        }
+    }
+
+    /**
+     * Fuse stages of this pipeline into its consumer, if this pipeline is not started and has a single consumer.
+     * @param shared lock of consumer
+     * @return true if fused
+     */
+    private synchronized boolean fuseInto(Object shared) {
+        if (lock != null || consumers != 1) {
+            return false;
+        }
+        lock = shared;
+        return true;
+    }
+
+    /**
+     * Single pass over a source through a chain of stages. Guarded by lock of its pipelines.
+     */
+    private static final class Run {
+        private final Iterator<?> input;
+        private Stage[] chain;
+        private int[] counters;
+        // Pipeline, which records values at stage index, or null. Last one is the started pipeline.
+        private Pipeline[] taps;
+        // Index of last tap, which accepts values
+        private int end;
+        private RuntimeException failure;
+
+        private Run(Iterator<?> input, Stage[] chain) {
+            this.input = input;
+            this.chain = chain;
+            this.counters = new int[chain.length];
+            this.taps = new Pipeline[chain.length + 1];
+            this.end = chain.length;
+        }
+
+        /**
+         * Process next source element
+         * @param requester pipeline, which requires next value
+         */
+        void pull(Pipeline requester) {
+            if (failure != null) {
+                throw failure;
+            }
+            try {
+                if (requester.boundary < end) {
+                    split(requester.boundary);
+                }
+                if (!input.hasNext()) {
+                    close(0);
+                } else {
+                    push(input.next(), 0);
+                }
+            } catch (RuntimeException e) {
+                failure = e;
+                throw e;
+            }
+        }
+
+        /**
+         * Pass value to a stage
+         * @param value value to pass
+         * @param stage stage index
+         * @return false if no more values are accepted
+         */
+        boolean push(Object value, int stage) {
+            if (stage > end) {
+                return false;
+            }
+            if (taps[stage] != null) {
+                taps[stage].results.add(value);
+            }
+            if (stage == end) {
+                return true;
+            }
+            if (!chain[stage].push(this, value, stage)) {
+                close(stage);
+            }
+            return stage <= end;
+        }
+
+        /**
+         * Finish pipelines after specified stage
+         * @param stage index of stopped stage
+         */
+        private void close(int stage) {
+            for (int i = stage + 1; i < taps.length; i++) {
+                if (taps[i] != null) taps[i].done = true;
+            }
+            end = -1;
+            for (int i = Math.min(stage, taps.length - 1); i > 0 && end < 0; i--) {
+                if (taps[i] != null && !taps[i].done) end = i;
+            }
+        }
+
+        /**
+         * Move stages after specified tap to a new run, which takes values from the tap results.
+         * All recorded values of the tap were already passed to these stages.
+         * @param stage tap index
+         */
+        private void split(int stage) {
+            Pipeline tap = taps[stage];
+            Run upper = new Run(tap.iterator(tap.results.size()), Arrays.copyOfRange(chain, stage, chain.length));
+            System.arraycopy(counters, stage, upper.counters, 0, upper.counters.length);
+            for (int i = stage + 1; i < taps.length; i++) {
+                if (taps[i] == null) continue;
+                upper.taps[i - stage] = taps[i];
+                taps[i].run = upper;
+                taps[i].boundary = i - stage;
+            }
+            upper.end = end - stage;
+
+            chain = Arrays.copyOf(chain, stage);
+            counters = Arrays.copyOf(counters, stage);
+            taps = Arrays.copyOf(taps, stage + 1);
+            end = stage;
+        }
+    }
+
+    static Stage map(final Function<Object, ?> function) {
+        return new Stage() {
+            @Override
+            boolean push(Run run, Object value, int index) {
+                return run.push(function.apply(value), index + 1);
+            }
+        };
+    }
+
+    static Stage filter(final Predicate<Object> predicate) {
+        return new Stage() {
+            @Override
+            boolean push(Run run, Object value, int index) {
+                return !predicate.apply(value) || run.push(value, index + 1);
+            }
+        };
+    }
+
+    static Stage flatMap(final Function<Object, ? extends Iterable<?>> function) {
+        return new Stage() {
+            @Override
+            boolean push(Run run, Object value, int index) {
+                for (Object item : function.apply(value)) {
+                    if (!run.push(item, index + 1)) return false;
+                }
+                return true;
+            }
+        };
+    }
+
+    static Stage limit(final int limit) {
+        return new Stage() {
+            @Override
+            boolean push(Run run, Object value, int index) {
+                if (run.counters[index] >= limit) return false;
+
+                run.counters[index]++;
+                return run.push(value, index + 1) && run.counters[index] < limit;
+            }
+        };
+    }
+
+    /**
+     * Pipeline stage. Stage passes produced values to next stage.
+     */
+    abstract static class Stage {
+        /**
+         * Process a value
+         * @param run pass, which holds stage state
+         * @param value value to process
+         * @param index stage index
+         * @return false if pipeline should stop
+         */
+        abstract boolean push(Run run, Object value, int index);
+    }
+
+    List<Object> asList() {
+        return new ListView(this);
+    }
+
+    Collection<Object> asCollection() {
+        return new CollectionView(this);
+    }
+
+    Set<Object> asSet() {
+        return new SetView(this);
+    }
+
+    Iterable<Object> asIterable() {
+        return new IterableView(this);
+    }
+
+    private interface View {
+        Pipeline pipeline();
+    }
+
+    private static class ListView extends AbstractList<Object> implements View, RandomAccess {
+        private final Pipeline pipeline;
+
+        private ListView(Pipeline pipeline) {
+            this.pipeline = pipeline;
+        }
+
+        @Override
+        public Object get(int index) {
+            return pipeline.get(index);
+        }
+
+        @Override
+        public int size() {
+            return pipeline.toList().size();
+        }
+
+        @Override
+        public Iterator<Object> iterator() {
+            return pipeline.iterator();
+        }
+
+        @Override
+        public Pipeline pipeline() {
+            return pipeline;
+        }
+    }
+
+    private static class CollectionView extends AbstractCollection<Object> implements View {
+        private final Pipeline pipeline;
+
+        private CollectionView(Pipeline pipeline) {
+            this.pipeline = pipeline;
+        }
+
+        @Override
+        public Iterator<Object> iterator() {
+            return pipeline.iterator();
+        }
+
+        @Override
+        public int size() {
+            return pipeline.toList().size();
+        }
+
+        @Override
+        public Pipeline pipeline() {
+            return pipeline;
+        }
+    }
+
+    private static class SetView extends AbstractSet<Object> implements View {
+        private final Pipeline pipeline;
+
+        private SetView(Pipeline pipeline) {
+            this.pipeline = pipeline;
+        }
+
+        @Override
+        public Iterator<Object> iterator() {
+            return pipeline.iterator();
+        }
+
+        @Override
+        public int size() {
+            return pipeline.toList().size();
+        }
+
+        @Override
+        public Pipeline pipeline() {
+            return pipeline;
+        }
+    }
+
+    private static class IterableView implements Iterable<Object>, View {
+        private final Pipeline pipeline;
+
+        private IterableView(Pipeline pipeline) {
+            this.pipeline = pipeline;
+        }
+
+        @Override
+        public Iterator<Object> iterator() {
+            return pipeline.iterator();
+        }
+
+        @Override
+        public Pipeline pipeline() {
+            return pipeline;
+        }
+
+        @Override
+        public String toString() {
+            return Iterables.toString(this);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package see.functions.functional;
+
+import com.google.common.base.Preconditions;
+import see.functions.VarArgFunction;
+
+import javax.annotation.Nonnull;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * First n items of a collection.
+ * Results of map/filter are evaluated only up to n-th item.
+ */
+public class Take implements VarArgFunction<Object, Iterable<?>> {
+    @Override
+    public Iterable<?> apply(@Nonnull List<Object> args) {
+        Preconditions.checkArgument(args.size() == 2, "Take takes two arguments");
+
+        Iterable<?> items = (Iterable<?>) args.get(0);
+        int count = ((Number) args.get(1)).intValue();
+        if (count <= 0) {
+            return Collections.emptyList();
+        }
+
+        Pipeline pipeline = Pipeline.from(items).then(Pipeline.limit(count));
+        if (items instanceof List<?>) {
+            return pipeline.asList();
+        } else if (items instanceof Collection<?>) {
+            return pipeline.asCollection();
+        } else {
+            return pipeline.asIterable();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "take";
+    }
+}
@@ -18,9 +18,7 @@ package see.functions.functional;
 
 import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
-import com.google.common.collect.Collections2;
-import com.google.common.collect.Iterables;
-import com.google.common.collect.Lists;
+import see.functions.FixedArity;
 import see.functions.VarArgFunction;
 
 import javax.annotation.Nonnull;
@@ -28,8 +26,6 @@ import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.List;
 
-import static java.util.Collections.singletonList;
-
 public class Transform implements VarArgFunction<Object, Iterable<?>> {
     @Override
     public Iterable<?> apply(@Nonnull final List<Object> args) {
@@ -41,26 +37,17 @@ public class Transform implements VarArgFunction<Object, Iterable<?>> {
         Function<Object, Object> transformation = new Function<Object, Object>() {
             @Override
             public Object apply(@Nullable Object input) {
-                return transformFunction.apply(singletonList(input));
+                return FixedArity.apply(transformFunction, input);
             }
         };
 
-        return transform(items, transformation);
-    }
-
-    /**
-     * Choose appropriate transformation based on runtime type of collection
-     * @param items collection to transform
-     * @param transformation item transformation
-     * @return lazy transformed collection
-     */
-    private Iterable<?> transform(Iterable<?> items, Function<Object, Object> transformation) {
+        Pipeline pipeline = Pipeline.from(items).then(Pipeline.map(transformation));
         if (items instanceof List<?>) {
-            return Lists.transform((List<?>) items, transformation);
+            return pipeline.asList();
         } else if (items instanceof Collection<?>) {
-            return Collections2.transform((Collection<?>) items, transformation);
+            return pipeline.asCollection();
         } else {
-            return Iterables.transform(items, transformation);
+            return pipeline.asIterable();
         }
     }
 
@@ -18,6 +18,7 @@ package see.functions.reactive;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Supplier;
+import com.google.common.collect.MapMaker;
 import see.evaluation.Context;
 import see.functions.ContextCurriedFunction;
 import see.functions.Settable;
@@ -27,10 +28,21 @@ import see.reactive.SignalFactory;
 
 import javax.annotation.Nonnull;
 import java.util.List;
+import java.util.concurrent.ConcurrentMap;
 
 import static com.google.common.collect.ImmutableList.of;
 
+/**
+ * Signal binding. Sets target to signal value on every change.
+ * Returns observer, which keeps binding alive until disposed.
+ * Binding same target again, e.g. by re-evaluating binding expression, disposes previous observer of target.
+ */
 public class Bind implements ContextCurriedFunction<Object, Signal<?>> {
+    /**
+     * Current observer of every bound target. Entries are dropped, when observer is disposed and collected.
+     */
+    private final ConcurrentMap<Settable<?>, Signal<?>> observers = new MapMaker().weakValues().makeMap();
+
     @Override
     public VarArgFunction<Object, Signal<?>> apply(@Nonnull final Context context) {
         return new VarArgFunction<Object, Signal<?>>() {
@@ -42,7 +54,7 @@ public class Bind implements ContextCurriedFunction<Object, Signal<?>> {
 
                 final Signal<?> signal = (Signal<?>) input.get(1);
 
-                context.getServices().getInstance(SignalFactory.class).bind(of(signal), new Supplier<Object>() {
+                Signal<?> observer = context.getServices().getInstance(SignalFactory.class).observe(of(signal), new Supplier<Object>() {
                     @Override
                     public Object get() {
                         Object now = signal.now();
@@ -51,8 +63,10 @@ public class Bind implements ContextCurriedFunction<Object, Signal<?>> {
                     }
                 });
 
-                return signal;
+                Signal<?> previous = observers.put(target, observer);
+                if (previous != null) previous.dispose();
 
+                return observer;
             }
         };
     }
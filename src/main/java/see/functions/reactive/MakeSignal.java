@@ -18,6 +18,8 @@ package see.functions.reactive;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Supplier;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import see.evaluation.Context;
 import see.evaluation.ToFunction;
@@ -25,12 +27,18 @@ import see.evaluation.ValueProcessor;
 import see.evaluation.evaluators.SimpleContext;
 import see.evaluation.visitors.EagerVisitor;
 import see.evaluation.visitors.LazyVisitor;
+import see.functions.BinaryFunction;
 import see.functions.ContextCurriedFunction;
+import see.functions.UnaryFunction;
 import see.functions.VarArgFunction;
+import see.parser.config.FunctionResolver;
 import see.properties.ChainResolver;
 import see.reactive.Signal;
 import see.reactive.SignalFactory;
+import see.tree.FunctionNode;
 import see.tree.Node;
+import see.tree.immutable.ImmutableConstNode;
+import see.tree.immutable.ImmutableFunctionNode;
 
 import javax.annotation.Nonnull;
 import java.util.Collection;
@@ -41,6 +49,12 @@ import static see.evaluation.conversions.FunctionConversions.concat;
 /**
  * Signal creation. Expects second argument to be a tree.
  * Creates a signal bound to signals present in tree.
+ *
+ * Tree is split into memoized sub-signals at strict function calls, i.e. fixed-arity calls,
+ * which arguments are evaluated anyway. Each argument, which depends on signals, gets it's own signal,
+ * so a change re-evaluates only calls on the path from changed signal to the root.
+ * Lazy calls, like conditionals, are evaluated as a whole, as are trees without strict calls.
+ * Sub-signals are owned by the returned signal, so they are disposed with it.
  */
 public class MakeSignal implements ContextCurriedFunction<Object, Signal<?>> {
     @Override
@@ -50,22 +64,82 @@ public class MakeSignal implements ContextCurriedFunction<Object, Signal<?>> {
             public Signal<?> apply(@Nonnull List<Object> input) {
                 Preconditions.checkArgument(input.size() == 1, "MakeSignal takes one argument");
 
-                final Node<Object> tree = (Node<Object>) input.get(0);
+                Node<Object> tree = (Node<Object>) input.get(0);
+
+                LazyVisitor lazyVisitor = createVisitor();
+                Collection<Signal<?>> dependencies = Sets.newHashSet();
+                List<Signal<?>> subSignals = Lists.newArrayList();
+                Node<Object> root = split(tree, dependencies, subSignals, lazyVisitor);
+
+                return getSignalFactory().bind(dependencies, evaluation(root, lazyVisitor), subSignals);
+            }
+
+            @Override
+            public String toString() {
+                return "signal";
+            }
+
+            /**
+             * Replace arguments of strict calls, which depend on signals, with reads of sub-signals.
+             * @param node node to split
+             * @param dependencies collects signals, which returned node depends on
+             * @param subSignals collects created sub-signals
+             * @param lazyVisitor visitor for sub-signals
+             * @return node, which reads sub-signals instead of evaluating split arguments
+             */
+            private Node<Object> split(Node<Object> node, Collection<Signal<?>> dependencies,
+                                       Collection<Signal<?>> subSignals, LazyVisitor lazyVisitor) {
+                if (!isStrict(node)) {
+                    dependencies.addAll(extractDependencies(node));
+                    return node;
+                }
+
+                FunctionNode<Object, Object> call = (FunctionNode<Object, Object>) node;
+                List<Node<Object>> arguments = Lists.newArrayList();
+                for (Node<Object> argument : call.getArguments()) {
+                    Collection<Signal<?>> argumentDependencies = Sets.newHashSet();
+                    Node<Object> splitArgument = split(argument, argumentDependencies, subSignals, lazyVisitor);
+
+                    if (isStrict(argument) && !argumentDependencies.isEmpty()) {
+                        Signal<?> subSignal = getSignalFactory().bind(argumentDependencies, evaluation(splitArgument, lazyVisitor));
+                        subSignals.add(subSignal);
+                        dependencies.add(subSignal);
+                        arguments.add(read(subSignal));
+                    } else {
+                        dependencies.addAll(argumentDependencies);
+                        arguments.add(splitArgument);
+                    }
+                }
+                return new ImmutableFunctionNode<Object, Object>(call.getFunctionName(), arguments);
+            }
+
+            /**
+             * Check if node is a call, which evaluates all arguments, see {@link UnaryFunction}, {@link BinaryFunction}.
+             */
+            private boolean isStrict(Node<Object> node) {
+                if (!(node instanceof FunctionNode<?, ?>)) return false;
 
-                Collection<Signal<?>> dependencies = extractDependencies(tree);
+                FunctionNode<?, ?> call = (FunctionNode<?, ?>) node;
+                ContextCurriedFunction<Object, Object> function = getFunctionResolver().get(call.getFunctionName());
+                if (function == null) return false;
 
-                final LazyVisitor lazyVisitor = createVisitor();
-                return context.getServices().getInstance(SignalFactory.class).bind(dependencies, new Supplier<Object>() {
+                VarArgFunction<Object, Object> partial = function.apply(context);
+                int arity = call.getArguments().size();
+                return (arity == 1 && partial instanceof UnaryFunction<?, ?>) || (arity == 2 && partial instanceof BinaryFunction<?, ?>);
+            }
+
+            private Supplier<Object> evaluation(final Node<Object> tree, final LazyVisitor lazyVisitor) {
+                return new Supplier<Object>() {
                     @Override
                     public Object get() {
                         return tree.accept(lazyVisitor);
                     }
-                });
+                };
             }
 
-            @Override
-            public String toString() {
-                return "signal";
+            private Node<Object> read(Signal<?> signal) {
+                return new ImmutableFunctionNode<Object, Object>("apply",
+                        ImmutableList.<Node<Object>>of(new ImmutableConstNode<Object>(signal)));
             }
 
             private Collection<Signal<?>> extractDependencies(Node<Object> tree) {
@@ -87,6 +161,14 @@ public class MakeSignal implements ContextCurriedFunction<Object, Signal<?>> {
                 return SimpleContext.addService(context, ToFunction.class, concat(signalFunction, old));
             }
 
+            private SignalFactory getSignalFactory() {
+                return context.getServices().getInstance(SignalFactory.class);
+            }
+
+            private FunctionResolver getFunctionResolver() {
+                return context.getServices().getInstance(FunctionResolver.class);
+            }
+
             private ValueProcessor getProcessor() {
                 return context.getServices().getInstance(ValueProcessor.class);
             }
@@ -19,7 +19,9 @@ package see.functions.service;
 import com.google.common.base.Preconditions;
 import see.evaluation.Context;
 import see.evaluation.ToFunction;
+import see.functions.BinaryFunction;
 import see.functions.ContextCurriedFunction;
+import see.functions.UnaryFunction;
 import see.functions.VarArgFunction;
 
 import javax.annotation.Nonnull;
@@ -27,6 +29,7 @@ import java.util.List;
 
 /**
  * Function application, which tries to convert input to function via {@link ToFunction}, obtained from context.
+ * Functions with fixed-arity form get their arguments directly, others get a lazy sub-list.
  */
 public class ExtensibleApply implements ContextCurriedFunction<Object, Object> {
     @Override
@@ -37,8 +40,16 @@ public class ExtensibleApply implements ContextCurriedFunction<Object, Object> {
                 Preconditions.checkArgument(args.size() >= 1, "Apply takes one or more arguments");
 
                 ContextCurriedFunction<Object, ?> function = convertToFunction(args.get(0));
+                VarArgFunction<Object, ?> target = function.apply(context);
 
-                return function.apply(context).apply(args.subList(1, args.size()));
+                int arity = args.size() - 1;
+                if (arity == 1 && target instanceof UnaryFunction<?, ?>) {
+                    return ((UnaryFunction<Object, ?>) target).apply1(args.get(1));
+                }
+                if (arity == 2 && target instanceof BinaryFunction<?, ?>) {
+                    return ((BinaryFunction<Object, ?>) target).apply2(args.get(1), args.get(2));
+                }
+                return target.apply(args.subList(1, args.size()));
             }
 
             private ContextCurriedFunction<Object, ?> convertToFunction(Object f) {
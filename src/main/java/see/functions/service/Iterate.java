@@ -20,6 +20,7 @@ import com.google.common.base.Preconditions;
 import see.evaluation.Context;
 import see.evaluation.ContextEvaluator;
 import see.evaluation.Scope;
+import see.evaluation.scopes.FrameLayout;
 import see.functions.ContextCurriedFunction;
 import see.functions.VarArgFunction;
 import see.tree.Node;
@@ -27,9 +28,8 @@ import see.tree.Node;
 import javax.annotation.Nonnull;
 import java.util.List;
 
-import static com.google.common.collect.ImmutableMap.of;
 import static see.evaluation.evaluators.SimpleContext.withVariables;
-import static see.evaluation.scopes.Scopes.override;
+import static see.evaluation.scopes.Scopes.frame;
 
 
 /**
@@ -56,9 +56,10 @@ public class Iterate implements ContextCurriedFunction<Object, Object> {
 
                 ContextEvaluator evaluator = context.getServices().getInstance(ContextEvaluator.class);
 
+                FrameLayout layout = FrameLayout.loop(varName);
                 Object lastValue = null;
                 for (Object item : list) {
-                    Scope scope = override(context.getScope(), of(varName, item));
+                    Scope scope = frame(context.getScope(), layout, item);
                     lastValue = evaluator.evaluate(tree, withVariables(context, scope));
                 }
                 
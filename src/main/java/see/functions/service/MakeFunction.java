@@ -17,22 +17,22 @@
 package see.functions.service;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.Maps;
+import com.google.common.collect.ImmutableList;
 import see.evaluation.Context;
 import see.evaluation.ContextEvaluator;
 import see.evaluation.Scope;
+import see.evaluation.scopes.FrameLayout;
+import see.functions.BinaryFunction;
 import see.functions.ContextCurriedFunction;
+import see.functions.UnaryFunction;
 import see.functions.VarArgFunction;
 import see.tree.Node;
 
 import javax.annotation.Nonnull;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 
 import static see.evaluation.evaluators.SimpleContext.withVariables;
-import static see.evaluation.scopes.Scopes.defCapture;
-import static see.evaluation.scopes.Scopes.override;
+import static see.evaluation.scopes.Scopes.frame;
 
 /**
  * Function creation. Takes list of argument names and tree, returns function,
@@ -57,37 +57,44 @@ public class MakeFunction implements ContextCurriedFunction<Object, VarArgFuncti
         return "def";
     }
 
-    private static class FunctionLiteral implements VarArgFunction<Object, Object> {
+    private static class FunctionLiteral implements VarArgFunction<Object, Object>,
+            UnaryFunction<Object, Object>, BinaryFunction<Object, Object> {
         private final Context context;
         private final Node<?> tree;
         private final List<String> argNames;
+        private final FrameLayout layout;
 
         public FunctionLiteral(List<String> argNames, Node<?> tree, Context context) {
             this.argNames = argNames;
             this.tree = tree;
             this.context = context;
+            this.layout = FrameLayout.function(argNames, ImmutableList.<String>of());
         }
 
         @Override
         public Object apply(@Nonnull List<Object> actualArgs) {
             Preconditions.checkArgument(actualArgs.size() == argNames.size(), "Wrong number of arguments");
 
-            ContextEvaluator evaluator = context.getServices().getInstance(ContextEvaluator.class);
+            return evaluate(frame(context.getScope(), layout, actualArgs.toArray()));
+        }
+
+        @Override
+        public Object apply1(Object arg) {
+            Preconditions.checkArgument(argNames.size() == 1, "Wrong number of arguments");
 
-            return evaluator.evaluate(tree, overrideArgs(argNames, actualArgs));
+            return evaluate(frame(context.getScope(), layout, arg));
         }
 
-        private Context overrideArgs(List<String> argNames, List<Object> actualArgs) {
-            Map<String, Object> scopeOverride = Maps.newHashMap();
-            Iterator<String> names = argNames.iterator();
-            Iterator<Object> args = actualArgs.iterator();
+        @Override
+        public Object apply2(Object first, Object second) {
+            Preconditions.checkArgument(argNames.size() == 2, "Wrong number of arguments");
 
-            while (names.hasNext()) {
-                scopeOverride.put(names.next(), args.next());
-            }
+            return evaluate(frame(context.getScope(), layout, first, second));
+        }
 
-            Scope scope = defCapture(override(context.getScope(), scopeOverride));
-            return withVariables(context, scope);
+        private Object evaluate(Scope scope) {
+            ContextEvaluator evaluator = context.getServices().getInstance(ContextEvaluator.class);
+            return evaluator.evaluate(tree, withVariables(context, scope));
         }
     }
 }
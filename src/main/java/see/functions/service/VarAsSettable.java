@@ -18,6 +18,7 @@ package see.functions.service;
 
 import com.google.common.base.Preconditions;
 import see.evaluation.Context;
+import see.evaluation.Scope;
 import see.functions.ContextCurriedFunction;
 import see.functions.Settable;
 import see.functions.VarArgFunction;
@@ -36,17 +37,43 @@ public class VarAsSettable implements ContextCurriedFunction<String, Settable<Ob
             public Settable<Object> apply(@Nonnull List<String> input) {
                 Preconditions.checkArgument(input.size() == 1, "VarAsSettable takes one argument");
 
-                final String varName = input.get(0);
-                return new Settable<Object>() {
-                    @Override
-                    public void set(Object value) {
-                        context.getScope().put(varName, value);
-                    }
-                };
+                return new ScopeVariable(context.getScope(), input.get(0));
             }
         };
     }
 
+    /**
+     * Variable of a scope. Variables are equal if they have same scope instance and name.
+     */
+    private static final class ScopeVariable implements Settable<Object> {
+        private final Scope scope;
+        private final String name;
+
+        private ScopeVariable(Scope scope, String name) {
+            this.scope = scope;
+            this.name = name;
+        }
+
+        @Override
+        public void set(Object value) {
+            scope.put(name, value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ScopeVariable)) return false;
+
+            ScopeVariable that = (ScopeVariable) o;
+            return scope == that.scope && name.equals(that.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(scope) + name.hashCode();
+        }
+    }
+
     @Override
     public String toString() {
         return "vSettable";
@@ -1,12 +1,13 @@
 package see.functions.string;
 
 import com.google.common.base.Joiner;
+import see.functions.BinaryFunction;
 import see.functions.VarArgFunction;
 
 import javax.annotation.Nonnull;
 import java.util.List;
 
-public class Concat implements VarArgFunction<Object, String> {
+public class Concat implements VarArgFunction<Object, String>, BinaryFunction<Object, String> {
 
     private final Joiner joiner = Joiner.on("").useForNull("null");
 
@@ -15,6 +16,11 @@ public class Concat implements VarArgFunction<Object, String> {
         return joiner.join(input);
     }
 
+    @Override
+    public String apply2(Object first, Object second) {
+        return new StringBuilder().append(first).append(second).toString();
+    }
+
     @Override
     public String toString() {
         return "append";
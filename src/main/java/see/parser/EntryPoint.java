@@ -0,0 +1,37 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package see.parser;
+
+/**
+ * Grammar entry points, available for parsing.
+ */
+public enum EntryPoint {
+    /**
+     * Single expression
+     */
+    SIMPLE,
+
+    /**
+     * Semicolon-separated list of expressions
+     */
+    SCRIPT,
+
+    /**
+     * Expression list with 'return' keyword
+     */
+    CALC_EXPRESSION
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package see.parser;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.Weigher;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import see.parser.config.GrammarConfiguration;
+import see.tree.Node;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Bounded concurrent cache of parse results.
+ * Entries are keyed by entry point, source text and configuration identity.
+ * Parsed trees are immutable, so single cache can be shared by multiple {@link see.See} instances.
+ */
+public abstract class ParseCache {
+
+    /**
+     * Get parsed tree from cache, parse and store it if absent.
+     * Parse exceptions are propagated as is and are not cached.
+     *
+     * @param entryPoint grammar entry point
+     * @param expression source text
+     * @param config grammar configuration
+     * @param parser parse function, invoked on cache miss
+     * @return parsed tree
+     */
+    public abstract Node<Object> get(EntryPoint entryPoint, String expression, GrammarConfiguration config,
+                                     Callable<Node<Object>> parser);
+
+    /**
+     * Get cache statistics: hits, misses, evictions, load time.
+     * @return cache stats
+     */
+    public abstract CacheStats stats();
+
+    /**
+     * Discard all cached trees.
+     */
+    public abstract void invalidateAll();
+
+    /**
+     * Create cache, holding at most maxEntries trees. Least recently used trees are evicted first.
+     *
+     * @param maxEntries maximum number of cached trees
+     * @return created cache
+     */
+    public static ParseCache lru(long maxEntries) {
+        return fromBuilder(CacheBuilder.newBuilder().maximumSize(maxEntries));
+    }
+
+    /**
+     * Create cache, bounded by total length of cached source texts.
+     *
+     * @param maxChars maximum summary length of cached expressions
+     * @return created cache
+     */
+    public static ParseCache bySourceLength(long maxChars) {
+        return fromBuilder(CacheBuilder.newBuilder().maximumWeight(maxChars).weigher(new Weigher<Object, Object>() {
+            @Override
+            public int weigh(Object key, Object value) {
+                return ((Key) key).expression.length();
+            }
+        }));
+    }
+
+    /**
+     * Create cache with custom eviction policy.
+     * Statistics recording is always enabled.
+     *
+     * @param builder configured cache builder
+     * @return created cache
+     */
+    public static ParseCache fromBuilder(CacheBuilder<Object, Object> builder) {
+        return new GuavaParseCache(builder.recordStats().<Key, Node<Object>>build());
+    }
+
+    /**
+     * Create cache, which doesn't cache anything.
+     * @return cache stub
+     */
+    public static ParseCache disabled() {
+        return new DisabledParseCache();
+    }
+
+    private static class GuavaParseCache extends ParseCache {
+        private final Cache<Key, Node<Object>> cache;
+
+        private GuavaParseCache(Cache<Key, Node<Object>> cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        public Node<Object> get(EntryPoint entryPoint, String expression, GrammarConfiguration config,
+                                Callable<Node<Object>> parser) {
+            try {
+                return cache.get(new Key(entryPoint, expression, config), parser);
+            } catch (ExecutionException e) {
+                throw Throwables.propagate(e.getCause());
+            } catch (UncheckedExecutionException e) {
+                throw Throwables.propagate(e.getCause());
+            }
+        }
+
+        @Override
+        public CacheStats stats() {
+            return cache.stats();
+        }
+
+        @Override
+        public void invalidateAll() {
+            cache.invalidateAll();
+        }
+    }
+
+    private static class DisabledParseCache extends ParseCache {
+        @Override
+        public Node<Object> get(EntryPoint entryPoint, String expression, GrammarConfiguration config,
+                                Callable<Node<Object>> parser) {
+            try {
+                return parser.call();
+            } catch (Exception e) {
+                throw Throwables.propagate(e);
+            }
+        }
+
+        @Override
+        public CacheStats stats() {
+            return new CacheStats(0, 0, 0, 0, 0, 0);
+        }
+
+        @Override
+        public void invalidateAll() {
+        }
+    }
+
+    private static final class Key {
+        private final EntryPoint entryPoint;
+        private final String expression;
+        private final GrammarConfiguration config;
+
+        private Key(EntryPoint entryPoint, String expression, GrammarConfiguration config) {
+            this.entryPoint = entryPoint;
+            this.expression = expression;
+            this.config = config;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Key key = (Key) o;
+            return entryPoint == key.entryPoint && config == key.config && expression.equals(key.expression);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(entryPoint, expression, System.identityHashCode(config));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package see.parser;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.Sets;
+import org.parboiled.matchers.Matcher;
+import org.parboiled.scala.rules.Rule1;
+import see.parser.config.GrammarConfiguration;
+import see.parser.grammar.AltEntryPoints;
+import see.tree.Untyped;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+
+/**
+ * Pre-built grammar entry points.
+ *
+ * Building parboiled rule graph is much more expensive than parsing a typical expression,
+ * so entry points are built once per configuration and shared between threads.
+ */
+public class SharedGrammar {
+    private static final LoadingCache<GrammarConfiguration, SharedGrammar> instances = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build(new CacheLoader<GrammarConfiguration, SharedGrammar>() {
+                @Override
+                public SharedGrammar load(GrammarConfiguration config) {
+                    return new SharedGrammar(AltEntryPoints.apply(config));
+                }
+            });
+
+    private final Rule1<Untyped.Node> simple;
+    private final Rule1<Untyped.Node> script;
+    private final Rule1<Untyped.Node> calcExpression;
+
+    private SharedGrammar(AltEntryPoints grammar) {
+        this.simple = grammar.Simple();
+        this.script = grammar.Script();
+        this.calcExpression = grammar.CalcExpression();
+
+        resolveProxies(simple, script, calcExpression);
+    }
+
+    /**
+     * Get grammar for supplied configuration.
+     * Grammar is built on first request, subsequent calls with same configuration return same instance.
+     *
+     * @param config grammar configuration
+     * @return shared grammar
+     */
+    public static SharedGrammar forConfig(GrammarConfiguration config) {
+        return instances.getUnchecked(config);
+    }
+
+    /**
+     * Entry point for a single expression
+     * @return parser rule
+     */
+    public Rule1<Untyped.Node> getSimple() {
+        return simple;
+    }
+
+    /**
+     * Entry point for semicolon-separated list of expressions
+     * @return parser rule
+     */
+    public Rule1<Untyped.Node> getScript() {
+        return script;
+    }
+
+    /**
+     * Entry point for expression list with 'return' keyword
+     * @return parser rule
+     */
+    public Rule1<Untyped.Node> getCalcExpression() {
+        return calcExpression;
+    }
+
+    /**
+     * Get rule for specified entry point
+     * @param entryPoint entry point
+     * @return parser rule
+     */
+    public Rule1<Untyped.Node> getRule(EntryPoint entryPoint) {
+        switch (entryPoint) {
+            case SIMPLE: return simple;
+            case SCRIPT: return script;
+            case CALC_EXPRESSION: return calcExpression;
+            default: throw new IllegalArgumentException("Unknown entry point " + entryPoint);
+        }
+    }
+
+    /**
+     * Walk through rule graph, forcing lazy resolution of recursive rules.
+     * Resolution writes happen here, before instance is shared.
+     *
+     * @param rules root rules
+     */
+    private static void resolveProxies(Rule1<?>... rules) {
+        Set<Matcher> visited = Sets.newIdentityHashSet();
+        Deque<Matcher> toVisit = new ArrayDeque<Matcher>();
+        for (Rule1<?> rule : rules) {
+            toVisit.push(rule.matcher());
+        }
+
+        while (!toVisit.isEmpty()) {
+            Matcher matcher = toVisit.pop();
+            if (visited.add(matcher)) {
+                for (Matcher child : matcher.getChildren()) {
+                    toVisit.push(child);
+                }
+            }
+        }
+    }
+}
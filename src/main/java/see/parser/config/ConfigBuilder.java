@@ -1,8 +1,11 @@
 package see.parser.config;
 
+import com.google.common.base.Preconditions;
 import com.google.common.base.Supplier;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import see.evaluation.ValueProcessor;
+import see.evaluation.metrics.Instrumentation;
 import see.evaluation.processors.NumberLifter;
 import see.functions.ContextCurriedFunction;
 import see.functions.PureFunction;
@@ -15,25 +18,23 @@ import see.properties.impl.*;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static com.google.common.collect.ImmutableList.of;
 import static see.evaluation.processors.AggregatingProcessor.concat;
-import static see.properties.PropertyResolvers.aggregate;
 
 public class ConfigBuilder {
     private Map<String, String> aliases;
     private Map<String, ContextCurriedFunction<Object, Object>> functions;
+    private Set<String> foldable = Sets.newHashSet();
     
     private List<? extends ValueProcessor> valueProcessors = of(new NumberLifter(getNumberFactoryReference()));
 
     private AtomicReference<NumberFactory> numberFactory = new AtomicReference<NumberFactory>(new BigDecimalFactory());
-    private ChainResolver propertyResolver = new SingularChainResolver(aggregate(
-            new MethodResolver(),
-            new MapResolver(),
-            new IterableResolver(),
-            new BeanPropertyResolver()
-    ));
+    private AtomicReference<Integer> parallelism = new AtomicReference<Integer>(Runtime.getRuntime().availableProcessors());
+    private ChainResolver propertyResolver = DefaultConfig.defaultChainResolver();
+    private Instrumentation instrumentation;
 
     private ConfigBuilder(Map<String, String> aliases,
                           Map<String, ContextCurriedFunction<Object, Object>> functions) {
@@ -45,6 +46,14 @@ public class ConfigBuilder {
         return DefaultConfig.defaultConfig();
     }
 
+    /**
+     * Default configuration with double arithmetic, see {@link DefaultConfig#doubleConfig()}.
+     * @return config builder
+     */
+    public static ConfigBuilder doubleConfig() {
+        return DefaultConfig.doubleConfig();
+    }
+
     public static ConfigBuilder emptyConfig() {
         Map<String, String> aliases = Maps.newHashMap();
         Map<String, ContextCurriedFunction<Object, Object>> functions = Maps.newHashMap();
@@ -68,6 +77,7 @@ public class ConfigBuilder {
      */
     public <T, R> ConfigBuilder addFunction(String name, ContextCurriedFunction<T, R> function) {
         functions.put(name, wrap(function));
+        foldable.remove(name);
         return this;
     }
 
@@ -82,6 +92,24 @@ public class ConfigBuilder {
      */
     public <A, R> ConfigBuilder addFunction(String name, VarArgFunction<A, R> function) {
         functions.put(name, wrap(function));
+        foldable.remove(name);
+        return this;
+    }
+
+    /**
+     * Add supplied pure function to registry and mark it as foldable.
+     * Foldable function must be deterministic and free of side effects,
+     * so that calls with constant arguments can be evaluated once, at parse time.
+     *
+     * @param name     function name
+     * @param function function to add
+     * @param <A>      function argument type
+     * @param <R>      function result type
+     * @return this instance
+     */
+    public <A, R> ConfigBuilder addFoldableFunction(String name, VarArgFunction<A, R> function) {
+        addFunction(name, function);
+        foldable.add(name);
         return this;
     }
 
@@ -99,6 +127,28 @@ public class ConfigBuilder {
         };
     }
 
+    /**
+     * Bound parallelism of parallel collection functions, e.g. pmap.
+     * Defaults to number of available processors.
+     *
+     * @param parallelism maximum number of chunks, processed in parallel by one call
+     * @return this instance
+     */
+    public ConfigBuilder setParallelism(int parallelism) {
+        Preconditions.checkArgument(parallelism > 0, "Parallelism should be positive");
+        this.parallelism.set(parallelism);
+        return this;
+    }
+
+    public Supplier<Integer> getParallelismReference() {
+        return new Supplier<Integer>() {
+            @Override
+            public Integer get() {
+                return parallelism.get();
+            }
+        };
+    }
+
     /**
      * Set custom property resolver (for one property).
      * 
@@ -130,12 +180,23 @@ public class ConfigBuilder {
         return this;
     }
 
+    /**
+     * Measure evaluation with supplied instrumentation.
+     * @param instrumentation instrumentation, null to disable
+     * @return this instance
+     */
+    public ConfigBuilder setInstrumentation(Instrumentation instrumentation) {
+        this.instrumentation = instrumentation;
+        return this;
+    }
+
     public GrammarConfiguration build() {
         return new GrammarConfiguration(
-                new FunctionResolver(functions, aliases),
+                new FunctionResolver(functions, aliases, foldable),
                 numberFactory.get(),
                 propertyResolver,
-                concat(valueProcessors)
+                concat(valueProcessors),
+                instrumentation
         );
     }
 
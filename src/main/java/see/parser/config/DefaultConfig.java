@@ -24,10 +24,18 @@ import see.functions.bool.Or;
 import see.functions.collections.MakeList;
 import see.functions.collections.MakeMap;
 import see.functions.common.AddOrConcat;
+import see.functions.common.DoubleAddOrConcat;
 import see.functions.compare.*;
+import see.functions.functional.AllMatch;
+import see.functions.functional.AnyMatch;
 import see.functions.functional.Filter;
+import see.functions.functional.First;
 import see.functions.functional.FlatMap;
 import see.functions.functional.FoldFunction;
+import see.functions.functional.ParallelFilter;
+import see.functions.functional.ParallelFold;
+import see.functions.functional.ParallelTransform;
+import see.functions.functional.Take;
 import see.functions.functional.Transform;
 import see.functions.properties.GetProperty;
 import see.functions.reactive.Bind;
@@ -35,13 +43,16 @@ import see.functions.reactive.MakeSignal;
 import see.functions.service.*;
 import see.functions.string.Concat;
 import see.parser.numbers.BigDecimalFactory;
+import see.parser.numbers.DoubleFactory;
 import see.parser.numbers.NumberFactory;
+import see.properties.impl.*;
 
 import javax.annotation.Nullable;
 import java.math.BigDecimal;
 import java.math.MathContext;
 
 import static com.google.common.base.Suppliers.compose;
+import static see.properties.PropertyResolvers.aggregate;
 
 public abstract class DefaultConfig {
     private DefaultConfig() {}
@@ -62,11 +73,49 @@ public abstract class DefaultConfig {
         return builder;
     }
 
+    /**
+     * Default property chain resolver: methods, maps, iterables and bean properties, in this order.
+     * Method and bean resolvers share an accessor cache, which is released with the resolver.
+     *
+     * @return chain resolver
+     */
+    public static SingularChainResolver defaultChainResolver() {
+        AccessorCache accessors = new AccessorCache();
+        return new SingularChainResolver(aggregate(
+                new MethodResolver(accessors),
+                new MapResolver(),
+                new IterableResolver(),
+                new BeanPropertyResolver(accessors)
+        ));
+    }
+
+    /**
+     * Default configuration with double numbers instead of BigDecimal.
+     * Arithmetic and comparison functions can be evaluated on unboxed doubles by compiled expressions.
+     *
+     * @return config builder
+     */
+    public static ConfigBuilder doubleConfig() {
+        final ConfigBuilder builder = defaultConfig();
+        builder.setNumberFactory(new DoubleFactory());
+
+        addDoubleArithmetic(builder);
+        return builder;
+    }
+
     private static void addFunctional(ConfigBuilder builder) {
         builder.addFunction("map", new Transform());
         builder.addFunction("filter", new Filter());
         builder.addFunction("flatMap", new FlatMap());
         builder.addFunction("fold", new FoldFunction());
+        builder.addFunction("first", new First());
+        builder.addFunction("any", new AnyMatch());
+        builder.addFunction("all", new AllMatch());
+        builder.addFunction("take", new Take());
+
+        builder.addFunction("pmap", new ParallelTransform(builder.getParallelismReference()));
+        builder.addFunction("pfilter", new ParallelFilter(builder.getParallelismReference()));
+        builder.addFunction("preduce", new ParallelFold(builder.getParallelismReference()));
     }
 
     private static void addCollections(ConfigBuilder builder) {
@@ -95,36 +144,48 @@ public abstract class DefaultConfig {
     }
 
     private static void addCompare(ConfigBuilder builder) {
-        builder.addFunction("==", new Eq());
-        builder.addFunction("!=", new Neq());
-        builder.addFunction(">", new Gt());
-        builder.addFunction(">=", new Geq());
-        builder.addFunction("<", new Lt());
-        builder.addFunction("<=", new Leq());
+        builder.addFoldableFunction("==", new Eq());
+        builder.addFoldableFunction("!=", new Neq());
+        builder.addFoldableFunction(">", new Gt());
+        builder.addFoldableFunction(">=", new Geq());
+        builder.addFoldableFunction("<", new Lt());
+        builder.addFoldableFunction("<=", new Leq());
     }
 
     private static void addArithmetic(final ConfigBuilder builder) {
         builder.addAlias("+", "addOrConcat");
-        builder.addFunction("addOrConcat", new AddOrConcat());
-        builder.addFunction("concat", new Concat());
-        builder.addFunction("sum", new Sum());
+        builder.addFoldableFunction("addOrConcat", new AddOrConcat());
+        builder.addFoldableFunction("concat", new Concat());
+        builder.addFoldableFunction("sum", new Sum());
 
         builder.addAlias("-", "minus");
         builder.addAlias("*", "product");
         builder.addAlias("/", "divide");
         builder.addAlias("^", "pow");
 
-        builder.addFunction("min", new Min<BigDecimal>());
-        builder.addFunction("max", new Max<BigDecimal>());
-        builder.addFunction("minus", new Minus());
-        builder.addFunction("product", new Product());
-        builder.addFunction("divide", new Divide(compose(new Function<NumberFactory, MathContext>() {
+        builder.addFoldableFunction("min", new Min<BigDecimal>());
+        builder.addFoldableFunction("max", new Max<BigDecimal>());
+        builder.addFoldableFunction("minus", new Minus());
+        builder.addFoldableFunction("product", new Product());
+        builder.addFoldableFunction("divide", new Divide(compose(new Function<NumberFactory, MathContext>() {
             @Override
             public MathContext apply(@Nullable NumberFactory input) {
                 return ((BigDecimalFactory) input).getMathContext();
             }
         }, builder.getNumberFactoryReference())));
-        builder.addFunction("pow", new Power());
+        builder.addFoldableFunction("pow", new Power());
+    }
+
+    private static void addDoubleArithmetic(ConfigBuilder builder) {
+        builder.addFoldableFunction("addOrConcat", new DoubleAddOrConcat());
+        builder.addFoldableFunction("sum", new DoubleSum());
+
+        builder.addFoldableFunction("min", new Min<Double>());
+        builder.addFoldableFunction("max", new Max<Double>());
+        builder.addFoldableFunction("minus", new DoubleMinus());
+        builder.addFoldableFunction("product", new DoubleProduct());
+        builder.addFoldableFunction("divide", new DoubleDivide());
+        builder.addFoldableFunction("pow", new DoublePower());
     }
 
     private static void addLogic(ConfigBuilder builder) {
@@ -132,9 +193,9 @@ public abstract class DefaultConfig {
         builder.addAlias("&&", "and");
         builder.addAlias("||", "or");
 
-        builder.addFunction("not", new Not());
-        builder.addFunction("and", new And());
-        builder.addFunction("or", new Or());
+        builder.addFoldableFunction("not", new Not());
+        builder.addFoldableFunction("and", new And());
+        builder.addFoldableFunction("or", new Or());
     }
 
     private static void addServiceFunctions(ConfigBuilder builder) {
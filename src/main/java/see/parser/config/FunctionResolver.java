@@ -1,9 +1,11 @@
 package see.parser.config;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import see.functions.ContextCurriedFunction;
 
 import java.util.Map;
+import java.util.Set;
 
 import static com.google.common.base.Functions.forMap;
 import static com.google.common.collect.Maps.transformValues;
@@ -11,11 +13,19 @@ import static com.google.common.collect.Maps.transformValues;
 public class FunctionResolver {
     private final Map<String, ContextCurriedFunction<Object, Object>> functions;
     private final Map<String, String> aliases;
+    private final Set<String> foldable;
 
     public FunctionResolver(Map<String, ? extends ContextCurriedFunction<Object, Object>> functions,
                             Map<String, String> aliases) {
+        this(functions, aliases, ImmutableSet.<String>of());
+    }
+
+    public FunctionResolver(Map<String, ? extends ContextCurriedFunction<Object, Object>> functions,
+                            Map<String, String> aliases,
+                            Set<String> foldable) {
         this.functions = ImmutableMap.copyOf(functions);
         this.aliases = ImmutableMap.copyOf(aliases);
+        this.foldable = ImmutableSet.copyOf(foldable);
     }
 
     /**
@@ -31,6 +41,19 @@ public class FunctionResolver {
         }
     }
 
+    /**
+     * Check if function can be evaluated at parse time, when all arguments are constant
+     * @param name function name
+     * @return true if function was registered as foldable
+     */
+    public boolean isFoldable(String name) {
+        if (aliases.containsKey(name)) {
+            return foldable.contains(aliases.get(name));
+        } else {
+            return foldable.contains(name);
+        }
+    }
+
     public Map<String, ContextCurriedFunction<Object, Object>> getFunctions() {
         ImmutableMap.Builder<String, ContextCurriedFunction<Object, Object>> builder = ImmutableMap.builder();
         return builder
@@ -1,20 +1,30 @@
 package see.parser.config;
 
 import see.evaluation.ValueProcessor;
+import see.evaluation.metrics.Instrumentation;
 import see.parser.numbers.NumberFactory;
 import see.properties.ChainResolver;
 
+import javax.annotation.Nullable;
+
 public class GrammarConfiguration {
     private final FunctionResolver functions;
     private final NumberFactory numberFactory;
     private final ChainResolver properties;
     private final ValueProcessor valueProcessor;
+    private final Instrumentation instrumentation;
 
     public GrammarConfiguration(FunctionResolver functions, NumberFactory numberFactory, ChainResolver properties, ValueProcessor processor) {
+        this(functions, numberFactory, properties, processor, null);
+    }
+
+    public GrammarConfiguration(FunctionResolver functions, NumberFactory numberFactory, ChainResolver properties,
+                                ValueProcessor processor, @Nullable Instrumentation instrumentation) {
         this.functions = functions;
         this.numberFactory = numberFactory;
         this.properties = properties;
         this.valueProcessor = processor;
+        this.instrumentation = instrumentation;
     }
 
     public FunctionResolver getFunctions() {
@@ -32,4 +42,13 @@ public class GrammarConfiguration {
     public ValueProcessor getValueProcessor() {
         return valueProcessor;
     }
+
+    /**
+     * Get evaluation instrumentation
+     * @return instrumentation, null if evaluation is not measured
+     */
+    @Nullable
+    public Instrumentation getInstrumentation() {
+        return instrumentation;
+    }
 }
@@ -16,6 +16,7 @@
 
 package see.parser.grammar;
 
+import com.google.common.base.Objects;
 import see.util.Either;
 
 public abstract class PropertyAccess {
@@ -69,6 +70,16 @@ public abstract class PropertyAccess {
             return name;
         }
 
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Simple && name.equals(((Simple) o).name);
+        }
+
+        @Override
+        public int hashCode() {
+            return name.hashCode();
+        }
+
         @Override
         public String toString() {
             final StringBuilder sb = new StringBuilder();
@@ -104,6 +115,16 @@ public abstract class PropertyAccess {
             return index;
         }
 
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Indexed && Objects.equal(index, ((Indexed) o).index);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(index);
+        }
+
         @Override
         public String toString() {
             final StringBuilder sb = new StringBuilder();
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package see.parser.grammar;
+
+import org.parboiled.MatcherContext;
+import org.parboiled.Rule;
+import org.parboiled.buffers.InputBuffer;
+import org.parboiled.matchers.Matcher;
+import org.parboiled.matchers.MemoMismatchesMatcher;
+
+/**
+ * Mismatch memoization, which is safe to reuse between parse runs and threads.
+ *
+ * {@link MemoMismatchesMatcher} remembers last mismatched index regardless of input,
+ * so a grammar reused for another input can fail spuriously.
+ * This implementation binds remembered mismatch to input buffer and publishes it atomically.
+ */
+public class SharedMemoMismatchesMatcher extends MemoMismatchesMatcher {
+    private final Matcher inner;
+    private volatile Mismatch lastMismatch;
+
+    public SharedMemoMismatchesMatcher(Rule inner) {
+        super(inner);
+        this.inner = (Matcher) inner;
+    }
+
+    @Override
+    public <V> boolean match(MatcherContext<V> context) {
+        InputBuffer input = context.getInputBuffer();
+        int index = context.getCurrentIndex();
+
+        Mismatch mismatch = lastMismatch;
+        if (mismatch != null && mismatch.input == input && mismatch.index == index) {
+            return false;
+        }
+
+        if (inner.match(context)) {
+            lastMismatch = null;
+            return true;
+        }
+
+        lastMismatch = new Mismatch(input, index);
+        return false;
+    }
+
+    private static class Mismatch {
+        private final InputBuffer input;
+        private final int index;
+
+        private Mismatch(InputBuffer input, int index) {
+            this.input = input;
+            this.index = index;
+        }
+    }
+}
@@ -23,6 +23,8 @@ public class BigDecimalFactory implements NumberFactory {
     public BigDecimal getNumber(Number number) {
         if (number instanceof BigDecimal) {
             return (BigDecimal) number;
+        } else if (number instanceof Long || number instanceof Integer) {
+            return BigDecimal.valueOf(number.longValue());
         } else {
             return BigDecimal.valueOf(number.doubleValue());
         }
@@ -8,7 +8,11 @@ public class DoubleFactory implements NumberFactory {
 
     @Override
     public Number getNumber(Number number) {
-        return number.doubleValue();
+        if (number instanceof Double) {
+            return number;
+        } else {
+            return number.doubleValue();
+        }
     }
 
     @Override
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package see.properties;
+
+import java.util.List;
+
+/**
+ * Partial resolver, which delegates each operation to first capable resolver of a list.
+ */
+public interface AggregateResolver extends PartialResolver {
+    /**
+     * Get aggregated resolvers
+     * @return resolvers in order of precedence
+     */
+    List<? extends PartialResolver> getResolvers();
+}
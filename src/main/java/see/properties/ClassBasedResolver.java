@@ -0,0 +1,36 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package see.properties;
+
+import see.parser.grammar.PropertyAccess;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Partial resolver, whose {@link #canGet(Object, PropertyAccess)} answer is determined by target class,
+ * property name for simple properties and index class for indexed ones.
+ * Such answers can be cached per class at property chain sites.
+ */
+public interface ClassBasedResolver extends PartialResolver {
+    /**
+     * Check if canGet answer for this target holds for all targets of same class.
+     * @param target non-null target
+     * @param propertyAccess target property
+     * @return true, if answer can be cached
+     */
+    boolean isClassBased(@Nonnull Object target, @Nonnull PropertyAccess propertyAccess);
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package see.properties;
+
+/**
+ * Chain resolver, which can create resolvers for a single call site, e.g. a property node of compiled tree.
+ * Site resolver remembers, which resolver handled each step for receiver classes seen at this site.
+ */
+public interface InlineCachingResolver extends ChainResolver {
+    /**
+     * Create resolver for a single site.
+     * Site resolver behaves same as this one and is thread-safe.
+     *
+     * @return site resolver
+     */
+    ChainResolver forSite();
+}
@@ -23,6 +23,7 @@ import see.parser.grammar.PropertyAccess;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.List;
 
 
 public class PropertyResolvers {
@@ -59,7 +60,7 @@ public class PropertyResolvers {
         return aggregate(ImmutableList.copyOf(resolvers));
     }
 
-    private static class UniversalResolver implements PartialResolver {
+    private static class UniversalResolver implements ClassBasedResolver {
         private final PropertyResolver resolver;
 
         public UniversalResolver(PropertyResolver resolver) {
@@ -76,6 +77,11 @@ public class PropertyResolvers {
             return true;
         }
 
+        @Override
+        public boolean isClassBased(@Nonnull Object target, @Nonnull PropertyAccess propertyAccess) {
+            return true;
+        }
+
         @Override
         public Object get(Object bean, PropertyAccess property) {
             return resolver.get(bean, property);
@@ -87,11 +93,16 @@ public class PropertyResolvers {
         }
     }
 
-    private static class PartialAggregator implements PartialResolver {
-        private final Iterable<? extends PartialResolver> resolvers;
+    private static class PartialAggregator implements AggregateResolver {
+        private final List<? extends PartialResolver> resolvers;
 
         public PartialAggregator(Iterable<? extends PartialResolver> resolvers) {
-            this.resolvers = resolvers;
+            this.resolvers = ImmutableList.copyOf(resolvers);
+        }
+
+        @Override
+        public List<? extends PartialResolver> getResolvers() {
+            return resolvers;
         }
 
         @Override
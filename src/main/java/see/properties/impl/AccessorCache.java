@@ -0,0 +1,317 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package see.properties.impl;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import org.apache.commons.beanutils.MethodUtils;
+import org.apache.commons.beanutils.PropertyUtils;
+
+import javax.annotation.Nullable;
+import java.beans.PropertyDescriptor;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per-class cache of reflective accessors: bean property getters and setters,
+ * public method names and overloads, resolved for actual argument types.
+ *
+ * Cache doesn't keep foreign classes loaded: entries are weakly keyed by class.
+ * Methods of classes from own class loader or it's ancestors are held strongly, such classes are never unloaded anyway.
+ * Methods of other classes are held by weak references and are resolved again, once cleared.
+ * Argument types of overload lookups are held weakly, entries with collected argument types are removed.
+ * Lookups of resolved accessors don't lock.
+ */
+public final class AccessorCache {
+    private final LoadingCache<Class<?>, ClassAccessors> classes = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build(new CacheLoader<Class<?>, ClassAccessors>() {
+                @Override
+                public ClassAccessors load(Class<?> type) {
+                    return new ClassAccessors(type);
+                }
+            });
+
+    /**
+     * Get accessible getter of a bean property
+     * @param type bean class
+     * @param property property name
+     * @return getter, null if property isn't readable
+     */
+    @Nullable
+    public Method getReadMethod(Class<?> type, String property) {
+        return classes.getUnchecked(type).resolve(type, new PropertyKey(property, false));
+    }
+
+    /**
+     * Get accessible setter of a bean property
+     * @param type bean class
+     * @param property property name
+     * @return setter, null if property isn't writable
+     */
+    @Nullable
+    public Method getWriteMethod(Class<?> type, String property) {
+        return classes.getUnchecked(type).resolve(type, new PropertyKey(property, true));
+    }
+
+    /**
+     * Check if class has public method with specified name
+     * @param type target class
+     * @param name method name
+     * @return true if method exists
+     */
+    public boolean hasMethod(Class<?> type, String name) {
+        return classes.getUnchecked(type).methodNames.contains(name);
+    }
+
+    /**
+     * Get accessible method, matching argument types.
+     * Overloads are matched by {@link MethodUtils#getMatchingAccessibleMethod(Class, String, Class[])}.
+     *
+     * @param type target class
+     * @param name method name
+     * @param argumentTypes argument classes
+     * @return matched method
+     * @throws NoSuchMethodException if no method matches
+     */
+    public Method getMethod(Class<?> type, String name, Class<?>[] argumentTypes) throws NoSuchMethodException {
+        Method method = classes.getUnchecked(type).resolve(type, new Signature(name, argumentTypes));
+        if (method == null) {
+            throw new NoSuchMethodException("No such accessible method: " + name + "() on object: " + type.getName());
+        }
+        return method;
+    }
+
+    /**
+     * Check if classes of a loader stay loaded as long as this class
+     * @param loader class loader, null for bootstrap loader
+     * @return true if loader is own loader or it's ancestor
+     */
+    private static boolean isOwnOrAncestor(@Nullable ClassLoader loader) {
+        if (loader == null) return true;
+        for (ClassLoader own = AccessorCache.class.getClassLoader(); own != null; own = own.getParent()) {
+            if (own == loader) return true;
+        }
+        return false;
+    }
+
+    private static class ClassAccessors {
+        private final Set<String> methodNames;
+        private final boolean strong;
+        private final ConcurrentMap<Key, Optional<Supplier<Method>>> methods = Maps.newConcurrentMap();
+        private final ReferenceQueue<Class<?>> clearedTypes = new ReferenceQueue<Class<?>>();
+
+        private ClassAccessors(Class<?> type) {
+            ImmutableSet.Builder<String> names = ImmutableSet.builder();
+            for (Method method : type.getMethods()) {
+                names.add(method.getName());
+            }
+            this.methodNames = names.build();
+            this.strong = isOwnOrAncestor(type.getClassLoader());
+        }
+
+        /**
+         * Get cached method, resolve it if it's not cached or was cleared.
+         * @param type class of this entry
+         * @param key lookup key
+         * @return resolved method, null if there's no such method
+         */
+        @Nullable
+        private Method resolve(Class<?> type, Key key) {
+            Optional<Supplier<Method>> cached = methods.get(key);
+            if (cached != null) {
+                if (!cached.isPresent()) return null;
+
+                Method method = cached.get().get();
+                if (method != null) return method;
+            }
+
+            Method method = key.resolve(type);
+            Optional<Supplier<Method>> reference = method != null
+                    ? Optional.of(strong ? Suppliers.ofInstance(method) : new WeakMethod(method))
+                    : Optional.<Supplier<Method>>absent();
+            if (methods.put(key.retained(clearedTypes), reference) == null) {
+                purge();
+            }
+            return method;
+        }
+
+        /**
+         * Remove entries, which keys reference collected argument types
+         */
+        private void purge() {
+            for (Reference<? extends Class<?>> cleared = clearedTypes.poll(); cleared != null; cleared = clearedTypes.poll()) {
+                methods.remove(((TypeReference) cleared).key);
+            }
+        }
+    }
+
+    private static class WeakMethod implements Supplier<Method> {
+        private final WeakReference<Method> reference;
+
+        private WeakMethod(Method method) {
+            this.reference = new WeakReference<Method>(method);
+        }
+
+        @Override
+        public Method get() {
+            return reference.get();
+        }
+    }
+
+    /**
+     * Weak reference to argument type of a retained signature
+     */
+    private static class TypeReference extends WeakReference<Class<?>> {
+        private final Key key;
+
+        private TypeReference(Class<?> type, Key key, ReferenceQueue<Class<?>> queue) {
+            super(type, queue);
+            this.key = key;
+        }
+    }
+
+    private abstract static class Key {
+        /**
+         * Resolve method for this key
+         * @param type target class
+         * @return resolved method, null if absent
+         */
+        @Nullable
+        abstract Method resolve(Class<?> type);
+
+        /**
+         * Get key to store in cache, which doesn't reference classes strongly
+         * @param queue queue for references to classes, which are cleared
+         */
+        Key retained(ReferenceQueue<Class<?>> queue) {
+            return this;
+        }
+    }
+
+    private static class PropertyKey extends Key {
+        private final String name;
+        private final boolean write;
+
+        private PropertyKey(String name, boolean write) {
+            this.name = name;
+            this.write = write;
+        }
+
+        @Override
+        Method resolve(Class<?> type) {
+            for (PropertyDescriptor descriptor : PropertyUtils.getPropertyDescriptors(type)) {
+                if (descriptor.getName().equals(name)) {
+                    Method method = write ? descriptor.getWriteMethod() : descriptor.getReadMethod();
+                    return method != null ? MethodUtils.getAccessibleMethod(type, method) : null;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof PropertyKey)) return false;
+
+            PropertyKey that = (PropertyKey) o;
+            return write == that.write && name.equals(that.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * name.hashCode() + (write ? 1 : 0);
+        }
+    }
+
+    /**
+     * Method name and argument types. Lookup signature holds argument types directly,
+     * retained one holds them by weak references.
+     */
+    private static class Signature extends Key {
+        private final String name;
+        private final Class<?>[] argumentTypes;
+        private final TypeReference[] weakTypes;
+        private final int hash;
+
+        private Signature(String name, Class<?>[] argumentTypes) {
+            this.name = name;
+            this.argumentTypes = argumentTypes;
+            this.weakTypes = null;
+            this.hash = 31 * name.hashCode() + Arrays.hashCode(argumentTypes);
+        }
+
+        private Signature(Signature lookup, ReferenceQueue<Class<?>> queue) {
+            this.name = lookup.name;
+            this.argumentTypes = null;
+            this.weakTypes = new TypeReference[lookup.argumentTypes.length];
+            for (int i = 0; i < weakTypes.length; i++) {
+                weakTypes[i] = new TypeReference(lookup.argumentTypes[i], this, queue);
+            }
+            this.hash = lookup.hash;
+        }
+
+        @Override
+        Method resolve(Class<?> type) {
+            return MethodUtils.getMatchingAccessibleMethod(type, name, argumentTypes);
+        }
+
+        @Override
+        Key retained(ReferenceQueue<Class<?>> queue) {
+            return weakTypes != null ? this : new Signature(this, queue);
+        }
+
+        private int size() {
+            return argumentTypes != null ? argumentTypes.length : weakTypes.length;
+        }
+
+        @Nullable
+        private Class<?> argumentType(int index) {
+            return argumentTypes != null ? argumentTypes[index] : weakTypes[index].get();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Signature)) return false;
+
+            Signature signature = (Signature) o;
+            if (hash != signature.hash || !name.equals(signature.name) || size() != signature.size()) return false;
+            for (int i = 0; i < size(); i++) {
+                Class<?> type = argumentType(i);
+                if (type == null || type != signature.argumentType(i)) return false;
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -17,29 +17,63 @@
 package see.properties.impl;
 
 import com.google.common.base.Throwables;
+import org.apache.commons.beanutils.DynaBean;
 import org.apache.commons.beanutils.PropertyUtils;
 import see.parser.grammar.PropertyAccess;
-import see.properties.PartialResolver;
+import see.properties.ClassBasedResolver;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.lang.reflect.Method;
 
-public class BeanPropertyResolver implements PartialResolver {
+/**
+ * Resolver for java bean properties.
+ * Accessors are resolved once per class through {@link AccessorCache}, dyna beans are handled by {@link PropertyUtils}.
+ */
+public class BeanPropertyResolver implements ClassBasedResolver {
+    private final AccessorCache accessors;
+
+    public BeanPropertyResolver() {
+        this(new AccessorCache());
+    }
+
+    public BeanPropertyResolver(AccessorCache accessors) {
+        this.accessors = accessors;
+    }
 
     @Override
     public boolean canGet(@Nullable Object target, @Nonnull PropertyAccess propertyAccess) {
-        return isBeanProperty(propertyAccess) && PropertyUtils.isReadable(target, getPropertyName(propertyAccess));
+        if (!isBeanProperty(propertyAccess)) return false;
+
+        String name = getPropertyName(propertyAccess);
+        if (isCached(target)) {
+            return accessors.getReadMethod(target.getClass(), name) != null;
+        }
+        return PropertyUtils.isReadable(target, name);
     }
 
     @Override
     public boolean canSet(@Nullable Object target, @Nonnull PropertyAccess propertyAccess, Object value) {
-        return isBeanProperty(propertyAccess) && PropertyUtils.isWriteable(target, getPropertyName(propertyAccess));
+        if (!isBeanProperty(propertyAccess)) return false;
+
+        String name = getPropertyName(propertyAccess);
+        if (isCached(target)) {
+            return accessors.getWriteMethod(target.getClass(), name) != null;
+        }
+        return PropertyUtils.isWriteable(target, name);
     }
 
     @Override
     public Object get(Object bean, PropertyAccess property) {
         try {
-            return PropertyUtils.getSimpleProperty(bean, getPropertyName(property));
+            String name = getPropertyName(property);
+            if (isCached(bean)) {
+                Method getter = accessors.getReadMethod(bean.getClass(), name);
+                if (getter != null) {
+                    return getter.invoke(bean);
+                }
+            }
+            return PropertyUtils.getSimpleProperty(bean, name);
         } catch (Exception e) {
             throw Throwables.propagate(e);
         }
@@ -48,12 +82,24 @@ public class BeanPropertyResolver implements PartialResolver {
     @Override
     public void set(Object bean, PropertyAccess property, Object value) {
         try {
-            PropertyUtils.setSimpleProperty(bean, getPropertyName(property), value);
+            String name = getPropertyName(property);
+            if (isCached(bean)) {
+                Method setter = accessors.getWriteMethod(bean.getClass(), name);
+                if (setter != null) {
+                    setter.invoke(bean, value);
+                    return;
+                }
+            }
+            PropertyUtils.setSimpleProperty(bean, name, value);
         } catch (Exception e) {
             throw Throwables.propagate(e);
         }
     }
 
+    AccessorCache getAccessors() {
+        return accessors;
+    }
+
     private String getPropertyName(PropertyAccess propertyAccess) {
         return (String) propertyAccess.mergedValue();
     }
@@ -62,4 +108,15 @@ public class BeanPropertyResolver implements PartialResolver {
         return propertyAccess.mergedValue() instanceof String;
     }
 
+    private boolean isCached(@Nullable Object target) {
+        return target != null && !(target instanceof DynaBean);
+    }
+
+    /**
+     * Bean properties are class-based, except for dyna beans and property names, passed as index values.
+     */
+    @Override
+    public boolean isClassBased(@Nonnull Object target, @Nonnull PropertyAccess propertyAccess) {
+        return isCached(target) && propertyAccess.value().hasLeft();
+    }
 }
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package see.properties.impl;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import see.parser.grammar.PropertyAccess;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * Accessor for a chain of bean properties on fixed receiver classes.
+ * Calls getters directly, without resolver selection and property lookup.
+ *
+ * Accessors are generated by {@link ChainAccessorGenerator}. Generated classes are defined by their own class loaders,
+ * so this class and members, used by generated code, are public. Not intended to be extended otherwise.
+ */
+public abstract class ChainAccessor {
+    /**
+     * Expected receiver class of each step
+     */
+    protected final Class<?>[] types;
+    private final List<PropertyAccess.Simple> chain;
+
+    protected ChainAccessor(Class<?>[] types, List<PropertyAccess.Simple> chain) {
+        this.types = types;
+        this.chain = ImmutableList.copyOf(chain);
+    }
+
+    /**
+     * Get chain value. Receiver of each step is checked before the getter is called.
+     * @param target chain target
+     * @param fallback resolves remaining steps, if receiver is null or has another class
+     * @return chain value
+     */
+    public abstract Object get(Object target, Fallback fallback);
+
+    /**
+     * Check if accessor is built for this chain of properties
+     * @param properties property chain
+     * @return true if property names match
+     */
+    boolean matches(List<? extends PropertyAccess> properties) {
+        if (properties.size() != chain.size()) return false;
+
+        for (int i = 0; i < chain.size(); i++) {
+            PropertyAccess property = properties.get(i);
+            if (!(property instanceof PropertyAccess.Simple) ||
+                    !chain.get(i).getName().equals(((PropertyAccess.Simple) property).getName())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get properties of steps, starting from specified one
+     * @param step first step index
+     * @return remaining chain
+     */
+    List<PropertyAccess.Simple> remaining(int step) {
+        return chain.subList(step, chain.size());
+    }
+
+    static Object invoke(Method getter, Object bean) {
+        try {
+            return getter.invoke(bean);
+        } catch (Exception e) {
+            throw Throwables.propagate(e);
+        }
+    }
+
+    /**
+     * Resolver of chain steps, which accessor can't evaluate.
+     */
+    public interface Fallback {
+        /**
+         * Resolve remaining steps
+         * @param accessor accessor, which failed
+         * @param step index of first unresolved step
+         * @param receiver receiver of that step
+         * @return chain value
+         */
+        Object resolve(ChainAccessor accessor, int step, Object receiver);
+    }
+
+    /**
+     * Accessor, which calls getters reflectively.
+     * Used if getters can't be linked from a generated class, e.g. when receiver classes have unrelated class loaders.
+     */
+    static final class Reflective extends ChainAccessor {
+        private final Method[] getters;
+
+        Reflective(Class<?>[] types, List<PropertyAccess.Simple> chain, Method[] getters) {
+            super(types, chain);
+            this.getters = getters;
+        }
+
+        @Override
+        public Object get(Object target, Fallback fallback) {
+            Object current = target;
+            for (int i = 0; i < getters.length; i++) {
+                if (current == null || current.getClass() != types[i]) {
+                    return fallback.resolve(this, i, current);
+                }
+                current = invoke(getters[i], current);
+            }
+            return current;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package see.properties.impl;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import see.parser.grammar.PropertyAccess;
+import see.util.GeneratedClassLoader;
+
+import javax.annotation.Nullable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates {@link ChainAccessor} classes, which call getters of a chain by invokevirtual/invokeinterface.
+ *
+ * Generated class is defined by a loader, which parent sees {@link ChainAccessor} and declaring classes of all getters.
+ * If there is no such loader, or a getter isn't public, a {@link ChainAccessor.Reflective} accessor is used.
+ */
+final class ChainAccessorGenerator implements Opcodes {
+    private static final AtomicLong classCounter = new AtomicLong();
+
+    private static final String BASE = Type.getInternalName(ChainAccessor.class);
+    private static final String OBJECT = Type.getDescriptor(Object.class);
+    private static final String FALLBACK = Type.getInternalName(ChainAccessor.Fallback.class);
+    private static final String GET = "(" + OBJECT + "L" + FALLBACK + ";)" + OBJECT;
+    private static final String CONSTRUCTOR = "([" + Type.getDescriptor(Class.class) + Type.getDescriptor(List.class) + ")V";
+
+    private ChainAccessorGenerator() {}
+
+    /**
+     * Create accessor for a chain
+     * @param types receiver class of each step
+     * @param chain chain properties
+     * @param getters getter of each step
+     * @return generated accessor, or reflective one if getters can't be called from generated code
+     */
+    static ChainAccessor create(Class<?>[] types, List<PropertyAccess.Simple> chain, Method[] getters) {
+        ClassLoader loader = findLoader(getters);
+        if (loader == null) {
+            return new ChainAccessor.Reflective(types, chain, getters);
+        }
+
+        String name = "see/properties/impl/GeneratedChainAccessor" + classCounter.incrementAndGet();
+        Class<?> generated = GeneratedClassLoader.define(loader, name.replace('/', '.'), generate(name, getters));
+        try {
+            return (ChainAccessor) generated.getConstructor(Class[].class, List.class).newInstance(types, chain);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to instantiate generated accessor", e);
+        }
+    }
+
+    /**
+     * Find parent loader for generated class. Getters and their classes should be public.
+     * @return loader, which sees all declaring classes, or null if there is none
+     */
+    @Nullable
+    private static ClassLoader findLoader(Method[] getters) {
+        for (Method getter : getters) {
+            if (!Modifier.isPublic(getter.getModifiers()) || !Modifier.isPublic(getter.getDeclaringClass().getModifiers())) {
+                return null;
+            }
+        }
+
+        if (seesAll(ChainAccessor.class.getClassLoader(), getters)) {
+            return ChainAccessor.class.getClassLoader();
+        }
+        for (Method getter : getters) {
+            ClassLoader candidate = getter.getDeclaringClass().getClassLoader();
+            if (candidate != null && seesAll(candidate, getters)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static boolean seesAll(ClassLoader loader, Method[] getters) {
+        return sees(loader, ChainAccessor.class) && sees(loader, ChainAccessor.Fallback.class) && seesDeclaringClasses(loader, getters);
+    }
+
+    private static boolean seesDeclaringClasses(ClassLoader loader, Method[] getters) {
+        for (Method getter : getters) {
+            if (!sees(loader, getter.getDeclaringClass())) return false;
+        }
+        return true;
+    }
+
+    private static boolean sees(ClassLoader loader, Class<?> type) {
+        try {
+            return Class.forName(type.getName(), false, loader) == type;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Generate class file. Each step checks receiver class against {@link ChainAccessor#types},
+     * unexpected receivers are passed to fallback.
+     */
+    private static byte[] generate(String name, Method[] getters) {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        // Class version 49 is verified by type inference, so no stack map frames are needed
+        writer.visit(V1_5, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, name, null, BASE, null);
+
+        MethodVisitor constructor = writer.visitMethod(ACC_PUBLIC, "<init>", CONSTRUCTOR, null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(ALOAD, 0);
+        constructor.visitVarInsn(ALOAD, 1);
+        constructor.visitVarInsn(ALOAD, 2);
+        constructor.visitMethodInsn(INVOKESPECIAL, BASE, "<init>", CONSTRUCTOR);
+        constructor.visitInsn(RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+
+        // Local 1 holds current receiver, local 2 holds fallback
+        MethodVisitor get = writer.visitMethod(ACC_PUBLIC, "get", GET, null, null);
+        get.visitCode();
+        Label[] misses = new Label[getters.length];
+        for (int i = 0; i < getters.length; i++) {
+            misses[i] = new Label();
+            get.visitVarInsn(ALOAD, 1);
+            get.visitJumpInsn(IFNULL, misses[i]);
+
+            get.visitVarInsn(ALOAD, 1);
+            get.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(Object.class), "getClass",
+                    "()" + Type.getDescriptor(Class.class));
+            get.visitVarInsn(ALOAD, 0);
+            get.visitFieldInsn(GETFIELD, BASE, "types", "[" + Type.getDescriptor(Class.class));
+            pushInt(get, i);
+            get.visitInsn(AALOAD);
+            get.visitJumpInsn(IF_ACMPNE, misses[i]);
+
+            Method getter = getters[i];
+            Class<?> owner = getter.getDeclaringClass();
+            get.visitVarInsn(ALOAD, 1);
+            get.visitTypeInsn(CHECKCAST, Type.getInternalName(owner));
+            get.visitMethodInsn(owner.isInterface() ? INVOKEINTERFACE : INVOKEVIRTUAL,
+                    Type.getInternalName(owner), getter.getName(), Type.getMethodDescriptor(getter));
+            box(get, Type.getReturnType(getter));
+            get.visitVarInsn(ASTORE, 1);
+        }
+        get.visitVarInsn(ALOAD, 1);
+        get.visitInsn(ARETURN);
+
+        for (int i = 0; i < getters.length; i++) {
+            get.visitLabel(misses[i]);
+            get.visitVarInsn(ALOAD, 2);
+            get.visitVarInsn(ALOAD, 0);
+            pushInt(get, i);
+            get.visitVarInsn(ALOAD, 1);
+            get.visitMethodInsn(INVOKEINTERFACE, FALLBACK, "resolve", "(L" + BASE + ";I" + OBJECT + ")" + OBJECT);
+            get.visitInsn(ARETURN);
+        }
+        get.visitMaxs(0, 0);
+        get.visitEnd();
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    /**
+     * Box primitive value on top of the stack
+     */
+    private static void box(MethodVisitor method, Type type) {
+        Class<?> wrapper;
+        switch (type.getSort()) {
+            case Type.BOOLEAN: wrapper = Boolean.class; break;
+            case Type.CHAR: wrapper = Character.class; break;
+            case Type.BYTE: wrapper = Byte.class; break;
+            case Type.SHORT: wrapper = Short.class; break;
+            case Type.INT: wrapper = Integer.class; break;
+            case Type.LONG: wrapper = Long.class; break;
+            case Type.FLOAT: wrapper = Float.class; break;
+            case Type.DOUBLE: wrapper = Double.class; break;
+            default: return;
+        }
+        method.visitMethodInsn(INVOKESTATIC, Type.getInternalName(wrapper), "valueOf",
+                "(" + type.getDescriptor() + ")" + Type.getDescriptor(wrapper));
+    }
+
+    private static void pushInt(MethodVisitor method, int value) {
+        if (value <= 5) {
+            method.visitInsn(ICONST_0 + value);
+        } else if (value <= Byte.MAX_VALUE) {
+            method.visitIntInsn(BIPUSH, value);
+        } else if (value <= Short.MAX_VALUE) {
+            method.visitIntInsn(SIPUSH, value);
+        } else {
+            method.visitLdcInsn(value);
+        }
+    }
+}
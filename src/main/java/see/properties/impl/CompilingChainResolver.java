@@ -0,0 +1,162 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package see.properties.impl;
+
+import com.google.common.collect.Lists;
+import see.parser.grammar.PropertyAccess;
+import see.properties.AggregateResolver;
+import see.properties.ChainResolver;
+import see.properties.InlineCachingResolver;
+import see.properties.PartialResolver;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * Chain resolver, which builds direct accessors for bean property chains, evaluated repeatedly at a site.
+ *
+ * Site resolver records receiver classes and getters, once site is evaluated {@code threshold} times,
+ * and then calls getters directly from a generated {@link ChainAccessor}, checking receiver classes on each step.
+ * If receiver is null or has another class, remaining steps are resolved by fallback resolver.
+ * Site is rebuilt on class change, and stays with fallback after {@link #MAX_BUILDS} builds.
+ *
+ * Accessors are built only for steps, which fallback resolves through {@link BeanPropertyResolver}.
+ * Chains, which aren't evaluated through sites, are resolved by fallback.
+ */
+public class CompilingChainResolver implements InlineCachingResolver {
+    private static final int DEFAULT_THRESHOLD = 8;
+    private static final int MAX_BUILDS = 3;
+
+    private final SingularChainResolver fallback;
+    private final int threshold;
+
+    public CompilingChainResolver(SingularChainResolver fallback) {
+        this(fallback, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Create resolver
+     * @param fallback resolver for non-bean steps and unexpected receivers
+     * @param threshold number of evaluations at a site before accessor is built
+     */
+    public CompilingChainResolver(SingularChainResolver fallback, int threshold) {
+        this.fallback = fallback;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public Object get(Object target, List<? extends PropertyAccess> chain) {
+        return fallback.get(target, chain);
+    }
+
+    @Override
+    public void set(Object target, List<? extends PropertyAccess> chain, Object value) {
+        fallback.set(target, chain, value);
+    }
+
+    @Override
+    public ChainResolver forSite() {
+        if (fallback.getResolver() instanceof AggregateResolver) {
+            return new Site((AggregateResolver) fallback.getResolver(), fallback.forSite());
+        }
+        return fallback.forSite();
+    }
+
+    private class Site implements ChainResolver, ChainAccessor.Fallback {
+        private final AggregateResolver resolver;
+        private final ChainResolver siteFallback;
+
+        private volatile ChainAccessor accessor;
+        // Not synchronized: concurrent evaluations may skip a count or build twice, both are harmless
+        private int evaluations;
+        private int builds;
+
+        private Site(AggregateResolver resolver, ChainResolver siteFallback) {
+            this.resolver = resolver;
+            this.siteFallback = siteFallback;
+        }
+
+        @Override
+        public Object get(Object target, List<? extends PropertyAccess> chain) {
+            ChainAccessor compiled = accessor;
+            if (compiled != null && compiled.matches(chain)) {
+                return compiled.get(target, this);
+            }
+
+            if (builds < MAX_BUILDS && ++evaluations >= threshold) {
+                evaluations = 0;
+                builds++;
+                return build(target, chain);
+            }
+            return siteFallback.get(target, chain);
+        }
+
+        @Override
+        public void set(Object target, List<? extends PropertyAccess> chain, Object value) {
+            siteFallback.set(target, chain, value);
+        }
+
+        /**
+         * Resolve steps, which accessor didn't expect. Site is rebuilt on receiver class change.
+         */
+        @Override
+        public Object resolve(ChainAccessor compiled, int step, Object receiver) {
+            if (receiver != null) {
+                accessor = null;
+            }
+            return fallback.get(receiver, compiled.remaining(step));
+        }
+
+        /**
+         * Resolve chain, recording receiver classes and getters.
+         * Accessor is published, if every step is a readable bean property.
+         */
+        private Object build(Object target, List<? extends PropertyAccess> chain) {
+            int size = chain.size();
+            Class<?>[] types = new Class<?>[size];
+            List<PropertyAccess.Simple> properties = Lists.newArrayListWithCapacity(size);
+            Method[] getters = new Method[size];
+
+            Object current = target;
+            for (int i = 0; i < size; i++) {
+                PropertyAccess property = chain.get(i);
+                Method getter = current != null ? getter(current, property) : null;
+                if (getter == null) {
+                    return fallback.get(current, chain.subList(i, size));
+                }
+
+                types[i] = current.getClass();
+                properties.add((PropertyAccess.Simple) property);
+                getters[i] = getter;
+                current = ChainAccessor.invoke(getter, current);
+            }
+
+            accessor = ChainAccessorGenerator.create(types, properties, getters);
+            return current;
+        }
+
+        private Method getter(Object target, PropertyAccess property) {
+            if (!(property instanceof PropertyAccess.Simple)) return null;
+
+            PartialResolver selected = InlineCacheResolver.select(resolver, target, property);
+            if (!(selected instanceof BeanPropertyResolver)) return null;
+
+            String name = ((PropertyAccess.Simple) property).getName();
+            return ((BeanPropertyResolver) selected).getAccessors().getReadMethod(target.getClass(), name);
+        }
+    }
+}
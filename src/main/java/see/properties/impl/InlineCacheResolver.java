@@ -0,0 +1,162 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package see.properties.impl;
+
+import see.parser.grammar.PropertyAccess;
+import see.properties.AggregateResolver;
+import see.properties.ChainResolver;
+import see.properties.ClassBasedResolver;
+import see.properties.PartialResolver;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Chain resolver for a single site with polymorphic inline caches.
+ *
+ * Each chain step remembers up to {@link #MAX_ENTRIES} receiver classes and resolvers, which handled them.
+ * Cache hit costs a class check, misses and megamorphic steps are resolved by aggregate resolver.
+ * Only selections made by {@link ClassBasedResolver}s are cached.
+ */
+final class InlineCacheResolver implements ChainResolver {
+    private static final int MAX_ENTRIES = 4;
+    private static final Entry[] EMPTY = new Entry[0];
+
+    private final AggregateResolver resolver;
+    private volatile Entry[][] steps = new Entry[0][];
+
+    InlineCacheResolver(AggregateResolver resolver) {
+        this.resolver = resolver;
+    }
+
+    @Override
+    public Object get(Object target, List<? extends PropertyAccess> chain) {
+        Object current = target;
+        for (int i = 0; i < chain.size(); i++) {
+            current = get(i, current, chain.get(i));
+        }
+        return current;
+    }
+
+    @Override
+    public void set(Object target, List<? extends PropertyAccess> chain, Object value) {
+        Object lastBean = get(target, chain.subList(0, chain.size() - 1));
+
+        resolver.set(lastBean, chain.get(chain.size() - 1), value);
+    }
+
+    private Object get(int step, Object target, PropertyAccess property) {
+        if (target == null) {
+            return resolver.get(target, property);
+        }
+
+        Entry[] entries = entries(step);
+        Class<?> type = target.getClass();
+        for (Entry entry : entries) {
+            if (entry.type == type && entry.matches(property)) {
+                return entry.resolver.get(target, property);
+            }
+        }
+
+        PartialResolver selected = select(resolver, target, property);
+        if (selected == null) {
+            return resolver.get(target, property);
+        }
+        if (entries.length < MAX_ENTRIES) {
+            addEntry(step, new Entry(type, property, selected));
+        }
+        return selected.get(target, property);
+    }
+
+    /**
+     * Find resolver for a property, if selection holds for all targets of same class.
+     * @param resolver aggregate resolver
+     * @param target non-null target
+     * @param property target property
+     * @return selected resolver, null if none can get property, or selection depends on target instance
+     */
+    @Nullable
+    static PartialResolver select(AggregateResolver resolver, Object target, PropertyAccess property) {
+        for (PartialResolver candidate : resolver.getResolvers()) {
+            if (!(candidate instanceof ClassBasedResolver) ||
+                    !((ClassBasedResolver) candidate).isClassBased(target, property)) {
+                return null;
+            }
+            if (candidate.canGet(target, property)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private Entry[] entries(int step) {
+        Entry[][] current = steps;
+        return step < current.length ? current[step] : EMPTY;
+    }
+
+    /**
+     * Publish new entry. Concurrent additions may overwrite each other, lost entry is added on next miss.
+     */
+    private synchronized void addEntry(int step, Entry entry) {
+        Entry[][] current = steps;
+        Entry[][] updated = Arrays.copyOf(current, Math.max(current.length, step + 1));
+        for (int i = current.length; i < updated.length; i++) {
+            updated[i] = EMPTY;
+        }
+
+        Entry[] stepEntries = updated[step];
+        if (stepEntries.length < MAX_ENTRIES) {
+            Entry[] added = Arrays.copyOf(stepEntries, stepEntries.length + 1);
+            added[stepEntries.length] = entry;
+            updated[step] = added;
+            steps = updated;
+        }
+    }
+
+    private static class Entry {
+        private final Class<?> type;
+        private final String name;
+        private final Class<?> indexType;
+        private final PartialResolver resolver;
+
+        private Entry(Class<?> type, PropertyAccess property, PartialResolver resolver) {
+            this.type = type;
+            this.resolver = resolver;
+            if (property instanceof PropertyAccess.Simple) {
+                this.name = ((PropertyAccess.Simple) property).getName();
+                this.indexType = null;
+            } else {
+                this.name = null;
+                this.indexType = indexType(property);
+            }
+        }
+
+        private boolean matches(PropertyAccess property) {
+            if (property instanceof PropertyAccess.Simple) {
+                return name != null && name.equals(((PropertyAccess.Simple) property).getName());
+            }
+            return name == null && indexType != null && indexType == indexType(property);
+        }
+
+        @Nullable
+        private static Class<?> indexType(PropertyAccess property) {
+            Object index = ((PropertyAccess.Indexed) property).getIndex();
+            return index != null ? index.getClass() : null;
+        }
+    }
+}
@@ -18,22 +18,41 @@ package see.properties.impl;
 
 import com.google.common.collect.Iterables;
 import see.parser.grammar.PropertyAccess;
-import see.properties.PartialResolver;
+import see.properties.ClassBasedResolver;
 import see.util.Either;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.lang.reflect.Array;
 import java.util.List;
 
-public class IterableResolver implements PartialResolver {
+/**
+ * Resolver for numeric indexes of iterables, arrays and character sequences.
+ *
+ * Lists, arrays and character sequences are accessed by index, other iterables are iterated.
+ */
+public class IterableResolver implements ClassBasedResolver {
     @Override
     public boolean canGet(@Nullable Object target, @Nonnull PropertyAccess propertyAccess) {
-        return target instanceof Iterable<?> && isListIndex(propertyAccess);
+        return isIndexed(target) && isListIndex(propertyAccess);
     }
 
     @Override
     public boolean canSet(@Nullable Object target, @Nonnull PropertyAccess propertyAccess, Object value) {
-         return target instanceof List<?> && isListIndex(propertyAccess);
+        return (target instanceof List<?> || isArray(target)) && isListIndex(propertyAccess);
+    }
+
+    @Override
+    public boolean isClassBased(@Nonnull Object target, @Nonnull PropertyAccess propertyAccess) {
+        return true;
+    }
+
+    private boolean isIndexed(@Nullable Object target) {
+        return target instanceof Iterable<?> || target instanceof CharSequence || isArray(target);
+    }
+
+    private boolean isArray(@Nullable Object target) {
+        return target != null && target.getClass().isArray();
     }
 
     private boolean isListIndex(PropertyAccess propertyAccess) {
@@ -43,19 +62,52 @@ public class IterableResolver implements PartialResolver {
 
     @Override
     public Object get(Object bean, PropertyAccess property) {
-        Iterable<?> list = (Iterable<?>) bean;
         int index = getIndex(property);
-        return Iterables.get(list, index);
+
+        if (bean instanceof Object[]) {
+            return ((Object[]) bean)[index];
+        }
+        if (bean instanceof CharSequence) {
+            return String.valueOf(((CharSequence) bean).charAt(index));
+        }
+        if (isArray(bean)) {
+            return Array.get(bean, index);
+        }
+
+        if (bean instanceof List<?>) {
+            return ((List<?>) bean).get(index);
+        }
+        return Iterables.get((Iterable<?>) bean, index);
     }
 
     private int getIndex(PropertyAccess property) {
-        return ((Number) property.value().rightValue()).intValue();
+        return ((Number) ((PropertyAccess.Indexed) property).getIndex()).intValue();
     }
 
     @Override
     public void set(Object bean, PropertyAccess property, Object value) {
-        List<Object> list = (List<Object>) bean;
         int index = getIndex(property);
-        list.set(index, value);
+        if (bean instanceof List<?>) {
+            List<Object> list = (List<Object>) bean;
+            list.set(index, value);
+        } else {
+            Array.set(bean, index, toComponentType(bean.getClass().getComponentType(), value));
+        }
+    }
+
+    /**
+     * Convert numbers to primitive component type, other values are returned as is
+     */
+    private static Object toComponentType(Class<?> type, Object value) {
+        if (!type.isPrimitive() || !(value instanceof Number)) return value;
+
+        Number number = (Number) value;
+        if (type == int.class) return number.intValue();
+        if (type == long.class) return number.longValue();
+        if (type == double.class) return number.doubleValue();
+        if (type == float.class) return number.floatValue();
+        if (type == short.class) return number.shortValue();
+        if (type == byte.class) return number.byteValue();
+        return value;
     }
 }
@@ -17,13 +17,13 @@
 package see.properties.impl;
 
 import see.parser.grammar.PropertyAccess;
-import see.properties.PartialResolver;
+import see.properties.ClassBasedResolver;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.Map;
 
-public class MapResolver implements PartialResolver {
+public class MapResolver implements ClassBasedResolver {
     @Override
     public boolean canGet(@Nullable Object target, @Nonnull PropertyAccess propertyAccess) {
         return target instanceof Map<?, ?>;
@@ -45,4 +45,9 @@ public class MapResolver implements PartialResolver {
         Map<Object, Object> map = (Map<Object, Object>) bean;
         map.put(property.mergedValue(), value);
     }
+
+    @Override
+    public boolean isClassBased(@Nonnull Object target, @Nonnull PropertyAccess propertyAccess) {
+        return true;
+    }
 }
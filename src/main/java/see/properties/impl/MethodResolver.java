@@ -16,33 +16,42 @@
 
 package see.properties.impl;
 
-import com.google.common.base.Predicate;
-import com.google.common.collect.Iterables;
 import org.apache.commons.beanutils.MethodUtils;
 import see.exceptions.EvaluationException;
 import see.functions.VarArgFunction;
 import see.parser.grammar.PropertyAccess;
+import see.properties.ClassBasedResolver;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.List;
 
-import static java.util.Arrays.asList;
+/**
+ * Resolver for public methods, resolved property is a function, which invokes the method.
+ * Method lookup and overload resolution are cached per class in {@link AccessorCache}.
+ */
+public class MethodResolver extends ReadOnlyResolver implements ClassBasedResolver {
+    private final AccessorCache accessors;
+
+    public MethodResolver() {
+        this(new AccessorCache());
+    }
+
+    public MethodResolver(AccessorCache accessors) {
+        this.accessors = accessors;
+    }
 
-public class MethodResolver extends ReadOnlyResolver {
     @Override
     public boolean canGet(@Nullable Object target, @Nonnull PropertyAccess propertyAccess) {
         if (target == null || !propertyAccess.value().hasLeft()) return false;
 
-        final String methodName = propertyAccess.value().leftValue();
-        return Iterables.any(asList(target.getClass().getMethods()), new Predicate<Method>() {
-            @Override
-            public boolean apply(Method input) {
-                return methodName.equals(input.getName());
-            }
-        });
+        return accessors.hasMethod(target.getClass(), propertyAccess.value().leftValue());
+    }
+
+    @Override
+    public boolean isClassBased(@Nonnull Object target, @Nonnull PropertyAccess propertyAccess) {
+        return true;
     }
 
     @Override
@@ -53,7 +62,17 @@ public class MethodResolver extends ReadOnlyResolver {
             @Override
             public Object apply(@Nonnull List<Object> input) {
                 try {
-                    return MethodUtils.invokeMethod(bean, methodName, Iterables.toArray(input, Object.class));
+                    Object[] args = input.toArray();
+                    Class<?>[] types = new Class<?>[args.length];
+                    for (int i = 0; i < args.length; i++) {
+                        if (args[i] == null) {
+                            // Overloads can't be matched by type, let MethodUtils handle it
+                            return MethodUtils.invokeMethod(bean, methodName, args);
+                        }
+                        types[i] = args[i].getClass();
+                    }
+
+                    return accessors.getMethod(bean.getClass(), methodName, types).invoke(bean, args);
                 } catch (NoSuchMethodException e) {
                     throw new ResolutionException(e);
                 } catch (IllegalAccessException e) {
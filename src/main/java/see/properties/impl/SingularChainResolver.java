@@ -17,7 +17,9 @@
 package see.properties.impl;
 
 import see.parser.grammar.PropertyAccess;
+import see.properties.AggregateResolver;
 import see.properties.ChainResolver;
+import see.properties.InlineCachingResolver;
 import see.properties.PropertyResolver;
 import see.util.Reduce;
 
@@ -27,9 +29,10 @@ import static com.google.common.collect.Iterables.getLast;
 import static see.util.Reduce.fold;
 
 /**
- * ChainResolver implementation, which delegates work to PropertyResolver (single property resolution)
+ * ChainResolver implementation, which delegates work to PropertyResolver (single property resolution).
+ * Site resolvers cache resolver selection, if property resolver is an {@link AggregateResolver}.
  */
-public class SingularChainResolver implements ChainResolver {
+public class SingularChainResolver implements InlineCachingResolver {
 
     private final PropertyResolver resolver;
 
@@ -53,4 +56,16 @@ public class SingularChainResolver implements ChainResolver {
 
         resolver.set(lastbean, getLast(chain), value);
     }
+
+    public PropertyResolver getResolver() {
+        return resolver;
+    }
+
+    @Override
+    public ChainResolver forSite() {
+        if (resolver instanceof AggregateResolver) {
+            return new InlineCacheResolver((AggregateResolver) resolver);
+        }
+        return this;
+    }
 }
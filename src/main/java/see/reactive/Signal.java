@@ -42,4 +42,10 @@ public interface Signal<T> extends VarArgFunction<Void, T> {
      * @return current value
      */
     T now();
+
+    /**
+     * Detach signal from it's dependencies. Disposed signal keeps it's last value and is never re-evaluated.
+     * Signals, which are not disposed, are collected when unreachable, since dependencies hold them weakly.
+     */
+    void dispose();
 }
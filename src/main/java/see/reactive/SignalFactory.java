@@ -45,6 +45,30 @@ public interface SignalFactory {
     @Nonnull
     <T> Signal<T> bind(@Nonnull Collection<? extends Signal<?>> dependencies, @Nonnull Supplier<T> evaluation);
 
+    /**
+     * Bind expression evaluation, which reads signals created only for it, e.g. signals of it's sub-expressions.
+     * Owned signals are disposed together with constructed signal.
+     * @param dependencies expression dependencies
+     * @param evaluation expression
+     * @param owned signals to dispose with constructed signal
+     * @param <T> expression return type
+     * @return constructed signal
+     */
+    @Nonnull
+    <T> Signal<T> bind(@Nonnull Collection<? extends Signal<?>> dependencies, @Nonnull Supplier<T> evaluation,
+                       @Nonnull Collection<? extends Signal<?>> owned);
+
+    /**
+     * Bind side effect to specified dependencies.
+     * Unlike signals, which are collected when unreachable, observer is kept by factory until disposed.
+     * @param dependencies expression dependencies
+     * @param evaluation expression with side effects
+     * @param <T> expression return type
+     * @return observer signal, can be disposed to stop observing
+     */
+    @Nonnull
+    <T> Signal<T> observe(@Nonnull Collection<? extends Signal<?>> dependencies, @Nonnull Supplier<T> evaluation);
+
     /**
      * Get new signal, which value is transformation applied to value of source signal
      * @param signal source signal
@@ -73,4 +97,13 @@ public interface SignalFactory {
      * @return constructed signal
      */
     <T> Signal<T> bindDynamic(Supplier<EvaluationResult<T>> evaluation);
+
+    /**
+     * Run updates as a single change.
+     * Variables set inside transaction are propagated once, on exit, so every affected signal
+     * is re-evaluated at most once and never observes part of the updates.
+     * Nested transactions join the outer one.
+     * @param updates code, which sets variables
+     */
+    void transaction(@Nonnull Runnable updates);
 }
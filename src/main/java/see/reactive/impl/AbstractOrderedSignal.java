@@ -20,18 +20,20 @@ import com.google.common.collect.Sets;
 import see.reactive.Signal;
 
 import javax.annotation.Nonnull;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.*;
 
 import static com.google.common.base.Objects.equal;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Predicates.instanceOf;
 import static com.google.common.collect.ImmutableSet.copyOf;
-import static com.google.common.collect.ImmutableSet.of;
 import static com.google.common.collect.Iterables.all;
 
 /**
  * Signal implementation, where changes are propagated in topological order,
  * i.e. signal is guaranteed to be re-evaluated after it's dependencies.
+ * Signal holds it's dependencies strongly, and is held by them weakly, so unreachable signals are collected.
  * @param <T> signal value type
  */
 abstract class AbstractOrderedSignal<T> implements Signal<T>, Comparable<AbstractOrderedSignal<?>>  {
@@ -40,12 +42,24 @@ abstract class AbstractOrderedSignal<T> implements Signal<T>, Comparable<Abstrac
      * Sources have level zero, bound signals have max(dependencies levels)+1.
      */
     private int level;
-    private T currentValue;
-    private final Set<AbstractOrderedSignal<?>> dependants = Sets.newHashSet();
+    private volatile T currentValue;
+    private final SignalGraph graph;
+    private final Set<DependantReference> dependants = Sets.newHashSet();
     private final Set<AbstractOrderedSignal<?>> dependencies = Sets.newHashSet();
+    private final DependantReference self;
+    private volatile boolean disposed;
 
-    protected AbstractOrderedSignal(Collection<? extends AbstractOrderedSignal<?>> dependencies, T initialValue) {
+    /**
+     * Epoch of propagation wave, in which this signal is queued, and next signal of same level in queue.
+     * Owned by {@link LevelQueue}.
+     */
+    int queuedEpoch;
+    AbstractOrderedSignal<?> nextQueued;
+
+    protected AbstractOrderedSignal(SignalGraph graph, Collection<? extends AbstractOrderedSignal<?>> dependencies, T initialValue) {
+        this.graph = graph;
         this.currentValue = initialValue;
+        this.self = graph.register(this, this.dependencies);
         updateDependencies(copyOf(dependencies));
     }
 
@@ -79,14 +93,45 @@ abstract class AbstractOrderedSignal<T> implements Signal<T>, Comparable<Abstrac
         return dependencies.isEmpty() ? 0 : Collections.max(dependencies).level + 1;
     }
 
+    /**
+     * Link to dependency. Synchronized on graph, since signals may be created during parallel propagation.
+     * @param dependency signal to depend on
+     */
     protected void addDependency(AbstractOrderedSignal<?> dependency) {
-        dependencies.add(dependency);
-        dependency.dependants.add(this);
+        synchronized (graph) {
+            if (disposed) return;
+            dependencies.add(dependency);
+            dependency.dependants.add(self);
+        }
     }
 
     protected void removeDependency(AbstractOrderedSignal<?> dependency) {
-        dependencies.remove(dependency);
-        dependency.dependants.remove(this);
+        synchronized (graph) {
+            dependencies.remove(dependency);
+            dependency.dependants.remove(self);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        graph.dispose(this);
+    }
+
+    /**
+     * Unlink disposed signal from it's dependencies. Called by graph.
+     */
+    void unlink() {
+        synchronized (graph) {
+            if (disposed) return;
+            disposed = true;
+            self.clear();
+            self.detach();
+            graph.release(this, self);
+        }
+    }
+
+    int getLevel() {
+        return level;
     }
 
     @Override
@@ -105,25 +150,51 @@ abstract class AbstractOrderedSignal<T> implements Signal<T>, Comparable<Abstrac
      */
     protected abstract T evaluate();
 
+    /**
+     * Propagate change of this signal to dependants.
+     * Inside a transaction propagation is deferred until commit, see {@link SignalGraph}.
+     */
     protected void invalidate() {
-        propagateChanges(of(this));
+        graph.invalidate(this);
     }
 
-    private boolean reEvalAndCheck() {
-        return updateAndCheck(evaluate());
+    /**
+     * Get references to dependants. References of collected dependants are cleared, see {@link SignalGraph#expunge()}.
+     * @return dependant references
+     */
+    Set<DependantReference> getDependants() {
+        return dependants;
+    }
+
+    boolean reEvalAndCheck() {
+        return !disposed && updateAndCheck(evaluate());
     }
 
     private boolean updateAndCheck(T newValue) {
         return !equal(currentValue, currentValue = newValue);
     }
 
-    private void propagateChanges(Collection<? extends AbstractOrderedSignal<?>> initial) {
-        Queue<AbstractOrderedSignal<?>> toUpdate = new PriorityQueue<AbstractOrderedSignal<?>>(initial);
+    /**
+     * Weak reference to a signal, held by it's dependencies.
+     * Keeps dependencies of referenced signal to unlink from them, when signal is collected.
+     */
+    static final class DependantReference extends WeakReference<AbstractOrderedSignal<?>> {
+        private final Set<AbstractOrderedSignal<?>> dependencies;
+
+        DependantReference(AbstractOrderedSignal<?> signal, Set<AbstractOrderedSignal<?>> dependencies,
+                           ReferenceQueue<? super AbstractOrderedSignal<?>> queue) {
+            super(signal, queue);
+            this.dependencies = dependencies;
+        }
 
-        while (!toUpdate.isEmpty()) {
-            AbstractOrderedSignal<?> dependant = toUpdate.poll();
-            boolean doPropagate = dependant.reEvalAndCheck();
-            if (doPropagate) toUpdate.addAll(dependant.dependants);
+        /**
+         * Unlink from dependencies. Should be called with graph lock held.
+         */
+        void detach() {
+            for (AbstractOrderedSignal<?> dependency : dependencies) {
+                dependency.dependants.remove(this);
+            }
+            dependencies.clear();
         }
     }
 }
@@ -17,20 +17,42 @@
 package see.reactive.impl;
 
 import com.google.common.base.Supplier;
+import com.google.common.collect.ImmutableList;
+import see.reactive.Signal;
 
 import java.util.Collection;
+import java.util.List;
 
 class BoundSignal<T> extends AbstractOrderedSignal<T> {
 
     private final Supplier<T> evaluation;
 
-    public BoundSignal(Collection<? extends AbstractOrderedSignal<?>> dependencies, Supplier<T> evaluation) {
-        super(dependencies, evaluation.get());
+    /**
+     * Signals, which are read only by evaluation, disposed with this signal.
+     */
+    private final List<Signal<?>> owned;
+
+    public BoundSignal(SignalGraph graph, Collection<? extends AbstractOrderedSignal<?>> dependencies, Supplier<T> evaluation) {
+        this(graph, dependencies, evaluation, ImmutableList.<Signal<?>>of());
+    }
+
+    public BoundSignal(SignalGraph graph, Collection<? extends AbstractOrderedSignal<?>> dependencies, Supplier<T> evaluation,
+                       Collection<? extends Signal<?>> owned) {
+        super(graph, dependencies, evaluation.get());
         this.evaluation = evaluation;
+        this.owned = ImmutableList.<Signal<?>>copyOf(owned);
     }
 
     @Override
     protected T evaluate() {
         return evaluation.get();
     }
+
+    @Override
+    public void dispose() {
+        super.dispose();
+        for (Signal<?> signal : owned) {
+            signal.dispose();
+        }
+    }
 }
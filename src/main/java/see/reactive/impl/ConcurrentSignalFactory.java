@@ -0,0 +1,125 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package see.reactive.impl;
+
+import com.google.common.base.Function;
+import com.google.common.base.Supplier;
+import see.reactive.EvaluationResult;
+import see.reactive.Signal;
+import see.reactive.VariableSignal;
+import see.util.Parallel;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.concurrent.Executor;
+
+/**
+ * Signal factory, which signals can be updated and read from several threads.
+ * Concurrent updates are applied one after another, large levels of signal graph are re-evaluated in parallel.
+ * See {@link ConcurrentSignalGraph}.
+ */
+public class ConcurrentSignalFactory extends OrderedSignalFactory {
+    private final ConcurrentSignalGraph graph;
+
+    /**
+     * Create factory, which evaluates signals on {@link Parallel#sharedExecutor()},
+     * using all available processors.
+     */
+    public ConcurrentSignalFactory() {
+        this(Parallel.sharedExecutor(), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create factory with custom executor.
+     * @param executor executor for parallel evaluation
+     * @param parallelism maximum number of chunks, in which a level is evaluated
+     */
+    public ConcurrentSignalFactory(Executor executor, int parallelism) {
+        this(new ConcurrentSignalGraph(executor, parallelism));
+    }
+
+    private ConcurrentSignalFactory(ConcurrentSignalGraph graph) {
+        super(graph);
+        this.graph = graph;
+    }
+
+    @Nonnull
+    @Override
+    public <T> VariableSignal<T> var(@Nullable T initialValue) {
+        graph.lock();
+        try {
+            return super.var(initialValue);
+        } finally {
+            graph.unlock();
+        }
+    }
+
+    @Nonnull
+    @Override
+    public <T> Signal<T> bind(@Nonnull Collection<? extends Signal<?>> dependencies, @Nonnull Supplier<T> evaluation) {
+        graph.lock();
+        try {
+            return super.bind(dependencies, evaluation);
+        } finally {
+            graph.unlock();
+        }
+    }
+
+    @Nonnull
+    @Override
+    public <T> Signal<T> bind(@Nonnull Collection<? extends Signal<?>> dependencies, @Nonnull Supplier<T> evaluation,
+                              @Nonnull Collection<? extends Signal<?>> owned) {
+        graph.lock();
+        try {
+            return super.bind(dependencies, evaluation, owned);
+        } finally {
+            graph.unlock();
+        }
+    }
+
+    @Nonnull
+    @Override
+    public <T> Signal<T> observe(@Nonnull Collection<? extends Signal<?>> dependencies, @Nonnull Supplier<T> evaluation) {
+        graph.lock();
+        try {
+            return super.observe(dependencies, evaluation);
+        } finally {
+            graph.unlock();
+        }
+    }
+
+    @Override
+    public <A, B> Signal<B> flatMap(Signal<A> signal, Function<? super A, ? extends Signal<B>> transformation) {
+        graph.lock();
+        try {
+            return super.flatMap(signal, transformation);
+        } finally {
+            graph.unlock();
+        }
+    }
+
+    @Override
+    public <T> Signal<T> bindDynamic(Supplier<EvaluationResult<T>> evaluation) {
+        graph.lock();
+        try {
+            return super.bindDynamic(evaluation);
+        } finally {
+            graph.unlock();
+        }
+    }
+}
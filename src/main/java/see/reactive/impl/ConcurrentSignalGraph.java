@@ -0,0 +1,175 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package see.reactive.impl;
+
+import com.google.common.collect.Lists;
+import see.util.Parallel;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Signal graph, which can be updated from several threads.
+ *
+ * Propagation waves and transactions are serialized by a lock, so concurrent updates are applied one after another.
+ * Wave re-evaluates signals level by level. Signals of one level don't depend on each other,
+ * so large levels are split into chunks and evaluated in parallel. Next level starts only after whole level is done,
+ * so every signal sees either old or new values of all it's dependencies.
+ *
+ * Signals invalidated during a wave (e.g. by bindings or flatMap) join the running wave.
+ * Disposal and counting of signals also take the lock, since they unlink signals, which a wave may traverse.
+ */
+class ConcurrentSignalGraph extends SignalGraph {
+    /**
+     * Levels smaller than this are evaluated by calling thread.
+     */
+    static final int MIN_CHUNK_SIZE = 64;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ThreadLocal<Boolean> evaluating = new ThreadLocal<Boolean>();
+    private final Queue<AbstractOrderedSignal<?>> deferred = new ConcurrentLinkedQueue<AbstractOrderedSignal<?>>();
+    private final Executor executor;
+    private final int parallelism;
+
+    ConcurrentSignalGraph(Executor executor, int parallelism) {
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Acquire graph lock. Threads evaluating signals of a running wave already work under wave's lock.
+     */
+    void lock() {
+        if (!isEvaluating()) lock.lock();
+    }
+
+    void unlock() {
+        if (!isEvaluating()) lock.unlock();
+    }
+
+    @Override
+    public void transaction(Runnable updates) {
+        if (isEvaluating()) {
+            updates.run();
+            return;
+        }
+
+        lock.lock();
+        try {
+            super.transaction(updates);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void invalidate(AbstractOrderedSignal<?> signal) {
+        if (isEvaluating()) {
+            deferred.add(signal);
+            return;
+        }
+
+        lock.lock();
+        try {
+            super.invalidate(signal);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    void dispose(AbstractOrderedSignal<?> signal) {
+        lock();
+        try {
+            super.dispose(signal);
+        } finally {
+            unlock();
+        }
+    }
+
+    @Override
+    int size() {
+        lock();
+        try {
+            return super.size();
+        } finally {
+            unlock();
+        }
+    }
+
+    @Override
+    protected void propagateChanges(Collection<? extends AbstractOrderedSignal<?>> initial) {
+        LevelQueue toUpdate = startWave();
+        List<AbstractOrderedSignal<?>> level = Lists.newArrayList();
+
+        try {
+            toUpdate.addAll(initial);
+            while (!toUpdate.isEmpty()) {
+                level.clear();
+                toUpdate.pollLevel(level);
+
+                boolean[] changed = evaluate(level);
+
+                for (int i = 0; i < changed.length; i++) {
+                    if (changed[i]) toUpdate.addDependants(level.get(i));
+                }
+                for (AbstractOrderedSignal<?> signal = deferred.poll(); signal != null; signal = deferred.poll()) {
+                    toUpdate.add(signal);
+                }
+            }
+        } finally {
+            deferred.clear();
+            endWave();
+        }
+    }
+
+    /**
+     * Re-evaluate signals of one level.
+     * @param level signals to evaluate
+     * @return change flags, by signal index
+     */
+    private boolean[] evaluate(final List<AbstractOrderedSignal<?>> level) {
+        final boolean[] changed = new boolean[level.size()];
+        int chunks = Math.max(1, Math.min(parallelism, level.size() / MIN_CHUNK_SIZE));
+        Parallel.run(executor, level.size(), chunks, new Parallel.Task() {
+            @Override
+            public void run(int chunk, int from, int to) {
+                evaluate(level, changed, from, to);
+            }
+        });
+        return changed;
+    }
+
+    private void evaluate(List<AbstractOrderedSignal<?>> level, boolean[] changed, int from, int to) {
+        evaluating.set(Boolean.TRUE);
+        try {
+            for (int i = from; i < to; i++) {
+                changed[i] = level.get(i).reEvalAndCheck();
+            }
+        } finally {
+            evaluating.remove();
+        }
+    }
+
+    private boolean isEvaluating() {
+        return evaluating.get() != null;
+    }
+}
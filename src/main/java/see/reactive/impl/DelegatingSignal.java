@@ -24,15 +24,20 @@ import static com.google.common.collect.ImmutableSet.of;
 class DelegatingSignal<T> extends AbstractOrderedSignal<T> {
     private AbstractOrderedSignal<T> delegate;
 
-    private DelegatingSignal(AbstractOrderedSignal<T> delegate) {
-        super(of(delegate), delegate.now());
+    /**
+     * Signal, which switches delegate. Referenced here, since it's own dependency holds it weakly.
+     */
+    private Signal<?> selector;
+
+    private DelegatingSignal(SignalGraph graph, AbstractOrderedSignal<T> delegate) {
+        super(graph, of(delegate), delegate.now());
         this.delegate = delegate;
     }
 
-    public static <T> DelegatingSignal<T> create(Signal<T> delegate) {
+    public static <T> DelegatingSignal<T> create(SignalGraph graph, Signal<T> delegate) {
         checkArgument(delegate instanceof AbstractOrderedSignal<?>);
 
-        return new DelegatingSignal<T>((AbstractOrderedSignal<T>) delegate);
+        return new DelegatingSignal<T>(graph, (AbstractOrderedSignal<T>) delegate);
     }
 
     @Override
@@ -40,6 +45,16 @@ class DelegatingSignal<T> extends AbstractOrderedSignal<T> {
         return delegate.now();
     }
 
+    public void setSelector(Signal<?> selector) {
+        this.selector = selector;
+    }
+
+    @Override
+    public void dispose() {
+        super.dispose();
+        if (selector != null) selector.dispose();
+    }
+
     public void setDelegate(Signal<T> delegate) {
         checkArgument(delegate instanceof AbstractOrderedSignal<?>);
 
@@ -30,14 +30,14 @@ class DynamicDependenciesSignal<T> extends AbstractOrderedSignal<T> {
 
     private final Supplier<EvaluationResult<T>> evaluation;
 
-    private DynamicDependenciesSignal(Supplier<EvaluationResult<T>> evaluation, Collection<? extends AbstractOrderedSignal<?>> dependencies, T initialValue) {
-        super(dependencies, initialValue);
+    private DynamicDependenciesSignal(SignalGraph graph, Supplier<EvaluationResult<T>> evaluation, Collection<? extends AbstractOrderedSignal<?>> dependencies, T initialValue) {
+        super(graph, dependencies, initialValue);
         this.evaluation = evaluation;
     }
 
-    public static <T> DynamicDependenciesSignal<T> create(Supplier<EvaluationResult<T>> evaluation) {
+    public static <T> DynamicDependenciesSignal<T> create(SignalGraph graph, Supplier<EvaluationResult<T>> evaluation) {
         EvaluationResult<T> result = evaluation.get();
-        return new DynamicDependenciesSignal<T>(evaluation, checkDependencies(result.getDependencies()), result.getResult());
+        return new DynamicDependenciesSignal<T>(graph, evaluation, checkDependencies(result.getDependencies()), result.getResult());
     }
 
     private static Collection<? extends AbstractOrderedSignal<?>> checkDependencies(Collection<? extends Signal<?>> deps) {
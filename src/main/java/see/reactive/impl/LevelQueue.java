@@ -0,0 +1,131 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package see.reactive.impl;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Queue of signals to re-evaluate in a propagation wave, bucketed by signal level.
+ * Each bucket is a list linked through queued signals, so queue doesn't allocate after it has grown to graph depth.
+ *
+ * Signal is marked with wave epoch when queued and unmarked when polled, so it's queued once,
+ * however many of it's dependencies changed. Marks and links of an aborted wave don't match epoch of the next one,
+ * so they need no cleanup.
+ */
+class LevelQueue {
+    private AbstractOrderedSignal<?>[] heads = new AbstractOrderedSignal<?>[16];
+    private int epoch;
+    private int lowest;
+    private int highest;
+    private int size;
+
+    /**
+     * Start new wave. Signals left from previous wave, if it was aborted, are dropped.
+     * @param epoch wave epoch, different from previous ones
+     */
+    void reset(int epoch) {
+        this.epoch = epoch;
+        if (size > 0) {
+            Arrays.fill(heads, 0, highest + 1, null);
+            size = 0;
+        }
+        lowest = 0;
+        highest = 0;
+    }
+
+    /**
+     * Queue signal, if it isn't queued yet.
+     * @param signal signal to queue
+     */
+    void add(AbstractOrderedSignal<?> signal) {
+        if (signal.queuedEpoch == epoch) return;
+        signal.queuedEpoch = epoch;
+
+        int level = signal.getLevel();
+        if (level >= heads.length) {
+            heads = Arrays.copyOf(heads, Math.max(level + 1, heads.length * 2));
+        }
+        signal.nextQueued = heads[level];
+        heads[level] = signal;
+
+        lowest = size == 0 ? level : Math.min(lowest, level);
+        highest = Math.max(highest, level);
+        size++;
+    }
+
+    void addAll(Collection<? extends AbstractOrderedSignal<?>> signals) {
+        for (AbstractOrderedSignal<?> signal : signals) {
+            add(signal);
+        }
+    }
+
+    /**
+     * Queue live dependants of a signal.
+     * @param signal changed signal
+     */
+    void addDependants(AbstractOrderedSignal<?> signal) {
+        for (AbstractOrderedSignal.DependantReference reference : signal.getDependants()) {
+            AbstractOrderedSignal<?> dependant = reference.get();
+            if (dependant != null) add(dependant);
+        }
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Remove a signal of the lowest level.
+     * @return removed signal
+     */
+    AbstractOrderedSignal<?> poll() {
+        while (heads[lowest] == null) {
+            lowest++;
+        }
+        AbstractOrderedSignal<?> signal = heads[lowest];
+        heads[lowest] = signal.nextQueued;
+        unlink(signal);
+        size--;
+        return signal;
+    }
+
+    /**
+     * Remove all signals of the lowest level.
+     * @param target list to add removed signals to
+     */
+    void pollLevel(List<AbstractOrderedSignal<?>> target) {
+        while (heads[lowest] == null) {
+            lowest++;
+        }
+        AbstractOrderedSignal<?> signal = heads[lowest];
+        heads[lowest] = null;
+        while (signal != null) {
+            AbstractOrderedSignal<?> next = signal.nextQueued;
+            unlink(signal);
+            target.add(signal);
+            size--;
+            signal = next;
+        }
+    }
+
+    private static void unlink(AbstractOrderedSignal<?> signal) {
+        signal.nextQueued = null;
+        signal.queuedEpoch = 0;
+    }
+}
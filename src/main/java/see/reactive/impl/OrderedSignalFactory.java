@@ -35,10 +35,20 @@ import static com.google.common.collect.Iterables.all;
 import static see.reactive.Signals.signalSupplier;
 
 public class OrderedSignalFactory implements SignalFactory {
+    private final SignalGraph graph;
+
+    public OrderedSignalFactory() {
+        this(new SignalGraph());
+    }
+
+    OrderedSignalFactory(SignalGraph graph) {
+        this.graph = graph;
+    }
+
     @Nonnull
     @Override
     public <T> VariableSignal<T> var(@Nullable T initialValue) {
-        return new Var<T>(initialValue);
+        return new Var<T>(graph, initialValue);
     }
 
     @Nonnull
@@ -47,7 +57,25 @@ public class OrderedSignalFactory implements SignalFactory {
         checkArgument(all(dependencies, instanceOf(AbstractOrderedSignal.class)));
         @SuppressWarnings("unchecked") // safe to cast, already checked
         Collection<AbstractOrderedSignal<?>> casted = (Collection<AbstractOrderedSignal<?>>) dependencies;
-        return new BoundSignal<T>(casted, evaluation);
+        return new BoundSignal<T>(graph, casted, evaluation);
+    }
+
+    @Nonnull
+    @Override
+    public <T> Signal<T> bind(@Nonnull Collection<? extends Signal<?>> dependencies, @Nonnull Supplier<T> evaluation,
+                              @Nonnull Collection<? extends Signal<?>> owned) {
+        checkArgument(all(dependencies, instanceOf(AbstractOrderedSignal.class)));
+        @SuppressWarnings("unchecked") // safe to cast, already checked
+        Collection<AbstractOrderedSignal<?>> casted = (Collection<AbstractOrderedSignal<?>>) dependencies;
+        return new BoundSignal<T>(graph, casted, evaluation, owned);
+    }
+
+    @Nonnull
+    @Override
+    public <T> Signal<T> observe(@Nonnull Collection<? extends Signal<?>> dependencies, @Nonnull Supplier<T> evaluation) {
+        Signal<T> observer = bind(dependencies, evaluation);
+        graph.retain((AbstractOrderedSignal<?>) observer);
+        return observer;
     }
 
     @Override
@@ -58,21 +86,34 @@ public class OrderedSignalFactory implements SignalFactory {
     @Override
     public <A, B> Signal<B> flatMap(final Signal<A> signal,
                                     final Function<? super A, ? extends Signal<B>> transformation) {
-        final DelegatingSignal<B> mirror = DelegatingSignal.create(transformation.apply(signal.now()));
+        final DelegatingSignal<B> mirror = DelegatingSignal.create(graph, transformation.apply(signal.now()));
 
-        bind(of(signal), new Supplier<Void>() {
+        mirror.setSelector(bind(of(signal), new Supplier<Void>() {
             @Override
             public Void get() {
                 mirror.setDelegate(transformation.apply(signal.now()));
                 return null;
             }
-        });
+        }));
 
         return mirror;
     }
 
     @Override
     public <T> Signal<T> bindDynamic(Supplier<EvaluationResult<T>> evaluation) {
-        return DynamicDependenciesSignal.create(evaluation);
+        return DynamicDependenciesSignal.create(graph, evaluation);
+    }
+
+    @Override
+    public void transaction(@Nonnull Runnable updates) {
+        graph.transaction(updates);
+    }
+
+    /**
+     * Get number of signals, created by this factory, which are neither disposed nor collected.
+     * @return live signal count
+     */
+    public int getSignalCount() {
+        return graph.size();
     }
 }
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package see.reactive.impl;
+
+import com.google.common.collect.Sets;
+import see.reactive.impl.AbstractOrderedSignal.DependantReference;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Collection;
+import java.util.Set;
+
+import static com.google.common.collect.ImmutableSet.copyOf;
+import static com.google.common.collect.ImmutableSet.of;
+
+/**
+ * Change propagation for signals of one factory.
+ *
+ * Invalidated signals start a propagation wave immediately, unless a transaction is open.
+ * Inside a transaction invalidated signals are only recorded, and are propagated by a single wave on commit.
+ * Wave re-evaluates signals in level order, using a {@link LevelQueue}, which is reused between waves.
+ *
+ * Graph also tracks live signals. Collected signals are unlinked from their dependencies
+ * on next signal creation or propagation wave.
+ */
+class SignalGraph {
+    private int transactionDepth;
+    private final LevelQueue queue = new LevelQueue();
+    private int epoch;
+    private boolean propagating;
+    private final Set<AbstractOrderedSignal<?>> pending = Sets.newLinkedHashSet();
+
+    private final ReferenceQueue<AbstractOrderedSignal<?>> collected = new ReferenceQueue<AbstractOrderedSignal<?>>();
+    /**
+     * References to live signals. Held here, since reference is enqueued only if it's reachable itself.
+     */
+    private final Set<DependantReference> references = Sets.newHashSet();
+    private final Set<AbstractOrderedSignal<?>> retained = Sets.newHashSet();
+
+    /**
+     * Run updates in a transaction. Nested transactions join the outer one.
+     * Recorded changes are committed even if updates fail, since variables already hold new values.
+     * @param updates code, which sets variables
+     */
+    public void transaction(Runnable updates) {
+        transactionDepth++;
+        try {
+            updates.run();
+        } finally {
+            if (--transactionDepth == 0) commit();
+        }
+    }
+
+    /**
+     * Propagate change of a signal, or record it, if transaction is open.
+     * @param signal changed signal
+     */
+    public void invalidate(AbstractOrderedSignal<?> signal) {
+        if (transactionDepth > 0) {
+            pending.add(signal);
+        } else {
+            propagateChanges(of(signal));
+        }
+    }
+
+    private void commit() {
+        if (pending.isEmpty()) return;
+
+        Set<AbstractOrderedSignal<?>> changed = copyOf(pending);
+        pending.clear();
+        propagateChanges(changed);
+    }
+
+    /**
+     * Register new signal.
+     * @param signal created signal
+     * @param dependencies dependencies of created signal, to unlink from when it's collected
+     * @return reference, by which dependencies should hold signal
+     */
+    synchronized DependantReference register(AbstractOrderedSignal<?> signal, Set<AbstractOrderedSignal<?>> dependencies) {
+        expunge();
+        DependantReference reference = new DependantReference(signal, dependencies, collected);
+        references.add(reference);
+        return reference;
+    }
+
+    /**
+     * Keep signal from being collected until it's disposed.
+     * @param signal signal to keep
+     */
+    synchronized void retain(AbstractOrderedSignal<?> signal) {
+        retained.add(signal);
+    }
+
+    /**
+     * Dispose a signal: unlink it from dependencies and forget it.
+     * @param signal signal to dispose
+     */
+    void dispose(AbstractOrderedSignal<?> signal) {
+        signal.unlink();
+    }
+
+    /**
+     * Forget disposed signal.
+     * @param signal disposed signal
+     * @param reference reference to disposed signal
+     */
+    synchronized void release(AbstractOrderedSignal<?> signal, DependantReference reference) {
+        retained.remove(signal);
+        references.remove(reference);
+    }
+
+    /**
+     * Unlink collected signals from their dependencies.
+     */
+    synchronized void expunge() {
+        for (Reference<?> reference = collected.poll(); reference != null; reference = collected.poll()) {
+            ((DependantReference) reference).detach();
+            references.remove(reference);
+        }
+    }
+
+    /**
+     * Get number of signals, which are neither disposed nor collected.
+     * @return live signal count
+     */
+    synchronized int size() {
+        expunge();
+        return references.size();
+    }
+
+    /**
+     * Start new propagation wave.
+     * @return queue for signals of this wave
+     */
+    protected LevelQueue startWave() {
+        expunge();
+        if (++epoch == 0) epoch = 1;
+        queue.reset(epoch);
+        propagating = true;
+        return queue;
+    }
+
+    protected void endWave() {
+        propagating = false;
+    }
+
+    /**
+     * Re-evaluate signals in topological order, starting from initial ones.
+     * Signal is queued once, even if several of its dependencies changed.
+     * Signals invalidated during propagation (e.g. by bindings or flatMap) join the running wave.
+     */
+    protected void propagateChanges(Collection<? extends AbstractOrderedSignal<?>> initial) {
+        if (propagating) {
+            queue.addAll(initial);
+            return;
+        }
+
+        LevelQueue toUpdate = startWave();
+        try {
+            toUpdate.addAll(initial);
+
+            while (!toUpdate.isEmpty()) {
+                AbstractOrderedSignal<?> dependant = toUpdate.poll();
+
+                boolean doPropagate = dependant.reEvalAndCheck();
+                if (doPropagate) toUpdate.addDependants(dependant);
+            }
+        } finally {
+            endWave();
+        }
+    }
+}
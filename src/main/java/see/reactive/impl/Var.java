@@ -25,10 +25,10 @@ class Var<T> extends AbstractOrderedSignal<T> implements VariableSignal<T> {
      * Separate current value required for invalidation logic.
      * Call to {@link see.reactive.impl.AbstractOrderedSignal#invalidate()} will sync with superclass.
      */
-    private T localValue;
+    private volatile T localValue;
 
-    public Var(T value) {
-        super(ImmutableSet.<AbstractOrderedSignal<?>>of(), value);
+    public Var(SignalGraph graph, T value) {
+        super(graph, ImmutableSet.<AbstractOrderedSignal<?>>of(), value);
         this.localValue = value;
     }
 
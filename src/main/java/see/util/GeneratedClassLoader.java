@@ -0,0 +1,40 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package see.util;
+
+/**
+ * Class loader of a single generated class.
+ * Each generated class gets it's own loader, so it's unloaded together with objects, which use it.
+ * Generated class is in another runtime package than classes of it's parent loader,
+ * so it can access only public classes and members.
+ */
+public final class GeneratedClassLoader extends ClassLoader {
+    private GeneratedClassLoader(ClassLoader parent) {
+        super(parent);
+    }
+
+    /**
+     * Define a class by a new loader
+     * @param parent loader, which resolves classes referenced by generated code
+     * @param name binary class name
+     * @param code class file contents
+     * @return defined class
+     */
+    public static Class<?> define(ClassLoader parent, String name, byte[] code) {
+        return new GeneratedClassLoader(parent).defineClass(name, code, 0, code.length);
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package see.util;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
+import com.google.common.math.IntMath;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Fork/join of index ranges over an executor.
+ *
+ * Calling thread processes first chunk and then any chunk, which executor hasn't started yet.
+ * So a bounded executor is enough: nested parallel calls and busy pools don't wait for free threads.
+ */
+public final class Parallel {
+    private static final Executor sharedExecutor = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(),
+            new ThreadFactoryBuilder()
+                    .setDaemon(true)
+                    .setNameFormat("see-parallel-%d")
+                    .build());
+
+    private Parallel() {}
+
+    /**
+     * Chunk processor
+     */
+    public interface Task {
+        /**
+         * Process a chunk
+         * @param chunk chunk index
+         * @param from first index, inclusive
+         * @param to last index, exclusive
+         */
+        void run(int chunk, int from, int to);
+    }
+
+    /**
+     * Get shared pool of daemon threads, one per available processor.
+     * @return shared executor
+     */
+    public static Executor sharedExecutor() {
+        return sharedExecutor;
+    }
+
+    /**
+     * Process range [0, size) in chunks, wait for completion.
+     * Exceptions from chunks are rethrown in calling thread.
+     *
+     * @param executor executor for all chunks but first
+     * @param size range size
+     * @param chunks number of chunks
+     * @param task chunk processor
+     */
+    public static void run(Executor executor, int size, int chunks, final Task task) {
+        int chunkSize = IntMath.divide(size, chunks, RoundingMode.CEILING);
+
+        List<FutureTask<Void>> forked = Lists.newArrayList();
+        for (int chunk = 1; chunk < chunks; chunk++) {
+            final int index = chunk;
+            final int from = chunk * chunkSize;
+            final int to = Math.min(size, from + chunkSize);
+            FutureTask<Void> future = new FutureTask<Void>(new Runnable() {
+                @Override
+                public void run() {
+                    task.run(index, from, to);
+                }
+            }, null);
+            forked.add(future);
+            executor.execute(future);
+        }
+
+        task.run(0, 0, Math.min(size, chunkSize));
+
+        try {
+            for (FutureTask<Void> future : forked) {
+                future.run(); // No-op if already started by executor
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for chunks", e);
+        } catch (ExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+}
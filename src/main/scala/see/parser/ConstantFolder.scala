@@ -0,0 +1,127 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package see.parser
+
+import scala.collection.JavaConversions._
+import see.evaluation.ValueProcessor
+import see.functions.PureFunction
+import see.functions.bool.BooleanCastHelper
+import see.functions.reactive.MakeSignal
+import see.functions.service.{If, Iterate, MakeFunction}
+import see.parser.config.{FunctionResolver, GrammarConfiguration}
+import see.parser.grammar.PropertyDescriptor
+import see.parser.grammar.PropertyDescriptor.Indexed
+import see.tree.Untyped._
+
+/**
+ * Parse-time optimization pass.
+ *
+ * Calls of foldable functions with constant arguments are replaced by their results,
+ * conditionals with constant condition are replaced by live branch.
+ * Replaced nodes keep source position of original node.
+ * Calls, which fail at fold time, are left intact, so that error is reported at evaluation.
+ */
+class ConstantFolder(functions: FunctionResolver, processor: ValueProcessor) {
+  def this(config: GrammarConfiguration) = this(config.getFunctions, config.getValueProcessor)
+
+  /**
+   * Fold supplied tree. Trees not produced by parser are returned as is.
+   * @param tree tree to fold
+   * @return folded tree
+   */
+  def fold[T](tree: see.tree.Node[T]): see.tree.Node[T] = tree match {
+    case node: Node => foldNode(node).asInstanceOf[see.tree.Node[T]]
+    case _ => tree
+  }
+
+  private def foldNode(node: Node): Node = node match {
+    case f @ FNode(name, args) =>
+      val foldedArgs = if (hasCodeArguments(name)) args.map(foldCode) else args.map(foldNode)
+      simplify(if (same(args, foldedArgs)) f else FNode(name, foldedArgs)(f.position))
+    case p @ PropertyNode(target, props) =>
+      val foldedTarget = foldNode(target)
+      val foldedProps = props.map(foldProperty)
+      if ((foldedTarget eq target) && same(props, foldedProps)) p else PropertyNode(foldedTarget, foldedProps)(p.position)
+    case _ => node
+  }
+
+  /**
+   * Fold function or loop body, passed as constant tree.
+   */
+  private def foldCode(node: Node): Node = node match {
+    case c @ ConstNode(body: Node) =>
+      val folded = foldNode(body)
+      if (folded eq body) c else ConstNode(folded)(c.position)
+    case _ => foldNode(node)
+  }
+
+  private def foldProperty(prop: PropertyDescriptor): PropertyDescriptor = prop match {
+    case indexed: Indexed => indexed.getIndex match {
+      case index: Node =>
+        val folded = foldNode(index)
+        if (folded eq index) prop else PropertyDescriptor.indexed(folded)
+      case _ => prop
+    }
+    case _ => prop
+  }
+
+  private def simplify(f: FNode): Node = {
+    val args = f.args
+    if (functions.isFoldable(f.f) && args.forall(_.isInstanceOf[ConstNode])) {
+      evaluate(f, args.map(_.asInstanceOf[ConstNode].value)).getOrElse(f)
+    } else if (isConditional(f.f) && args.size >= 2 && args.head.isInstanceOf[ConstNode]) {
+      condition(args.head.asInstanceOf[ConstNode].value) match {
+        case Some(true) => args(1)
+        case Some(false) => if (args.size == 3) args(2) else ConstNode(null)(f.position)
+        case None => f
+      }
+    } else {
+      f
+    }
+  }
+
+  private def evaluate(f: FNode, values: Seq[AnyRef]): Option[Node] = delegate(f.f) match {
+    case Some(function) =>
+      try {
+        val result = function.apply(new java.util.ArrayList[AnyRef](seqAsJavaList(values)))
+        Some(ConstNode(processor.apply(result))(f.position))
+      } catch {
+        case e: RuntimeException => None
+      }
+    case None => None
+  }
+
+  private def condition(value: AnyRef): Option[Boolean] = value match {
+    case b: java.lang.Boolean => Some(b.booleanValue())
+    case n: java.lang.Number => Some(BooleanCastHelper.toBoolean(n))
+    case _ => None
+  }
+
+  private def isConditional(name: String) = delegate(name).exists(_.isInstanceOf[If[_]])
+
+  private def hasCodeArguments(name: String) = (functions.get(name): AnyRef) match {
+    case _: MakeFunction | _: Iterate | _: MakeSignal => true
+    case _ => false
+  }
+
+  private def delegate(name: String) = functions.get(name) match {
+    case pure: PureFunction[_, _] => Some(pure.getDelegate.asInstanceOf[see.functions.VarArgFunction[AnyRef, AnyRef]])
+    case _ => None
+  }
+
+  private def same[A <: AnyRef](a: Seq[A], b: Seq[A]) = a.corresponds(b)(_ eq _)
+}
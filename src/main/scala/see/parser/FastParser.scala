@@ -0,0 +1,38 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package see.parser
+
+import see.parser.grammar.DescentParser
+import see.parser.numbers.NumberFactory
+
+/**
+ * Parser with hand-written recursive descent fast path.
+ * Parboiled-based fallback is used only when fast path fails, to report parse errors.
+ *
+ * @param numberFactory number factory, same as in grammar configuration
+ * @param entryPoint grammar entry point
+ * @param fallback reporting parser for the same entry point
+ */
+class FastParser(val numberFactory: NumberFactory,
+                 val entryPoint: EntryPoint,
+                 val fallback: Parser[AnyRef]) extends Parser[AnyRef] {
+  def parse(input: String) = {
+    val result = new DescentParser(input, numberFactory).parse(entryPoint)
+
+    if (result != null) result else fallback.parse(input)
+  }
+}
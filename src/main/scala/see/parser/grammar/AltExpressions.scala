@@ -39,6 +39,7 @@ class AltExpressions(val numberFactory: NumberFactory,
     body ~ zeroOrMore(Ctx ~ op(operator) ~ body ~~> ((a:Node, context, op, b) => fNode(op, a, b).withPos(context)))
   def binOp(op: String) = withContext((a: Node, b: Node, ctx:Context[Any]) => fNode(op, a, b).withPos(ctx))
   def seqNode(terms: Node*) = if (terms.size == 1) terms.head else fNode(";", terms:_*)
+  def memoMismatches(body: Rule1[Node]) = new Rule1[Node](new SharedMemoMismatchesMatcher(body.matcher))
 
 
   def ReturnExpression = rule { ExpressionList ~ T("return") ~ RightExpression ~ optional(T(";")) ~~> (seqNode(_, _)) }
@@ -65,8 +66,8 @@ class AltExpressions(val numberFactory: NumberFactory,
 
   def Assignment = rule { Settable ~ (T("=") ~ Expression ~~> binOp("=")) }
   def Settable = rule { SettableProperty | SettableVariable } ~~> addPosition
-  def SettableProperty = rule { Atom ~ oneOrMore(optional(FunctionApplication) ~ PropertyChain) }.memoMismatches
-  def SettableVariable = rule { VarName ~~> (fNode("v=", _)) }.memoMismatches
+  def SettableProperty = memoMismatches(rule { Atom ~ oneOrMore(optional(FunctionApplication) ~ PropertyChain) })
+  def SettableVariable = memoMismatches(rule { VarName ~~> (fNode("v=", _)) })
 
   def Binding = rule { Settable ~ (
     T("<<") ~ SignalExpression ~~> binOp("<<")
@@ -0,0 +1,688 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package see.parser.grammar
+
+import org.parboiled.buffers.DefaultInputBuffer
+import org.parboiled.support.Chars.EOI
+import see.parser.EntryPoint
+import see.parser.numbers.NumberFactory
+import see.tree.Untyped._
+import see.tree.trace.TraceElement
+import scala.collection.mutable.ArrayBuffer
+
+object DescentParser {
+  /**
+   * Binary operators by precedence level, from lowest to highest.
+   * Longer operators go first within a level.
+   */
+  val Operators: Array[Array[String]] = Array(
+    Array("||"),
+    Array("&&"),
+    Array("!=", "=="),
+    Array("<=", ">=", "<", ">"),
+    Array("+", "-"),
+    Array("*", "/")
+  )
+
+  private val NoMemo = 0
+  private val Mismatch = -1
+}
+
+/**
+ * Hand-written recursive descent counterpart of AltEntryPoints/AltExpressions.
+ *
+ * Mirrors the parboiled grammar rule by rule, including ordered choice and positions,
+ * so accepted inputs produce equal trees. Atoms and expressions are memoized by start index,
+ * which keeps backtracking between Assignment, Binding and RightExpression linear.
+ * Holds parse state, so instance is created per input.
+ *
+ * @param input text to parse
+ * @param numberFactory number factory, also defines decimal and argument separators
+ */
+class DescentParser(input: String, numberFactory: NumberFactory) {
+  import DescentParser._
+
+  private val decimalSeparator: Char = numberFactory.getDecimalSeparator
+  private val argumentSeparator = if (decimalSeparator != ',') "," else ";"
+  private lazy val buffer = new DefaultInputBuffer(input.toCharArray)
+  private var traces: Array[TraceElement] = null
+
+  private var pos = 0
+
+  private val atomMemo = new Memo
+  private val expressionMemo = new Memo
+
+  /**
+   * Parse input from specified entry point.
+   * @param entryPoint grammar entry point
+   * @return parsed tree or null if input doesn't match
+   */
+  def parse(entryPoint: EntryPoint): Node = {
+    pos = 0
+    whitespace()
+    val result = entryPoint match {
+      case EntryPoint.SIMPLE => expression()
+      case EntryPoint.SCRIPT => expressionList()
+      case EntryPoint.CALC_EXPRESSION => returnExpression()
+    }
+    if (result != null && pos == input.length) result else null
+  }
+
+
+  private def returnExpression(): Node = {
+    val start = pos
+    val list = expressionList()
+    if (token("return")) {
+      val result = rightExpression()
+      if (result != null) {
+        token(";")
+        return seqNode(Vector(list, result))
+      }
+    }
+    fail(start)
+  }
+
+  private def block(): Node = {
+    val start = pos
+    if (token("{")) {
+      val list = expressionList()
+      if (token("}")) return list
+      pos = start
+    }
+    term()
+  }
+
+  private def expressionList(): Node = {
+    val terms = new ArrayBuffer[Node]
+    var item = term()
+    while (item != null) {
+      terms += item
+      item = term()
+    }
+    seqNode(terms)
+  }
+
+  private def term(): Node = {
+    var result = conditional()
+    if (result == null) result = forLoop()
+    if (result == null) result = whileLoop()
+    if (result == null) result = terminatedExpression()
+    result
+  }
+
+  private def conditional(): Node = {
+    val start = pos
+    if (token("if") && token("(")) {
+      val condition = rightExpression()
+      if (condition != null && token(")")) {
+        val thenBranch = block()
+        if (thenBranch != null) {
+          val elseStart = pos
+          val elseBranch = if (token("else")) block() else null
+          if (elseBranch == null) pos = elseStart
+
+          val args = if (elseBranch == null) Vector(condition, thenBranch) else Vector(condition, thenBranch, elseBranch)
+          return fNode("if", args).withPos(trace(start))
+        }
+      }
+    }
+    fail(start)
+  }
+
+  private def forLoop(): Node = {
+    val start = pos
+    if (token("for") && token("(")) {
+      val name = varName()
+      if (name != null && (token(":") || token("in"))) {
+        val target = rightExpression()
+        if (target != null && token(")")) {
+          val body = block()
+          if (body != null) return fNode("for", Vector(name, target, constNode(body))).withPos(trace(start))
+        }
+      }
+    }
+    fail(start)
+  }
+
+  private def whileLoop(): Node = {
+    val start = pos
+    if (token("while") && token("(")) {
+      val condition = expression()
+      if (condition != null && token(")")) {
+        val body = block()
+        if (body != null) return fNode("while", Vector(condition, body)).withPos(trace(start))
+      }
+    }
+    fail(start)
+  }
+
+  private def terminatedExpression(): Node = {
+    val start = pos
+    val result = expression()
+    if (result != null && token(";")) result else fail(start)
+  }
+
+
+  private def expression(): Node = {
+    val start = pos
+    if (expressionMemo.contains(start)) return expressionMemo.restore(start)
+
+    var result = assignment()
+    if (result == null) result = binding()
+    if (result == null) result = rightExpression()
+
+    expressionMemo.put(start, result, pos)
+    result
+  }
+
+  private def assignment(): Node = {
+    val start = pos
+    val target = settable()
+    if (target != null) {
+      val opStart = pos
+      if (token("=")) {
+        val value = expression()
+        if (value != null) return fNode("=", Vector(target, value)).withPos(trace(opStart))
+      }
+    }
+    fail(start)
+  }
+
+  private def binding(): Node = {
+    val start = pos
+    val target = settable()
+    if (target != null) {
+      val opStart = pos
+      if (token("<<")) {
+        val signal = signalExpression()
+        if (signal != null) return fNode("<<", Vector(target, signal)).withPos(trace(opStart))
+        pos = opStart
+      }
+      if (token("<<=")) {
+        val signal = signalExpression()
+        if (signal != null) return fNode("=", Vector(target, signal)).withPos(trace(opStart))
+      }
+    }
+    fail(start)
+  }
+
+  private def settable(): Node = {
+    val start = pos
+    var result = settableProperty()
+    if (result == null) result = settableVariable()
+    if (result != null) result.withPos(trace(start)) else null
+  }
+
+  private def settableProperty(): Node = {
+    val start = pos
+    var target = atom()
+    if (target == null) return null
+
+    var matched = false
+    var more = true
+    while (more) {
+      val iterationStart = pos
+      val applied = functionApplication(target)
+      val chain = propertyChain(if (applied != null) applied else target)
+      if (chain != null) {
+        target = chain
+        matched = true
+      } else {
+        pos = iterationStart
+        more = false
+      }
+    }
+
+    if (matched) target else fail(start)
+  }
+
+  private def settableVariable(): Node = {
+    val name = varName()
+    if (name != null) fNode("v=", Vector(name)) else null
+  }
+
+  private def signalExpression(): Node = {
+    val start = pos
+    val result = expression()
+    if (result != null) fNode("signal", Vector(constNode(result))).withPos(trace(start)) else null
+  }
+
+
+  private def rightExpression(): Node = binaryExpression(0)
+
+  private def binaryExpression(level: Int): Node = {
+    if (level == Operators.length) return unaryExpression()
+
+    var left = binaryExpression(level + 1)
+    if (left == null) return null
+
+    var more = true
+    while (more) {
+      val opStart = pos
+      val operator = matchOperator(Operators(level))
+      if (operator != null) {
+        val right = binaryExpression(level + 1)
+        if (right != null) {
+          left = fNode(operator, Vector(left, right)).withPos(trace(opStart))
+        } else {
+          pos = opStart
+          more = false
+        }
+      } else {
+        more = false
+      }
+    }
+    left
+  }
+
+  private def matchOperator(operators: Array[String]): String = {
+    var i = 0
+    while (i < operators.length) {
+      if (token(operators(i))) return operators(i)
+      i += 1
+    }
+    null
+  }
+
+  private def unaryExpression(): Node = {
+    val start = pos
+    val c = charAt(pos)
+    if (c == '+' || c == '-' || c == '!') {
+      pos += 1
+      whitespace()
+      val operand = unaryExpression()
+      if (operand != null) return fNode(c.toString, Vector(operand)).withPos(trace(start))
+      pos = start
+    }
+    powerExpression()
+  }
+
+  private def powerExpression(): Node = {
+    val base = propertyExpression()
+    if (base == null) return null
+
+    val opStart = pos
+    if (token("^")) {
+      val exponent = unaryExpression()
+      if (exponent != null) return fNode("^", Vector(base, exponent)).withPos(trace(opStart))
+      pos = opStart
+    }
+    base
+  }
+
+  private def propertyExpression(): Node = {
+    var target = atom()
+    if (target == null) return null
+
+    var more = true
+    while (more) {
+      val applied = functionApplication(target)
+      if (applied != null) {
+        target = applied
+      } else {
+        val chain = propertyChain(target)
+        if (chain != null) target = fNode(".", Vector(chain)) else more = false
+      }
+    }
+    target
+  }
+
+  private def functionApplication(target: Node): Node = {
+    val start = pos
+    if (!token("(")) return null
+
+    val args = ArrayBuffer(target)
+    separated(() => append(args, expression()))
+    if (token(")")) fNode("apply", args).withPos(trace(start)) else fail(start)
+  }
+
+  private def propertyChain(target: Node): Node = {
+    val start = pos
+    val props = new ArrayBuffer[PropertyDescriptor]
+    var descriptor = property()
+    while (descriptor != null) {
+      props += descriptor
+      descriptor = property()
+    }
+    if (props.isEmpty) null else propNode(target, props).withPos(trace(start))
+  }
+
+  private def property(): PropertyDescriptor = {
+    val start = pos
+    if (charAt(pos) == '.' && isLetter(charAt(pos + 1))) {
+      pos += 1
+      return PropertyDescriptor.simple(identifier())
+    }
+    if (token("[")) {
+      val index = rightExpression()
+      if (index != null && token("]")) return PropertyDescriptor.indexed(index)
+      pos = start
+    }
+    null
+  }
+
+
+  private def atom(): Node = {
+    val start = pos
+    if (atomMemo.contains(start)) return atomMemo.restore(start)
+
+    var result = constant()
+    if (result == null) result = specialForm()
+    if (result == null) result = functionDefinition()
+    if (result == null) result = shortFunctionDef()
+    if (result == null) result = variable()
+    if (result == null) result = jsonLiteral()
+
+    if (result != null) {
+      result = result.withPos(trace(start))
+    } else if (token("(")) {
+      result = expression()
+      if (result == null || !token(")")) result = fail(start)
+    }
+
+    atomMemo.put(start, result, pos)
+    result
+  }
+
+  private def jsonLiteral(): Node = {
+    val list = listLiteral()
+    if (list != null) list else mapLiteral()
+  }
+
+  private def listLiteral(): Node = {
+    val start = pos
+    if (!token("[")) return null
+
+    val items = new ArrayBuffer[Node]
+    separated(() => append(items, expression()))
+    if (token("]")) fNode("[]", items) else fail(start)
+  }
+
+  private def mapLiteral(): Node = {
+    val start = pos
+    if (!token("{")) return null
+
+    val items = new ArrayBuffer[Node]
+    separated(() => keyValue(items))
+    if (token("}")) fNode("{}", items) else fail(start)
+  }
+
+  private def keyValue(into: ArrayBuffer[Node]): Boolean = {
+    val start = pos
+    var key = jsonKey()
+    if (key == null) key = string()
+    if (key != null && token(":")) {
+      val value = expression()
+      if (value != null) {
+        into += key
+        into += value
+        return true
+      }
+    }
+    pos = start
+    false
+  }
+
+  private def jsonKey(): Node = {
+    val start = pos
+    while (isLetterOrDigit(charAt(pos))) pos += 1
+    if (pos == start) return null
+
+    val key = input.substring(start, pos)
+    whitespace()
+    constNode(key)
+  }
+
+  private def functionDefinition(): Node = {
+    val start = pos
+    if (token("function") && token("(")) {
+      val args = argumentDeclaration()
+      if (token(")") && token("{")) {
+        val body = expressionList()
+        if (token("}")) return fNode("def", Vector(constList(args), constNode(body)))
+      }
+    }
+    fail(start)
+  }
+
+  private def shortFunctionDef(): Node = {
+    val start = pos
+    val args = shortArgList()
+    if (args != null && token("=>")) {
+      val body = rightExpression()
+      if (body != null) return fNode("def", Vector(constList(args), constNode(body)))
+    }
+    fail(start)
+  }
+
+  private def shortArgList(): Seq[String] = {
+    val start = pos
+    if (token("(")) {
+      val args = argumentDeclaration()
+      if (token(")")) return args
+      pos = start
+    }
+    if (isLetter(charAt(pos))) List(identifier()) else null
+  }
+
+  private def argumentDeclaration(): Seq[String] = {
+    val args = new ArrayBuffer[String]
+    separated { () =>
+      if (isLetter(charAt(pos))) {
+        args += identifier()
+        true
+      } else false
+    }
+    args.toList
+  }
+
+  private def specialForm(): Node = {
+    val start = pos
+    if (token("signal") && token("(")) {
+      val signal = signalExpression()
+      if (signal != null && token(")")) return signal
+    }
+    pos = start
+
+    if (token("@tree")) {
+      val tree = expression()
+      if (tree != null) return constNode(tree)
+    }
+    fail(start)
+  }
+
+  private def variable(): Node = {
+    val start = pos
+    if (input.startsWith("var", pos) && !isLetterOrDigit(charAt(pos + 3))) {
+      pos += 3
+      whitespace()
+    }
+    if (isLetter(charAt(pos))) varNode(identifier()) else fail(start)
+  }
+
+  private def varName(): Node = {
+    val variable = this.variable()
+    if (variable != null) constNode(variable.asInstanceOf[VarNode].name) else null
+  }
+
+
+  private def constant(): Node = {
+    var result = string()
+    if (result == null) result = number()
+    if (result == null) result = keywordConstant("true", java.lang.Boolean.TRUE)
+    if (result == null) result = keywordConstant("false", java.lang.Boolean.FALSE)
+    if (result == null) result = keywordConstant("null", null)
+    result
+  }
+
+  private def string(): Node = {
+    val delimiter = charAt(pos)
+    if (delimiter != '\'' && delimiter != '"') return null
+
+    val end = input.indexOf(delimiter, pos + 1)
+    if (end < 0) return null
+
+    val text = input.substring(pos + 1, end)
+    pos = end + 1
+    whitespace()
+    constNode(text)
+  }
+
+  private def number(): Node = {
+    var end = floatLiteralEnd(pos)
+    if (end < 0) end = digitsEnd(pos)
+    if (end == pos) return null
+
+    val text = input.substring(pos, end)
+    pos = end
+    whitespace()
+    constNode(numberFactory.getNumber(text))
+  }
+
+  private def floatLiteralEnd(start: Int): Int = {
+    val integerEnd = digitsEnd(start)
+    if (charAt(integerEnd) == decimalSeparator) {
+      val fractionEnd = digitsEnd(integerEnd + 1)
+      if (fractionEnd > integerEnd + 1) {
+        val end = exponentEnd(fractionEnd)
+        return if (end > 0) end else fractionEnd
+      }
+    }
+    if (integerEnd > start) exponentEnd(integerEnd) else -1
+  }
+
+  private def exponentEnd(start: Int): Int = {
+    var i = start
+    if (charAt(i) != 'e' && charAt(i) != 'E') return -1
+    i += 1
+    if (charAt(i) == '+' || charAt(i) == '-') i += 1
+    val end = digitsEnd(i)
+    if (end > i) end else -1
+  }
+
+  private def digitsEnd(start: Int): Int = {
+    var i = start
+    while (isDigit(charAt(i))) i += 1
+    i
+  }
+
+  private def keywordConstant(keyword: String, value: AnyRef): Node = {
+    if (!input.startsWith(keyword, pos) || isLetterOrDigit(charAt(pos + keyword.length))) return null
+
+    pos += keyword.length
+    whitespace()
+    constNode(value)
+  }
+
+
+  private def identifier(): String = {
+    val start = pos
+    pos += 1
+    while (isLetterOrDigit(charAt(pos))) pos += 1
+    val result = input.substring(start, pos)
+    whitespace()
+    result
+  }
+
+  private def token(text: String): Boolean = {
+    if (!input.startsWith(text, pos)) return false
+    pos += text.length
+    whitespace()
+    true
+  }
+
+  private def separated(item: () => Boolean) {
+    if (item()) {
+      var itemEnd = pos
+      while (token(argumentSeparator) && item()) itemEnd = pos
+      pos = itemEnd
+    }
+  }
+
+  private def append(into: ArrayBuffer[Node], node: Node): Boolean = {
+    if (node != null) into += node
+    node != null
+  }
+
+  private def whitespace() {
+    var more = true
+    while (more) {
+      val c = charAt(pos)
+      if (c == ' ' || c == '\t' || c == '\f' || c == '\r' || c == '\n') {
+        pos += 1
+      } else if (input.startsWith("/*", pos)) {
+        val end = input.indexOf("*/", pos + 2)
+        if (end >= 0) pos = end + 2 else more = false
+      } else if (input.startsWith("//", pos)) {
+        var i = pos + 2
+        while (i < input.length && input.charAt(i) != '\r' && input.charAt(i) != '\n') i += 1
+        pos = if (input.startsWith("\r\n", i)) i + 2 else math.min(i + 1, input.length)
+      } else {
+        more = false
+      }
+    }
+  }
+
+
+  private def seqNode(terms: Seq[Node]) = if (terms.size == 1) terms.head else fNode(";", terms)
+  private def fNode(name: String, args: Seq[Node]) = funcNode(name, args.toIndexedSeq)
+
+  private def trace(index: Int) = {
+    if (traces == null) traces = new Array[TraceElement](input.length + 1)
+    if (traces(index) == null) traces(index) = TraceElement(buffer, index)
+    traces(index)
+  }
+
+  private def fail(start: Int): Node = {
+    pos = start
+    null
+  }
+
+  private def charAt(index: Int) = if (index < input.length) input.charAt(index) else EOI
+  private def isDigit(c: Char) = c >= '0' && c <= '9'
+  private def isLetter(c: Char) = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_' || c == '$'
+  private def isLetterOrDigit(c: Char) = isLetter(c) || isDigit(c)
+
+  /**
+   * Parse results by start index.
+   * Stores end index for matches, Mismatch for failures, NoMemo if rule wasn't tried.
+   */
+  private class Memo {
+    private var ends: Array[Int] = null
+    private var nodes: Array[Node] = null
+
+    def contains(start: Int) = ends != null && ends(start) != NoMemo
+
+    /**
+     * Get memoized result, moving current position to its end on match.
+     */
+    def restore(start: Int): Node = {
+      val end = ends(start)
+      if (end != Mismatch) pos = end
+      nodes(start)
+    }
+
+    def put(start: Int, result: Node, end: Int) {
+      if (ends == null) {
+        ends = new Array[Int](input.length + 1)
+        nodes = new Array[Node](input.length + 1)
+      }
+      ends(start) = if (result != null) end else Mismatch
+      nodes(start) = result
+    }
+  }
+}
@@ -29,6 +29,11 @@ object Untyped {
   sealed abstract class Node extends SeeNode with Tracing {
     def withPos(trace: TraceElement):Node
     def withPos(context: Context[Any]):Node = withPos(TraceElement(context.getInputBuffer, context.getStartIndex))
+
+    /**
+     * Copy of this node with same position. Children are shared.
+     */
+    def detached: Node
   }
 
   def const[T <: AnyRef](f: String => T): String => ConstNode = { s:String => constNode(f(s)) }
@@ -49,6 +54,7 @@ object Untyped {
     def getValue = value
 
     def withPos(trace: TraceElement) = copy()(position = Some(trace))
+    def detached = copy()(position)
 
     override def toString = String.valueOf(value)
   }
@@ -63,6 +69,7 @@ object Untyped {
     def getName = name
 
     def withPos(trace: TraceElement) = copy()(position = Some(trace))
+    def detached = copy()(position)
 
     override def toString = "Var(%s)".format(name)
   }
@@ -78,6 +85,7 @@ object Untyped {
     val getArguments = ImmutableList.copyOf(args.iterator).asInstanceOf[util.List[SeeNode]]
 
     def withPos(trace: TraceElement) = copy()(position = Some(trace))
+    def detached = copy()(position)
 
     override def toString = "%s(%s)".format(f, args.mkString(","))
   }
@@ -93,6 +101,7 @@ object Untyped {
     val getProperties = ImmutableList.copyOf(props.iterator)
 
     def withPos(trace: TraceElement) = copy()(position = Some(trace))
+    def detached = copy()(position)
 
     override def toString = "%s%s".format(target, props.mkString)
   }
@@ -0,0 +1,184 @@
+package see.evaluation;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.junit.Test;
+import see.See;
+import see.evaluation.evaluators.SimpleEvaluator;
+import see.exceptions.SeeRuntimeException;
+import see.parser.config.ConfigBuilder;
+import see.parser.config.GrammarConfiguration;
+import see.tree.Node;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import static see.evaluation.evaluators.SimpleEvaluator.extractScope;
+import static see.evaluation.evaluators.SimpleEvaluator.extractServices;
+
+public class BatchEvaluationTest {
+    GrammarConfiguration config = ConfigBuilder.defaultConfig().build();
+    See see = new See(config);
+
+    @Test
+    public void testRows() throws Exception {
+        Node<Object> tree = see.parseExpression("a + b");
+        List<Map<String, ?>> rows = ImmutableList.<Map<String, ?>>of(
+                ImmutableMap.of("a", BigDecimal.ONE, "b", BigDecimal.ONE),
+                ImmutableMap.of("a", BigDecimal.TEN, "b", BigDecimal.ONE));
+
+        assertEquals(asList(new BigDecimal(2), new BigDecimal(11)), see.evaluateBatch(tree, rows));
+    }
+
+    @Test
+    public void testSharedVariables() throws Exception {
+        Node<Object> tree = see.parseExpression("x * k");
+        Map<String, ?> shared = ImmutableMap.of("k", BigDecimal.TEN, "x", BigDecimal.ZERO);
+
+        List<Object> results = see.evaluateEach(tree, shared, "x", asList(BigDecimal.ONE, new BigDecimal(3)));
+
+        assertEquals(asList(BigDecimal.TEN, new BigDecimal(30)), results);
+    }
+
+    @Test
+    public void testAssignmentsAreLocalToRow() throws Exception {
+        Node<Object> tree = see.parseExpressionList("if (isDefined(acc)) { acc = acc + x; } else { acc = x; }");
+
+        List<Object> results = see.evaluateEach(tree, "x", asList(BigDecimal.ONE, BigDecimal.TEN));
+
+        assertEquals(asList(BigDecimal.ONE, BigDecimal.TEN), results);
+    }
+
+    @Test
+    public void testArrayResults() throws Exception {
+        Node<Object> tree = see.parseExpression("s + '!'");
+        Object[] results = new Object[2];
+
+        see.evaluateBatch(tree, ImmutableMap.<String, Object>of(),
+                ImmutableList.of(ImmutableMap.of("s", "a"), ImmutableMap.of("s", "b")), results);
+
+        assertEquals(asList("a!", "b!"), asList(results));
+    }
+
+    @Test
+    public void testSameAsSingleEvaluation() throws Exception {
+        Node<Object> tree = see.parseExpressionList("f = y => y * x; f(2);");
+        List<BigDecimal> items = asList(BigDecimal.ONE, new BigDecimal(5));
+
+        List<Object> results = see.evaluateEach(tree, "x", items);
+
+        for (int i = 0; i < items.size(); i++) {
+            assertEquals(see.evaluate(tree, ImmutableMap.of("x", items.get(i))), results.get(i));
+        }
+    }
+
+    @Test
+    public void testNullSharedVariable() throws Exception {
+        Node<Object> tree = see.parseExpression("y == null");
+        Map<String, Object> shared = Maps.newHashMap();
+        shared.put("y", null);
+
+        List<Object> results = see.evaluateEach(tree, shared, "x", asList(BigDecimal.ONE, BigDecimal.TEN));
+        assertEquals(asList(true, true), results);
+        assertEquals(see.evaluate(tree, shared), results.get(0));
+
+        BatchResult<Object> all = see.evaluateAll(tree, shared, ImmutableList.of(ImmutableMap.of("x", BigDecimal.ONE)),
+                MoreExecutors.sameThreadExecutor());
+        assertEquals(true, all.get(0));
+    }
+
+    @Test
+    public void testFailure() throws Exception {
+        Node<Object> tree = see.parseExpression("1 / x");
+
+        try {
+            see.evaluateEach(tree, "x", asList(BigDecimal.ONE, BigDecimal.ZERO));
+            fail("Exception expected");
+        } catch (SeeRuntimeException ignored) {
+        }
+    }
+
+    @Test
+    public void testParallelOrdering() throws Exception {
+        Node<Object> tree = see.parseExpressionList("y = x * 2; y + 1;");
+        List<Map<String, ?>> rows = Lists.newArrayList();
+        for (int i = 0; i < 1000; i++) {
+            rows.add(ImmutableMap.of("x", new BigDecimal(i)));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            BatchResult<Object> result = see.evaluateAll(tree, rows, executor);
+
+            assertFalse(result.hasErrors());
+            for (int i = 0; i < rows.size(); i++) {
+                assertEquals(new BigDecimal(2 * i + 1), result.get(i));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testParallelErrors() throws Exception {
+        Node<Object> tree = see.parseExpression("1 / x");
+        List<Map<String, ?>> rows = ImmutableList.<Map<String, ?>>of(
+                ImmutableMap.of("x", BigDecimal.ONE),
+                ImmutableMap.of("x", BigDecimal.ZERO),
+                ImmutableMap.of("x", new BigDecimal(2)));
+
+        BatchResult<Object> result = see.evaluateAll(tree, rows, MoreExecutors.sameThreadExecutor());
+
+        assertEquals(ImmutableSet.of(1), result.getErrors().keySet());
+        assertNull(result.getResults().get(1));
+        assertEquals(new BigDecimal("0.5"), result.get(2));
+        try {
+            result.get(1);
+            fail("Exception expected");
+        } catch (SeeRuntimeException ignored) {
+        }
+    }
+
+    @Test
+    public void testParallelWithoutFreeThreads() throws Exception {
+        Node<Object> tree = see.parseExpression("x + 1");
+        List<Map<String, ?>> rows = Lists.newArrayList();
+        for (int i = 0; i < 100; i++) {
+            rows.add(ImmutableMap.of("x", new BigDecimal(i)));
+        }
+        Executor stalled = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+            }
+        };
+
+        BatchResult<Object> result = see.evaluateAll(tree, rows, stalled);
+
+        assertFalse(result.hasErrors());
+        for (int i = 0; i < rows.size(); i++) {
+            assertEquals(new BigDecimal(i + 1), result.get(i));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testShortResultsArray() throws Exception {
+        SimpleEvaluator evaluator = new SimpleEvaluator(extractScope(config), extractServices(config));
+        Node<Object> tree = see.parseExpression("x + 1");
+
+        evaluator.evaluateEach(tree, ImmutableMap.<String, Object>of(), "x", asList(BigDecimal.ONE, BigDecimal.TEN),
+                new Object[1]);
+    }
+}
@@ -0,0 +1,101 @@
+package see.evaluation;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.junit.Test;
+import see.See;
+import see.evaluation.compiler.CompiledExpression;
+import see.evaluation.evaluators.CompilingContextEvaluator;
+import see.evaluation.evaluators.SimpleEvaluator;
+import see.exceptions.SeeRuntimeException;
+import see.parser.config.ConfigBuilder;
+import see.parser.config.GrammarConfiguration;
+import see.tree.Node;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.google.common.collect.ImmutableMap.of;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class CompilingContextEvaluatorTest {
+    GrammarConfiguration config = ConfigBuilder.defaultConfig().build();
+    See see = new See(config);
+
+    @Test
+    public void testCompiledOnce() throws Exception {
+        CompilingContextEvaluator evaluator = CompilingContextEvaluator.fromServices(SimpleEvaluator.extractServices(config));
+        Node<Object> tree = see.parseExpression("a + 1");
+
+        assertSame(evaluator.compile(tree), evaluator.compile(tree));
+    }
+
+    @Test
+    public void testTreeIsNotRetained() throws Exception {
+        CompilingContextEvaluator evaluator = CompilingContextEvaluator.fromServices(SimpleEvaluator.extractServices(config));
+        Node<Object> tree = see.parseExpression("a + 1");
+        CompiledExpression<Object> compiled = evaluator.compile(tree);
+
+        assertNotSame(tree, compiled.getTree());
+        assertEquals(tree, compiled.getTree());
+    }
+
+    @Test
+    public void testRootTraceIsKept() throws Exception {
+        try {
+            see.eval("1 / 0");
+            fail("Exception expected");
+        } catch (SeeRuntimeException e) {
+            assertEquals(1, e.getTrace().size());
+        }
+
+        try {
+            see.eval("1+2*(1/0)");
+            fail("Exception expected");
+        } catch (SeeRuntimeException e) {
+            assertEquals(3, e.getTrace().size());
+        }
+    }
+
+    @Test
+    public void testFunctionBodies() throws Exception {
+        Evaluator evaluator = SimpleEvaluator.compiling(config);
+        Node<Object> tree = see.parseExpressionList("f = (a, b) => a * b; s = 0; for (i : [1, 2, 3]) { s = s + f(i, x); } s;");
+
+        assertEquals(new BigDecimal(12), evaluator.evaluate(tree, Maps.newHashMap(of("x", new BigDecimal(2)))));
+        assertEquals(new BigDecimal(18), evaluator.evaluate(tree, Maps.newHashMap(of("x", new BigDecimal(3)))));
+    }
+
+    @Test
+    public void testConcurrentReuse() throws Exception {
+        final Evaluator evaluator = SimpleEvaluator.compiling(config);
+        final Node<Object> tree = see.parseExpressionList("fact = function(n) { if (n <= 0) { 1; } else { n * fact(n - 1); } }; fact(x);");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Object>> results = Lists.newArrayList();
+            for (int i = 0; i < 100; i++) {
+                final int x = i % 6;
+                results.add(executor.submit(new Callable<Object>() {
+                    @Override
+                    public Object call() throws Exception {
+                        return evaluator.evaluate(tree, Maps.newHashMap(of("x", new BigDecimal(x))));
+                    }
+                }));
+            }
+
+            int[] factorials = {1, 1, 2, 6, 24, 120};
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(new BigDecimal(factorials[i % 6]), results.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package see.evaluation.columns;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import org.junit.Test;
+import see.See;
+import see.parser.config.ConfigBuilder;
+
+import java.math.BigDecimal;
+import java.util.BitSet;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ColumnarEvaluatorTest {
+    See see = new See(ConfigBuilder.doubleConfig().build());
+
+    Map<String, Column> columns = ImmutableMap.of(
+            "a", Column.doubles(new double[] {1, 2, 3, 4}, nulls(2)),
+            "b", Column.longs(new long[] {10, 20, 30, 40}),
+            "flag", Column.booleans(new boolean[] {true, false, true, false}));
+
+    @Test
+    public void testArithmetic() throws Exception {
+        Column result = eval("a * 2 + b");
+
+        assertEquals(Column.Type.DOUBLE, result.getType());
+        assertEquals(12.0, result.getDouble(0), 0);
+        assertEquals(24.0, result.getDouble(1), 0);
+        assertTrue(result.isNull(2));
+        assertEquals(48.0, result.getDouble(3), 0);
+    }
+
+    @Test
+    public void testComparisonAndLogic() throws Exception {
+        Column result = eval("a > 1 && !flag");
+
+        assertEquals(Column.Type.BOOLEAN, result.getType());
+        assertFalse(result.getBoolean(0));
+        assertTrue(result.getBoolean(1));
+        assertTrue(result.isNull(2));
+        assertTrue(result.getBoolean(3));
+    }
+
+    @Test
+    public void testConditional() throws Exception {
+        Column result = eval("if (flag, b, -1)");
+
+        assertEquals(Column.Type.DOUBLE, result.getType());
+        assertEquals(10.0, result.getDouble(0), 0);
+        assertEquals(-1.0, result.getDouble(1), 0);
+        assertEquals(30.0, result.getDouble(2), 0);
+    }
+
+    @Test
+    public void testSharedVariables() throws Exception {
+        Column result = see.evaluateColumns(see.parseExpression("b * k"), ImmutableMap.of("k", 0.5), columns);
+
+        assertEquals(5.0, result.getDouble(0), 0);
+    }
+
+    @Test
+    public void testFunctionFallback() throws Exception {
+        Column result = eval("max(a, 2) + 1");
+
+        assertEquals(Column.Type.DOUBLE, result.getType());
+        assertEquals(3.0, result.getDouble(0), 0);
+        assertEquals(5.0, result.getDouble(3), 0);
+        assertTrue(result.isNull(2));
+    }
+
+    @Test
+    public void testScalarFallback() throws Exception {
+        Column result = evalScript("if (flag) { x = b; } else { x = 0; } x + 1;");
+
+        assertEquals(Column.Type.DOUBLE, result.getType());
+        assertEquals(11.0, result.getDouble(0), 0);
+        assertEquals(1.0, result.getDouble(1), 0);
+    }
+
+    @Test
+    public void testNullChecksMatchScalar() throws Exception {
+        for (String expression : new String[] {"a == null", "a != null", "a == b", "if(a == null, 0, a)", "if(a != null, a * 2, b)"}) {
+            Column result = eval(expression);
+            for (int i = 0; i < result.size(); i++) {
+                Map<String, Object> row = Maps.newHashMap();
+                row.put("a", columns.get("a").get(i));
+                row.put("b", columns.get("b").get(i));
+
+                assertEquals(expression + " at " + i, see.evaluate(see.parseExpression(expression), row), result.get(i));
+            }
+        }
+        assertEquals(Column.Type.DOUBLE, eval("if(a == null, 0, a)").getType());
+    }
+
+    @Test
+    public void testStrings() throws Exception {
+        Column result = eval("'#' + b");
+
+        assertEquals(Column.Type.OBJECT, result.getType());
+        assertEquals("#10.0", result.get(0));
+    }
+
+    @Test
+    public void testBigDecimalConfig() throws Exception {
+        See decimals = new See();
+        Column result = decimals.evaluateColumns(decimals.parseExpression("a * 2 > b"), columns);
+
+        assertEquals(Column.Type.BOOLEAN, result.getType());
+        assertFalse(result.getBoolean(0));
+        assertNull(result.get(2));
+
+        Column sum = decimals.evaluateColumns(decimals.parseExpression("b + 1"), columns);
+        assertEquals(0, new BigDecimal(11).compareTo((BigDecimal) sum.get(0)));
+    }
+
+    @Test
+    public void testLongsAreExact() throws Exception {
+        See decimals = new See();
+        long big = (1L << 53) + 1;
+        Map<String, Column> ids = ImmutableMap.of("id", Column.longs(new long[] {big, 7}));
+
+        Column next = decimals.evaluateColumns(decimals.parseExpression("id + 1"), ids);
+        assertEquals(0, new BigDecimal(big + 1).compareTo((BigDecimal) next.get(0)));
+
+        Column same = decimals.evaluateColumns(decimals.parseExpression("id == k"), ImmutableMap.of("k", big - 1), ids);
+        assertFalse(same.getBoolean(0));
+
+        Column selected = decimals.evaluateColumns(decimals.parseExpression("if(id > 10, id, null)"), ids);
+        assertEquals(Long.valueOf(big), selected.get(0));
+        assertNull(selected.get(1));
+    }
+
+    @Test
+    public void testBranchesSkipUnselectedRows() throws Exception {
+        See decimals = new See();
+        Map<String, Column> xs = ImmutableMap.of("x", Column.longs(new long[] {0, 2}, new BitSet()));
+
+        Column quotient = decimals.evaluateColumns(decimals.parseExpression("if(x != 0, 1 / x, 0)"), xs);
+        assertEquals(0, BigDecimal.ZERO.compareTo((BigDecimal) quotient.get(0)));
+        assertEquals(0, new BigDecimal("0.5").compareTo((BigDecimal) quotient.get(1)));
+
+        Column positive = decimals.evaluateColumns(decimals.parseExpression("x != 0 && 1 / x > 0"), xs);
+        assertEquals(Column.Type.BOOLEAN, positive.getType());
+        assertFalse(positive.getBoolean(0));
+        assertTrue(positive.getBoolean(1));
+
+        Column zero = decimals.evaluateColumns(decimals.parseExpression("x == 0 || 1 / x > 1"), xs);
+        assertTrue(zero.getBoolean(0));
+        assertFalse(zero.getBoolean(1));
+    }
+
+    private Column eval(String expression) {
+        return see.evaluateColumns(see.parseExpression(expression), columns);
+    }
+
+    private Column evalScript(String expression) {
+        return see.evaluateColumns(see.parseExpressionList(expression), columns);
+    }
+
+    private static BitSet nulls(int... indexes) {
+        BitSet result = new BitSet();
+        for (int index : indexes) {
+            result.set(index);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,196 @@
+package see.evaluation.compiler;
+
+import com.google.common.collect.ClassToInstanceMap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.junit.Test;
+import org.junit.experimental.theories.DataPoints;
+import org.junit.experimental.theories.Theories;
+import org.junit.experimental.theories.Theory;
+import org.junit.runner.RunWith;
+import see.See;
+import see.evaluation.Evaluator;
+import see.evaluation.ValueProcessor;
+import see.evaluation.evaluators.SimpleEvaluator;
+import see.exceptions.SeeRuntimeException;
+import see.parser.config.ConfigBuilder;
+import see.parser.config.FunctionResolver;
+import see.parser.config.GrammarConfiguration;
+import see.properties.ChainResolver;
+import see.tree.Node;
+import see.tree.immutable.ImmutableConstNode;
+import see.tree.immutable.ImmutableFunctionNode;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static see.evaluation.evaluators.SimpleEvaluator.extractScope;
+import static see.evaluation.evaluators.SimpleEvaluator.extractServices;
+
+@RunWith(Theories.class)
+public class ExpressionCompilerTest {
+    See see = new See();
+
+    @DataPoints
+    public static final String[] scripts = {
+            "1 + 2 * 3;", "'a' + 1;", "x * (1 + 18/100);", "a = 1; b = a + x; b;", "if (x > 1) { 1; } else { 2; }",
+            "s = 0; for (i : [1, 2, 3]) { s = s + i; } s;", "i = 0; while (i < 5) { i = i + 1; } i;",
+            "f = (a, b) => a * b + x; f(2, 3);", "fact = function(n) { if (n <= 0) { 1; } else { n * fact(n - 1); } }; fact(5);",
+            "m = {a: 1, b: [1, 2]}; m.b[1] + m.a;", "m = {a: x}; m.a + 1;", "l = [1, 2]; l[1] * list[0];",
+            "isDefined(x) && isDefined(y);", "str = 'abc'; str.length();", "[1, 2, 3].size() > 2 || false;",
+            "c = 0; inc = function() { c = c + 1; }; inc(); inc(); c;", "adder = function(a) { function(b) { a + b; }; }; adder(2)(x);",
+            "f = function(a) { t = a * 2; for (i : [1, 2]) { t = t + i + a; } t; }; f(x);",
+            "f = function(a) { g = function() { a + y; }; y = 5; g(); }; f(1);",
+            "f = function(a, b) { g = function(a) { a - b; }; g(b) + g(a); }; f(x, 10);"
+    };
+
+    GrammarConfiguration config = ConfigBuilder.defaultConfig().build();
+    See fresh = new See(config);
+    Evaluator interpreter = new SimpleEvaluator(extractScope(config), extractServices(config));
+    ExpressionCompiler compiler = ExpressionCompiler.fromServices(extractServices(config));
+
+    @Theory
+    public void testSameResults(String script) throws Exception {
+        Node<Object> tree = see.parseExpressionList(script);
+
+        assertEquals(see.evaluate(tree, variables()), see.evaluate(see.compile(tree), variables()));
+    }
+
+    @Theory
+    public void testSameAsInterpreted(String script) throws Exception {
+        Node<Object> tree = fresh.parseExpressionList(script);
+
+        assertEquals(interpreter.evaluate(tree, variables()), fresh.evaluate(tree, variables()));
+    }
+
+    @Theory
+    public void testSameResultsGenerated(String script) throws Exception {
+        Node<Object> tree = fresh.parseExpressionList(script);
+
+        CompiledExpression<Object> expression = compiler.compileToBytecode(tree);
+
+        assertNull(compiler.getGenerationFailure(expression));
+        assertEquals(interpreter.evaluate(tree, variables()), fresh.evaluate(expression, variables()));
+    }
+
+    @Test
+    public void testGenerated() throws Exception {
+        Node<Object> tree = fresh.parseExpression("x * (1 + 18/100) - list[0]");
+        CompiledExpression<Object> expression = compiler.compileToBytecode(tree);
+
+        assertTrue(compiler.isGenerated(expression));
+        assertNull(compiler.getGenerationFailure(expression));
+        assertEquals(interpreter.evaluate(tree, variables()), fresh.evaluate(expression, variables()));
+    }
+
+    @Test
+    public void testGeneratedAfterThreshold() throws Exception {
+        final List<Runnable> tasks = Lists.newArrayList();
+        Executor queue = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                tasks.add(command);
+            }
+        };
+        ClassToInstanceMap<Object> services = extractServices(config);
+        ExpressionCompiler deferred = new ExpressionCompiler(services.getInstance(FunctionResolver.class),
+                services.getInstance(ValueProcessor.class), services.getInstance(ChainResolver.class), null, queue);
+        CompiledExpression<Object> expression = deferred.compile(fresh.parseExpression("x * 2 + 1"));
+
+        for (int i = 1; i < ExpressionCompiler.BYTECODE_THRESHOLD; i++) {
+            assertEquals(new BigDecimal(5), fresh.evaluate(expression, variables()));
+        }
+        assertTrue(tasks.isEmpty());
+
+        assertEquals(new BigDecimal(5), fresh.evaluate(expression, variables()));
+        assertEquals(1, tasks.size());
+        assertFalse(deferred.isGenerated(expression));
+
+        tasks.get(0).run();
+        assertTrue(deferred.isGenerated(expression));
+        assertNull(deferred.getGenerationFailure(expression));
+        assertEquals(new BigDecimal(5), fresh.evaluate(expression, variables()));
+
+        fresh.evaluate(expression, variables());
+        assertEquals(1, tasks.size());
+    }
+
+    @Test
+    public void testGeneratedErrorTrace() throws Exception {
+        CompiledExpression<Object> expression = compiler.compileToBytecode(fresh.parseExpression("1+2*(1/x)"));
+
+        try {
+            fresh.evaluate(expression, ImmutableMap.of("x", BigDecimal.ZERO));
+            fail("Exception expected");
+        } catch (SeeRuntimeException e) {
+            assertEquals(3, e.getTrace().size());
+        }
+    }
+
+    @Test
+    public void testArgumentsAreImmutable() throws Exception {
+        Node<Object> tree = see.parseExpressionList("f = function(a) { a = 1; }; f(2);");
+
+        try {
+            see.evaluate(tree, variables());
+            fail("Exception expected");
+        } catch (SeeRuntimeException e) {
+            assertEquals(UnsupportedOperationException.class, e.getCause().getClass());
+        }
+    }
+
+    @Test
+    public void testUnknownFunction() throws Exception {
+        Node<Object> tree = new ImmutableFunctionNode<Object, Object>("unknownFunction",
+                ImmutableList.<Node<Object>>of(new ImmutableConstNode<Object>(1)));
+        CompiledExpression<Object> expression = see.compile(tree);
+
+        try {
+            see.evaluate(expression, variables());
+            fail("Exception expected");
+        } catch (SeeRuntimeException e) {
+            assertEquals(NullPointerException.class, e.getCause().getClass());
+        }
+    }
+
+    @Test
+    public void testErrorTrace() throws Exception {
+        CompiledExpression<Object> expression = see.compile(see.parseExpression("1+2*(1/0)"));
+
+        try {
+            see.evaluate(expression, variables());
+            fail("Exception expected");
+        } catch (SeeRuntimeException e) {
+            assertEquals(3, e.getTrace().size());
+        }
+    }
+
+    @Test
+    public void testArgumentsAreLazy() throws Exception {
+        CompiledExpression<Object> expression = see.compile(see.parseExpression("if(true, 1, undefinedVariable)"));
+
+        assertEquals(BigDecimal.ONE, see.evaluate(expression, variables()));
+    }
+
+    @Test
+    public void testOtherServices() throws Exception {
+        See other = new See(ConfigBuilder.defaultConfig().build());
+        CompiledExpression<Object> expression = see.compile(see.parseExpression("x + 1"));
+
+        assertEquals(new BigDecimal(3), other.evaluate(expression, variables()));
+    }
+
+    private Map<String, Object> variables() {
+        return Maps.newHashMap(ImmutableMap.<String, Object>of("x", new BigDecimal(2), "list", asList(1, 2)));
+    }
+}
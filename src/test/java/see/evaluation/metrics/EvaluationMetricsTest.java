@@ -0,0 +1,85 @@
+package see.evaluation.metrics;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+import see.See;
+import see.evaluation.evaluators.SimpleEvaluator;
+import see.exceptions.SeeRuntimeException;
+import see.parser.config.ConfigBuilder;
+import see.parser.config.GrammarConfiguration;
+import see.tree.Node;
+
+import java.math.BigDecimal;
+
+import static org.junit.Assert.*;
+
+public class EvaluationMetricsTest {
+    EvaluationMetrics metrics = new EvaluationMetrics();
+    GrammarConfiguration config = ConfigBuilder.defaultConfig()
+            .setInstrumentation(Instrumentation.withAllocation(metrics))
+            .build();
+
+    @Test
+    public void testCompiledCalls() throws Exception {
+        See see = new See(config);
+        Node<Object> tree = see.parseExpressionList("m = max(a, b); m + a;");
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(new BigDecimal(7), see.evaluate(tree, ImmutableMap.of("a", new BigDecimal(2), "b", new BigDecimal(5))));
+        }
+
+        assertEquals(3, metrics.getFunctions().get("max").getCount());
+        assertEquals(3, metrics.getFunctions().get("=").getCount());
+        assertEquals(3, metrics.getExpressions().get(tree).getCount());
+        assertEquals(3, metrics.getExpressions().get(tree).getLatency().getTotalCount());
+    }
+
+    @Test
+    public void testInterpretedCalls() throws Exception {
+        SimpleEvaluator evaluator = new SimpleEvaluator(SimpleEvaluator.extractScope(config), SimpleEvaluator.extractServices(config));
+        Node<Object> tree = new See(config).parseExpressionList("f = x => x * 2; y = f(a); y + 2;");
+
+        assertEquals(new BigDecimal(6), evaluator.evaluate(tree, ImmutableMap.of("a", new BigDecimal(2))));
+
+        assertEquals(1, metrics.getFunctions().get("f").getCount());
+        assertEquals(1, metrics.getFunctions().get("*").getCount());
+        assertEquals(1, metrics.getExpressions().get(tree).getCount());
+    }
+
+    @Test
+    public void testFailedEvaluation() throws Exception {
+        See see = new See(config);
+        Node<Object> tree = see.parseExpression("a / 0");
+
+        try {
+            see.evaluate(tree, ImmutableMap.of("a", 1));
+            fail("Exception expected");
+        } catch (SeeRuntimeException ignored) {
+        }
+
+        assertEquals(1, metrics.getFunctions().get("/").getCount());
+        assertEquals(1, metrics.getExpressions().get(tree).getCount());
+    }
+
+    @Test
+    public void testDisabledByDefault() throws Exception {
+        GrammarConfiguration plain = ConfigBuilder.defaultConfig().build();
+
+        assertNull(plain.getInstrumentation());
+        assertFalse(SimpleEvaluator.extractServices(plain).containsKey(Instrumentation.class));
+    }
+
+    @Test
+    public void testHistogram() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i < 100 ? 10 : 5000);
+        }
+
+        assertEquals(100, histogram.getTotalCount());
+        assertEquals(15, histogram.getPercentile(0.5));
+        assertEquals(15, histogram.getPercentile(0.99));
+        assertEquals(8191, histogram.getPercentile(1));
+        assertEquals(0, new LatencyHistogram().getPercentile(0.5));
+    }
+}
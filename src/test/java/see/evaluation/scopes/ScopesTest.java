@@ -22,7 +22,9 @@ import see.evaluation.Scope;
 import see.exceptions.NoSuchVariableException;
 
 import static com.google.common.collect.ImmutableMap.of;
+import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class ScopesTest {
@@ -112,4 +114,53 @@ public class ScopesTest {
         over.put("cat", "fine too");
         assertEquals("fine too", mutable.get("cat"));
     }
+
+    @Test
+    public void testFrame() throws Exception {
+        FrameLayout layout = FrameLayout.function(asList("a", "b"), asList("c"));
+        FrameScope frame = Scopes.frame(Scopes.fromMap(of("a", 1, "d", 2)), layout, 5, 6);
+
+        assertEquals(5, frame.get("a"));
+        assertEquals(2, frame.get("d"));
+        assertEquals(6, frame.getSlot(layout.indexOf("b")));
+        assertFalse(frame.isSet(layout.indexOf("c")));
+        assertFalse(frame.contains("c"));
+    }
+
+    @Test
+    public void testFrameCapture() throws Exception {
+        Scope mutable = Scopes.defCapture(Scopes.fromMap(of("d", 0)));
+        mutable.put("e", 0);
+        FrameLayout layout = FrameLayout.function(asList("a"), asList("c"));
+        FrameScope frame = Scopes.frame(mutable, layout, 5);
+
+        frame.put("c", 7);
+        frame.put("x", 8);
+        frame.put("e", 9);
+
+        assertEquals(7, frame.getSlot(layout.indexOf("c")));
+        assertTrue(frame.hasCapturedVariables());
+        assertEquals(9, mutable.get("e"));
+        assertFalse(mutable.contains("x"));
+        assertEquals(of("d", 0, "e", 9, "a", 5, "c", 7, "x", 8), frame.asMap());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testPutToFrameArgument() throws Exception {
+        Scope frame = Scopes.frame(Scopes.empty(), FrameLayout.function(asList("a"), asList("c")), 5);
+
+        frame.put("a", 6);
+    }
+
+    @Test
+    public void testLoopFrame() throws Exception {
+        Scope mutable = Scopes.defCapture(Scopes.empty());
+        Scope frame = Scopes.frame(mutable, FrameLayout.loop("i"), 1);
+
+        frame.put("sum", 1);
+
+        assertEquals(1, frame.get("i"));
+        assertEquals(1, mutable.get("sum"));
+        assertFalse(mutable.contains("i"));
+    }
 }
@@ -0,0 +1,74 @@
+package see.functions;
+
+import com.google.common.base.Suppliers;
+import org.junit.Test;
+import see.See;
+import see.functions.arithmetic.Divide;
+import see.functions.arithmetic.DoubleMinus;
+import see.functions.arithmetic.Minus;
+import see.functions.arithmetic.Product;
+import see.functions.arithmetic.Sum;
+import see.functions.common.AddOrConcat;
+import see.functions.compare.Eq;
+import see.functions.compare.Lt;
+
+import javax.annotation.Nonnull;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+
+public class FixedArityTest {
+
+    @Test
+    public void testSameAsListForm() throws Exception {
+        BigDecimal a = new BigDecimal("1.50");
+        BigDecimal b = new BigDecimal("1E+3");
+
+        assertSameResult(new Sum(), a, b);
+        assertSameResult(new Sum(), b, b);
+        assertSameResult(new Product(), a, b);
+        assertSameResult(new Minus(), a, b);
+        assertSameResult(new Divide(Suppliers.ofInstance(MathContext.DECIMAL64)), a, b);
+        assertSameResult(new AddOrConcat(), a, b);
+        assertSameResult(new AddOrConcat(), "x", null);
+        assertSameResult(new Eq(), a, new BigDecimal("1.5"));
+        assertSameResult(new Lt(), a, b);
+
+        assertEquals(new Minus().apply(singletonList(a)), new Minus().apply1(a));
+        assertEquals(new DoubleMinus().apply(singletonList((Number) 2.0)), new DoubleMinus().apply1(2.0));
+    }
+
+    @Test
+    public void testListFallback() throws Exception {
+        VarArgFunction<Object, Object> size = new VarArgFunction<Object, Object>() {
+            @Override
+            public Object apply(@Nonnull List<Object> args) {
+                return args.size();
+            }
+        };
+
+        assertEquals(1, FixedArity.apply(size, "a"));
+        assertEquals(2, FixedArity.apply(size, "a", "b"));
+    }
+
+    @Test
+    public void testFunctionLiterals() throws Exception {
+        See see = new See();
+
+        assertEquals(new BigDecimal(6), see.eval("(x => x * 2)(3)"));
+        assertEquals(new BigDecimal(5), see.eval("((x, y) => x + y)(2, 3)"));
+        assertEquals(new BigDecimal(12), see.eval("fold(0, map([1, 2, 3], x => x * 2), (acc, x) => acc + x)"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void assertSameResult(VarArgFunction<?, ?> function, Object first, Object second) {
+        VarArgFunction<Object, Object> f = (VarArgFunction<Object, Object>) function;
+        Object expected = f.apply(asList(first, second));
+
+        assertEquals(expected, FixedArity.apply(f, first, second));
+    }
+}
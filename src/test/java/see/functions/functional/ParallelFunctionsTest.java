@@ -0,0 +1,76 @@
+package see.functions.functional;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import org.junit.Test;
+import see.See;
+import see.exceptions.SeeRuntimeException;
+import see.parser.config.ConfigBuilder;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class ParallelFunctionsTest {
+    See see = new See(ConfigBuilder.defaultConfig().setParallelism(4).build());
+
+    Map<String, ?> context = ImmutableMap.of("items", numbers(5000));
+
+    @Test
+    public void testMap() throws Exception {
+        assertEquals(
+                Lists.newArrayList((Iterable<?>) see.eval("map(items, x => x * 2)", context)),
+                see.eval("pmap(items, x => x * 2)", context));
+    }
+
+    @Test
+    public void testFilter() throws Exception {
+        assertEquals(
+                Lists.newArrayList((Iterable<?>) see.eval("filter(items, x => x > 2500)", context)),
+                see.eval("pfilter(items, x => x > 2500)", context));
+    }
+
+    @Test
+    public void testReduce() throws Exception {
+        assertEquals(
+                see.eval("fold(0, items, (acc, x) => acc + x * x)", context),
+                see.eval("preduce(0, items, (acc, x) => acc + x * x, (a, b) => a + b)", context));
+        assertEquals(
+                see.eval("fold(0, items, (a, b) => a + b)", context),
+                see.eval("preduce(0, items, (a, b) => a + b)", context));
+    }
+
+    @Test
+    public void testSmallCollections() throws Exception {
+        assertEquals(Lists.newArrayList(), see.eval("pmap([], x => x)"));
+        assertEquals(BigDecimal.ONE, see.eval("preduce(1, [], (a, b) => a * b)"));
+    }
+
+    @Test
+    public void testNested() throws Exception {
+        Object result = see.eval("pmap(pfilter(items, x => x < 8), x => preduce(0, pmap(items, y => 1), (a, b) => a + b))", context);
+
+        assertEquals(8, ((List<?>) result).size());
+        assertEquals(new BigDecimal(5000), ((List<?>) result).get(7));
+    }
+
+    @Test
+    public void testFailure() throws Exception {
+        try {
+            see.eval("pmap(items, x => 1 / (x - 4000))", context);
+            fail("Exception expected");
+        } catch (SeeRuntimeException ignored) {
+        }
+    }
+
+    private static List<BigDecimal> numbers(int size) {
+        List<BigDecimal> result = Lists.newArrayList();
+        for (int i = 0; i < size; i++) {
+            result.add(new BigDecimal(i));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,157 @@
+package see.functions.functional;
+
+import com.google.common.base.Function;
+import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.junit.Test;
+import see.See;
+import see.functions.VarArgFunction;
+import see.parser.config.ConfigBuilder;
+import see.tree.Node;
+
+import javax.annotation.Nonnull;
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PipelineTest {
+    final AtomicInteger calls = new AtomicInteger();
+
+    See see = new See(ConfigBuilder.defaultConfig()
+            .addFunction("count", new VarArgFunction<Object, Object>() {
+                @Override
+                public Object apply(@Nonnull List<Object> input) {
+                    calls.incrementAndGet();
+                    return input.get(0);
+                }
+            })
+            .build());
+
+    Map<String, ?> context = ImmutableMap.of("xs", numbers(10));
+
+    @Test
+    public void testSinglePass() throws Exception {
+        Iterable<?> result = (Iterable<?>) see.eval("map(filter(map(xs, x => count(x * 2)), x => count(x) > 5), x => count(x + 1))", context);
+
+        assertEquals(7, Iterables.size(result));
+        assertEquals(27, calls.get());
+
+        assertEquals(new BigDecimal(7), Iterables.get(result, 0));
+        assertEquals(ImmutableList.copyOf(result), Lists.newArrayList(result));
+        assertEquals(27, calls.get());
+    }
+
+    @Test
+    public void testNestedStagesAreFused() throws Exception {
+        Function<Object, Object> increment = new Function<Object, Object>() {
+            @Override
+            public Object apply(Object input) {
+                return ((BigDecimal) input).add(BigDecimal.ONE);
+            }
+        };
+        Predicate<Object> even = new Predicate<Object>() {
+            @Override
+            public boolean apply(Object input) {
+                return ((BigDecimal) input).intValue() % 2 == 0;
+            }
+        };
+
+        final AtomicInteger passes = new AtomicInteger();
+        Iterable<BigDecimal> source = new Iterable<BigDecimal>() {
+            @Override
+            public Iterator<BigDecimal> iterator() {
+                passes.incrementAndGet();
+                return numbers(10).iterator();
+            }
+        };
+
+        Pipeline mapped = Pipeline.from(source).then(Pipeline.map(increment));
+        Pipeline filtered = Pipeline.from(mapped.asList()).then(Pipeline.filter(even));
+        Pipeline result = Pipeline.from(filtered.asCollection()).then(Pipeline.map(increment));
+
+        assertEquals(ImmutableList.of(new BigDecimal(3), new BigDecimal(5), new BigDecimal(7),
+                new BigDecimal(9), new BigDecimal(11)), result.toList());
+        assertEquals(ImmutableList.of(new BigDecimal(2), new BigDecimal(4), new BigDecimal(6),
+                new BigDecimal(8), new BigDecimal(10)), filtered.toList());
+        assertEquals(1, passes.get());
+    }
+
+    @Test
+    public void testFusedUpstreamIsNotRerun() throws Exception {
+        Node<Object> script = see.parseExpressionList("ys = map(xs, x => count(x)); first(map(ys, y => count(y))); ys;");
+        Iterable<?> ys = (Iterable<?>) see.evaluate(script, Maps.newHashMap(context));
+        assertEquals(2, calls.get());
+
+        assertEquals(numbers(10), Lists.newArrayList(ys));
+        assertEquals(11, calls.get());
+    }
+
+    @Test
+    public void testShortCircuit() throws Exception {
+        assertEquals(new BigDecimal(6), see.eval("first(filter(map(xs, x => count(x * 2)), x => x > 5))", context));
+        assertEquals(4, calls.get());
+
+        calls.set(0);
+        assertTrue((Boolean) see.eval("any(map(xs, x => count(x)), x => x == 1)", context));
+        assertEquals(2, calls.get());
+
+        calls.set(0);
+        assertFalse((Boolean) see.eval("all(map(xs, x => count(x)), x => x < 3)", context));
+        assertEquals(4, calls.get());
+
+        calls.set(0);
+        Object taken = see.eval("take(map(xs, x => count(x)), 3)", context);
+        assertEquals(numbers(3), Lists.newArrayList((Iterable<?>) taken));
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void testConsumedPipelineIsNotRerun() throws Exception {
+        Iterable<?> doubled = (Iterable<?>) see.eval("map(xs, x => count(x * 2))", context);
+        Iterator<?> partial = doubled.iterator();
+        partial.next();
+
+        Object result = see.eval("map(doubled, x => x + 1)", ImmutableMap.of("doubled", doubled));
+
+        assertEquals(10, Iterables.size((Iterable<?>) result));
+        assertEquals(10, calls.get());
+    }
+
+    @Test
+    public void testSharedPipelineIsNotRerun() throws Exception {
+        Iterable<?> doubled = (Iterable<?>) see.eval("map(xs, x => count(x * 2))", context);
+        Map<String, ?> shared = ImmutableMap.of("doubled", doubled);
+
+        Iterable<?> mapped = (Iterable<?>) see.eval("map(doubled, x => x + 1)", shared);
+        Iterable<?> filtered = (Iterable<?>) see.eval("filter(doubled, x => x > 5)", shared);
+
+        assertEquals(10, Iterables.size(mapped));
+        assertEquals(7, Iterables.size(filtered));
+        assertEquals(10, Iterables.size(doubled));
+        assertEquals(10, calls.get());
+    }
+
+    @Test
+    public void testEmptyTake() throws Exception {
+        assertEquals(ImmutableList.of(), see.eval("take(map(xs, x => count(x)), 0)", context));
+        assertEquals(0, calls.get());
+    }
+
+    private static List<BigDecimal> numbers(int size) {
+        List<BigDecimal> result = Lists.newArrayList();
+        for (int i = 0; i < size; i++) {
+            result.add(new BigDecimal(i));
+        }
+        return result;
+    }
+}
@@ -21,13 +21,19 @@ import com.google.common.collect.Maps;
 import org.junit.Before;
 import org.junit.Test;
 import see.ReactiveSee;
+import see.functions.VarArgFunction;
+import see.parser.config.ConfigBuilder;
 import see.reactive.Signal;
 import see.reactive.SignalFactory;
 import see.reactive.VariableSignal;
 import see.reactive.impl.OrderedSignalFactory;
 import see.tree.Node;
 
+import javax.annotation.Nonnull;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.google.common.collect.ImmutableMap.of;
 import static org.junit.Assert.*;
@@ -78,6 +84,28 @@ public class BindingTest {
         assertEquals("42.0", bean.getValue().toString());
     }
 
+    @Test
+    public void testRebinding() throws Exception {
+        VariableSignal<Integer> a = signalFactory.var(1);
+        VariableSignal<Integer> b = signalFactory.var(2);
+        TestBean bean = new TestBean();
+        TestBean other = new TestBean();
+
+        Map<String, Object> context = of("a", a, "b", b, "bean", bean, "other", other);
+
+        see.eval("other.value << a() + 0", context);
+        see.eval("bean.value << a() + 0", context);
+        see.eval("bean.value << b() + 0", context);
+        assertEquals("2.0", bean.getValue().toString());
+
+        a.set(7);
+        assertEquals("2.0", bean.getValue().toString()); // Previous binding of bean.value is disposed
+        assertEquals("7.0", other.getValue().toString());
+
+        b.set(42);
+        assertEquals("42.0", bean.getValue().toString());
+    }
+
     @Test
     public void testBindingContext() throws Exception {
         VariableSignal<Integer> a = signalFactory.var(7);
@@ -166,6 +194,92 @@ public class BindingTest {
         assertEquals(String.class, result.now());
     }
 
+    @Test
+    public void testDependenciesAfterFailedOperand() throws Exception {
+        AtomicBoolean failing = new AtomicBoolean(true);
+        ReactiveSee flaky = new ReactiveSee(ConfigBuilder.defaultConfig().addFunction("flaky", new Flaky(failing)).build(), signalFactory);
+        VariableSignal<Integer> s = signalFactory.var(1);
+
+        Map<String, Object> context = ImmutableMap.<String, Object>of("s", s);
+        Signal<?> result = (Signal<?>) flaky.eval("signal(isDefined(flaky() + s()))", context);
+        assertEquals(false, result.now());
+
+        failing.set(false);
+        s.set(2);
+        assertEquals(true, result.now()); // s is a dependency, though it follows a failed operand
+    }
+
+    @Test
+    public void testIncrementalEvaluation() throws Exception {
+        AtomicInteger calls = new AtomicInteger(0);
+        ReactiveSee counting = new ReactiveSee(ConfigBuilder.defaultConfig().addFunction("twice", new Twice(calls)).build(), signalFactory);
+        VariableSignal<Integer> a = signalFactory.var(1);
+        VariableSignal<Integer> b = signalFactory.var(2);
+
+        Map<String, Object> context = ImmutableMap.<String, Object>of("a", a, "b", b);
+        Signal<?> result = (Signal<?>) counting.eval("signal((twice(a()) + 1) * b())", context);
+        assertEquals(6, ((Number) result.now()).intValue());
+        int created = calls.get();
+
+        b.set(5);
+        assertEquals(15, ((Number) result.now()).intValue());
+        assertEquals(created, calls.get()); // twice(a()) + 1 is memoized
+
+        a.set(3);
+        assertEquals(35, ((Number) result.now()).intValue());
+        assertEquals(created + 1, calls.get());
+    }
+
+    @Test
+    public void testDisposeReleasesSubSignals() throws Exception {
+        OrderedSignalFactory factory = new OrderedSignalFactory();
+        AtomicInteger calls = new AtomicInteger(0);
+        ReactiveSee counting = new ReactiveSee(ConfigBuilder.defaultConfig().addFunction("twice", new Twice(calls)).build(), factory);
+        VariableSignal<Integer> a = factory.var(1);
+        VariableSignal<Integer> b = factory.var(2);
+        int baseline = factory.getSignalCount();
+
+        Map<String, Object> context = ImmutableMap.<String, Object>of("a", a, "b", b);
+        Signal<?> result = (Signal<?>) counting.eval("signal((twice(a()) + 1) * b())", context);
+        assertEquals(baseline + 2, factory.getSignalCount()); // Root and memoized twice(a()) + 1
+
+        result.dispose();
+        assertEquals(baseline, factory.getSignalCount());
+
+        int created = calls.get();
+        a.set(3);
+        assertEquals(created, calls.get()); // Sub-signal is not re-evaluated
+        assertEquals(6, ((Number) result.now()).intValue());
+    }
+
+    private static class Flaky implements VarArgFunction<Object, Object> {
+        private final AtomicBoolean failing;
+
+        private Flaky(AtomicBoolean failing) {
+            this.failing = failing;
+        }
+
+        @Override
+        public Object apply(@Nonnull List<Object> input) {
+            if (failing.get()) throw new IllegalStateException("flaky");
+            return 1;
+        }
+    }
+
+    private static class Twice implements VarArgFunction<Object, Object> {
+        private final AtomicInteger calls;
+
+        private Twice(AtomicInteger calls) {
+            this.calls = calls;
+        }
+
+        @Override
+        public Object apply(@Nonnull List<Object> input) {
+            calls.incrementAndGet();
+            return ((Number) input.get(0)).doubleValue() * 2;
+        }
+    }
+
     public static class TestBean {
         private Number value;
 
@@ -5,13 +5,15 @@ import org.junit.experimental.theories.Theories;
 import org.junit.experimental.theories.Theory;
 import org.junit.runner.RunWith;
 import see.See;
+import see.parser.ParseCache;
+import see.parser.config.ConfigBuilder;
 import see.tree.Node;
 
 import static org.junit.Assert.assertEquals;
 
 @RunWith(Theories.class)
 public class TreeEquivalenceTest {
-    See see = new See();
+    See see = new See(ConfigBuilder.defaultConfig().build(), ParseCache.disabled());
 
     @DataPoints
     public static final String[] data = {"a", "1+2", "sum(2,3)", "9+42+100500.0", "a = 5", "isDefined(crn)"};
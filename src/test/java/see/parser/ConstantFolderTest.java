@@ -0,0 +1,114 @@
+package see.parser;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+import see.See;
+import see.exceptions.SeeRuntimeException;
+import see.functions.VarArgFunction;
+import see.parser.config.ConfigBuilder;
+import see.parser.config.GrammarConfiguration;
+import see.tree.ConstNode;
+import see.tree.FunctionNode;
+import see.tree.Node;
+import see.tree.Untyped;
+import see.tree.trace.TraceElement;
+
+import javax.annotation.Nonnull;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.*;
+
+public class ConstantFolderTest {
+    See see = new See();
+
+    @Test
+    public void testArithmetic() throws Exception {
+        Node<Object> tree = see.parseExpression("2 * (1 + 18/100)");
+
+        assertThat(tree, instanceOf(ConstNode.class));
+        assertEquals(new BigDecimal("2.36"), see.evaluate(tree));
+    }
+
+    @Test
+    public void testStrings() throws Exception {
+        Node<Object> tree = see.parseExpression("'prefix' + 'x'");
+
+        assertThat(tree, instanceOf(ConstNode.class));
+        assertEquals("prefixx", see.evaluate(tree));
+    }
+
+    @Test
+    public void testPartialFolding() throws Exception {
+        Node<Object> tree = see.parseExpression("price * (1 + 18/100)");
+
+        assertThat(tree, instanceOf(FunctionNode.class));
+        List<Node<Object>> args = ((FunctionNode<Object, Object>) tree).getArguments();
+        assertThat(args.get(1), instanceOf(ConstNode.class));
+        assertEquals(new BigDecimal("118.00"), see.evaluate(tree, ImmutableMap.of("price", new BigDecimal(100))));
+    }
+
+    @Test
+    public void testConstantCondition() throws Exception {
+        Node<Object> tree = see.parseExpressionList("if (1 > 2) { a; } else { b; }");
+
+        assertEquals("b", see.evaluate(tree, ImmutableMap.of("a", "a", "b", "b")));
+        assertFalse(tree.toString().contains("Var(a)"));
+    }
+
+    @Test
+    public void testConstantConditionWithoutElse() throws Exception {
+        Node<Object> tree = see.parseExpressionList("if (false) { a; }");
+
+        assertThat(tree, instanceOf(ConstNode.class));
+        assertNull(see.evaluate(tree));
+    }
+
+    @Test
+    public void testFunctionBody() throws Exception {
+        assertEquals(new BigDecimal("5"), see.eval("(x => x + 2 * 2)(1)"));
+    }
+
+    @Test
+    public void testPositionKept() throws Exception {
+        Untyped.Node original = (Untyped.Node) new See(ConfigBuilder.emptyConfig().build()).parseExpression("1 + 2");
+        Untyped.Node folded = (Untyped.Node) see.parseExpression("1 + 2");
+
+        TraceElement position = folded.position().get();
+        assertEquals(original.position().get(), position);
+    }
+
+    @Test
+    public void testFailingCallIsNotFolded() throws Exception {
+        Node<Object> tree = see.parseExpression("1 / 0");
+
+        assertThat(tree, instanceOf(FunctionNode.class));
+        try {
+            see.evaluate(tree);
+            fail("Exception expected");
+        } catch (SeeRuntimeException e) {
+            assertFalse(e.getTrace().isEmpty());
+        }
+    }
+
+    @Test
+    public void testUserFunctions() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        VarArgFunction<Object, Object> counter = new VarArgFunction<Object, Object>() {
+            @Override
+            public Object apply(@Nonnull List<Object> input) {
+                return calls.incrementAndGet();
+            }
+        };
+        GrammarConfiguration impure = ConfigBuilder.defaultConfig().addFunction("product", counter).build();
+        GrammarConfiguration pure = ConfigBuilder.defaultConfig().addFoldableFunction("product", counter).build();
+
+        assertFalse(impure.getFunctions().isFoldable("*"));
+        assertTrue(pure.getFunctions().isFoldable("*"));
+        assertThat(new See(impure).parseExpression("2 * 3"), instanceOf(FunctionNode.class));
+        assertThat(new See(pure).parseExpression("2 * 3"), instanceOf(ConstNode.class));
+        assertEquals(1, calls.get());
+    }
+}
@@ -10,23 +10,28 @@ import org.parboiled.parserunners.ReportingParseRunner;
 import org.parboiled.support.ParsingResult;
 import see.parser.config.ConfigBuilder;
 import see.parser.grammar.AltEntryPoints;
+import see.parser.grammar.DescentParser;
+import see.parser.numbers.NumberFactory;
 
 /**
- * Matcher for expressions
+ * Matcher for expressions.
+ * Input matches if it is accepted by both parboiled grammar and recursive descent parser.
  */
 public class ExpressionMatcher extends TypeSafeMatcher<String> {
     private final ParseRunner<?> runner;
+    private final EntryPoint entryPoint;
     private final String description;
 
-    public ExpressionMatcher(Rule rule, String description) {
+    public ExpressionMatcher(Rule rule, EntryPoint entryPoint, String description) {
         this.runner = new ReportingParseRunner<Object>(rule);
+        this.entryPoint = entryPoint;
         this.description = description;
     }
 
     @Override
     public boolean matchesSafely(String item) {
         ParsingResult<?> result = runner.run(item);
-        return result.matched;
+        return result.matched && new DescentParser(item, getNumberFactory()).parse(entryPoint) != null;
     }
 
     @Override
@@ -38,18 +43,22 @@ public class ExpressionMatcher extends TypeSafeMatcher<String> {
         return AltEntryPoints.apply(ConfigBuilder.defaultConfig().build());
     }
 
+    private static NumberFactory getNumberFactory() {
+        return ConfigBuilder.defaultConfig().build().getNumberFactory();
+    }
+
     @Factory
     public static Matcher<String> singleExpression() {
-        return new ExpressionMatcher(getGrammar().Simple().matcher(), "a single expression");
+        return new ExpressionMatcher(getGrammar().Simple().matcher(), EntryPoint.SIMPLE, "a single expression");
     }
 
     @Factory
     public static Matcher<String> returnExpression() {
-        return new ExpressionMatcher(getGrammar().CalcExpression().matcher(), "an expression");
+        return new ExpressionMatcher(getGrammar().CalcExpression().matcher(), EntryPoint.CALC_EXPRESSION, "an expression");
     }
 
     @Factory
     public static Matcher<String> expressionList() {
-        return new ExpressionMatcher(getGrammar().Script().matcher(), "a list of expressions");
+        return new ExpressionMatcher(getGrammar().Script().matcher(), EntryPoint.SCRIPT, "a list of expressions");
     }
 }
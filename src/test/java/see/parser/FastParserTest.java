@@ -0,0 +1,133 @@
+package see.parser;
+
+import org.junit.Test;
+import org.junit.experimental.theories.DataPoints;
+import org.junit.experimental.theories.Theories;
+import org.junit.experimental.theories.Theory;
+import org.junit.runner.RunWith;
+import see.exceptions.ParseException;
+import see.parser.config.ConfigBuilder;
+import see.parser.config.GrammarConfiguration;
+import see.parser.grammar.DescentParser;
+import see.parser.numbers.LocalizedBigDecimalFactory;
+import see.tree.Node;
+import see.tree.Untyped;
+import see.tree.trace.TraceOutput;
+
+import java.math.MathContext;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Recursive descent parser should give same results as parboiled grammar
+ */
+@RunWith(Theories.class)
+public class FastParserTest {
+    private final GrammarConfiguration config = ConfigBuilder.defaultConfig().build();
+
+    @DataPoints
+    public static final String[] expressions = {
+            "a", "1+2", "sum(2,3)", "9+42+100500.0", "a = 5", "isDefined(crn)", "a = b = 42",
+            "100500 || c != 9 && a==42", "1<2", "2 <=3", "9>= 42", "a<-4", "1 +2 + 3", "1*2 + 2* 3 + 4",
+            "!9", "-9", "-a", "+a", "- -a", "9^42", "100500^-9", "(100500)^(9-42)", "2^3^4", "-2^2",
+            "1 + (2 + (3+4)) ", "0.9", "9.0e6", ".9", "42.e9", "1E-5", "1e+5", "\"\"", "'c'", "\"b'k\"",
+            "sum()", "f(1)(2)", "a.b.c", "a[1][b + 1]", "a.b[c].d(1).e", "a.b = c", "a.b(1).c = 2", "a[0] = 1",
+            "f(x).y = 1", "a << b + 1", "a <<= b", "a.b << c.d", "var a = 1", "variable", "nullable",
+            "falseness", "truer", "true", "null", "[1, 2, [3]]", "[]", "{a: 1, 'b': 2, c3: [4]}", "{}",
+            "x => x + 1", "(a, b) => a * b", "() => 1", "function(a, b) { a + b; }", "function() {}",
+            "signal(a + b)", "@tree a + 1", "a /* comment */ + b", "a // comment\n + b", " \t\na",
+            "f(a => a, (b) => b)", "$a_1 + _b", "a == b == c", "a = b << c", "if(x)", "in", "return"
+    };
+
+    @DataPoints
+    public static final String[] scripts = {
+            "", "a;", "c || r; n <= 9; i && n != 42;", "if (c != 9) {1;} else {2;}", "if (c != 9) {1;}",
+            "if (a) b; else c;", "if (a) {b;} elsewhere;", "for (i : [1, 2]) { s = s + i; }",
+            "for (var i in list) s = s + i;", "while (i < 10) { i = i + 1; }", "while (x) {}",
+            "f = (a, b) => a * b + 1; for (i : [1, 2, 3]) { s = s + f(i, x); }",
+            "a = 1; // comment", "a = 1; /* unterminated", "{ a; }", "x = {a: 1};", "iffy(1);", "for(x);"
+    };
+
+    @Theory
+    public void testExpression(String input) throws Exception {
+        assertSameResult(config, EntryPoint.SIMPLE, input);
+    }
+
+    @Theory
+    public void testScript(String input) throws Exception {
+        assertSameResult(config, EntryPoint.SCRIPT, input);
+    }
+
+    @Theory
+    public void testReturnExpression(String input) throws Exception {
+        assertSameResult(config, EntryPoint.CALC_EXPRESSION, input + " return 9");
+        assertSameResult(config, EntryPoint.CALC_EXPRESSION, input + " return 9;");
+    }
+
+    @Theory
+    public void testLocalizedSeparators(String input) throws Exception {
+        LocalizedBigDecimalFactory numberFactory =
+                new LocalizedBigDecimalFactory(MathContext.DECIMAL32, new Locale("ru", "RU"));
+        GrammarConfiguration localized = ConfigBuilder.defaultConfig().setNumberFactory(numberFactory).build();
+
+        assertSameResult(localized, EntryPoint.SIMPLE, input.replace(',', ';').replace('.', ','));
+    }
+
+    /**
+     * Random token sequences, mostly invalid ones.
+     */
+    @Test
+    public void testRandomInputs() throws Exception {
+        String[] tokens = {
+                "a", "b.c", "1", "2.5", ".5", "1e3", "'s'", "\"t\"", "true", "null", "+", "-", "*", "/", "^",
+                "==", "!=", "<", "<=", "=", "<<", "<<=", "&&", "||", "!", "(", ")", "[", "]", "{", "}", ",", ";",
+                ":", "=>", "if", "else", "for", "in", "while", "function", "signal", "@tree", "var", " ", "."
+        };
+        Random random = new Random(42);
+
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder input = new StringBuilder();
+            int length = 1 + random.nextInt(8);
+            for (int j = 0; j < length; j++) {
+                input.append(tokens[random.nextInt(tokens.length)]);
+            }
+            assertSameResult(config, EntryPoint.SIMPLE, input.toString());
+            assertSameResult(config, EntryPoint.SCRIPT, input.toString());
+        }
+    }
+
+    @Test
+    public void testFallbackReportsErrors() throws Exception {
+        GrammarConfiguration config = this.config;
+        Parser<Object> parser = new FastParser(config.getNumberFactory(), EntryPoint.SIMPLE,
+                new ScalaParser(SharedGrammar.forConfig(config).getSimple()));
+
+        try {
+            parser.parse("a +");
+            fail("Exception expected");
+        } catch (ParseException e) {
+            assertEquals(false, e.getParsingResult().matched);
+        }
+    }
+
+    private void assertSameResult(GrammarConfiguration config, EntryPoint entryPoint, String input) {
+        Node<Object> expected = parseWithGrammar(config, entryPoint, input);
+        Untyped.Node actual = new DescentParser(input, config.getNumberFactory()).parse(entryPoint);
+
+        assertEquals(entryPoint + ": " + input, expected, actual);
+        if (expected != null) {
+            assertEquals(entryPoint + ": " + input, TraceOutput.dump(expected), TraceOutput.dump(actual));
+        }
+    }
+
+    private Node<Object> parseWithGrammar(GrammarConfiguration config, EntryPoint entryPoint, String input) {
+        try {
+            return new ScalaParser(SharedGrammar.forConfig(config).getRule(entryPoint)).parse(input);
+        } catch (ParseException e) {
+            return null;
+        }
+    }
+}
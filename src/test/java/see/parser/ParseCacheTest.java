@@ -0,0 +1,80 @@
+package see.parser;
+
+import org.junit.Test;
+import see.See;
+import see.exceptions.ParseException;
+import see.parser.config.ConfigBuilder;
+import see.parser.config.GrammarConfiguration;
+import see.tree.Node;
+
+import static org.junit.Assert.*;
+
+public class ParseCacheTest {
+    private final GrammarConfiguration config = ConfigBuilder.defaultConfig().build();
+
+    @Test
+    public void testCachedTreeIsReused() throws Exception {
+        See see = new See(config, ParseCache.lru(10));
+
+        Node<Object> first = see.parseExpression("a + b");
+        Node<Object> second = see.parseExpression("a + b");
+
+        assertSame(first, second);
+        assertEquals(1, see.getParseCache().stats().hitCount());
+        assertEquals(1, see.getParseCache().stats().missCount());
+    }
+
+    @Test
+    public void testEntryPointsAreSeparated() throws Exception {
+        See see = new See(config, ParseCache.lru(10));
+
+        Node<Object> simple = see.parseExpression("1");
+        Node<Object> script = see.parseExpressionList("1;");
+
+        assertNotSame(simple, script);
+        assertEquals(2, see.getParseCache().stats().missCount());
+    }
+
+    @Test
+    public void testSharedBetweenInstances() throws Exception {
+        ParseCache cache = ParseCache.lru(10);
+
+        Node<Object> first = new See(config, cache).parseExpression("a + b");
+
+        assertSame(first, new See(config, cache).parseExpression("a + b"));
+        assertNotSame(first, new See(ConfigBuilder.defaultConfig().build(), cache).parseExpression("a + b"));
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        See see = new See(config, ParseCache.lru(1));
+
+        see.parseExpression("1");
+        see.parseExpression("2");
+        see.parseExpression("1");
+
+        assertEquals(3, see.getParseCache().stats().missCount());
+        assertTrue(see.getParseCache().stats().evictionCount() > 0);
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        See see = new See(config, ParseCache.disabled());
+
+        assertNotSame(see.parseExpression("a + b"), see.parseExpression("a + b"));
+    }
+
+    @Test
+    public void testParseErrorsAreNotCached() throws Exception {
+        See see = new See(config, ParseCache.lru(10));
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                see.parseExpression("a +");
+                fail("Exception expected");
+            } catch (ParseException ignored) {
+            }
+        }
+        assertEquals(2, see.getParseCache().stats().missCount());
+    }
+}
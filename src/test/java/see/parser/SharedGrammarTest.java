@@ -0,0 +1,66 @@
+package see.parser;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.junit.Test;
+import see.See;
+import see.parser.config.ConfigBuilder;
+import see.parser.config.GrammarConfiguration;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.google.common.collect.ImmutableMap.of;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class SharedGrammarTest {
+
+    @Test
+    public void testSameInstanceForConfig() throws Exception {
+        GrammarConfiguration config = ConfigBuilder.defaultConfig().build();
+
+        assertSame(SharedGrammar.forConfig(config), SharedGrammar.forConfig(config));
+    }
+
+    /**
+     * Failed Settable match at some index shouldn't affect next input.
+     */
+    @Test
+    public void testReuseAfterMismatch() throws Exception {
+        See see = new See();
+
+        assertEquals(new BigDecimal(3), see.eval("1+2"));
+        assertEquals(new BigDecimal(5), see.eval("a = 5"));
+        assertEquals(new BigDecimal(9), see.eval("a.b = 9", of("a", Maps.newHashMap())));
+    }
+
+    @Test
+    public void testConcurrentParsing() throws Exception {
+        final See see = new See();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Object>> results = Lists.newArrayList();
+            for (int i = 0; i < 200; i++) {
+                final String expression = i % 2 == 0 ? "a = " + i : "" + i + " + 1";
+                results.add(executor.submit(new Callable<Object>() {
+                    @Override
+                    public Object call() throws Exception {
+                        return see.eval(expression);
+                    }
+                }));
+            }
+
+            for (int i = 0; i < results.size(); i++) {
+                BigDecimal expected = new BigDecimal(i % 2 == 0 ? i : i + 1);
+                assertEquals(expected, results.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
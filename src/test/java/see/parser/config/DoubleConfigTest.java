@@ -0,0 +1,75 @@
+package see.parser.config;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import org.junit.Test;
+import org.junit.experimental.theories.DataPoints;
+import org.junit.experimental.theories.Theories;
+import org.junit.experimental.theories.Theory;
+import org.junit.runner.RunWith;
+import see.See;
+import see.evaluation.Evaluator;
+import see.evaluation.evaluators.SimpleEvaluator;
+import see.exceptions.SeeRuntimeException;
+import see.tree.Node;
+
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static see.evaluation.evaluators.SimpleEvaluator.extractScope;
+import static see.evaluation.evaluators.SimpleEvaluator.extractServices;
+
+@RunWith(Theories.class)
+public class DoubleConfigTest {
+    GrammarConfiguration config = ConfigBuilder.doubleConfig().build();
+    See see = new See(config);
+    Evaluator interpreter = new SimpleEvaluator(extractScope(config), extractServices(config));
+
+    @DataPoints
+    public static final String[] scripts = {
+            "price * (1 + tax / 100) - discount * 2;", "price * 2 > threshold;", "-price + 2 ^ 3;",
+            "'a' + price;", "name + 1;", "name == 'x' || price <= 10;", "1 / 0;",
+            "s = 0; for (i : list) { s = s + i * price; } s;", "max(price, tax) + min(1, 2);",
+            "f = (a, b) => a * b + price; f(2, 3) >= f(1, 1);", "if (price > threshold) { 1; } else { 2; }",
+            "count * 1.5;", "list[1] * 2;"
+    };
+
+    @Theory
+    public void testSameAsInterpreted(String script) throws Exception {
+        Node<Object> tree = see.parseExpressionList(script);
+
+        assertEquals(interpreter.evaluate(tree, variables()), see.evaluate(tree, variables()));
+    }
+
+    @Test
+    public void testDoubleResults() throws Exception {
+        assertEquals(118.0, see.eval("price * (1 + tax / 100)", variables()));
+        assertEquals(Boolean.TRUE, see.eval("price * 2 > threshold", variables()));
+        assertEquals("x100.0", see.eval("name + price", variables()));
+        assertEquals(7.5, see.eval("count * 1.5", variables()));
+    }
+
+    @Test
+    public void testNonNumericArgument() throws Exception {
+        try {
+            see.eval("name * 2", variables());
+            fail("Exception expected");
+        } catch (SeeRuntimeException e) {
+            assertEquals(ClassCastException.class, e.getCause().getClass());
+        }
+    }
+
+    private Map<String, Object> variables() {
+        return Maps.newHashMap(ImmutableMap.<String, Object>builder()
+                .put("price", 100.0)
+                .put("tax", 18.0)
+                .put("discount", 0.5)
+                .put("threshold", 150.0)
+                .put("count", 5)
+                .put("name", "x")
+                .put("list", asList(1.0, 2.0, 3.0))
+                .build());
+    }
+}
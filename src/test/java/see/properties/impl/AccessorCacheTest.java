@@ -0,0 +1,131 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package see.properties.impl;
+
+import org.junit.Test;
+import see.parser.grammar.PropertyAccess;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.util.concurrent.Callable;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+
+public class AccessorCacheTest {
+    AccessorCache cache = new AccessorCache();
+
+    @Test
+    public void testBeanProperties() throws Exception {
+        BeanPropertyResolver resolver = new BeanPropertyResolver(cache);
+        Bean bean = new Bean();
+
+        assertTrue(resolver.canSet(bean, PropertyAccess.simple("value"), 5));
+        resolver.set(bean, PropertyAccess.simple("value"), 5);
+        assertTrue(resolver.canGet(bean, PropertyAccess.simple("value")));
+        assertEquals(5, resolver.get(bean, PropertyAccess.simple("value")));
+
+        assertTrue(resolver.canGet(bean, PropertyAccess.simple("readOnly")));
+        assertFalse(resolver.canSet(bean, PropertyAccess.simple("readOnly"), 1));
+        assertFalse(resolver.canGet(bean, PropertyAccess.simple("missing")));
+    }
+
+    @Test
+    public void testAccessorsAreCached() throws Exception {
+        assertSame(cache.getReadMethod(Bean.class, "value"), cache.getReadMethod(Bean.class, "value"));
+        assertSame(cache.getMethod(Bean.class, "twice", new Class<?>[]{Integer.class}),
+                cache.getMethod(Bean.class, "twice", new Class<?>[]{Integer.class}));
+        assertNull(cache.getReadMethod(Bean.class, "missing"));
+    }
+
+    @Test
+    public void testOwnClassesAreHeldStrongly() throws Exception {
+        Method matched = cache.getMethod(Bean.class, "twice", new Class<?>[]{Integer.class});
+        Method getter = cache.getReadMethod(Bean.class, "value");
+        int matchedHash = System.identityHashCode(matched);
+        int getterHash = System.identityHashCode(getter);
+        matched = null;
+        getter = null;
+
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+
+        assertEquals(matchedHash, System.identityHashCode(cache.getMethod(Bean.class, "twice", new Class<?>[]{Integer.class})));
+        assertEquals(getterHash, System.identityHashCode(cache.getReadMethod(Bean.class, "value")));
+    }
+
+    /**
+     * Public method of non-public class is invoked through public interface.
+     */
+    @Test
+    public void testAccessibleMethod() throws Exception {
+        Callable<String> hidden = new Callable<String>() {
+            @Override
+            public String call() {
+                return "called";
+            }
+        };
+
+        assertEquals("called", new MethodResolver(cache).get(hidden, PropertyAccess.simple("call")).apply(asList()));
+    }
+
+    @Test
+    public void testOverloads() throws Exception {
+        MethodResolver resolver = new MethodResolver(cache);
+        Bean bean = new Bean();
+
+        assertTrue(resolver.canGet(bean, PropertyAccess.simple("twice")));
+        assertFalse(resolver.canGet(bean, PropertyAccess.simple("thrice")));
+        assertEquals(4, resolver.get(bean, PropertyAccess.simple("twice")).apply(asList((Object) 2)));
+        assertEquals("abab", resolver.get(bean, PropertyAccess.simple("twice")).apply(asList((Object) "ab")));
+        assertEquals(new BigDecimal(6), resolver.get(bean, PropertyAccess.simple("twice")).apply(asList((Object) new BigDecimal(3))));
+    }
+
+    @Test(expected = MethodResolver.ResolutionException.class)
+    public void testNoMatchingOverload() throws Exception {
+        new MethodResolver(cache).get(new Bean(), PropertyAccess.simple("twice")).apply(asList((Object) 1, 2));
+    }
+
+    public static class Bean {
+        private Object value;
+
+        public Object getValue() {
+            return value;
+        }
+
+        public void setValue(Object value) {
+            this.value = value;
+        }
+
+        public String getReadOnly() {
+            return "read only";
+        }
+
+        public int twice(Integer value) {
+            return value * 2;
+        }
+
+        public String twice(String value) {
+            return value + value;
+        }
+
+        public BigDecimal twice(Number value) {
+            return new BigDecimal(value.toString()).multiply(new BigDecimal(2));
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package see.properties.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+import see.See;
+import see.parser.config.DefaultConfig;
+import see.parser.grammar.PropertyAccess;
+import see.properties.ChainResolver;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.reflect.Method;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static see.parser.config.ConfigBuilder.defaultConfig;
+import static see.parser.grammar.PropertyAccess.simple;
+import static see.properties.PropertyResolvers.aggregate;
+
+public class CompilingChainResolverTest {
+    int mapChecks;
+    MapResolver countingMaps = new MapResolver() {
+        @Override
+        public boolean canGet(@Nullable Object target, @Nonnull PropertyAccess propertyAccess) {
+            mapChecks++;
+            return super.canGet(target, propertyAccess);
+        }
+    };
+    SingularChainResolver fallback = new SingularChainResolver(aggregate(
+            new MethodResolver(), countingMaps, new IterableResolver(), new BeanPropertyResolver()));
+    ChainResolver site = new CompilingChainResolver(fallback, 2).forSite();
+
+    List<PropertyAccess> chain = ImmutableList.<PropertyAccess>of(simple("inner"), simple("value"));
+
+    @Test
+    public void testDirectAccess() throws Exception {
+        Outer outer = new Outer(new Inner("a"));
+        for (int i = 0; i < 3; i++) {
+            assertEquals("a", site.get(outer, chain));
+        }
+
+        int checks = mapChecks;
+        assertEquals("a", site.get(outer, chain));
+        assertEquals(checks, mapChecks);
+    }
+
+    @Test
+    public void testReceiverChange() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertEquals("a", site.get(new Outer(new Inner("a")), chain));
+        }
+
+        assertEquals("b", site.get(new Outer(new SubInner("b")), chain));
+        assertEquals("c", site.get(ImmutableMap.of("inner", new Inner("c")), chain));
+        assertEquals("d", site.get(new Outer(ImmutableMap.of("value", "d")), chain));
+        assertEquals("e", site.get(new Outer(new Inner("e")), chain));
+    }
+
+    @Test
+    public void testNullReceiver() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            site.get(new Outer(new Inner("a")), chain);
+        }
+
+        try {
+            site.get(new Outer(null), chain);
+            fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            try {
+                fallback.get(new Outer(null), chain);
+                fail("Exception expected");
+            } catch (IllegalArgumentException expected) {
+                assertEquals(expected.getMessage(), e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testWithConfig() throws Exception {
+        See see = new See(defaultConfig()
+                .setChainResolver(new CompilingChainResolver(DefaultConfig.defaultChainResolver()))
+                .build());
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals("a", see.eval("o.inner.value", ImmutableMap.of("o", new Outer(new Inner("a")))));
+        }
+        assertEquals("b", see.eval("o.inner.value", ImmutableMap.of("o", ImmutableMap.of("inner", new Inner("b")))));
+    }
+
+    @Test
+    public void testGeneratedAccessor() throws Exception {
+        ChainAccessor accessor = ChainAccessorGenerator.create(
+                new Class<?>[] {Outer.class, Inner.class, String.class},
+                ImmutableList.of(simple("inner"), simple("value"), simple("empty")),
+                new Method[] {Outer.class.getMethod("getInner"), Inner.class.getMethod("getValue"), String.class.getMethod("isEmpty")});
+        assertFalse(accessor instanceof ChainAccessor.Reflective);
+
+        ChainAccessor.Fallback fallback = new ChainAccessor.Fallback() {
+            @Override
+            public Object resolve(ChainAccessor accessor, int step, Object receiver) {
+                return "step " + step + " of " + accessor.remaining(0).size() + ": " + receiver;
+            }
+        };
+        assertEquals(true, accessor.get(new Outer(new Inner("")), fallback));
+        assertEquals(false, accessor.get(new Outer(new Inner("a")), fallback));
+        assertEquals("step 1 of 3: null", accessor.get(new Outer(null), fallback));
+        assertEquals("step 1 of 3: b", accessor.get(new Outer("b"), fallback));
+        SubInner sub = new SubInner("c");
+        assertEquals("step 1 of 3: " + sub, accessor.get(new Outer(sub), fallback));
+    }
+
+    public static class Outer {
+        private final Object inner;
+
+        public Outer(Object inner) {
+            this.inner = inner;
+        }
+
+        public Object getInner() {
+            return inner;
+        }
+    }
+
+    public static class Inner {
+        private final String value;
+
+        public Inner(String value) {
+            this.value = value;
+        }
+
+        public String getValue() {
+            return value;
+        }
+    }
+
+    public static class SubInner extends Inner {
+        public SubInner(String value) {
+            super(value);
+        }
+    }
+}
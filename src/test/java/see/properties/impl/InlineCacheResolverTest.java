@@ -0,0 +1,156 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package see.properties.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.junit.Test;
+import see.parser.grammar.PropertyAccess;
+import see.properties.ChainResolver;
+import see.properties.ClassBasedResolver;
+import see.properties.PartialResolver;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+import static see.parser.grammar.PropertyAccess.indexed;
+import static see.parser.grammar.PropertyAccess.simple;
+import static see.properties.PropertyResolvers.aggregate;
+
+public class InlineCacheResolverTest {
+    CountingResolver counter = new CountingResolver(new MapResolver(), true);
+    ChainResolver site = new SingularChainResolver(aggregate(counter, new IterableResolver(), new BeanPropertyResolver())).forSite();
+
+    @Test
+    public void testCanGetSkippedOnHit() throws Exception {
+        Map<String, Object> target = ImmutableMap.<String, Object>of("a", ImmutableMap.of("b", 1));
+        List<PropertyAccess> chain = ImmutableList.<PropertyAccess>of(simple("a"), simple("b"));
+
+        assertEquals(1, site.get(target, chain));
+        int checks = counter.checks;
+        assertEquals(1, site.get(target, chain));
+        assertEquals(checks, counter.checks);
+    }
+
+    @Test
+    public void testPolymorphicSite() throws Exception {
+        List<PropertyAccess> chain = ImmutableList.<PropertyAccess>of(simple("value"));
+        Map<String, Object> map = ImmutableMap.<String, Object>of("value", "map");
+        Bean bean = new Bean("bean");
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("map", site.get(map, chain));
+            assertEquals("bean", site.get(bean, chain));
+        }
+    }
+
+    @Test
+    public void testIndexTypes() throws Exception {
+        List<Object> list = Lists.<Object>newArrayList("a", "b");
+        Map<Object, Object> map = Maps.newHashMap();
+        map.put("key", list);
+
+        assertEquals("b", site.get(map, ImmutableList.of(indexed("key"), indexed(BigDecimal.ONE))));
+        assertEquals("a", site.get(map, ImmutableList.of(indexed("key"), indexed(0))));
+
+        site.set(map, ImmutableList.of(indexed("key"), indexed(0)), "c");
+        assertEquals("c", list.get(0));
+    }
+
+    @Test
+    public void testMegamorphicSite() throws Exception {
+        List<PropertyAccess> chain = ImmutableList.<PropertyAccess>of(simple("value"));
+        Object[] targets = {
+                new Bean("1"), ImmutableMap.of("value", "2"), Maps.newHashMap(ImmutableMap.of("value", "3")),
+                new TreeMap<String, String>(ImmutableMap.of("value", "4")), Maps.newLinkedHashMap(ImmutableMap.of("value", "5"))
+        };
+
+        for (int i = 0; i < 2; i++) {
+            for (int j = 0; j < targets.length; j++) {
+                assertEquals(String.valueOf(j + 1), site.get(targets[j], chain));
+            }
+        }
+    }
+
+    @Test
+    public void testInstanceBasedResolverIsNotCached() throws Exception {
+        CountingResolver instanceBased = new CountingResolver(new MapResolver(), false);
+        ChainResolver resolver = new SingularChainResolver(aggregate(instanceBased, new BeanPropertyResolver())).forSite();
+        List<PropertyAccess> chain = ImmutableList.<PropertyAccess>of(simple("value"));
+
+        resolver.get(new Bean("bean"), chain);
+        int checks = instanceBased.checks;
+        assertEquals("bean", resolver.get(new Bean("bean"), chain));
+        assertEquals(checks + 1, instanceBased.checks);
+    }
+
+    private static class CountingResolver implements ClassBasedResolver {
+        private final PartialResolver delegate;
+        private final boolean classBased;
+        private int checks;
+
+        private CountingResolver(PartialResolver delegate, boolean classBased) {
+            this.delegate = delegate;
+            this.classBased = classBased;
+        }
+
+        @Override
+        public boolean isClassBased(@Nonnull Object target, @Nonnull PropertyAccess propertyAccess) {
+            return classBased;
+        }
+
+        @Override
+        public boolean canGet(@Nullable Object target, @Nonnull PropertyAccess propertyAccess) {
+            checks++;
+            return delegate.canGet(target, propertyAccess);
+        }
+
+        @Override
+        public boolean canSet(@Nullable Object target, @Nonnull PropertyAccess propertyAccess, Object value) {
+            return delegate.canSet(target, propertyAccess, value);
+        }
+
+        @Override
+        public Object get(Object bean, PropertyAccess property) {
+            return delegate.get(bean, property);
+        }
+
+        @Override
+        public void set(Object bean, PropertyAccess property, Object value) {
+            delegate.set(bean, property, value);
+        }
+    }
+
+    public static class Bean {
+        private final String value;
+
+        public Bean(String value) {
+            this.value = value;
+        }
+
+        public String getValue() {
+            return value;
+        }
+    }
+}
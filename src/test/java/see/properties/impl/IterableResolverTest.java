@@ -16,18 +16,22 @@
 
 package see.properties.impl;
 
+import com.google.common.collect.Lists;
 import org.junit.Test;
+import see.functions.VarArgFunction;
+import see.functions.functional.Transform;
 
+import javax.annotation.Nonnull;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.google.common.collect.ImmutableSet.of;
 import static com.google.common.collect.Iterables.unmodifiableIterable;
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Sets.newHashSet;
 import static java.util.Arrays.asList;
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
 import static see.parser.grammar.PropertyAccess.indexed;
 
 public class IterableResolverTest {
@@ -67,4 +71,47 @@ public class IterableResolverTest {
         resolver.set(list, indexed(1), 42);
         assertEquals(newArrayList(1, 42, 3), list);
     }
+
+    @Test
+    public void testArrays() throws Exception {
+        int[] ints = {1, 2, 3};
+        String[] strings = {"a", "b"};
+
+        assertTrue(resolver.canGet(ints, indexed(1)));
+        assertEquals(2, resolver.get(ints, indexed(1)));
+        assertEquals("b", resolver.get(strings, indexed(new BigDecimal(1))));
+
+        resolver.set(ints, indexed(0), new BigDecimal(42));
+        resolver.set(strings, indexed(0), "c");
+        assertArrayEquals(new int[]{42, 2, 3}, ints);
+        assertArrayEquals(new String[]{"c", "b"}, strings);
+    }
+
+    @Test
+    public void testCharSequence() throws Exception {
+        assertTrue(resolver.canGet("abc", indexed(1)));
+        assertFalse(resolver.canSet("abc", indexed(1), "d"));
+        assertEquals("b", resolver.get(new StringBuilder("abc"), indexed(1)));
+    }
+
+    @Test
+    public void testCachedViews() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        VarArgFunction<Object, Object> increment = new VarArgFunction<Object, Object>() {
+            @Override
+            public Object apply(@Nonnull List<Object> input) {
+                calls.incrementAndGet();
+                return (Integer) input.get(0) + 1;
+            }
+        };
+        Iterable<?> view = new Transform().apply(Lists.<Object>newArrayList(asList(1, 2, 3), increment));
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(3, resolver.get(view, indexed(1)));
+        }
+        assertEquals(2, calls.get());
+
+        assertEquals(4, resolver.get(view, indexed(2)));
+        assertEquals(3, calls.get());
+    }
 }
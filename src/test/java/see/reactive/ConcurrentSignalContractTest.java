@@ -0,0 +1,186 @@
+/*
+ * Copyright 2012 Vasily Shiyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package see.reactive;
+
+import com.google.common.base.Function;
+import com.google.common.base.Supplier;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import org.junit.After;
+import org.junit.Test;
+import see.reactive.impl.ConcurrentSignalFactory;
+import see.reactive.impl.OrderedSignalFactory;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.collect.ImmutableSet.of;
+import static org.junit.Assert.assertEquals;
+
+public class ConcurrentSignalContractTest extends OrderedSignalContractTest {
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @Override
+    protected SignalFactory getSignalFactory() {
+        return new ConcurrentSignalFactory(executor, 4);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdown();
+    }
+
+    @Test
+    public void testParallelLevel() throws Exception {
+        final VariableSignal<Integer> source = signalFactory.var(1);
+        final AtomicInteger evaluations = new AtomicInteger();
+
+        final List<Signal<Integer>> multiples = Lists.newArrayList();
+        for (int i = 0; i < 1000; i++) {
+            final int factor = i;
+            multiples.add(signalFactory.map(source, new Function<Integer, Integer>() {
+                @Override
+                public Integer apply(Integer input) {
+                    evaluations.incrementAndGet();
+                    return input * factor;
+                }
+            }));
+        }
+        Signal<Integer> total = signalFactory.bind(multiples, new Supplier<Integer>() {
+            @Override
+            public Integer get() {
+                int result = 0;
+                for (Signal<Integer> multiple : multiples) {
+                    result += multiple.now();
+                }
+                return result;
+            }
+        });
+
+        evaluations.set(0);
+        source.set(2);
+
+        assertEquals(1000, evaluations.get());
+        assertEquals(Integer.valueOf(2 * 999 * 1000 / 2), total.now());
+    }
+
+    @Test
+    public void testConcurrentUpdates() throws Exception {
+        final VariableSignal<Integer> a = signalFactory.var(0);
+        final VariableSignal<Integer> b = signalFactory.var(0);
+        final Signal<Integer> sum = signalFactory.bind(of(a, b), new Supplier<Integer>() {
+            @Override
+            public Integer get() {
+                return a.now() + b.now();
+            }
+        });
+
+        final Set<Integer> observed = Collections.synchronizedSet(Sets.<Integer>newHashSet());
+        signalFactory.observe(of(sum), new Supplier<Void>() {
+            @Override
+            public Void get() {
+                observed.add(sum.now());
+                return null;
+            }
+        });
+
+        ExecutorService writers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Void>> results = Lists.newArrayList();
+            for (int thread = 0; thread < 4; thread++) {
+                results.add(writers.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        for (int i = 0; i < 200; i++) {
+                            final int value = i;
+                            signalFactory.transaction(new Runnable() {
+                                @Override
+                                public void run() {
+                                    a.set(value);
+                                    b.set(-value);
+                                }
+                            });
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> result : results) {
+                result.get();
+            }
+        } finally {
+            writers.shutdown();
+        }
+
+        assertEquals(ImmutableSet.of(0), ImmutableSet.copyOf(observed));
+        assertEquals(Integer.valueOf(0), sum.now());
+    }
+
+    @Test
+    public void testDisposeDuringWaves() throws Exception {
+        final OrderedSignalFactory factory = (OrderedSignalFactory) signalFactory;
+        final VariableSignal<Integer> source = signalFactory.var(0);
+        final List<Signal<Integer>> mapped = Lists.newArrayList();
+        for (int i = 0; i < 500; i++) {
+            mapped.add(signalFactory.map(source, new Function<Integer, Integer>() {
+                @Override
+                public Integer apply(Integer input) {
+                    return input + 1;
+                }
+            }));
+        }
+
+        ExecutorService workers = Executors.newFixedThreadPool(2);
+        try {
+            Future<Void> writer = workers.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    for (int i = 1; i <= 200; i++) {
+                        source.set(i);
+                    }
+                    return null;
+                }
+            });
+            Future<Void> disposer = workers.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    for (Signal<Integer> signal : mapped.subList(0, 400)) {
+                        signal.dispose();
+                        factory.getSignalCount();
+                    }
+                    return null;
+                }
+            });
+            writer.get();
+            disposer.get();
+        } finally {
+            workers.shutdown();
+        }
+
+        assertEquals(101, factory.getSignalCount());
+        for (Signal<Integer> signal : mapped.subList(400, 500)) {
+            assertEquals(Integer.valueOf(201), signal.now());
+        }
+    }
+}
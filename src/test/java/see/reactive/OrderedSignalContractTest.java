@@ -23,12 +23,20 @@ import org.junit.Test;
 import see.reactive.impl.OrderedSignalFactory;
 
 import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.google.common.collect.ImmutableList.copyOf;
 import static com.google.common.collect.ImmutableList.of;
 import static org.junit.Assert.assertEquals;
 
 public class OrderedSignalContractTest extends SignalContractTest {
+    private static final Function<Integer, Integer> INCREMENT = new Function<Integer, Integer>() {
+        @Override
+        public Integer apply(Integer input) {
+            return input + 1;
+        }
+    };
+
     @Override
     protected SignalFactory getSignalFactory() {
         return new OrderedSignalFactory();
@@ -57,7 +65,7 @@ public class OrderedSignalContractTest extends SignalContractTest {
         });
 
         // -x + x: should always be zero
-        Signal<Integer> zero = signalFactory.bind(of(x, minusX), new Supplier<Integer>() {
+        final Signal<Integer> zero = signalFactory.bind(of(x, minusX), new Supplier<Integer>() {
             @Override
             public Integer get() {
                 return x.now() + minusX.now();
@@ -65,10 +73,10 @@ public class OrderedSignalContractTest extends SignalContractTest {
         });
 
         final Collection<Integer> observedValues = Sets.newTreeSet();
-        signalFactory.map(zero, new Function<Integer, Void>() {
+        signalFactory.observe(of(zero), new Supplier<Void>() {
             @Override
-            public Void apply(Integer input) {
-                observedValues.add(input);
+            public Void get() {
+                observedValues.add(zero.now());
                 return null;
             }
         });
@@ -76,4 +84,69 @@ public class OrderedSignalContractTest extends SignalContractTest {
         source.set(1);
         assertEquals(of(0), copyOf(observedValues));
     }
+
+    /**
+     * Signal with several changed dependencies of different levels is re-evaluated once per change.
+     */
+    @Test
+    public void testDiamondEvaluatedOnce() throws Exception {
+        final VariableSignal<Integer> source = signalFactory.var(1);
+        final Signal<Integer> left = signalFactory.map(source, INCREMENT);
+        final Signal<Integer> right = signalFactory.map(signalFactory.map(source, INCREMENT), INCREMENT);
+
+        final AtomicInteger joinCounter = new AtomicInteger(0);
+        Signal<Integer> join = signalFactory.bind(of(source, left, right), new Supplier<Integer>() {
+            @Override
+            public Integer get() {
+                joinCounter.incrementAndGet();
+                return source.now() + left.now() + right.now();
+            }
+        });
+
+        source.set(2);
+        assertEquals(2, joinCounter.get());
+        assertEquals(Integer.valueOf(2 + 3 + 4), join.now());
+
+        source.set(3);
+        assertEquals(3, joinCounter.get());
+    }
+
+    /**
+     * Unreachable signals are collected, observers are kept until disposed.
+     */
+    @Test
+    public void testUnreachableSignalsCollected() throws Exception {
+        OrderedSignalFactory factory = (OrderedSignalFactory) signalFactory;
+        VariableSignal<Integer> source = signalFactory.var(0);
+        final AtomicInteger observed = new AtomicInteger(0);
+        Signal<Void> observer = signalFactory.observe(of(source), new Supplier<Void>() {
+            @Override
+            public Void get() {
+                observed.incrementAndGet();
+                return null;
+            }
+        });
+
+        for (int i = 0; i < 100; i++) {
+            signalFactory.map(source, INCREMENT);
+            signalFactory.flatMap(source, new Function<Integer, Signal<Integer>>() {
+                @Override
+                public Signal<Integer> apply(Integer input) {
+                    return signalFactory.var(input);
+                }
+            });
+        }
+
+        for (int attempt = 0; attempt < 20 && factory.getSignalCount() > 2; attempt++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertEquals(2, factory.getSignalCount());
+
+        source.set(1);
+        assertEquals(2, observed.get());
+
+        observer.dispose();
+        assertEquals(1, factory.getSignalCount());
+    }
 }
@@ -212,10 +212,80 @@ public abstract class SignalContractTest {
         assertEquals(of("a"), flat.now());
     }
 
+    @Test
+    public void testTransaction() throws Exception {
+        final VariableSignal<Integer> a = signalFactory.var(1);
+        final VariableSignal<Integer> b = signalFactory.var(-1);
+        final AtomicInteger sumCounter = new AtomicInteger(0);
+
+        final Signal<Integer> sum = signalFactory.bind(of(a, b), new Supplier<Integer>() {
+            @Override
+            public Integer get() {
+                sumCounter.incrementAndGet();
+                return a.now() + b.now();
+            }
+        });
+        final AtomicReference<Integer> sink = getSink(sum);
+
+        signalFactory.transaction(new Runnable() {
+            @Override
+            public void run() {
+                a.set(5);
+                b.set(-5);
+                a.set(7);
+                b.set(-7);
+                assertEquals(valueOf(0), sum.now());
+            }
+        });
+
+        assertEquals(2, sumCounter.get());
+        assertEquals(valueOf(0), sink.get());
+
+        signalFactory.transaction(new Runnable() {
+            @Override
+            public void run() {
+                a.set(1);
+                signalFactory.transaction(new Runnable() {
+                    @Override
+                    public void run() {
+                        b.set(2);
+                    }
+                });
+                assertEquals(valueOf(0), sum.now());
+            }
+        });
+
+        assertEquals(3, sumCounter.get());
+        assertEquals(valueOf(3), sink.get());
+    }
+
+    @Test
+    public void testDispose() throws Exception {
+        final VariableSignal<Integer> a = signalFactory.var(1);
+        final AtomicInteger counter = new AtomicInteger(0);
+
+        Signal<Integer> doubled = signalFactory.observe(of(a), new Supplier<Integer>() {
+            @Override
+            public Integer get() {
+                counter.incrementAndGet();
+                return a.now() * 2;
+            }
+        });
+
+        a.set(2);
+        assertEquals(valueOf(4), doubled.now());
+        assertEquals(2, counter.get());
+
+        doubled.dispose();
+        a.set(3);
+        assertEquals(valueOf(4), doubled.now());
+        assertEquals(2, counter.get());
+    }
+
     private <T> AtomicReference<T> getSink(final Signal<? extends T> signal) {
         final AtomicReference<T> sink = new AtomicReference<T>();
 
-        signalFactory.bind(of(signal), new Supplier<Void>() {
+        signalFactory.observe(of(signal), new Supplier<Void>() {
             @Override
             public Void get() {
                 sink.set(signal.now());
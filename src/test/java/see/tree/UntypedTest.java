@@ -29,7 +29,7 @@ public class UntypedTest {
 
     @Test
     public void testRandomAccessFunctionNodeArgs() throws Exception {
-        Node<Object> tree = see.parseExpression("1 + 2");
+        Node<Object> tree = see.parseExpression("a + 2");
         assertThat(tree, instanceOf(FunctionNode.class));
         assertThat(((FunctionNode<?, ?>) tree).getArguments(), instanceOf(RandomAccess.class));
     }